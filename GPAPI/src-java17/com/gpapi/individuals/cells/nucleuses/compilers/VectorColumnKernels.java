@@ -0,0 +1,153 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ *
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ *
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------
+ * VectorColumnKernels.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+
+/**
+ * 
+ * Vectorized {@link ColumnKernels}, built on the jdk.incubator.vector module and
+ * shipped in the Java 17 part of the multi-release jar.<p>
+ * 
+ * Only the functions whose vector versions give exactly the same values as the
+ * scalar ones are vectorized : the arithmetic, the comparisons and the boolean
+ * functions. Min and Max are computed by comparing and blending, so that NaNs and
+ * signed zeros are handled as by the tree interpreter. The transcendental functions
+ * and Floor, as well as the rows left over by the last full vector, go through the
+ * scalar loops.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class VectorColumnKernels extends ColumnKernels {
+	
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	
+	
+	
+	public VectorColumnKernels(){
+		// Fails early if the module isn't resolved, so that the scalar kernels are used.
+		DoubleVector.zero(SPECIES);
+	}
+	
+	
+	@Override
+	public final boolean isVectorized(){
+		return true;
+	}
+	
+	@Override
+	public final void unary(int opcode, double[] values, int from, int to){
+		if(opcode != StackProgram.ABS && opcode != StackProgram.NOT){
+			super.unary(opcode, values, from, to);
+			return;
+		}
+		
+		DoubleVector zeros = DoubleVector.zero(SPECIES);
+		DoubleVector ones = DoubleVector.broadcast(SPECIES, 1.0);
+		int upperBound = from + SPECIES.loopBound(to - from);
+		int i = from;
+		for(; i < upperBound; i += SPECIES.length()){
+			DoubleVector v = DoubleVector.fromArray(SPECIES, values, i);
+			if(opcode == StackProgram.ABS)
+				v = v.abs();
+			else
+				v = ones.blend(zeros, v.compare(VectorOperators.NE, 0.0));
+			v.intoArray(values, i);
+		}
+		super.unary(opcode, values, i, to);
+	}
+	
+	@Override
+	public final void binary(int opcode, double[] values, double[] others, int from, int to){
+		DoubleVector zeros = DoubleVector.zero(SPECIES);
+		DoubleVector ones = DoubleVector.broadcast(SPECIES, 1.0);
+		int upperBound = from + SPECIES.loopBound(to - from);
+		int i = from;
+		for(; i < upperBound; i += SPECIES.length()){
+			DoubleVector v0 = DoubleVector.fromArray(SPECIES, values, i);
+			DoubleVector v1 = DoubleVector.fromArray(SPECIES, others, i);
+			DoubleVector result;
+			switch(opcode){
+			case StackProgram.SUM:
+				result = v0.add(v1);
+				break;
+			case StackProgram.SUBTRACT:
+				result = v0.sub(v1);
+				break;
+			case StackProgram.MULT:
+				result = v0.mul(v1);
+				break;
+			case StackProgram.DIVIDE:
+				result = v0.div(v1);
+				break;
+			case StackProgram.MIN:
+				result = v0.blend(v1, v0.compare(VectorOperators.GT, v1));
+				break;
+			case StackProgram.MAX:
+				result = v0.blend(v1, v0.compare(VectorOperators.LT, v1));
+				break;
+			case StackProgram.AND:
+				result = toColumn(v0.compare(VectorOperators.NE, 0.0).and(v1.compare(VectorOperators.NE, 0.0)), zeros, ones);
+				break;
+			case StackProgram.OR:
+				result = toColumn(v0.compare(VectorOperators.NE, 0.0).or(v1.compare(VectorOperators.NE, 0.0)), zeros, ones);
+				break;
+			case StackProgram.GREATER_THAN:
+				result = toColumn(v0.compare(VectorOperators.GE, v1), zeros, ones);
+				break;
+			case StackProgram.EQUALS:
+				result = toColumn(v0.compare(VectorOperators.EQ, v1), zeros, ones);
+				break;
+			default:
+				throw new RuntimeException("Unknown binary opcode " + opcode + "!");
+			}
+			result.intoArray(values, i);
+		}
+		super.binary(opcode, values, others, i, to);
+	}
+	
+	private static final DoubleVector toColumn(VectorMask<Double> mask, DoubleVector zeros, DoubleVector ones){
+		return zeros.blend(ones, mask);
+	}
+}
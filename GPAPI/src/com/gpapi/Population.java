@@ -78,7 +78,7 @@ public final class Population implements Collection<EvolvedIndividual>, Serializ
 		this.targetSize = targetSize;
 	}
 	
-	private final ArrayList<EvolvedIndividual> individuals = new ArrayList<EvolvedIndividual>();
+	private volatile ArrayList<EvolvedIndividual> individuals = new ArrayList<EvolvedIndividual>();
 	
 	
 	
@@ -92,6 +92,17 @@ public final class Population implements Collection<EvolvedIndividual>, Serializ
 		this.targetSize = targetSize;
 		this.index = index;
 	}
+	/**
+	 * Creates an empty population with the given target size, which is meant to be 
+	 * filled later (e.g. by the algorithm, see {@link com.gpapi.algorithm.AbstractAlgorithmBuilder}).
+	 * 
+	 * @param targetSize
+	 * @param index
+	 */
+	public Population(int targetSize, int index){
+		this.targetSize = targetSize;
+		this.index = index;
+	}
 	public Population(){
 		this.index = 0;
 	}
@@ -156,6 +167,52 @@ public final class Population implements Collection<EvolvedIndividual>, Serializ
 	}
 	
 	
+	/**
+	 * Replaces the given individual by the new one, or appends the new one if the given
+	 * individual is null and this population is smaller than its target size.
+	 * <p>
+	 * The internal list isn't modified in place, but replaced by a modified copy, so this
+	 * method and sort() can be invoked concurrently with each other and with the methods
+	 * that don't modify the population (get(), size(), iterator(), etc.), and the iterators
+	 * aren't affected. This is meant for the populations which are evolved continuously 
+	 * by several threads (see {@link com.gpapi.algorithm.SteadyStateLocalFitnessAlgorithmBuilder#setContinuous(boolean)}), 
+	 * the other methods modifying the population must not be invoked concurrently.
+	 * 
+	 * @param individual
+	 * @param newIndividual
+	 * @return
+	 * 			False if the given individual isn't in the population (e.g. if it has just 
+	 * 			been replaced by another thread), or if it is null and the population has
+	 * 			already reached its target size.
+	 */
+	public final boolean replace(EvolvedIndividual individual, EvolvedIndividual newIndividual){
+		if(newIndividual == null)
+			throw new NullPointerException("newIndividual can't be null!");
+		
+		synchronized(this){
+			ArrayList<EvolvedIndividual> individuals = this.individuals;
+			ArrayList<EvolvedIndividual> newIndividuals;
+			if(individual == null){
+				if(individuals.size() >= targetSize)
+					return false;
+				
+				newIndividuals = new ArrayList<EvolvedIndividual>(individuals.size() + 1);
+				newIndividuals.addAll(individuals);
+				newIndividuals.add(newIndividual);
+			} else {
+				int index = individuals.indexOf(individual);
+				if(index < 0)
+					return false;
+				
+				newIndividuals = new ArrayList<EvolvedIndividual>(individuals);
+				newIndividuals.set(index, newIndividual);
+			}
+			this.individuals = newIndividuals;
+			return true;
+		}
+	}
+	
+	
 	public final EvolvedIndividual remove(int index){
 		return individuals.remove(index);
 	}
@@ -181,11 +238,21 @@ public final class Population implements Collection<EvolvedIndividual>, Serializ
 	}
 	
 	
+	/**
+	 * Sorts the individuals (see {@link EvolvedIndividual#compareTo(EvolvedIndividual)}).
+	 * <p>
+	 * Note : The internal list is replaced by a sorted copy (see replace()).
+	 */
 	public final void sort(){
 		if(!isFitnessReady())
 			throw new RuntimeException(
 					"The fitness of all individuals in the population must be ready to sort it!");
-		Collections.sort(individuals);
+		
+		synchronized(this){
+			ArrayList<EvolvedIndividual> sortedIndividuals = new ArrayList<EvolvedIndividual>(individuals);
+			Collections.sort(sortedIndividuals);
+			individuals = sortedIndividuals;
+		}
 	}
 	
 	
@@ -39,12 +39,17 @@ package com.gpapi.algorithm;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Observable;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.gpapi.ControlView;
 import com.gpapi.GenerationSnapshot;
@@ -52,6 +57,8 @@ import com.gpapi.GenerationStatistics;
 import com.gpapi.Population;
 import com.gpapi.algorithm.fitnessfunction.FitnessFunctionInterface;
 import com.gpapi.algorithm.generalpurposeoperators.GeneralPurposeOperatorInterface;
+import com.gpapi.individuals.EvolvedIndividual;
+import com.gpapi.individuals.cells.nucleuses.GenomeStore;
 
 
 
@@ -158,7 +165,33 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 	protected final ExecutorService getExecutor() {
 		return executor;
 	}
+	
+	private final ExecutorService populationsExecutor;
 
+	/**
+	 * The maximum number of individuals generated for a slot of a population when the 
+	 * duplicates are rejected (see {@link AbstractAlgorithmBuilder#setDuplicatesRejection(boolean)}).
+	 */
+	public static final int MAX_INIT_ATTEMPTS = 10;
+	
+	/**
+	 * The inverse of the fraction of the remaining expected cost, per thread, that is
+	 * put in each chunk of individuals (see performOnIndividuals()).
+	 */
+	public static final int CHUNKS_PER_THREAD = 4;
+	
+	private final EvolvedIndividual initIndividual;
+	
+	private final boolean rampedHalfAndHalf;
+	public final boolean isRampedHalfAndHalf() {
+		return rampedHalfAndHalf;
+	}
+	
+	private final boolean duplicatesRejection;
+	public final boolean isDuplicatesRejection() {
+		return duplicatesRejection;
+	}
+	
 	private Thread mainThread = null;
 	
 	
@@ -172,9 +205,13 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 		this.recordingFrequency = builder.getRecordingFrequency();
 		this.generalPurposeOperator = builder.getGeneralPurposeOperator();
 		this.nThreads = builder.getNThreads();
+		this.initIndividual = builder.getInitIndividual();
+		this.rampedHalfAndHalf = builder.isRampedHalfAndHalf();
+		this.duplicatesRejection = builder.isDuplicatesRejection();
 		
 		this.populations = Collections.unmodifiableList(new ArrayList<Population>(builder.getPopulations()));
 		this.executor = Executors.newFixedThreadPool(nThreads);
+		this.populationsExecutor = nThreads > 1 ? Executors.newFixedThreadPool(nThreads - 1) : null;
 	}
 	
 	public abstract FitnessFunctionInterface getFitnessFunction();
@@ -216,6 +253,9 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 	 * of Problem Modality by Differential Performance of Lexicase Selection in Genetic 
 	 * Programming: A Preliminary Report</em> by Lee Spector).
 	 * <p>
+	 * Before the first generation, the populations built from an initial individual are 
+	 * filled by the tasks of the executor (see {@link AbstractAlgorithmBuilder#getInitIndividual()}).
+	 * <p>
 	 * In particular, on each generation, the following elements are performed (in the 
 	 * following order):
 	 * <ul>
@@ -223,6 +263,10 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 	 * 		parameter. The performGeneration() method is where concrete classes have
 	 * 		to implement the algorithms' logic, i.e. evolutionary components and 
 	 * 		individuals' evaluation.</li>
+	 * 		<li>Increment the age of every individual in the populations (see 
+	 * 		{@link EvolvedIndividual#incrementAge()}).</li>
+	 * 		<li>Compact the individuals whose builder has a genome store (see 
+	 * 		{@link EvolvedIndividual#compact()}).</li>
 	 * 		<li>Create a GenerationSnapshot object for the current generation, and 
 	 * 		perform a blocking call to notifyObservers() with the GenerationSnapshot 
 	 * 		object as parameter.</li>
@@ -238,6 +282,7 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 	 * 				record.</li>
 	 * 			</ul></li>
 	 * </ul>
+	 * Once the last generation has been performed, finishGenerations() is called.
 	 * The return value of the method is the ArrayList of GenerationStatistics built
 	 * sequentially as described above, with the best overall generation's record
 	 * appended at the end.
@@ -258,9 +303,17 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 		ArrayList<GenerationStatistics> results = new ArrayList<GenerationStatistics>();
 		
 		try {
+			initializePopulations();
+			
 			for(int i = 1; i <= getGenerations() && !stateCheckingActions(); i++){
 				performGeneration(i);
 				
+				for(Population population : getPopulations()){
+					for(EvolvedIndividual individual : population)
+						individual.incrementAge();
+				}
+				compactIndividuals();
+				
 				GenerationSnapshot snapshot = new GenerationSnapshot(i, getPopulations());
 				notifyObservers(snapshot);
 				
@@ -278,12 +331,16 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 						bestOverallStatistics = currentGenerationStatistics;
 				}
 			}
+			
+			finishGenerations();
 		} catch (InterruptedException e) {
 			// Let the algorithm close quietly.
 		} finally {
 			setCurrentState(State.Stopped);
 			Thread.interrupted();
 			getExecutor().shutdownNow();
+			if(populationsExecutor != null)
+				populationsExecutor.shutdownNow();
 		}
 		
 		if(bestOverallStatistics != null)
@@ -291,6 +348,228 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 		
 		return results;
 	}
+	
+	/**
+	 * Fills the empty populations built from an initial individual (see 
+	 * {@link AbstractAlgorithmBuilder#getInitIndividual()}) up to their target size. The 
+	 * individuals are generated in chunks by the tasks of the executor, all the populations
+	 * being initialized at the same time.
+	 * 
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private final void initializePopulations() throws InterruptedException, ExecutionException {
+		if(initIndividual == null)
+			return;
+		
+		ArrayList<Population> initializedPopulations = new ArrayList<Population>(getPopulations().size());
+		ArrayList<List<Future<List<EvolvedIndividual>>>> futures = new ArrayList<List<Future<List<EvolvedIndividual>>>>(getPopulations().size());
+		for(Population population : getPopulations()){
+			if(!population.isEmpty())
+				continue;
+			
+			int size = population.getTargetSize();
+			int nChunks = Math.min(size, 4 * getNThreads());
+			Set<Long> structuralHashes = isDuplicatesRejection() ? ConcurrentHashMap.newKeySet(size) : null;
+			
+			ArrayList<Future<List<EvolvedIndividual>>> populationFutures = new ArrayList<Future<List<EvolvedIndividual>>>(nChunks);
+			for(int i = 0; i < nChunks; i++){
+				int begin = (int) ((long) size * i / nChunks);
+				int end = (int) ((long) size * (i + 1) / nChunks);
+				populationFutures.add(getExecutor().submit(() -> generateIndividuals(begin, end, size, structuralHashes)));
+			}
+			initializedPopulations.add(population);
+			futures.add(populationFutures);
+		}
+		
+		for(int i = 0; i < initializedPopulations.size(); i++){
+			for(Future<List<EvolvedIndividual>> chunk : futures.get(i))
+				initializedPopulations.get(i).addAll(chunk.get());
+		}
+	}
+	private final List<EvolvedIndividual> generateIndividuals(int begin, int end, int size, Set<Long> structuralHashes){
+		ArrayList<EvolvedIndividual> individuals = new ArrayList<EvolvedIndividual>(end - begin);
+		for(int i = begin; i < end; i++){
+			EvolvedIndividual individual = null;
+			for(int attempt = 0; attempt < MAX_INIT_ATTEMPTS; attempt++){
+				if(isRampedHalfAndHalf())
+					individual = initIndividual.generateNew(size > 1 ? (double) i / (size - 1) : 1.0, i % 2 == 0);
+				else
+					individual = initIndividual.generateNew();
+				
+				if(structuralHashes == null || structuralHashes.add(individual.getEggCell().getNucleus().getStructuralHash()))
+					break;
+			}
+			individuals.add(individual);
+		}
+		return individuals;
+	}
+	
+	/**
+	 * Performs the given action on each of the given populations (e.g. breeding them), 
+	 * several populations being handled at the same time by the calling thread and by 
+	 * up to getNThreads() - 1 tasks of a separate executor, each one taking the next 
+	 * population that isn't handled yet.
+	 * <p>
+	 * All the threads of the algorithm's executor are thus left for the tasks that the 
+	 * action itself submits to it (as most breeding operators do), which could otherwise
+	 * never run if its threads were waiting for them. The threads handling the populations
+	 * mostly wait for these tasks, unless the action does its work itself. With a single 
+	 * thread, the populations are handled one after another by the calling thread.
+	 * <p>
+	 * Note : The action must be thread-safe as long as it is performed on different 
+	 * populations.
+	 * 
+	 * @param populations
+	 * @param action
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	protected final void performOnPopulations(List<Population> populations, PopulationAction action) throws InterruptedException, ExecutionException {
+		performInParallel(populations, populationsExecutor, Math.min(getNThreads() - 1, populations.size() - 1), action::performOn);
+	}
+	/**
+	 * Performs the given action on each of the given individuals (e.g. evaluating them),
+	 * in the same way as performOnPopulations() (but with the tasks of the algorithm's 
+	 * executor), but ordered by decreasing expected cost
+	 * (see {@link EvolvedIndividual#getExpectedExecutionCost()}) and grouped into chunks
+	 * of decreasing expected cost, so that the most expensive individuals are handled 
+	 * first and the cheap ones fill the end of the work of each thread, instead of one 
+	 * thread finishing an expensive individual while the others are idle.
+	 * <p>
+	 * Each chunk has about 1 / (CHUNKS_PER_THREAD * getNThreads()) of the expected cost
+	 * of the individuals that aren't in the previous chunks, so the chunks get smaller 
+	 * until the last ones only contain a single cheap individual. Each thread takes the 
+	 * next chunk that isn't handled yet once it has finished its current one, so that 
+	 * the work is balanced even if the expected costs are inaccurate. The individuals 
+	 * whose expected cost is unknown are given the size of their genome times the 
+	 * average expected cost per node of the others.
+	 * <p>
+	 * Note : The action must not submit tasks to the executor, and must be thread-safe 
+	 * as long as it is performed on different individuals.
+	 * 
+	 * @param individuals
+	 * @param action
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	protected final void performOnIndividuals(List<EvolvedIndividual> individuals, IndividualAction action) throws InterruptedException, ExecutionException {
+		if(getNThreads() == 1 || individuals.size() <= 1){
+			for(EvolvedIndividual individual : individuals)
+				action.performOn(individual);
+		} else {
+			List<List<EvolvedIndividual>> chunks = makeBalancedChunks(individuals, getNThreads() * CHUNKS_PER_THREAD);
+			performInParallel(chunks, getExecutor(), Math.min(getNThreads() - 1, chunks.size() - 1), chunk ->
+				{
+					for(EvolvedIndividual individual : chunk)
+						action.performOn(individual);
+				});
+		}
+	}
+	private static final List<List<EvolvedIndividual>> makeBalancedChunks(List<EvolvedIndividual> individuals, int divisor){
+		double[] costs = new double[individuals.size()];
+		int[] sizes = new int[individuals.size()];
+		double knownCosts = 0.0;
+		double knownSizes = 0.0;
+		for(int i = 0; i < costs.length; i++){
+			costs[i] = individuals.get(i).getExpectedExecutionCost();
+			sizes[i] = Math.max(1, individuals.get(i).getEggCell().getTotalSize());
+			if(costs[i] > 0.0){
+				knownCosts += costs[i];
+				knownSizes += sizes[i];
+			}
+		}
+		
+		double costPerNode = knownSizes > 0.0 ? knownCosts / knownSizes : 1.0;
+		double totalCost = 0.0;
+		ArrayList<Integer> order = new ArrayList<Integer>(costs.length);
+		for(int i = 0; i < costs.length; i++){
+			if(costs[i] <= 0.0)
+				costs[i] = costPerNode * sizes[i];
+			totalCost += costs[i];
+			order.add(i);
+		}
+		Collections.sort(order, (i, j) -> Double.compare(costs[j], costs[i]));
+		
+		ArrayList<List<EvolvedIndividual>> chunks = new ArrayList<List<EvolvedIndividual>>();
+		ArrayList<EvolvedIndividual> chunk = new ArrayList<EvolvedIndividual>();
+		double remainingCost = totalCost;
+		double cost = 0.0;
+		for(int i : order){
+			chunk.add(individuals.get(i));
+			cost += costs[i];
+			if(cost >= remainingCost / divisor){
+				chunks.add(chunk);
+				chunk = new ArrayList<EvolvedIndividual>();
+				remainingCost -= cost;
+				cost = 0.0;
+			}
+		}
+		if(!chunk.isEmpty())
+			chunks.add(chunk);
+		
+		return chunks;
+	}
+	/**
+	 * Performs the given action on each of the given items, by the calling thread and by
+	 * the given number of tasks of the given executor, each one taking the next item that
+	 * isn't handled yet.
+	 */
+	private static final <T> void performInParallel(List<T> items, ExecutorService executor, int nTasks, ItemAction<T> action) throws InterruptedException, ExecutionException {
+		AtomicInteger nextItem = new AtomicInteger();
+		
+		ArrayList<Future<Void>> tasks = new ArrayList<Future<Void>>(Math.max(0, nTasks));
+		try {
+			for(int i = 0; i < nTasks; i++){
+				tasks.add(executor.submit(() -> 
+					{
+						performOnNextItems(items, action, nextItem);
+						return null;
+					}));
+			}
+			
+			performOnNextItems(items, action, nextItem);
+			
+			for(Future<Void> task : tasks)
+				task.get();
+		} finally {
+			for(Future<Void> task : tasks)
+				task.cancel(true);
+		}
+	}
+	private static final <T> void performOnNextItems(
+			List<T> items, 
+			ItemAction<T> action, 
+			AtomicInteger nextItem) throws InterruptedException, ExecutionException {
+		for(int i = nextItem.getAndIncrement(); i < items.size(); i = nextItem.getAndIncrement())
+			action.performOn(items.get(i));
+	}
+	
+	/**
+	 * Compacts the individuals whose builder has a genome store, after clearing the
+	 * stores, and linearizes the ones whose builder uses linear genomes (see 
+	 * {@link EvolvedIndividual#compact()}).
+	 */
+	private final void compactIndividuals(){
+		IdentityHashMap<GenomeStore,Boolean> stores = new IdentityHashMap<GenomeStore,Boolean>();
+		boolean linearGenomes = false;
+		for(Population population : getPopulations()){
+			for(EvolvedIndividual individual : population){
+				GenomeStore store = individual.getBuilder().getGenomeStore();
+				if(store != null && stores.put(store, true) == null)
+					store.clear();
+				linearGenomes |= individual.getBuilder().isLinearGenomes();
+			}
+		}
+		
+		if(!stores.isEmpty() || linearGenomes){
+			for(Population population : getPopulations()){
+				for(EvolvedIndividual individual : population)
+					individual.compact();
+			}
+		}
+	}
+	
 	/**
 	 * If generation equals one, this method must perform the initial fitness
 	 * evaluation of every individual in every population. If generation is
@@ -318,6 +597,36 @@ public abstract class AbstractAlgorithm extends Observable implements Callable<L
 	 */
 	protected abstract void performGeneration(int generation) throws InterruptedException, ExecutionException;
 	
+	/**
+	 * Called once the last generation has been performed, before the executor is shut 
+	 * down, so that concrete classes can stop cleanly the tasks they keep running across
+	 * generations. Does nothing by default.
+	 * 
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	protected void finishGenerations() throws InterruptedException, ExecutionException {
+	}
+	
+	/**
+	 * An action performed on a population (see performOnPopulations()).
+	 */
+	@FunctionalInterface
+	protected interface PopulationAction {
+		public void performOn(Population population) throws InterruptedException, ExecutionException;
+	}
+	/**
+	 * An action performed on an individual (see performOnIndividuals()).
+	 */
+	@FunctionalInterface
+	protected interface IndividualAction {
+		public void performOn(EvolvedIndividual individual) throws InterruptedException, ExecutionException;
+	}
+	@FunctionalInterface
+	private interface ItemAction<T> {
+		public void performOn(T item) throws InterruptedException, ExecutionException;
+	}
+	
 	
 	
 	/**
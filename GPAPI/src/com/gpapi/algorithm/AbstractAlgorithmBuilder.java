@@ -44,6 +44,8 @@ import com.gpapi.Population;
 import com.gpapi.algorithm.AbstractAlgorithm.State;
 import com.gpapi.algorithm.generalpurposeoperators.GeneralPurposeOperatorInterface;
 import com.gpapi.individuals.EvolvedIndividual;
+import com.gpapi.individuals.EvolvedIndividualBuilder;
+import com.gpapi.individuals.cells.nucleuses.Nucleus;
 
 
 
@@ -101,6 +103,62 @@ public abstract class AbstractAlgorithmBuilder<T extends AbstractAlgorithmBuilde
 		return (T) this;
 	}
 	
+	private final EvolvedIndividual initIndividual;
+	/**
+	 * Returns the individual from which the populations are generated, or null if the
+	 * populations were given to the builder.
+	 * 
+	 * @return
+	 * 			The initial individual.
+	 */
+	public final EvolvedIndividual getInitIndividual() {
+		return initIndividual;
+	}
+	
+	private boolean rampedHalfAndHalf = false;
+	public final boolean isRampedHalfAndHalf() {
+		return rampedHalfAndHalf;
+	}
+	/**
+	 * Sets whether the populations generated from the initial individual are initialized
+	 * with a ramped half-and-half method, i.e. whether the sizes of the branches of the 
+	 * new individuals are ramped from their minimum to their maximum initial sizes across 
+	 * each population, half of them having exactly the ramped size and the other half a 
+	 * random size up to it (see {@link EvolvedIndividualBuilder#build(double, boolean)}).
+	 * Otherwise, the sizes are uniformly random between the minimum and the maximum.
+	 * 
+	 * @param rampedHalfAndHalf
+	 * @return
+	 * 			This builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public final T setRampedHalfAndHalf(boolean rampedHalfAndHalf) {
+		this.rampedHalfAndHalf = rampedHalfAndHalf;
+		return (T) this;
+	}
+	
+	private boolean duplicatesRejection = false;
+	public final boolean isDuplicatesRejection() {
+		return duplicatesRejection;
+	}
+	/**
+	 * Sets whether the new individuals of the populations generated from the initial 
+	 * individual are regenerated when another individual of their population has the 
+	 * same structure (as told by {@link Nucleus#getStructuralHash()}), so that the first
+	 * generation isn't wasted on clones. An individual is kept anyway after 
+	 * {@link AbstractAlgorithm#MAX_INIT_ATTEMPTS} attempts, so that small search spaces 
+	 * don't prevent the initialization from ending.
+	 * 
+	 * @param duplicatesRejection
+	 * @return
+	 * 			This builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public final T setDuplicatesRejection(boolean duplicatesRejection) {
+		this.duplicatesRejection = duplicatesRejection;
+		return (T) this;
+	}
+	
 	private int nThreads = 1;
 	public final int getNThreads() {
 		return nThreads;
@@ -115,6 +173,18 @@ public abstract class AbstractAlgorithmBuilder<T extends AbstractAlgorithmBuilde
 	
 	
 	
+	/**
+	 * Creates a builder whose populations are generated from the given individual (see
+	 * {@link EvolvedIndividual#generateNew()}).
+	 * <p>
+	 * Note : The populations are empty until the algorithm starts, as they are filled by
+	 * the tasks of the algorithm's executor at the beginning of its call() method.
+	 * 
+	 * @param generations
+	 * @param initIndividual
+	 * @param populationsSize
+	 * @param nPopulations
+	 */
 	protected AbstractAlgorithmBuilder(int generations, EvolvedIndividual initIndividual, int populationsSize, int nPopulations) {
 		if(generations < 2)
 			throw new IllegalArgumentException("generations must be strictly greater than 1!");
@@ -126,10 +196,11 @@ public abstract class AbstractAlgorithmBuilder<T extends AbstractAlgorithmBuilde
 			throw new IllegalArgumentException("There must be at least one population !");
 		
 		this.generations = generations;
+		this.initIndividual = initIndividual;
 		
 		populations = new ArrayList<Population>(nPopulations);
 		for(int i = 0; i < nPopulations; i++)
-			populations.add(new Population(initIndividual, populationsSize, i));
+			populations.add(new Population(populationsSize, i));
 	}
 	protected AbstractAlgorithmBuilder(int generations, List<Population> populations) {
 		if(generations < 2)
@@ -146,6 +217,7 @@ public abstract class AbstractAlgorithmBuilder<T extends AbstractAlgorithmBuilde
 		}
 		
 		this.generations = generations;
+		this.initIndividual = null;
 		this.populations = populations;
 	}
 }
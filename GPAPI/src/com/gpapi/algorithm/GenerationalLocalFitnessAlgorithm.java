@@ -39,7 +39,6 @@ package com.gpapi.algorithm;
 
 import java.util.ArrayList;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 import com.gpapi.Population;
 import com.gpapi.algorithm.breedingoperators.GenerationalBreedingOperatorInterface;
@@ -80,22 +79,16 @@ public final class GenerationalLocalFitnessAlgorithm extends AbstractAlgorithm {
 	
 	
 	private final void evaluateFitness(int generation, boolean refresh) throws InterruptedException, ExecutionException {
-		ArrayList<Future<EvolvedIndividual>> futures = new ArrayList<Future<EvolvedIndividual>>();
+		ArrayList<EvolvedIndividual> individuals = new ArrayList<EvolvedIndividual>();
 		
 		for(Population population : getPopulations()){
 			for(EvolvedIndividual individual : population){
-				if(refresh || !individual.isFitnessReady()){
-					futures.add(getExecutor().submit(() ->
-						{
-							getFitnessFunction().applyTo(individual, generation);
-							return individual;
-						}));
-				}
+				if(refresh || !individual.isFitnessReady())
+					individuals.add(individual);
 			}
 		}
 		
-		for(Future<EvolvedIndividual> threadResult : futures)
-			threadResult.get();
+		performOnIndividuals(individuals, individual -> getFitnessFunction().applyTo(individual, generation));
 	}
 	
 	
@@ -105,9 +98,7 @@ public final class GenerationalLocalFitnessAlgorithm extends AbstractAlgorithm {
 			evaluateFitness(generation, false);
 		}
 		
-		if(getBreedingOperator() != null){
-			for(Population population : getPopulations())
-				getBreedingOperator().breed(population, generation, getFitnessFunction(), getExecutor());
-		}
+		if(getBreedingOperator() != null)
+			performOnPopulations(getPopulations(), population -> getBreedingOperator().breed(population, generation, getFitnessFunction(), getExecutor()));
 	}
 }
@@ -110,10 +110,11 @@ public final class GlobalFitnessAlgorithm extends AbstractAlgorithm {
 			getGeneralPurposeOperator().perform(getPopulations(), generation, false, getExecutor());
 		
 		if(getBreedingOperator() != null){
-			for(Population population : getPopulations()){
-				if(population.isFitnessReady())
-					getBreedingOperator().breed(population, generation, getFitnessFunction(), getExecutor());
-			}
+			performOnPopulations(getPopulations(), population -> 
+				{
+					if(population.isFitnessReady())
+						getBreedingOperator().breed(population, generation, getFitnessFunction(), getExecutor());
+				});
 		}
 	}
 }
@@ -42,6 +42,9 @@ import java.util.HashMap;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.gpapi.Population;
 import com.gpapi.algorithm.breedingoperators.SteadyStateBreedingOperatorInterface;
@@ -51,6 +54,26 @@ import com.gpapi.individuals.EvolvedIndividual;
 
 
 
+/**
+ * 
+ * On each generation (after the first one), as many new individuals as there are threads
+ * are bred and inserted in the populations (in turn), each one replacing an individual 
+ * chosen by the removal selection strategy.
+ * <p>
+ * By default, the new individuals of a generation are bred at the same time, and inserted
+ * once all of them are ready. In the continuous mode (see {@link SteadyStateLocalFitnessAlgorithmBuilder#setContinuous(boolean)}), 
+ * each thread rather loops independently, breeding a new individual and inserting it as 
+ * soon as it is ready (see {@link Population#replace(EvolvedIndividual, EvolvedIndividual)}), 
+ * so that the threads don't wait for each other within a generation. A generation then 
+ * ends once as many new individuals as there are threads have been inserted, the threads
+ * being idle until the next one, so that the populations don't change while the individuals
+ * are aged and compacted or while the observers are notified. Note that the threads are 
+ * stopped, on each generation, while the general-purpose operator (if any) is performed,
+ * and once the last generation has been performed.
+ * 
+ * @author jeremy
+ *
+ */
 public final class SteadyStateLocalFitnessAlgorithm extends AbstractAlgorithm {
 	
 	private final LocalFitnessFunctionInterface fitnessFunction;
@@ -69,7 +92,48 @@ public final class SteadyStateLocalFitnessAlgorithm extends AbstractAlgorithm {
 		return removalSelectionStrategy;
 	}
 	
-	private int evaluations = 0;
+	private final boolean continuous;
+	public final boolean isContinuous() {
+		return continuous;
+	}
+	
+	private final AtomicInteger evaluations = new AtomicInteger();
+	/**
+	 * Returns the number of new individuals bred (and evaluated) and inserted in the 
+	 * populations since the first generation.
+	 * 
+	 * @return
+	 */
+	public final int getEvaluations() {
+		return evaluations.get();
+	}
+	
+	private volatile long startTime = 0;
+	/**
+	 * Returns the number of new individuals bred (and evaluated) per second since the 
+	 * first generation, which measures the throughput of the algorithm.
+	 * 
+	 * @return
+	 */
+	public final double getEvaluationsPerSecond() {
+		long elapsedTime = System.nanoTime() - startTime;
+		if(startTime == 0 || elapsedTime <= 0)
+			return 0.0;
+		else
+			return evaluations.get() / (elapsedTime / 1e9);
+	}
+	
+	private final AtomicInteger populationsTurn = new AtomicInteger();
+	
+	private volatile int breedingGeneration = 0;
+	
+	private volatile boolean stopping = false;
+	
+	private Semaphore breedingPermits = null;
+	
+	private Semaphore insertions = null;
+	
+	private ArrayList<Future<Void>> breedingLoops = null;
 	
 	
 	
@@ -79,53 +143,53 @@ public final class SteadyStateLocalFitnessAlgorithm extends AbstractAlgorithm {
 		this.fitnessFunction = builder.getFitnessFunction();
 		this.breedingOperator = builder.getBreedingOperator();
 		this.removalSelectionStrategy = builder.getRemovalSelectionStrategy();
+		this.continuous = builder.isContinuous();
 	}
 	
 	
 	@Override
 	public final void performGeneration(int generation) throws InterruptedException, ExecutionException {
-		if(generation == 1)
-			evaluations = 0;
+		if(generation == 1){
+			evaluations.set(0);
+			populationsTurn.set(0);
+			startTime = System.nanoTime();
+		}
 		
 		if(generation > 1 && getGeneralPurposeOperator() != null){
+			stopBreedingLoops();
 			getGeneralPurposeOperator().perform(getPopulations(), generation-1, true, getExecutor());
 			fullFitnessEvaluation(generation-1, false);
 		}
 		
 		if(generation == 1)
 			fullFitnessEvaluation(generation, true);
+		else if(getBreedingOperator() != null && isContinuous())
+			evolveContinuously(generation-1);
 		else if(getBreedingOperator() != null)
-			evaluations = evolve(generation-1, evaluations);
+			evolve(generation-1);
 	}
 	
 	
 	private final void fullFitnessEvaluation(int generation, boolean refresh) throws InterruptedException, ExecutionException {
-		ArrayList<Future<EvolvedIndividual>> futures = new ArrayList<Future<EvolvedIndividual>>();
+		ArrayList<EvolvedIndividual> individuals = new ArrayList<EvolvedIndividual>();
 		
 		for(Population population : getPopulations()){
 			for(EvolvedIndividual individual : population){
-				if(refresh || !individual.isFitnessReady()){
-					futures.add(getExecutor().submit(() ->
-						{
-							getFitnessFunction().applyTo(individual, generation);
-							return individual;
-						}));
-				}
+				if(refresh || !individual.isFitnessReady())
+					individuals.add(individual);
 			}
 		}
 		
-		for(Future<EvolvedIndividual> threadResult : futures)
-			threadResult.get();
+		performOnIndividuals(individuals, individual -> getFitnessFunction().applyTo(individual, generation));
 	}
 	
 	
-	private final int evolve(int generation, int evaluations) throws InterruptedException, ExecutionException {
+	private final void evolve(int generation) throws InterruptedException, ExecutionException {
 		HashMap<Future<EvolvedIndividual>,Population> populationsPerResult = new HashMap<Future<EvolvedIndividual>,Population>();
 		for(int j = 0; j < getNThreads(); j++){
-			Population population = getPopulations().get(evaluations % getPopulations().size());
+			Population population = getPopulations().get(populationsTurn.getAndIncrement() % getPopulations().size());
 			Future<EvolvedIndividual> result = getExecutor().submit(() -> getBreedingOperator().breed(population, generation, getFitnessFunction()));
 			populationsPerResult.put(result, population);
-			evaluations++;
 		}
 		
 		HashMap<Population,ArrayList<EvolvedIndividual>> newIndividualsPerPopulation = new HashMap<Population,ArrayList<EvolvedIndividual>>();
@@ -136,6 +200,7 @@ public final class SteadyStateLocalFitnessAlgorithm extends AbstractAlgorithm {
 				newIndividualsPerPopulation.put(resultEntry.getValue(), populationNewIndividuals);
 			}
 			populationNewIndividuals.add(resultEntry.getKey().get());
+			evaluations.incrementAndGet();
 		}
 		
 		for(Entry<Population,ArrayList<EvolvedIndividual>> populationNewIndividualsEntry : newIndividualsPerPopulation.entrySet()){
@@ -146,7 +211,78 @@ public final class SteadyStateLocalFitnessAlgorithm extends AbstractAlgorithm {
 			
 			population.addAll(populationNewIndividualsEntry.getValue());
 		}
+	}
+	
+	
+	@Override
+	protected final void finishGenerations() throws InterruptedException, ExecutionException {
+		stopBreedingLoops();
+	}
+	
+	
+	/**
+	 * Lets the breeding loops (started if needed) breed one more generation of new 
+	 * individuals, and waits until as many new individuals as there are threads have 
+	 * been inserted, so that all the loops are idle when it returns.
+	 * 
+	 * @param generation
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private final void evolveContinuously(int generation) throws InterruptedException, ExecutionException {
+		breedingGeneration = generation;
+		
+		if(breedingLoops == null){
+			stopping = false;
+			breedingPermits = new Semaphore(0);
+			insertions = new Semaphore(0);
+			breedingLoops = new ArrayList<Future<Void>>(getNThreads());
+			for(int i = 0; i < getNThreads(); i++)
+				breedingLoops.add(getExecutor().submit(() -> breedContinuously()));
+		}
+		
+		breedingPermits.release(getNThreads());
+		while(!insertions.tryAcquire(getNThreads(), 100, TimeUnit.MILLISECONDS)){
+			for(Future<Void> breedingLoop : breedingLoops){
+				if(breedingLoop.isDone())
+					breedingLoop.get();
+			}
+		}
+	}
+	private final Void breedContinuously() throws InterruptedException {
+		while(true){
+			breedingPermits.acquire();
+			if(stopping)
+				return null;
+			
+			Population population = getPopulations().get(populationsTurn.getAndIncrement() % getPopulations().size());
+			EvolvedIndividual newIndividual = getBreedingOperator().breed(population, breedingGeneration, getFitnessFunction());
+			
+			while(!population.replace(null, newIndividual) && !population.replace(getRemovalSelectionStrategy().selectOne(population), newIndividual)){
+				if(Thread.interrupted())
+					throw new InterruptedException();
+			}
+			
+			evaluations.incrementAndGet();
+			insertions.release();
+		}
+	}
+	/**
+	 * Stops the breeding loops, if they are running, once they have inserted the new
+	 * individuals they are breeding.
+	 * 
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private final void stopBreedingLoops() throws InterruptedException, ExecutionException {
+		if(breedingLoops == null)
+			return;
+		
+		stopping = true;
+		breedingPermits.release(getNThreads());
+		for(Future<Void> breedingLoop : breedingLoops)
+			breedingLoop.get();
 		
-		return evaluations;
+		breedingLoops = null;
 	}
 }
@@ -76,6 +76,24 @@ public class SteadyStateLocalFitnessAlgorithmBuilder extends AbstractAlgorithmBu
 		return this;
 	}
 	
+	private boolean continuous = false;
+	public final boolean isContinuous() {
+		return continuous;
+	}
+	/**
+	 * If true, each thread of the algorithm breeds and inserts new individuals in a loop, 
+	 * independently of the other threads, instead of breeding one new individual per 
+	 * thread and per generation and waiting for all of them to be ready before inserting
+	 * them (see {@link SteadyStateLocalFitnessAlgorithm}).
+	 * 
+	 * @param continuous
+	 * @return
+	 */
+	public final SteadyStateLocalFitnessAlgorithmBuilder setContinuous(boolean continuous) {
+		this.continuous = continuous;
+		return this;
+	}
+	
 	
 	
 	protected SteadyStateLocalFitnessAlgorithmBuilder(
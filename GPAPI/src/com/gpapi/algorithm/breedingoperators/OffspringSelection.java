@@ -38,14 +38,21 @@
 package com.gpapi.algorithm.breedingoperators;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
 
 import com.gpapi.Population;
 import com.gpapi.algorithm.fitnessfunction.FitnessFunctionInterface;
@@ -81,7 +88,7 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 	
 	private final int maxSelectionPressure;
 	
-	private final HashMap<Integer,HashMap<Population,Boolean>> maxPressureReachedHistory = new HashMap<Integer,HashMap<Population,Boolean>>();
+	private final ConcurrentHashMap<Integer,ConcurrentHashMap<Population,Boolean>> maxPressureReachedHistory = new ConcurrentHashMap<Integer,ConcurrentHashMap<Population,Boolean>>();
 	
 	
 	
@@ -180,19 +187,9 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 			EvolvedIndividual parent1 = strategy.selectOne(population);
 			EvolvedIndividual parent2 = strategy.selectOne(population);
 			
-			EvolvedIndividual mainParent;
-			EvolvedIndividual otherParent;
-			EvolvedIndividual child;
-			
-			EvolvedIndividual lock1 = parent1.hashCode() < parent2.hashCode() ? parent1 : parent2;
-			EvolvedIndividual lock2 = lock1 == parent1 ? parent2 : parent1;
-			synchronized(lock1){
-			synchronized(lock2){
-				mainParent = chooseMainParent(parent1, parent2, 0);
-				otherParent = mainParent == parent1 ? parent2 : parent1;
-				child = mainParent.makeChildWith(otherParent);
-			}
-			}
+			EvolvedIndividual mainParent = chooseMainParent(parent1, parent2, 0);
+			EvolvedIndividual otherParent = mainParent == parent1 ? parent2 : parent1;
+			EvolvedIndividual child = mainParent.makeChildWith(otherParent);
 			
 			fitnessFunction.applyTo(child, generation);
 			if(childIsBetter(child, mainParent)){
@@ -239,94 +236,27 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 			LocalFitnessFunctionInterface fitnessFunction, 
 			int generation, 
 			ExecutorService executor) throws InterruptedException, ExecutionException {
-		ArrayList<EvolvedIndividual> parents = new ArrayList<EvolvedIndividual>(selectionMap.keySet());
-		
-		ArrayList<EvolvedIndividual> selectedChildren = new ArrayList<EvolvedIndividual>(nChildrenRequired);
-		ArrayList<EvolvedIndividual> unsuccessfulChildren = new ArrayList<EvolvedIndividual>();
-		
-		LinkedList<Future<EvolvedIndividual[]>> waitingTasks = new LinkedList<Future<EvolvedIndividual[]>>();
-		try {
-			while(!doneOrGiveUp(selectedChildren, unsuccessfulChildren, nChildrenRequired)){
-				if(Thread.interrupted())
-					throw new InterruptedException();
-				
-				loadTasksIfNeededLocal(waitingTasks, parents, generation, fitnessFunction, selectionMap, executor);
-				ArrayList<EvolvedIndividual[]> resultsReady = fetchResultsReadyLocal(waitingTasks);
-				
-				for(EvolvedIndividual[] currentResult : resultsReady){
-					if(!done(selectedChildren, nChildrenRequired) && childIsBetter(currentResult[0], currentResult[1])) 
-						selectedChildren.add(currentResult[0]);
-					else
-						unsuccessfulChildren.add(currentResult[0]);
-				}
-			}
-		} finally {
-			for(Future<EvolvedIndividual[]> task : waitingTasks)
-				task.cancel(true);
-		}
-		
-		updateMaxPressureReachedHistory(population, generation, !done(selectedChildren, nChildrenRequired));
-		fillSelectedChildren(selectedChildren, unsuccessfulChildren, parents, nChildrenRequired);
+		Schedule schedule = new Schedule(selectionMap);
 		
-		return selectedChildren;
-	}
-	private final void loadTasksIfNeededLocal(
-			LinkedList<Future<EvolvedIndividual[]>> waitingTasks, 
-			ArrayList<EvolvedIndividual> parents, 
-			int generation, 
-			LocalFitnessFunctionInterface fitnessFunction, 
-			Map<EvolvedIndividual,Integer> selectionMap, 
-			ExecutorService executor){
-		if(waitingTasks.size() < parents.size()){
-			ThreadLocalRandom generator = ThreadLocalRandom.current();
-			for(int i = 0; i < parents.size(); i++){
-				EvolvedIndividual parent1 = parents.get(i);
-				int nChildren = selectionMap.get(parent1);
-				for(int j = 0; j < nChildren; j++){
-					EvolvedIndividual parent2 = parents.get(generator.nextInt(parents.size()));
-					
-					int childIndex = j;
-					waitingTasks.add(executor.submit(() ->
-						{
-							EvolvedIndividual mainParent;
-							EvolvedIndividual otherParent;
-							EvolvedIndividual child;
-							
-							EvolvedIndividual lock1 = parent1.hashCode() < parent2.hashCode() ? parent1 : parent2;
-							EvolvedIndividual lock2 = lock1 == parent1 ? parent2 : parent1;
-							synchronized(lock1){
-							synchronized(lock2){
-								mainParent = chooseMainParent(parent1, parent2, childIndex);
-								otherParent = mainParent == parent1 ? parent2 : parent1;
-								child = mainParent.makeChildWith(otherParent);
-							}
-							}
-							
-							fitnessFunction.applyTo(child, generation);
-							return new EvolvedIndividual[]{child, mainParent};
-						}));
-				}
-			}
-		}
-	}
-	private final ArrayList<EvolvedIndividual[]> fetchResultsReadyLocal(LinkedList<Future<EvolvedIndividual[]>> waitingTasks) throws InterruptedException, ExecutionException {
-		ArrayList<EvolvedIndividual[]> resultsReady = new ArrayList<EvolvedIndividual[]>();
-		while(resultsReady.isEmpty()){
-			for(Iterator<Future<EvolvedIndividual[]>> waitingTasksIterator = waitingTasks.iterator(); waitingTasksIterator.hasNext(); ){
-				Future<EvolvedIndividual[]> result = waitingTasksIterator.next();
-				if(result.isDone()){
-					waitingTasksIterator.remove();
-					resultsReady.add(result.get());
-				}
-			}
-			
-			if(resultsReady.isEmpty())
-				Thread.sleep(10);
-		}
-		return resultsReady;
+		return buildChildren(
+				population, 
+				schedule, 
+				nChildrenRequired, 
+				1, 
+				maxSelectionPressure * nChildrenRequired, 
+				() -> 
+					{
+						int slot = schedule.nextSlot();
+						return () -> 
+							{
+								EvolvedIndividual[] container = makeChild(schedule, slot);
+								fitnessFunction.applyTo(container[0], generation);
+								return Collections.singletonList(container);
+							};
+					}, 
+				generation, 
+				executor);
 	}
-	
-	
 	private final ArrayList<EvolvedIndividual> buildChildrenGlobal(
 			Population population, 
 			Map<EvolvedIndividual,Integer> selectionMap, 
@@ -334,97 +264,138 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 			GlobalFitnessFunctionInterface fitnessFunction, 
 			int generation, 
 			ExecutorService executor) throws InterruptedException, ExecutionException {
-		ArrayList<EvolvedIndividual> parents = new ArrayList<EvolvedIndividual>(selectionMap.keySet());
+		Schedule schedule = new Schedule(selectionMap);
 		
+		return buildChildren(
+				population, 
+				schedule, 
+				nChildrenRequired, 
+				schedule.size(), 
+				maxSelectionPressure, 
+				() -> 
+					() -> 
+						{
+							ArrayList<EvolvedIndividual[]> result = new ArrayList<EvolvedIndividual[]>(schedule.size());
+							Population tempPopulation = new Population();
+							for(int slot = 0; slot < schedule.size(); slot++){
+								EvolvedIndividual[] container = makeChild(schedule, slot);
+								result.add(container);
+								tempPopulation.add(container[0]);
+							}
+							fitnessFunction.applyTo(tempPopulation, generation);
+							return result;
+						}, 
+				generation, 
+				executor);
+	}
+	/**
+	 * Submits the tasks built by the given factory (each one returning the children it 
+	 * created along with their main parent, once evaluated) and consumes their results 
+	 * as soon as they complete, until enough children are successful (see successRatio) 
+	 * or until maxTasks tasks have been consumed. The tasks still running at that point 
+	 * are cancelled.
+	 * <p>
+	 * The number of tasks in flight is bounded by twice the number of threads of the 
+	 * executor, and is lowered to the number of tasks that are expected to be still 
+	 * needed according to the success rate observed so far (starting from an optimistic
+	 * estimate, so the window grows as the unsuccessful children come in), so that few 
+	 * children are built and evaluated in vain.
+	 * 
+	 * @param population
+	 * @param schedule
+	 * @param nChildrenRequired
+	 * @param childrenPerTask
+	 * @param maxTasks
+	 * @param taskFactory
+	 * @param generation
+	 * @param executor
+	 * @return
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private final ArrayList<EvolvedIndividual> buildChildren(
+			Population population, 
+			Schedule schedule, 
+			int nChildrenRequired, 
+			int childrenPerTask, 
+			int maxTasks, 
+			Supplier<Callable<List<EvolvedIndividual[]>>> taskFactory, 
+			int generation, 
+			ExecutorService executor) throws InterruptedException, ExecutionException {
 		ArrayList<EvolvedIndividual> selectedChildren = new ArrayList<EvolvedIndividual>(nChildrenRequired);
 		ArrayList<EvolvedIndividual> unsuccessfulChildren = new ArrayList<EvolvedIndividual>();
 		
-		ArrayList<Future<ArrayList<EvolvedIndividual[]>>> waitingTasks = loadTasksGlobal(parents, generation, fitnessFunction, selectionMap, executor);
+		int maxTasksInFlight = 2 * getNThreads(executor);
+		int nSubmittedTasks = 0;
+		
+		CompletionService<List<EvolvedIndividual[]>> completionService = new ExecutorCompletionService<List<EvolvedIndividual[]>>(executor);
+		HashSet<Future<List<EvolvedIndividual[]>>> waitingTasks = new HashSet<Future<List<EvolvedIndividual[]>>>();
 		try {
-			while(!waitingTasks.isEmpty() && !done(selectedChildren, nChildrenRequired)){
-				if(Thread.interrupted())
-					throw new InterruptedException();
+			while(!done(selectedChildren, nChildrenRequired) && schedule.size() > 0){
+				int window = getWindow(selectedChildren, unsuccessfulChildren, nChildrenRequired, childrenPerTask, maxTasksInFlight);
+				while(waitingTasks.size() < window && nSubmittedTasks < maxTasks){
+					waitingTasks.add(completionService.submit(taskFactory.get()));
+					nSubmittedTasks++;
+				}
 				
-				ArrayList<ArrayList<EvolvedIndividual[]>> resultsReady = fetchResultsReadyGlobal(waitingTasks);
+				if(waitingTasks.isEmpty())
+					break;
 				
-				for(ArrayList<EvolvedIndividual[]> currentResult : resultsReady){
-					for(EvolvedIndividual[] container : currentResult){
-						if(!done(selectedChildren, nChildrenRequired) && childIsBetter(container[0], container[1])) 
-							selectedChildren.add(container[0]);
-						else
-							unsuccessfulChildren.add(container[0]);
-					}
+				Future<List<EvolvedIndividual[]>> result = completionService.take();
+				waitingTasks.remove(result);
+				
+				for(EvolvedIndividual[] container : result.get()){
+					if(!done(selectedChildren, nChildrenRequired) && childIsBetter(container[0], container[1])) 
+						selectedChildren.add(container[0]);
+					else
+						unsuccessfulChildren.add(container[0]);
 				}
 			}
 		} finally {
-			for(Future<ArrayList<EvolvedIndividual[]>> task : waitingTasks)
+			for(Future<List<EvolvedIndividual[]>> task : waitingTasks)
 				task.cancel(true);
 		}
 		
 		updateMaxPressureReachedHistory(population, generation, !done(selectedChildren, nChildrenRequired));
-		fillSelectedChildren(selectedChildren, unsuccessfulChildren, parents, nChildrenRequired);
+		fillSelectedChildren(selectedChildren, unsuccessfulChildren, schedule.getParents(), nChildrenRequired);
 		
 		return selectedChildren;
 	}
-	private final ArrayList<Future<ArrayList<EvolvedIndividual[]>>> loadTasksGlobal(
-			ArrayList<EvolvedIndividual> parents, 
-			int generation, 
-			GlobalFitnessFunctionInterface fitnessFunction, 
-			Map<EvolvedIndividual,Integer> selectionMap, 
-			ExecutorService executor){
-		ArrayList<Future<ArrayList<EvolvedIndividual[]>>> waitingTasks = new ArrayList<Future<ArrayList<EvolvedIndividual[]>>>();
-		for(int i = 0; i < maxSelectionPressure; i++){
-			waitingTasks.add(executor.submit(() -> 
-				{
-					ThreadLocalRandom generator = ThreadLocalRandom.current();
-					ArrayList<EvolvedIndividual[]> result = new ArrayList<EvolvedIndividual[]>();
-					Population tempPopulation = new Population();
-					for(int j = 0; j < parents.size(); j++){
-						EvolvedIndividual parent1 = parents.get(j);
-						int nChildren = selectionMap.get(parent1);
-						for(int k = 0; k < nChildren; k++){
-							EvolvedIndividual parent2 = parents.get(generator.nextInt(parents.size()));
-							
-							EvolvedIndividual mainParent;
-							EvolvedIndividual otherParent;
-							EvolvedIndividual child;
-							
-							EvolvedIndividual lock1 = parent1.hashCode() < parent2.hashCode() ? parent1 : parent2;
-							EvolvedIndividual lock2 = lock1 == parent1 ? parent2 : parent1;
-							synchronized(lock1){
-							synchronized(lock2){
-								mainParent = chooseMainParent(parent1, parent2, k);
-								otherParent = mainParent == parent1 ? parent2 : parent1;
-								child = mainParent.makeChildWith(otherParent);
-							}
-							}
-							
-							result.add(new EvolvedIndividual[]{child, mainParent});
-							tempPopulation.add(child);
-						}
-					}
-					fitnessFunction.applyTo(tempPopulation, generation);
-					return result;
-				}));
-		}
-		return waitingTasks;
+	private final int getWindow(
+			ArrayList<EvolvedIndividual> successfulChildren, 
+			ArrayList<EvolvedIndividual> unsuccessfulChildren, 
+			int nChildrenRequired, 
+			int childrenPerTask, 
+			int maxTasksInFlight){
+		double successRate = (successfulChildren.size() + 1.0) / (successfulChildren.size() + unsuccessfulChildren.size() + 1.0);
+		double missingChildren = Math.ceil(successRatio * nChildrenRequired) - successfulChildren.size();
+		int expectedTasks = (int) Math.ceil(missingChildren / (successRate * childrenPerTask));
+		return Math.max(1, Math.min(maxTasksInFlight, expectedTasks));
 	}
-	private final ArrayList<ArrayList<EvolvedIndividual[]>> fetchResultsReadyGlobal(
-			ArrayList<Future<ArrayList<EvolvedIndividual[]>>> waitingTasks) throws InterruptedException, ExecutionException {
-		ArrayList<ArrayList<EvolvedIndividual[]>> resultsReady = new ArrayList<ArrayList<EvolvedIndividual[]>>();
-		while(resultsReady.isEmpty()){
-			for(Iterator<Future<ArrayList<EvolvedIndividual[]>>> waitingTasksIterator = waitingTasks.iterator(); waitingTasksIterator.hasNext(); ){
-				Future<ArrayList<EvolvedIndividual[]>> result = waitingTasksIterator.next();
-				if(result.isDone()){
-					waitingTasksIterator.remove();
-					resultsReady.add(result.get());
-				}
-			}
-			
-			if(resultsReady.isEmpty())
-				Thread.sleep(10);
-		}
-		return resultsReady;
+	private final EvolvedIndividual[] makeChild(Schedule schedule, int slot){
+		EvolvedIndividual parent1 = schedule.getFirstParent(slot);
+		EvolvedIndividual parent2 = schedule.getParents().get(ThreadLocalRandom.current().nextInt(schedule.getParents().size()));
+		
+		EvolvedIndividual mainParent = chooseMainParent(parent1, parent2, schedule.getChildIndex(slot));
+		EvolvedIndividual otherParent = mainParent == parent1 ? parent2 : parent1;
+		EvolvedIndividual child = mainParent.makeChildWith(otherParent);
+		
+		return new EvolvedIndividual[]{child, mainParent};
+	}
+	/**
+	 * Returns the number of threads the given executor runs tasks with, the maximum size
+	 * of a thread pool (e.g. Integer.MAX_VALUE for a cached pool) being bounded by the 
+	 * number of processors.
+	 */
+	private static final int getNThreads(ExecutorService executor){
+		if(executor instanceof ThreadPoolExecutor){
+			ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executor;
+			return Math.max(threadPool.getCorePoolSize(), 
+					Math.min(threadPool.getMaximumPoolSize(), Runtime.getRuntime().availableProcessors()));
+		} else if(executor instanceof ForkJoinPool)
+			return ((ForkJoinPool) executor).getParallelism();
+		else
+			return Runtime.getRuntime().availableProcessors();
 	}
 	
 	
@@ -449,23 +420,11 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 	}
 	
 	
-	private final boolean doneOrGiveUp(
-			ArrayList<EvolvedIndividual> successfulChildren, 
-			ArrayList<EvolvedIndividual> unsuccessfulChildren, 
-			int nChildrenRequired){
-		return done(successfulChildren, nChildrenRequired) || giveUp(successfulChildren, unsuccessfulChildren, nChildrenRequired);
-	}
 	private final boolean done(
 			ArrayList<EvolvedIndividual> successfulChildren, 
 			int nChildrenRequired){
 		return successfulChildren.size() >= successRatio * nChildrenRequired;
 	}
-	private final boolean giveUp(
-			ArrayList<EvolvedIndividual> successfulChildren, 
-			ArrayList<EvolvedIndividual> unsuccessfulChildren, 
-			int nChildrenRequired){
-		return successfulChildren.size() + unsuccessfulChildren.size() >= maxSelectionPressure * nChildrenRequired;
-	}
 	
 	
 	private final EvolvedIndividual chooseMainParent(EvolvedIndividual parent1, EvolvedIndividual parent2, int childIndex){
@@ -515,14 +474,9 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 			Population population, 
 			int generation, 
 			boolean maxPressureReached){
-		synchronized(maxPressureReachedHistory){
-			HashMap<Population,Boolean> maxPressureReachedMap = maxPressureReachedHistory.get(generation);
-			if(maxPressureReachedMap == null){
-				maxPressureReachedMap = new HashMap<Population,Boolean>();
-				maxPressureReachedHistory.put(generation, maxPressureReachedMap);
-			}
-			maxPressureReachedMap.put(population, maxPressureReached && maxPressureReachedMap.getOrDefault(population, true));
-		}
+		maxPressureReachedHistory
+			.computeIfAbsent(generation, key -> new ConcurrentHashMap<Population,Boolean>())
+			.merge(population, maxPressureReached, Boolean::logicalAnd);
 	}
 	/**
 	 * TODO : Description.
@@ -543,13 +497,71 @@ public final class OffspringSelection implements GenerationalBreedingOperatorInt
 	 * 		{@link #updateMaxPressureReachedHistory(Population, ArrayList, int, int) updateMaxPressureReachedHistory}
 	 */
 	public final boolean wasMaxPressureReachedFor(Population population, int generation){
-		synchronized(maxPressureReachedHistory){
-			HashMap<Population,Boolean> maxPressureReachedMap = null;
-			while(generation > 0 && (maxPressureReachedMap == null || !maxPressureReachedMap.containsKey(population))){
-				maxPressureReachedMap = maxPressureReachedHistory.get(generation);
-				generation--;
+		ConcurrentHashMap<Population,Boolean> maxPressureReachedMap = null;
+		while(generation > 0 && (maxPressureReachedMap == null || !maxPressureReachedMap.containsKey(population))){
+			maxPressureReachedMap = maxPressureReachedHistory.get(generation);
+			generation--;
+		}
+		return maxPressureReachedMap != null ? maxPressureReachedMap.getOrDefault(population, false) : false;
+	}
+	
+	
+	
+	/**
+	 * The children to build from the parents selected by the natural selection strategy,
+	 * i.e. as many children per first parent as times the parent was selected (the second
+	 * parent of each child being randomly chosen among all the selected parents). The slots
+	 * are handed out in a cycle, so that the same schedule can be used by several successive
+	 * batches of children.
+	 * <p>
+	 * Note : Only nextSlot() modifies the schedule, so it must be invoked by a single thread.
+	 * 
+	 * @author jeremy
+	 *
+	 */
+	private static final class Schedule {
+		
+		private final ArrayList<EvolvedIndividual> parents;
+		private final ArrayList<EvolvedIndividual> getParents() {
+			return parents;
+		}
+		
+		private final ArrayList<EvolvedIndividual> firstParents = new ArrayList<EvolvedIndividual>();
+		
+		private final ArrayList<Integer> childIndexes = new ArrayList<Integer>();
+		
+		private int nextSlot = 0;
+		
+		
+		
+		private Schedule(Map<EvolvedIndividual,Integer> selectionMap){
+			parents = new ArrayList<EvolvedIndividual>(selectionMap.keySet());
+			for(EvolvedIndividual parent : parents){
+				int nChildren = selectionMap.get(parent);
+				for(int i = 0; i < nChildren; i++){
+					firstParents.add(parent);
+					childIndexes.add(i);
+				}
 			}
-			return maxPressureReachedMap != null ? maxPressureReachedMap.getOrDefault(population, false) : false;
+		}
+		
+		
+		private final int size(){
+			return firstParents.size();
+		}
+		
+		private final EvolvedIndividual getFirstParent(int slot){
+			return firstParents.get(slot);
+		}
+		
+		private final int getChildIndex(int slot){
+			return childIndexes.get(slot);
+		}
+		
+		private final int nextSlot(){
+			int slot = nextSlot;
+			nextSlot = (nextSlot + 1) % size();
+			return slot;
 		}
 	}
 }
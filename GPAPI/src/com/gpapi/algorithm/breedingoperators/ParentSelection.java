@@ -121,15 +121,7 @@ public final class ParentSelection implements GenerationalBreedingOperatorInterf
 	public final EvolvedIndividual breed(Population population, int generation, LocalFitnessFunctionInterface fitnessFunction) throws InterruptedException {
 		EvolvedIndividual parent1 = strategy.selectOne(population);
 		EvolvedIndividual parent2 = strategy.selectOne(population);
-		EvolvedIndividual child;
-		
-		EvolvedIndividual lock1 = parent1.hashCode() < parent2.hashCode() ? parent1 : parent2;
-		EvolvedIndividual lock2 = lock1 == parent1 ? parent2 : parent1;
-		synchronized(lock1){
-		synchronized(lock2){
-			child = buildChildOf(parent1, parent2, 0);
-		}
-		}
+		EvolvedIndividual child = buildChildOf(parent1, parent2, 0);
 		
 		fitnessFunction.applyTo(child, generation);
 		return child;
@@ -202,14 +194,7 @@ public final class ParentSelection implements GenerationalBreedingOperatorInterf
 				throw new InterruptedException();
 			
 			EvolvedIndividual parent2 = potentialOtheParents.get(generator.nextInt(potentialOtheParents.size()));
-			
-			EvolvedIndividual lock1 = parent1.hashCode() < parent2.hashCode() ? parent1 : parent2;
-			EvolvedIndividual lock2 = lock1 == parent1 ? parent2 : parent1;
-			synchronized(lock1){
-			synchronized(lock2){
-				children.add(buildChildOf(parent1, parent2, i));
-			}
-			}
+			children.add(buildChildOf(parent1, parent2, i));
 		}
 		
 		return children;
@@ -0,0 +1,455 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * FitnessCache.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.algorithm.fitnessfunction;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gpapi.individuals.EvolvedIndividual;
+import com.gpapi.individuals.EvolvedIndividual.RawFitnessType;
+import com.gpapi.individuals.cells.nucleuses.Nucleus;
+import com.gpapi.individuals.cells.nucleuses.StructuralHasher;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
+import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
+import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
+import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
+import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+
+
+
+/**
+ * 
+ * Bounded cache of the fitness of the individuals, keyed by a canonical hash of
+ * their whole nucleus (all the modules, their parameters and their branches), see
+ * {@link MemoizedFitnessFunction}.<p>
+ * 
+ * Each entry holds the raw fitness, the fitness of each fitness case and the last
+ * execution cost (and whether it was aborted) of an evaluated individual. The least recently used entries are
+ * evicted when the maximum number of entries is reached. If a spill directory is
+ * set, the evicted entries are written to it (one file per entry) and looked up
+ * there on a miss, and flush() writes all the entries, so that the following runs
+ * using the same directory (and the same fitness function and data) benefit from
+ * the evaluations of the previous ones.<p>
+ * 
+ * Note : The cache is thread-safe. The fitness cases must be serializable and compared
+ * by value (i.e. override equals() and hashCode(), like strings, numbers or enums) for 
+ * the entries to be spilled, since the fitness cases read from the disk are copies 
+ * which must match the ones of the fitness function. The other entries are only kept 
+ * in memory.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class FitnessCache {
+	
+	private final int maxEntries;
+	public final int getMaxEntries() {
+		return maxEntries;
+	}
+	
+	private final File spillDirectory;
+	/**
+	 * Returns the directory in which the entries are spilled, or null if there is none.
+	 * 
+	 * @return
+	 * 			The spill directory.
+	 */
+	public final File getSpillDirectory() {
+		return spillDirectory;
+	}
+	
+	private final LinkedHashMap<Key,Entry> entries = new LinkedHashMap<Key,Entry>(16, 0.75f, true);
+	
+	private final AtomicLong hits = new AtomicLong();
+	/**
+	 * Returns the number of lookups which found an entry, in memory or on disk.
+	 * 
+	 * @return
+	 * 			The number of hits.
+	 */
+	public final long getHits() {
+		return hits.get();
+	}
+	
+	private final AtomicLong diskHits = new AtomicLong();
+	/**
+	 * Returns the number of lookups which found an entry on disk.
+	 * 
+	 * @return
+	 * 			The number of disk hits.
+	 */
+	public final long getDiskHits() {
+		return diskHits.get();
+	}
+	
+	private final AtomicLong misses = new AtomicLong();
+	public final long getMisses() {
+		return misses.get();
+	}
+	
+	private final AtomicLong evictions = new AtomicLong();
+	public final long getEvictions() {
+		return evictions.get();
+	}
+	
+	
+	
+	/**
+	 * Creates a cache kept in memory only.
+	 * 
+	 * @param maxEntries
+	 */
+	public FitnessCache(int maxEntries){
+		this(maxEntries, null);
+	}
+	/**
+	 * 
+	 * @param maxEntries
+	 * 			The maximum number of entries kept in memory.
+	 * @param spillDirectory
+	 * 			The directory in which the entries are spilled, or null.
+	 */
+	public FitnessCache(int maxEntries, File spillDirectory){
+		if(maxEntries < 1)
+			throw new IllegalArgumentException("maxEntries must be greater than 0!");
+		else if(spillDirectory != null && !spillDirectory.isDirectory() && !spillDirectory.mkdirs())
+			throw new IllegalArgumentException("Can't create the spill directory " + spillDirectory + "!");
+		
+		this.maxEntries = maxEntries;
+		this.spillDirectory = spillDirectory;
+	}
+	
+	
+	/**
+	 * Returns the number of entries kept in memory.
+	 * 
+	 * @return
+	 * 			The number of entries kept in memory.
+	 */
+	public synchronized final int getSize() {
+		return entries.size();
+	}
+	
+	/**
+	 * Looks the given individual up, and sets its fitness and last execution cost
+	 * (see {@link EvolvedIndividual#isLastExecutionAborted()}) if it is found.
+	 * 
+	 * @param individual
+	 * @return
+	 * 			True if the individual was found.
+	 */
+	public final boolean lookUp(EvolvedIndividual individual){
+		Key key = keyOf(individual.getEggCell().getNucleusForReading());
+		
+		Entry entry;
+		synchronized(this){
+			entry = entries.get(key);
+		}
+		if(entry == null && spillDirectory != null){
+			entry = readSpilled(key);
+			if(entry != null){
+				diskHits.incrementAndGet();
+				put(key, entry);
+			}
+		}
+		
+		if(entry == null){
+			misses.incrementAndGet();
+			return false;
+		} else {
+			hits.incrementAndGet();
+			entry.applyTo(individual);
+			return true;
+		}
+	}
+	
+	/**
+	 * Stores the fitness and last execution cost of the given individual, whose
+	 * fitness must be set.
+	 * 
+	 * @param individual
+	 */
+	public final void store(EvolvedIndividual individual){
+		if(!individual.isFitnessReady())
+			throw new IllegalArgumentException("The fitness of the individual must be set!");
+		
+		put(keyOf(individual.getEggCell().getNucleusForReading()), new Entry(individual));
+	}
+	
+	/**
+	 * Writes all the entries kept in memory to the spill directory, if any.
+	 */
+	public final void flush(){
+		if(spillDirectory == null)
+			return;
+		
+		ArrayList<Map.Entry<Key,Entry>> currentEntries;
+		synchronized(this){
+			currentEntries = new ArrayList<Map.Entry<Key,Entry>>(entries.entrySet());
+		}
+		for(Map.Entry<Key,Entry> entry : currentEntries)
+			spill(entry.getKey(), entry.getValue());
+	}
+	
+	/**
+	 * Removes all the entries kept in memory (the spilled entries are kept).
+	 */
+	public synchronized final void clear(){
+		entries.clear();
+	}
+	
+	
+	private final void put(Key key, Entry entry){
+		ArrayList<Map.Entry<Key,Entry>> evicted = new ArrayList<Map.Entry<Key,Entry>>();
+		synchronized(this){
+			entries.put(key, entry);
+			
+			Iterator<Map.Entry<Key,Entry>> eldest = entries.entrySet().iterator();
+			while(entries.size() > maxEntries){
+				evicted.add(eldest.next());
+				eldest.remove();
+			}
+		}
+		
+		evictions.addAndGet(evicted.size());
+		if(spillDirectory != null){
+			for(Map.Entry<Key,Entry> evictedEntry : evicted)
+				spill(evictedEntry.getKey(), evictedEntry.getValue());
+		}
+	}
+	
+	private final void spill(Key key, Entry entry){
+		File file = fileOf(key);
+		if(file.exists() || !entry.isSpillable())
+			return;
+		
+		File tempFile = new File(spillDirectory, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+		try(ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(tempFile))){
+			out.writeObject(entry);
+		} catch(NotSerializableException e){
+			tempFile.delete();
+			return;
+		} catch(IOException e){
+			tempFile.delete();
+			throw new RuntimeException("Can't spill a fitness cache entry to " + file + "!", e);
+		}
+		if(!tempFile.renameTo(file))
+			tempFile.delete();
+	}
+	
+	private final Entry readSpilled(Key key){
+		File file = fileOf(key);
+		if(!file.exists())
+			return null;
+		
+		try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))){
+			return (Entry) in.readObject();
+		} catch(IOException | ClassNotFoundException e){
+			return null;
+		}
+	}
+	
+	private final File fileOf(Key key){
+		return new File(spillDirectory, String.format("%016x%016x.fitness", key.hash1, key.hash2));
+	}
+	
+	
+	/**
+	 * Computes the canonical key of the given nucleus, which only depends on its
+	 * structure (two nuclei built the same way have the same key).
+	 */
+	private static final Key keyOf(Nucleus nucleus){
+		StructuralHasher hasher = new StructuralHasher();
+		for(AbstractModule module : nucleus.getAllModules()){
+			hasher.add(module.getClass().getName());
+			hasher.add(module.getId());
+			hasher.add(module.getReturnType().getClass().getName());
+			for(AbstractType argType : module.getArgsTypes())
+				hasher.add(argType.getClass().getName());
+			
+			if(module instanceof ADL){
+				hasher.add(((ADL) module).getMaxCalls());
+				hasher.add(((ADL) module).getMaxIterations());
+			} else if(module instanceof ADR){
+				hasher.add(((ADR) module).getMaxCalls());
+				hasher.add(((ADR) module).getMaxRecursionDepth());
+			} else if(module instanceof ADI){
+				hasher.add(((ADI) module).getCollectionId());
+				hasher.add(((ADI) module).getMaxCalls());
+				hash(((ADI) module).getDefaultValue(), hasher);
+			} else if(module instanceof ADS){
+				hasher.add(((ADS) module).getStorageType().ordinal());
+				hasher.add(((ADS) module).getMaxSize());
+			}
+			
+			hasher.add(module.getBranchRoots().size());
+			for(AbstractNode branchRoot : module.getBranchRoots())
+				hash(branchRoot, hasher);
+		}
+		return new Key(hasher.getHash1(), hasher.getHash2());
+	}
+	private static final void hash(AbstractNode node, StructuralHasher hasher){
+		hasher.add(node.getClass().getName());
+		hasher.add(node.getReturnType().getClass().getName());
+		if(node instanceof Constant)
+			hash(node.getReturnType(), hasher);
+		else if(node instanceof AbstractProxyNode){
+			hasher.add(((AbstractProxyNode) node).getId());
+			hasher.add(node.getName());
+		} else
+			hasher.add(node.getName());
+		
+		hasher.add(node.getArgs().size());
+		for(AbstractNode arg : node.getArgs())
+			hash(arg, hasher);
+	}
+	private static final void hash(AbstractType value, StructuralHasher hasher){
+		if(value instanceof RealValue)
+			hasher.add(Double.doubleToLongBits(((RealValue) value).getValue()));
+		else if(value instanceof BooleanValue)
+			hasher.add(((BooleanValue) value).getValue() ? 1 : 0);
+		else
+			hasher.add(String.valueOf(value));
+	}
+	
+	
+	
+	private static final class Key {
+		
+		private final long hash1;
+		
+		private final long hash2;
+		
+		
+		
+		private Key(long hash1, long hash2){
+			this.hash1 = hash1;
+			this.hash2 = hash2;
+		}
+		
+		
+		@Override
+		public final int hashCode(){
+			return (int) (hash1 ^ (hash1 >>> 32));
+		}
+		
+		@Override
+		public final boolean equals(Object o){
+			return o instanceof Key && ((Key) o).hash1 == hash1 && ((Key) o).hash2 == hash2;
+		}
+	}
+	
+	
+	
+	private static final class Entry implements Serializable {
+		
+		private static final long serialVersionUID = 3512066187431209651L;
+		
+		
+		private final RawFitnessType rawFitnessType;
+		
+		private final double rawFitness;
+		
+		private final List<Object> fitnessCases;
+		
+		private final double[] fitnessCasesValues;
+		
+		private final int lastExecutionCost;
+		
+		private final boolean lastExecutionAborted;
+		
+		
+		
+		private Entry(EvolvedIndividual individual){
+			rawFitnessType = individual.getRawFitnessType();
+			rawFitness = individual.getRawFitness();
+			
+			fitnessCases = individual.getAllFitnessCases();
+			fitnessCasesValues = new double[fitnessCases.size()];
+			for(int i = 0; i < fitnessCasesValues.length; i++)
+				fitnessCasesValues[i] = individual.getFitnessCase(fitnessCases.get(i));
+			
+			lastExecutionCost = individual.getLastExecutionCost();
+			lastExecutionAborted = individual.isLastExecutionAborted();
+		}
+		
+		
+		private final void applyTo(EvolvedIndividual individual){
+			individual.setRawFitnessType(rawFitnessType);
+			individual.setRawFitness(rawFitness);
+			for(int i = 0; i < fitnessCasesValues.length; i++)
+				individual.addFitnessCase(fitnessCases.get(i), fitnessCasesValues[i]);
+			individual.setLastExecutionCost(lastExecutionCost);
+			individual.setLastExecutionAborted(lastExecutionAborted);
+		}
+		
+		/**
+		 * Returns true if all the fitness cases are compared by value, so that the copies
+		 * read from the disk match the fitness cases of the fitness function.
+		 */
+		private final boolean isSpillable(){
+			for(Object fitnessCase : fitnessCases){
+				try {
+					if(fitnessCase != null && fitnessCase.getClass().getMethod("equals", Object.class).getDeclaringClass() == Object.class)
+						return false;
+				} catch(NoSuchMethodException e){
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
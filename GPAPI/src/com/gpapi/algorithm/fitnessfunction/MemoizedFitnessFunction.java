@@ -0,0 +1,112 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * MemoizedFitnessFunction.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.algorithm.fitnessfunction;
+
+import javax.swing.JPanel;
+
+import com.gpapi.Population;
+import com.gpapi.individuals.EvolvedIndividual;
+
+
+
+/**
+ * 
+ * Local fitness function which memoizes the fitness computed by another one in a
+ * {@link FitnessCache}, so that the individuals which are structurally identical to
+ * an individual already evaluated (e.g. clones produced by the reproduction, or
+ * offspring which are identical to their parents once simplified) are not evaluated
+ * again.<p>
+ * 
+ * Note : Memoizing is only correct if the wrapped fitness function is deterministic
+ * and doesn't depend on the generation (its fitness cases must not change during
+ * the run), which is why it must be explicitly enabled by wrapping the fitness
+ * function in an instance of this class.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class MemoizedFitnessFunction implements LocalFitnessFunctionInterface {
+	
+	private final LocalFitnessFunctionInterface fitnessFunction;
+	public final LocalFitnessFunctionInterface getFitnessFunction() {
+		return fitnessFunction;
+	}
+	
+	private final FitnessCache cache;
+	public final FitnessCache getCache() {
+		return cache;
+	}
+	
+	
+	
+	/**
+	 * 
+	 * @param fitnessFunction
+	 * 			The memoized fitness function.
+	 * @param cache
+	 * 			The cache in which the fitness is memoized, which may be shared with
+	 * 			other instances memoizing the same fitness function.
+	 */
+	public MemoizedFitnessFunction(LocalFitnessFunctionInterface fitnessFunction, FitnessCache cache){
+		if(fitnessFunction == null)
+			throw new NullPointerException("fitnessFunction can't be null!");
+		else if(cache == null)
+			throw new NullPointerException("cache can't be null!");
+		
+		this.fitnessFunction = fitnessFunction;
+		this.cache = cache;
+	}
+	
+	
+	@Override
+	public final void applyTo(EvolvedIndividual individual, int generation) throws InterruptedException {
+		if(!cache.lookUp(individual)){
+			fitnessFunction.applyTo(individual, generation);
+			cache.store(individual);
+		}
+	}
+	
+	@Override
+	public final JPanel getPhenotypeView(EvolvedIndividual individual){
+		return fitnessFunction.getPhenotypeView(individual);
+	}
+	@Override
+	public final JPanel getPopulationView(Population population){
+		return fitnessFunction.getPopulationView(population);
+	}
+}
@@ -0,0 +1,242 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * PartitionedFitnessFunction.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.algorithm.fitnessfunction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.swing.JPanel;
+
+import com.gpapi.Population;
+import com.gpapi.individuals.EvolvedIndividual;
+
+
+
+/**
+ * 
+ * Global fitness function which splits the populations into chunks, and applies another
+ * one to the chunks in parallel, so that the evaluation of a population isn't limited to
+ * a single thread (the algorithms only evaluate the populations in parallel with each
+ * other, so a run with a single population would otherwise use a single thread).<p>
+ * 
+ * Each chunk is a sub-population which contains a contiguous range of the individuals of
+ * the population, has the same index as the population, and is reused each time the same
+ * population is evaluated, so that the wrapped fitness function can keep its own state
+ * per sub-population. An optional reduction is then applied to the whole population,
+ * once all the chunks have been evaluated, for the fitness functions which need a
+ * population-wide phase (e.g. to normalize the fitness of the individuals).<p>
+ * 
+ * The chunks are evaluated by a pool owned by this instance (the algorithm's threads
+ * can't be used, since they already wait for the evaluation of the populations) and
+ * by the calling thread. The pool must be released with shutdown() once the instance
+ * isn't used anymore (its threads are daemon threads, so they don't prevent the JVM
+ * from exiting).<p>
+ * 
+ * Note : Partitioning is only correct if the fitness computed by the wrapped fitness
+ * function for an individual doesn't depend on the other individuals of the population,
+ * except through the reduction. It must also not be applied concurrently to the same
+ * population, which the algorithms never do.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class PartitionedFitnessFunction implements GlobalFitnessFunctionInterface {
+	
+	private final GlobalFitnessFunctionInterface fitnessFunction;
+	public final GlobalFitnessFunctionInterface getFitnessFunction() {
+		return fitnessFunction;
+	}
+	
+	private final int nChunks;
+	public final int getNChunks() {
+		return nChunks;
+	}
+	
+	private final Reduction reduction;
+	public final Reduction getReduction() {
+		return reduction;
+	}
+	
+	private final ForkJoinPool pool;
+	
+	private final Map<Population,Population[]> chunks = Collections.synchronizedMap(
+			new WeakHashMap<Population,Population[]>());
+	
+	
+	
+	/**
+	 * 
+	 * @param fitnessFunction
+	 * 			The partitioned fitness function.
+	 * @param nChunks
+	 * 			The number of chunks into which the populations are split, which is also the
+	 * 			number of threads used to evaluate a population.
+	 * @param reduction
+	 * 			The reduction applied to the whole population after the chunks have been
+	 * 			evaluated, or null if there isn't any.
+	 */
+	public PartitionedFitnessFunction(GlobalFitnessFunctionInterface fitnessFunction, int nChunks, Reduction reduction){
+		if(fitnessFunction == null)
+			throw new NullPointerException("fitnessFunction can't be null!");
+		else if(nChunks < 1)
+			throw new IllegalArgumentException("nChunks must be strictly positive!");
+		
+		this.fitnessFunction = fitnessFunction;
+		this.nChunks = nChunks;
+		this.reduction = reduction;
+		this.pool = nChunks > 1 ? new ForkJoinPool(nChunks - 1) : null;
+	}
+	public PartitionedFitnessFunction(GlobalFitnessFunctionInterface fitnessFunction, int nChunks){
+		this(fitnessFunction, nChunks, null);
+	}
+	public PartitionedFitnessFunction(GlobalFitnessFunctionInterface fitnessFunction){
+		this(fitnessFunction, Runtime.getRuntime().availableProcessors(), null);
+	}
+	
+	
+	/**
+	 * Releases the threads of the pool. The fitness function can't be applied anymore
+	 * afterwards.
+	 */
+	public final void shutdown() {
+		if(pool != null)
+			pool.shutdownNow();
+	}
+	
+	
+	@Override
+	public final void applyTo(Population population, int generation) throws InterruptedException {
+		if(pool != null && pool.isShutdown())
+			throw new IllegalStateException("This fitness function was shut down!");
+		
+		Population[] chunks = getChunksOf(population);
+		
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>(chunks.length);
+		try {
+			for(int i = 1; i < chunks.length; i++){
+				Population chunk = chunks[i];
+				if(!chunk.isEmpty())
+					futures.add(pool.submit(() ->
+						{
+							fitnessFunction.applyTo(chunk, generation);
+							return null;
+						}));
+			}
+			
+			if(!chunks[0].isEmpty())
+				fitnessFunction.applyTo(chunks[0], generation);
+			
+			for(Future<?> future : futures)
+				future.get();
+		} catch(ExecutionException e){
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			else if(cause instanceof Error)
+				throw (Error) cause;
+			else if(cause instanceof InterruptedException)
+				throw (InterruptedException) cause;
+			else
+				throw new RuntimeException(cause);
+		} finally {
+			for(Future<?> future : futures)
+				future.cancel(true);
+		}
+		
+		if(reduction != null)
+			reduction.reduce(population, generation);
+	}
+	
+	/**
+	 * Returns the chunks of the given population, filled with its current individuals.
+	 * 
+	 * @param population
+	 * @return
+	 */
+	private final Population[] getChunksOf(Population population){
+		Population[] chunks = this.chunks.computeIfAbsent(population, key ->
+			{
+				Population[] newChunks = new Population[nChunks];
+				for(int i = 0; i < nChunks; i++)
+					newChunks[i] = new Population(0, key.getIndex());
+				return newChunks;
+			});
+		
+		ArrayList<EvolvedIndividual> individuals = new ArrayList<EvolvedIndividual>(population);
+		for(int i = 0; i < nChunks; i++){
+			int begin = (int) ((long) individuals.size() * i / nChunks);
+			int end = (int) ((long) individuals.size() * (i + 1) / nChunks);
+			
+			chunks[i].clear();
+			chunks[i].addAll(individuals.subList(begin, end));
+			chunks[i].setTargetSize(end - begin);
+		}
+		
+		return chunks;
+	}
+	
+	@Override
+	public final JPanel getPhenotypeView(EvolvedIndividual individual){
+		return fitnessFunction.getPhenotypeView(individual);
+	}
+	@Override
+	public final JPanel getPopulationView(Population population){
+		return fitnessFunction.getPopulationView(population);
+	}
+	
+	
+	
+	/**
+	 * 
+	 * Population-wide phase of a partitioned fitness function, applied to the whole
+	 * population once the fitness function has been applied to all its chunks.
+	 * 
+	 * @author jeremy
+	 * 
+	 */
+	@FunctionalInterface
+	public static interface Reduction {
+		
+		public void reduce(Population population, int generation) throws InterruptedException;
+	}
+}
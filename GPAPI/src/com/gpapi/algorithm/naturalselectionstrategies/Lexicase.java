@@ -41,11 +41,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -74,6 +74,13 @@ import com.gpapi.individuals.EvolvedIndividual;
 
 public final class Lexicase implements NaturalSelectionStrategyInterface {
 	
+	/**
+	 * The duration, in nanoseconds, that each task submitted to the executor should last,
+	 * from which the number of selections made by each task is derived.
+	 */
+	public static final double TASK_DURATION = 1000000.0;
+	
+	
 	private final int maxPoolSize;
 	
 	private final int maxFitnessCases;
@@ -82,6 +89,21 @@ public final class Lexicase implements NaturalSelectionStrategyInterface {
 	
 	private final boolean withReplacement;
 	
+	private volatile double selectionDuration = 0.0;
+	/**
+	 * Returns the average duration, in nanoseconds, of a single selection, as measured
+	 * by the tasks of the previous selections (zero if no selection has been made yet).
+	 * <p>
+	 * Note : The measures of concurrent tasks are averaged without synchronization, so
+	 * a few of them may be lost, which is of no consequence for an average.
+	 * 
+	 * @return
+	 * 			The average duration of a single selection.
+	 */
+	public final double getSelectionDuration() {
+		return selectionDuration;
+	}
+	
 	
 	
 	/**
@@ -125,8 +147,10 @@ public final class Lexicase implements NaturalSelectionStrategyInterface {
 		ArrayList<EvolvedIndividual> localSelectionableIndividuals = new ArrayList<EvolvedIndividual>(currentlySelectionableIndividuals);
 		
 		ArrayList<Object> allFitnessCases = population.get(0).getAllFitnessCases();
-		LinkedList<Future<EvolvedIndividual>> waitingTasks = new LinkedList<Future<EvolvedIndividual>>();
 		
+		CompletionService<List<EvolvedIndividual>> completionService = new ExecutorCompletionService<List<EvolvedIndividual>>(executor);
+		HashSet<Future<List<EvolvedIndividual>>> waitingTasks = new HashSet<Future<List<EvolvedIndividual>>>();
+		int waitingSelections = 0;
 		try {
 			while(selectedIndividuals < n){
 				if(Thread.interrupted())
@@ -135,8 +159,13 @@ public final class Lexicase implements NaturalSelectionStrategyInterface {
 				if(!withReplacement)
 					localSelectionableIndividuals = new ArrayList<EvolvedIndividual>(currentlySelectionableIndividuals);
 				
-				loadTasksIfNeeded(waitingTasks, n, localSelectionableIndividuals, allFitnessCases, executor);
-				LinkedList<EvolvedIndividual> resultsReady = fetchResultsReady(waitingTasks);
+				waitingSelections += loadTasksIfNeeded(completionService, waitingTasks, waitingSelections, n, localSelectionableIndividuals, allFitnessCases);
+				
+				Future<List<EvolvedIndividual>> result = completionService.take();
+				waitingTasks.remove(result);
+				
+				List<EvolvedIndividual> resultsReady = result.get();
+				waitingSelections -= resultsReady.size();
 				
 				for(EvolvedIndividual currentResult : resultsReady){
 					if(handleResult(currentResult, currentlySelectionableIndividuals, selectionMap, population))
@@ -144,44 +173,66 @@ public final class Lexicase implements NaturalSelectionStrategyInterface {
 				}
 			}
 		} finally {
-			for(Future<EvolvedIndividual> task : waitingTasks)
+			for(Future<List<EvolvedIndividual>> task : waitingTasks)
 				task.cancel(true);
 		}
 		
 		return selectionMap;
 	}
-	private final void loadTasksIfNeeded(
-			LinkedList<Future<EvolvedIndividual>> waitingTasks, 
+	/**
+	 * Submits n selections if less than n/2 are waiting, grouped in tasks which should
+	 * each last about TASK_DURATION according to the measured duration of a selection
+	 * (a task per selection if it isn't measured yet), so that cheap selections don't 
+	 * cost less than the submission of their task.
+	 * 
+	 * @return
+	 * 			The number of submitted selections.
+	 */
+	private final int loadTasksIfNeeded(
+			CompletionService<List<EvolvedIndividual>> completionService, 
+			HashSet<Future<List<EvolvedIndividual>>> waitingTasks, 
+			int waitingSelections, 
 			int n, 
 			ArrayList<EvolvedIndividual> selectionableIndividuals, 
-			ArrayList<Object> allFitnessCases, 
-			ExecutorService executor) {
-		if(waitingTasks.size() < Math.max(1, n/2)){
-			for(int i = 0; i < n; i++){
-				waitingTasks.add(executor.submit(() ->
-					{
-						ArrayList<Integer> competitorsIndexes = selectCompetitorsIndexes(selectionableIndividuals.size(), 0);
-						ArrayList<Object> fitnessCases = selectFitnessCases(allFitnessCases);
-						return selectionableIndividuals.get(filter(competitorsIndexes, selectionableIndividuals, fitnessCases));
-					}));
-			}
+			ArrayList<Object> allFitnessCases) {
+		if(waitingSelections >= Math.max(1, n/2))
+			return 0;
+		
+		int selectionsPerTask = getSelectionsPerTask(n);
+		for(int i = 0; i < n; i += selectionsPerTask){
+			int nSelections = Math.min(selectionsPerTask, n - i);
+			waitingTasks.add(completionService.submit(() -> makeSelections(nSelections, selectionableIndividuals, allFitnessCases)));
 		}
+		return n;
 	}
-	private final LinkedList<EvolvedIndividual> fetchResultsReady(LinkedList<Future<EvolvedIndividual>> waitingTasks) throws InterruptedException, ExecutionException {
-		LinkedList<EvolvedIndividual> resultsReady = new LinkedList<EvolvedIndividual>();
-		while(resultsReady.isEmpty()){
-			for(Iterator<Future<EvolvedIndividual>> waitingTasksIterator = waitingTasks.iterator(); waitingTasksIterator.hasNext(); ){
-				Future<EvolvedIndividual> result = waitingTasksIterator.next();
-				if(result.isDone()){
-					waitingTasksIterator.remove();
-					resultsReady.add(result.get());
-				}
-			}
+	private final int getSelectionsPerTask(int n){
+		double selectionDuration = this.selectionDuration;
+		if(selectionDuration <= 0.0)
+			return 1;
+		else
+			return (int) Math.max(1.0, Math.min(n, TASK_DURATION / selectionDuration));
+	}
+	private final List<EvolvedIndividual> makeSelections(
+			int nSelections, 
+			ArrayList<EvolvedIndividual> selectionableIndividuals, 
+			ArrayList<Object> allFitnessCases) throws InterruptedException {
+		long start = System.nanoTime();
+		
+		ArrayList<EvolvedIndividual> selections = new ArrayList<EvolvedIndividual>(nSelections);
+		for(int i = 0; i < nSelections; i++){
+			if(Thread.interrupted())
+				throw new InterruptedException();
 			
-			if(resultsReady.isEmpty())
-				Thread.sleep(10);
+			ArrayList<Integer> competitorsIndexes = selectCompetitorsIndexes(selectionableIndividuals.size(), 0);
+			ArrayList<Object> fitnessCases = selectFitnessCases(allFitnessCases);
+			selections.add(selectionableIndividuals.get(filter(competitorsIndexes, selectionableIndividuals, fitnessCases)));
 		}
-		return resultsReady;
+		
+		double duration = (double) (System.nanoTime() - start) / nSelections;
+		double selectionDuration = this.selectionDuration;
+		this.selectionDuration = selectionDuration <= 0.0 ? duration : 0.75 * selectionDuration + 0.25 * duration;
+		
+		return selections;
 	}
 	private final boolean handleResult(
 			EvolvedIndividual result, 
@@ -43,9 +43,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.gpapi.individuals.cells.Cell;
-import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
+import com.gpapi.individuals.cells.nucleuses.GenomeStore;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
+import com.gpapi.individuals.cells.nucleuses.nodes.ExecutionCostExceededException;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -58,6 +61,13 @@ import com.gpapi.individuals.cells.nucleuses.types.Result;
  * Note : This class is not thread-safe and must be externally synchronized if
  * at least one of several concurrent threads can access methods that could 
  * alter its state (or the state of its attributes, like the egg cell).
+ * The execute*() and eval*() methods are the exception : the egg cell runs each
+ * concurrent execution in its own context, so an individual can be executed by
+ * several threads at once (e.g. over different fitness cases). In that case the 
+ * last execution cost is the one of any of the concurrent executions, and the
+ * costs should rather be read from the counter of EvaluationState.current().
+ * makeChildWith() is another exception : it never modifies the parents, so the
+ * same individuals can be used concurrently as parents of several children.
  * 
  * @author jeremy
  *
@@ -93,6 +103,71 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 		this.lastExecutionCost = lastExecutionCost;
 	}
 	
+	private boolean lastExecutionAborted = false;
+	/**
+	 * Returns whether the last execution was aborted because it exceeded the 
+	 * builder's maximum execution cost, in which case the last execution cost 
+	 * is set to this maximum cost.
+	 * 
+	 * @return
+	 * 			True if the last execution was aborted.
+	 */
+	public final boolean isLastExecutionAborted() {
+		return lastExecutionAborted;
+	}
+	public final void setLastExecutionAborted(boolean lastExecutionAborted) {
+		this.lastExecutionAborted = lastExecutionAborted;
+	}
+	
+	private double inheritedExecutionCostPerNode = 0.0;
+	/**
+	 * Returns an estimate of the cost of an execution of this individual, which is meant
+	 * for scheduling the evaluations of the individuals (see {@link com.gpapi.algorithm.AbstractAlgorithm}).
+	 * It is the last execution cost if this individual has already been executed, or else
+	 * the size of its genome times the execution cost per node of the individuals it was 
+	 * copied from or made of (see copy() and makeChildWith()).
+	 * 
+	 * @return
+	 * 			The expected execution cost of this individual, or zero if it is unknown.
+	 */
+	public final double getExpectedExecutionCost() {
+		if(lastExecutionCost > 0)
+			return lastExecutionCost;
+		else if(inheritedExecutionCostPerNode > 0.0)
+			return inheritedExecutionCostPerNode * getEggCell().getTotalSize();
+		else
+			return 0.0;
+	}
+	private final double getExpectedExecutionCostPerNode() {
+		if(lastExecutionCost > 0)
+			return ((double) lastExecutionCost) / Math.max(1, getEggCell().getTotalSize());
+		else
+			return inheritedExecutionCostPerNode;
+	}
+	
+	
+	private int age = 0;
+	/**
+	 * Returns the number of generations this individual survived.
+	 * 
+	 * @return
+	 * 			The age of this individual.
+	 */
+	public final int getAge() {
+		return age;
+	}
+	/**
+	 * Increments the age of this individual, which is done by the algorithm at
+	 * the end of each generation. When the age reaches the builder's compilation
+	 * threshold, the compilation of the egg cell is requested, so that only the 
+	 * individuals that survive several generations pay the compilation cost.
+	 */
+	public final void incrementAge() {
+		age++;
+		if(age == getBuilder().getCompilationThreshold())
+			getEggCell().requestCompilation();
+	}
+	
 	
 	private RawFitnessType rawFitnessType = null;
 	public final RawFitnessType getRawFitnessType() {
@@ -146,9 +221,26 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 	
 	
 	public final void clearMemory(){
-		for(ADS ads : getEggCell().getNucleus().getAdss())
-			ads.clear();
+		getEggCell().clearMemory();
 	}
+	/**
+	 * Compacts the egg cell of this individual in the builder's genome store, if any
+	 * (see {@link Cell#compact(GenomeStore)}), or else linearizes it if the builder 
+	 * uses linear genomes (see {@link Cell#linearize()}).
+	 * 
+	 * @return
+	 * 			True if the egg cell is compact or linear.
+	 */
+	public final boolean compact(){
+		GenomeStore store = getBuilder().getGenomeStore();
+		if(store != null)
+			return getEggCell().compact(store);
+		else if(getBuilder().isLinearGenomes())
+			return getEggCell().linearize();
+		else
+			return false;
+	}
+	
 	public final boolean isFitnessReady(){
 		return getRawFitnessType() != null;
 	}
@@ -156,6 +248,7 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 	
 	public final EvolvedIndividual copy(boolean keepFitness) {
 		EvolvedIndividual copy = new EvolvedIndividual(builder, getEggCell().copy());
+		copy.inheritedExecutionCostPerNode = getExpectedExecutionCostPerNode();
 		
 		if(keepFitness){
 			copy.setRawFitnessType(getRawFitnessType());
@@ -169,10 +262,47 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 	public final EvolvedIndividual generateNew() {
 		return builder.build();
 	}
+	/**
+	 * Generates a new individual for a ramped half-and-half initialization (see 
+	 * {@link EvolvedIndividualBuilder#build(double, boolean)}).
+	 * 
+	 * @param ramp
+	 * @param full
+	 * @return
+	 * 			The new individual.
+	 */
+	public final EvolvedIndividual generateNew(double ramp, boolean full) {
+		return builder.build(ramp, full);
+	}
+	/**
+	 * Creates a child of this individual and of the given one, which is simplified
+	 * if the builder has a simplifier. The child is created by the genetic operator, 
+	 * or by splicing the linear egg cells of the parents with the builder's splice 
+	 * crossover probability (see {@link Cell#spliceWith(Cell)}).
+	 * <p>
+	 * The spliced children aren't simplified, since simplifying them would rebuild the 
+	 * trees that splicing avoids building.
+	 * <p>
+	 * Note : Neither this individual nor the other one is modified, so this method
+	 * can be invoked concurrently on the same parents without synchronization.
+	 * 
+	 * @param other
+	 * @return
+	 * 			The child.
+	 */
 	public final EvolvedIndividual makeChildWith(EvolvedIndividual other) {
-		return new EvolvedIndividual(
-				builder, 
-				getEggCell().mergeWith(other.getEggCell()));
+		Cell childEggCell = null;
+		if(builder.getSpliceCrossoverProba() > 0.0 && ThreadLocalRandom.current().nextDouble() < builder.getSpliceCrossoverProba())
+			childEggCell = getEggCell().spliceWith(other.getEggCell());
+		if(childEggCell == null){
+			childEggCell = getEggCell().mergeWith(other.getEggCell());
+			if(builder.getSimplifier() != null)
+				builder.getSimplifier().simplify(childEggCell.getNucleus());
+		}
+		
+		EvolvedIndividual child = new EvolvedIndividual(builder, childEggCell);
+		child.inheritedExecutionCostPerNode = (getExpectedExecutionCostPerNode() + other.getExpectedExecutionCostPerNode()) / 2.0;
+		return child;
 	}
 	
 	
@@ -198,18 +328,24 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 		
 		ArrayList<AbstractType> result = new ArrayList<AbstractType>(nRpbs);
 		
-		int rpbIndex = 0;
-		int executionCost = 0;
-		for(List<AbstractType> currentRpbArgs : args){
-			Result rpbResult = getEggCell().executeUnconditionally(rpbIndex, currentRpbArgs, collections);
-			if(rpbResult != null){
-				result.add(rpbResult.getValue());
-				executionCost += rpbResult.getCost();
-			} else
-				result.add(null);
-			rpbIndex++;
+		EvaluationState state = EvaluationState.current();
+		state.pushCostBudget(getBuilder().getMaxExecutionCost());
+		try {
+			int rpbIndex = 0;
+			int executionCost = 0;
+			for(List<AbstractType> currentRpbArgs : args){
+				Result rpbResult = executeRpbUnconditionally(state, rpbIndex, currentRpbArgs, collections);
+				if(rpbResult != null){
+					result.add(rpbResult.getValue());
+					executionCost += rpbResult.getCost();
+				} else
+					result.add(null);
+				rpbIndex++;
+			}
+			endExecution(state, executionCost);
+		} finally {
+			state.popCostBudget();
 		}
-		setLastExecutionCost(executionCost);
 		
 		return result;
 	}
@@ -237,13 +373,14 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 	}
 	
 	public final AbstractType executeUnconditionally(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) {
-		Result result = getEggCell().executeUnconditionally(rpbIndex, args, collections);
-		if(result != null){
-			setLastExecutionCost(result.getCost());
-			return result.getValue();
-		} else {
-			setLastExecutionCost(0);
-			return null;
+		EvaluationState state = EvaluationState.current();
+		state.pushCostBudget(getBuilder().getMaxExecutionCost());
+		try {
+			Result result = executeRpbUnconditionally(state, rpbIndex, args, collections);
+			endExecution(state, result != null ? result.getCost() : 0);
+			return result != null ? result.getValue() : null;
+		} finally {
+			state.popCostBudget();
 		}
 	}
 	public final AbstractType executeUnconditionally(int rpbIndex, List<AbstractType> args) {
@@ -268,15 +405,24 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 		
 		ArrayList<AbstractType> result = new ArrayList<AbstractType>(nRpbs);
 		
-		int rpbIndex = 0;
-		int executionCost = 0;
-		for(List<AbstractType> currentRpbArgs : args){
-			Result rpbResult = getEggCell().execute(rpbIndex, currentRpbArgs, collections);
-			result.add(rpbResult.getValue());
-			executionCost += rpbResult.getCost();
-			rpbIndex++;
+		EvaluationState state = EvaluationState.current();
+		state.pushCostBudget(getBuilder().getMaxExecutionCost());
+		try {
+			int rpbIndex = 0;
+			int executionCost = 0;
+			for(List<AbstractType> currentRpbArgs : args){
+				Result rpbResult = executeRpb(state, rpbIndex, currentRpbArgs, collections);
+				result.add(rpbResult.getValue());
+				executionCost += rpbResult.getCost();
+				rpbIndex++;
+			}
+			endExecution(state, executionCost);
+		} catch(ExecutionCostExceededException e) {
+			endExecution(state, 0);
+			throw e;
+		} finally {
+			state.popCostBudget();
 		}
-		setLastExecutionCost(executionCost);
 		
 		return result;
 	}
@@ -304,9 +450,18 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 	}
 	
 	public final AbstractType execute(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
-		Result result = getEggCell().execute(rpbIndex, args, collections);
-		setLastExecutionCost(result.getCost());
-		return result.getValue();
+		EvaluationState state = EvaluationState.current();
+		state.pushCostBudget(getBuilder().getMaxExecutionCost());
+		try {
+			Result result = executeRpb(state, rpbIndex, args, collections);
+			endExecution(state, result.getCost());
+			return result.getValue();
+		} catch(ExecutionCostExceededException e) {
+			endExecution(state, 0);
+			throw e;
+		} finally {
+			state.popCostBudget();
+		}
 	}
 	public final AbstractType execute(int rpbIndex, List<AbstractType> args) throws Exception {
 		return execute(rpbIndex, args, Collections.emptyList());
@@ -320,6 +475,159 @@ public final class EvolvedIndividual implements Comparable<EvolvedIndividual>, S
 	
 	
 	
+	private final Result executeRpb(EvaluationState state, int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
+		int initialCost = state.getCost();
+		Result result = getEggCell().execute(rpbIndex, args, collections);
+		state.addResultCost(initialCost, result.getCost());
+		return result;
+	}
+	private final Result executeRpbUnconditionally(EvaluationState state, int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) {
+		int initialCost = state.getCost();
+		Result result = getEggCell().executeUnconditionally(rpbIndex, args, collections);
+		if(result == null || state.isCostBudgetExceeded())
+			return null;
+		
+		try {
+			state.addResultCost(initialCost, result.getCost());
+			return result;
+		} catch(ExecutionCostExceededException e) {
+			return null;
+		}
+	}
+	/**
+	 * Sets the last execution cost to the given one, or to the builder's maximum
+	 * execution cost if the current cost budget is exceeded.
+	 */
+	private final void endExecution(EvaluationState state, int executionCost){
+		lastExecutionAborted = state.isCostBudgetExceeded();
+		if(lastExecutionAborted)
+			setLastExecutionCost(getBuilder().getMaxExecutionCost());
+		else
+			setLastExecutionCost(executionCost);
+	}
+	
+	
+	
+	/**
+	 * Primitive counterpart of execute(), for RPBs returning a RealValue.
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @param collections
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final double evalDouble(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
+		EvaluationState state = EvaluationState.current();
+		int initialCost = state.getCost();
+		
+		state.pushCostBudget(getBuilder().getMaxExecutionCost());
+		try {
+			double value = getEggCell().evalDouble(rpbIndex, args, collections);
+			endExecution(state, state.getCost() - initialCost);
+			return value;
+		} catch(ExecutionCostExceededException e) {
+			endExecution(state, 0);
+			throw e;
+		} finally {
+			state.popCostBudget();
+		}
+	}
+	public final double evalDouble(int rpbIndex, List<AbstractType> args) throws Exception {
+		return evalDouble(rpbIndex, args, Collections.emptyList());
+	}
+	/**
+	 * Primitive counterpart of execute(), for RPBs returning a BooleanValue.
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @param collections
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final boolean evalBoolean(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
+		EvaluationState state = EvaluationState.current();
+		int initialCost = state.getCost();
+		
+		state.pushCostBudget(getBuilder().getMaxExecutionCost());
+		try {
+			boolean value = getEggCell().evalBoolean(rpbIndex, args, collections);
+			endExecution(state, state.getCost() - initialCost);
+			return value;
+		} catch(ExecutionCostExceededException e) {
+			endExecution(state, 0);
+			throw e;
+		} finally {
+			state.popCostBudget();
+		}
+	}
+	public final boolean evalBoolean(int rpbIndex, List<AbstractType> args) throws Exception {
+		return evalBoolean(rpbIndex, args, Collections.emptyList());
+	}
+	
+	
+	
+	/**
+	 * Evaluates all the RPBs over a batch of fitness cases, given as columns of argument
+	 * values (see {@link Cell#evalColumns(List, List, int[], int)}). The builder's maximum
+	 * execution cost applies to each fitness case, as with execute(), and the last execution
+	 * cost is set to the mean cost of the fitness cases, i.e. to the cost of a call to 
+	 * execute().
+	 * 
+	 * @param nRows
+	 * 			The number of fitness cases, i.e. the size of the argument columns.
+	 * @param argsColumns
+	 * 			For each RPB, one column per argument.
+	 * @param collections
+	 * @return
+	 * 			For each RPB, a column holding the computed values.
+	 * @throws ExecutionCostExceededException
+	 * 			If the execution of a fitness case exceeds the builder's maximum execution cost.
+	 * @throws Exception
+	 */
+	public final List<double[]> evalColumns(int nRows, List<List<double[]>> argsColumns, List<List<List<AbstractType>>> collections) throws Exception {
+		if(nRows < 0)
+			throw new IllegalArgumentException("nRows can't be negative!");
+		
+		int[] costs = new int[nRows];
+		List<double[]> results;
+		try {
+			results = getEggCell().evalColumns(argsColumns, collections, costs, getBuilder().getMaxExecutionCost());
+		} catch(ExecutionCostExceededException e) {
+			lastExecutionAborted = true;
+			setLastExecutionCost(getBuilder().getMaxExecutionCost());
+			throw e;
+		}
+		
+		long executionCost = 0;
+		for(int cost : costs)
+			executionCost += cost;
+		lastExecutionAborted = false;
+		setLastExecutionCost(nRows > 0 ? (int) Math.round(((double) executionCost) / nRows) : 0);
+		
+		return results;
+	}
+	public final List<double[]> evalColumns(int nRows, List<List<double[]>> argsColumns) throws Exception {
+		return evalColumns(nRows, argsColumns, Collections.emptyList());
+	}
+	
+	public final List<double[]> evalColumnsSameArgs(int nRows, List<double[]> commonArgsColumns, List<List<List<AbstractType>>> collections) throws Exception {
+		int nRpbs = getEggCell().getNucleus().getRpbs().size();
+		
+		ArrayList<List<double[]>> argsColumns = new ArrayList<List<double[]>>(nRpbs);
+		for(int i = 0; i < nRpbs; i++)
+			argsColumns.add(commonArgsColumns);
+		
+		return evalColumns(nRows, argsColumns, collections);
+	}
+	public final List<double[]> evalColumnsSameArgs(int nRows, List<double[]> commonArgsColumns) throws Exception {
+		return evalColumnsSameArgs(nRows, commonArgsColumns, Collections.emptyList());
+	}
+	
+	
+	
 	@Override
 	/**
 	 * A negative value indicates that this individual is better.
@@ -45,7 +45,9 @@ import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 import com.gpapi.individuals.cells.Cell;
+import com.gpapi.individuals.cells.nucleuses.GenomeStore;
 import com.gpapi.individuals.cells.nucleuses.Nucleus;
+import com.gpapi.individuals.cells.nucleuses.Simplifier;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.GeneticOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
 import com.gpapi.individuals.cells.nucleuses.modules.RPB;
@@ -463,6 +465,119 @@ public final class EvolvedIndividualBuilder implements Serializable {
 		return this;
 	}
 	
+	private int compilationThreshold = 0;
+	public final int getCompilationThreshold() {
+		return compilationThreshold;
+	}
+	/**
+	 * Sets the number of generations an individual must survive before its 
+	 * egg cell gets compiled (see {@link com.gpapi.individuals.cells.nucleuses.compilers.BytecodeCompiler}).
+	 * <p>
+	 * A value lower than 1 (the default) disables the compilation.
+	 * 
+	 * @param compilationThreshold
+	 * @return
+	 */
+	public final EvolvedIndividualBuilder setCompilationThreshold(int compilationThreshold) {
+		this.compilationThreshold = compilationThreshold;
+		return this;
+	}
+	
+	private int maxExecutionCost = Integer.MAX_VALUE;
+	public final int getMaxExecutionCost() {
+		return maxExecutionCost;
+	}
+	/**
+	 * Sets the maximum cost of each call to the execute() and eval*() methods of the
+	 * individuals, which is enforced while their programs run : an execution exceeding 
+	 * it is aborted (see {@link EvolvedIndividual#isLastExecutionAborted()}).
+	 * <p>
+	 * Integer.MAX_VALUE, the default, disables the limit.
+	 * 
+	 * @param maxExecutionCost
+	 * @return
+	 */
+	public final EvolvedIndividualBuilder setMaxExecutionCost(int maxExecutionCost) {
+		if(maxExecutionCost < 1)
+			throw new IllegalArgumentException("maxExecutionCost must be greater than 0!");
+		
+		this.maxExecutionCost = maxExecutionCost;
+		return this;
+	}
+	
+	private Simplifier simplifier = null;
+	public final Simplifier getSimplifier() {
+		return simplifier;
+	}
+	/**
+	 * Sets the simplifier applied to the offspring before they are evaluated
+	 * (null, the default, disables the simplification).
+	 * 
+	 * @param simplifier
+	 * @return
+	 */
+	public final EvolvedIndividualBuilder setSimplifier(Simplifier simplifier) {
+		this.simplifier = simplifier == null ? null : simplifier.copy();
+		return this;
+	}
+	
+	private GenomeStore genomeStore = null;
+	public final GenomeStore getGenomeStore() {
+		return genomeStore;
+	}
+	/**
+	 * Sets the store in which the algorithms keep the genomes of the individuals between
+	 * generations (see {@link Cell#compact(GenomeStore)}). The same store should be set
+	 * for all the builders of a run, so that all the individuals share their subtrees.
+	 * <p>
+	 * Null, the default, disables the compaction of the individuals.
+	 * 
+	 * @param genomeStore
+	 * @return
+	 */
+	public final EvolvedIndividualBuilder setGenomeStore(GenomeStore genomeStore) {
+		this.genomeStore = genomeStore;
+		return this;
+	}
+	
+	private boolean linearGenomes = false;
+	public final boolean isLinearGenomes() {
+		return linearGenomes;
+	}
+	/**
+	 * Sets whether the algorithms keep the genomes of the individuals in their linear
+	 * form between generations (see {@link Cell#linearize()}), which is ignored if a 
+	 * genome store is set. Default is false.
+	 * 
+	 * @param linearGenomes
+	 * @return
+	 */
+	public final EvolvedIndividualBuilder setLinearGenomes(boolean linearGenomes) {
+		this.linearGenomes = linearGenomes;
+		return this;
+	}
+	
+	private double spliceCrossoverProba = 0.0;
+	public final double getSpliceCrossoverProba() {
+		return spliceCrossoverProba;
+	}
+	/**
+	 * Sets the probability for a child of two linear individuals to be created by
+	 * splicing their genomes (see {@link Cell#spliceWith(Cell)}) instead of by the 
+	 * genetic operator, i.e. without mutation nor architecture alteration. Default 
+	 * is 0.
+	 * 
+	 * @param spliceCrossoverProba
+	 * @return
+	 */
+	public final EvolvedIndividualBuilder setSpliceCrossoverProba(double spliceCrossoverProba) {
+		if(spliceCrossoverProba < 0.0 || spliceCrossoverProba > 1.0)
+			throw new IllegalArgumentException("spliceCrossoverProba must be between 0 and 1!");
+		
+		this.spliceCrossoverProba = spliceCrossoverProba;
+		return this;
+	}
+	
 	
 	
 	private EvolvedIndividualBuilder(GeneticOperatorInterface geneticOperator){
@@ -842,26 +957,65 @@ public final class EvolvedIndividualBuilder implements Serializable {
 	
 	
 	public final EvolvedIndividual build(){
+		return build(
+				getInitRpbsSize(), 
+				getInitAdlsSize(), 
+				getInitAdrsSize(), 
+				getInitAdisSize(), 
+				getInitAdfsSize());
+	}
+	/**
+	 * Builds a new individual for a ramped half-and-half initialization, i.e. whose 
+	 * branches sizes are ramped between their minimum and maximum initial sizes : the 
+	 * size of the branches of each kind is the minimum plus the given fraction of the 
+	 * range if full is true, or a random size between the minimum and this one otherwise.
+	 * <p>
+	 * Note : The trees are generated with the PTC2 algorithm, which controls their size
+	 * rather than their depth, so the ramp is a ramp of sizes instead of depths.
+	 * 
+	 * @param ramp
+	 * 			The fraction of the range of the initial sizes, between 0 and 1.
+	 * @param full
+	 * 			Whether the branches have the ramped size, or a random size up to it.
+	 * @return
+	 * 			The new individual.
+	 */
+	public final EvolvedIndividual build(double ramp, boolean full){
+		if(ramp < 0.0 || ramp > 1.0)
+			throw new IllegalArgumentException("ramp must be between 0 and 1!");
+		
+		return build(
+				rampedSize(minInitRpbsSize, maxInitRpbsSize, ramp, full), 
+				rampedSize(minInitAdlsSize, maxInitAdlsSize, ramp, full), 
+				rampedSize(minInitAdrsSize, maxInitAdrsSize, ramp, full), 
+				rampedSize(minInitAdisSize, maxInitAdisSize, ramp, full), 
+				rampedSize(minInitAdfsSize, maxInitAdfsSize, ramp, full));
+	}
+	private static final int rampedSize(int minSize, int maxSize, double ramp, boolean full){
+		int size = minSize + (int) Math.round(ramp * (maxSize - minSize));
+		return full ? size : ThreadLocalRandom.current().nextInt(minSize, size+1);
+	}
+	private final EvolvedIndividual build(int initRpbsSize, int initAdlsSize, int initAdrsSize, int initAdisSize, int initAdfsSize){
 		return new EvolvedIndividual(this, new Cell(newNucleus(
 				getGeneticOperator().copy(), 
-				getInitRpbsSize(),
+				initRpbsSize,
 				getRpbsTypes(),
 				getRpbsArgsTypes(), 
 				getRpbsArgsNames(), 
-				getInitAdlsSize(), 
+				initAdlsSize, 
 				getAdlsInitializationTypes(), 
 				getAdlsBodyTypes(), 
 				getAdlsArgsTypes(), 
 				getAdlsMaxCalls(), 
 				getAdlsMaxIterations(), 
 				isHierarchicalAdls(), 
-				getInitAdrsSize(), 
+				initAdrsSize, 
 				getAdrsTypes(), 
 				getAdrsArgsTypes(), 
 				getAdrsMaxCalls(), 
 				getAdrsMaxRecursionDepths(), 
 				isHierarchicalAdrs(), 
-				getInitAdisSize(), 
+				initAdisSize, 
 				getAdisTypes(), 
 				getAdisExternalArgsTypes(), 
 				getAdisCollectionIds(), 
@@ -869,7 +1023,7 @@ public final class EvolvedIndividualBuilder implements Serializable {
 				getAdisFieldsNames(), 
 				getAdisMaxCalls(), 
 				isHierarchicalAdis(), 
-				getInitAdfsSize(), 
+				initAdfsSize, 
 				getAdfsTypes(),
 				getAdfsArgsTypes(),
 				isHierarchicalAdfs(),
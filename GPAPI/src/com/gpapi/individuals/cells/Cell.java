@@ -38,14 +38,30 @@
 package com.gpapi.individuals.cells;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import com.gpapi.individuals.cells.nucleuses.CompactNucleus;
+import com.gpapi.individuals.cells.nucleuses.GenomeStore;
+import com.gpapi.individuals.cells.nucleuses.LinearNucleus;
 import com.gpapi.individuals.cells.nucleuses.Nucleus;
+import com.gpapi.individuals.cells.nucleuses.compilers.BatchEvaluator;
+import com.gpapi.individuals.cells.nucleuses.compilers.BytecodeCompiler;
+import com.gpapi.individuals.cells.nucleuses.compilers.CompiledProgram;
+import com.gpapi.individuals.cells.nucleuses.compilers.SubtreeCache;
+import com.gpapi.individuals.cells.nucleuses.modules.Argument;
+import com.gpapi.individuals.cells.nucleuses.modules.RPB;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
+import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
+import com.gpapi.individuals.cells.nucleuses.nodes.ExecutionCostExceededException;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
 
@@ -54,21 +70,245 @@ public final class Cell implements Serializable {
 	
 	private static final long serialVersionUID = 1413680296542085630L;
 	
-	private final Nucleus nucleus;
+	private volatile Nucleus nucleus;
 	/**
 	 * TODO : Description.
+	 * <p>
+	 * Note : If the cell is compact or linear, the nucleus is rebuilt first.
 	 * 
 	 * @return
 	 */
 	public final Nucleus getNucleus() {
+		Nucleus nucleus = this.nucleus;
+		if(nucleus == null){
+			synchronized(this){
+				if(this.nucleus == null){
+					this.nucleus = compactNucleus != null ? compactNucleus.expand() : linearNucleus.expand();
+					compactNucleus = null;
+					linearNucleus = null;
+				}
+				nucleus = this.nucleus;
+			}
+		}
 		return nucleus;
 	}
 	
+	private CompactNucleus compactNucleus = null;
+	/**
+	 * Indicates whether the nucleus of this cell is currently stored in a 
+	 * {@link GenomeStore} (see compact()).
+	 * 
+	 * @return
+	 * 			True if the cell is compact.
+	 */
+	public final synchronized boolean isCompact() {
+		return compactNucleus != null;
+	}
+	/**
+	 * Stores the nucleus of this cell in the given store, so that the subtrees it shares
+	 * with the other individuals are only stored once. The nucleus is rebuilt the next 
+	 * time it is requested (i.e. when the cell is executed or used as a parent).<p>
+	 * 
+	 * The cells whose compilation was requested are not compacted, since their compiled
+	 * version would be lost. As with copy(), the content of the ADSs is not kept.<p>
+	 * 
+	 * Note : This method must not be called while the cell is in use by another thread.
+	 * 
+	 * @param store
+	 * @return
+	 * 			True if the cell is compact.
+	 */
+	public final synchronized boolean compact(GenomeStore store) {
+		if(store == null)
+			throw new NullPointerException("Argument store can't be null!");
+		
+		if(compactNucleus != null)
+			compactNucleus = compactNucleus.reintern(store);
+		else if(nucleus != null && compiledProgram == null && !compilationRequested){
+			CompactNucleus newCompactNucleus = CompactNucleus.create(nucleus, store);
+			if(newCompactNucleus != null){
+				compactNucleus = newCompactNucleus;
+				nucleus = null;
+				
+				primaryContext = null;
+				idleContexts = null;
+			}
+		}
+		return isCompact();
+	}
+	
+	private LinearNucleus linearNucleus = null;
+	/**
+	 * Indicates whether the nucleus of this cell is currently stored in a 
+	 * {@link LinearNucleus} (see linearize()).
+	 * 
+	 * @return
+	 * 			True if the cell is linear.
+	 */
+	public final synchronized boolean isLinear() {
+		return linearNucleus != null;
+	}
+	/**
+	 * Stores the nucleus of this cell in its linear form, i.e. as a few arrays per
+	 * branch instead of a tree of nodes, which is shared by the copies of the cell 
+	 * and allows them to be crossed over by spliceWith(). The nucleus is rebuilt the 
+	 * next time it is requested, as with compact().<p>
+	 * 
+	 * The cells which are compact or whose compilation was requested are not linearized.
+	 * <p>
+	 * Note : This method must not be called while the cell is in use by another thread.
+	 * 
+	 * @return
+	 * 			True if the cell is linear.
+	 */
+	public final synchronized boolean linearize() {
+		if(nucleus != null && compiledProgram == null && !compilationRequested){
+			LinearNucleus newLinearNucleus = LinearNucleus.create(nucleus);
+			if(newLinearNucleus != null){
+				linearNucleus = newLinearNucleus;
+				nucleus = null;
+				
+				primaryContext = null;
+				idleContexts = null;
+			}
+		}
+		return isLinear();
+	}
+	
+	/**
+	 * Returns the total size of the nucleus (see {@link Nucleus#getTotalSize()}), which
+	 * unlike getNucleus().getTotalSize() doesn't rebuild the nucleus if the cell is compact
+	 * or linear.
+	 * 
+	 * @return
+	 * 			The total size of the nucleus.
+	 */
+	public final int getTotalSize() {
+		Nucleus nucleus = this.nucleus;
+		if(nucleus != null)
+			return nucleus.getTotalSize();
+		
+		synchronized(this){
+			if(this.nucleus != null)
+				return this.nucleus.getTotalSize();
+			else if(compactNucleus != null)
+				return compactNucleus.getTotalSize();
+			else
+				return linearNucleus.getTotalSize();
+		}
+	}
+	
+	
+	
+	private transient volatile CompiledProgram compiledProgram = null;
+	/**
+	 * Returns the compiled version of the nucleus, if it was compiled.
+	 * 
+	 * @return
+	 * 			The compiled program, or null if the nucleus wasn't compiled
+	 * 			(or couldn't be).
+	 */
+	public final CompiledProgram getCompiledProgram() {
+		return compiledProgram;
+	}
+	
+	private transient volatile boolean compilationRequested = false;
+	/**
+	 * Requests the nucleus to be compiled by the {@link BytecodeCompiler}. The
+	 * compilation is performed lazily, by the thread performing the next execution,
+	 * and the tree interpreter is still used for the RPBs that can't be compiled.
+	 */
+	public final void requestCompilation() {
+		compilationRequested = true;
+	}
+	/**
+	 * Discards the compiled version of the nucleus. Must be called whenever the
+	 * nucleus is modified after having been compiled.
+	 */
+	public final void discardCompiledProgram() {
+		compiledProgram = null;
+	}
+	private final CompiledProgram compileIfRequested() {
+		if(compilationRequested){
+			synchronized(this){
+				if(compilationRequested){
+					compiledProgram = BytecodeCompiler.compile(getNucleus());
+					compilationRequested = false;
+				}
+			}
+		}
+		return compiledProgram;
+	}
+	
+	
+	
+	private transient ExecutionContext primaryContext = null;
+	
+	private transient boolean primaryContextInUse = false;
+	
+	private transient ConcurrentLinkedQueue<ExecutionContext> idleContexts = null;
+	
+	/**
+	 * Returns an execution context which isn't used by any other thread. The primary
+	 * context, which executes the nucleus itself, is returned whenever it isn't in use,
+	 * so that the executions which don't overlap always use the nucleus itself (and its
+	 * ADSs), exactly as if there were no contexts. The other contexts execute copies of
+	 * the nucleus, which are created when several threads execute the cell at the same
+	 * time, and reused afterwards unless the nucleus has ADSs (since the memory of the
+	 * copies would differ from the one of the nucleus).
+	 */
+	private final ExecutionContext acquireContext() {
+		Nucleus nucleus = getNucleus();
+		ConcurrentLinkedQueue<ExecutionContext> contexts;
+		synchronized(this){
+			if(!primaryContextInUse){
+				primaryContextInUse = true;
+				if(primaryContext == null)
+					primaryContext = new ExecutionContext(nucleus, true);
+				return primaryContext;
+			}
+			
+			if(idleContexts == null)
+				idleContexts = new ConcurrentLinkedQueue<ExecutionContext>();
+			contexts = idleContexts;
+		}
+		
+		ExecutionContext context = contexts.poll();
+		return context != null ? context : new ExecutionContext(nucleus.copy(), false);
+	}
+	private final void releaseContext(ExecutionContext context) {
+		if(context.isPrimary()){
+			synchronized(this){
+				primaryContextInUse = false;
+			}
+		} else if(context.getNucleus().getAdss().isEmpty()){
+			ConcurrentLinkedQueue<ExecutionContext> contexts = idleContexts;
+			if(contexts != null)
+				contexts.offer(context);
+		}
+	}
+	/**
+	 * Clears the memory of the ADSs of the nucleus, and drops the idle copies of the
+	 * nucleus created for the concurrent executions (see execute()).
+	 */
+	public final void clearMemory() {
+		for(ADS ads : getNucleus().getAdss())
+			ads.clear();
+		
+		synchronized(this){
+			idleContexts = null;
+		}
+	}
+	
 	
 	
 	public Cell(Nucleus nucleus){
 		this.nucleus = nucleus;
 	}
+	private Cell(LinearNucleus linearNucleus){
+		this.nucleus = null;
+		this.linearNucleus = linearNucleus;
+	}
 	
 	
 	/**
@@ -94,8 +334,18 @@ public final class Cell implements Serializable {
 	 * 			If any error occur during the execution of the given RPB.
 	 */
 	public final Result execute(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
-		init(collections);
-		return getNucleus().getRpbs().get(rpbIndex).execute(args);
+		ExecutionContext context = acquireContext();
+		try {
+			init(context.getNucleus(), collections);
+		
+			CompiledProgram program = context.getCompiledProgram(compileIfRequested());
+			if(program != null && program.isCompiled(rpbIndex))
+				return program.execute(rpbIndex, args);
+			else
+				return context.getNucleus().getRpbs().get(rpbIndex).execute(args);
+		} finally {
+			releaseContext(context);
+		}
 	}
 	/**
 	 * TODO : Description.
@@ -119,11 +369,274 @@ public final class Cell implements Serializable {
 	 * 			any error occur during the execution of the RPB.
 	 */
 	public final Result executeUnconditionally(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections){
-		try{
-			return execute(rpbIndex, args, collections);
+		AbstractType returnType = getRpbReturnType(rpbIndex);
+		CompiledProgram program = compiledProgram;
+		if((returnType instanceof RealValue || returnType instanceof BooleanValue) && 
+				!compilationRequested && (program == null || !program.isCompiled(rpbIndex))){
+			EvaluationState state = EvaluationState.current();
+			int initialCost = state.getCost();
+			
+			double value = evalUnconditionally(rpbIndex, args, collections, returnType instanceof BooleanValue, state);
+			if(state.clearFailure() != null)
+				return null;
+			
+			AbstractType result = returnType.copy();
+			if(result instanceof RealValue)
+				((RealValue) result).setValue(value);
+			else
+				((BooleanValue) result).setValue(value != 0.0);
+			return new Result(result, state.getCost() - initialCost);
+		} else {
+			try{
+				return execute(rpbIndex, args, collections);
+			} catch(Exception e) {
+				return null;
+			}
+		}
+	}
+	private final AbstractType getRpbReturnType(int rpbIndex){
+		List<RPB> rpbs = getNucleus().getRpbs();
+		return rpbIndex >= 0 && rpbIndex < rpbs.size() ? rpbs.get(rpbIndex).getReturnType() : null;
+	}
+	
+	
+	/**
+	 * Primitive counterpart of execute(), for RPBs returning a RealValue, which doesn't
+	 * allocate any Result nor RealValue object for the built-in nodes. The execution cost 
+	 * is added to the counter of EvaluationState.current().
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @param collections
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 * 			If any error occur during the execution of the given RPB.
+	 */
+	public final double evalDouble(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
+		EvaluationState state = EvaluationState.current();
+		state.clearFailure();
+		
+		double value = eval(rpbIndex, args, collections, false, state);
+		checkFailure(state);
+		
+		return value;
+	}
+	/**
+	 * Primitive counterpart of execute(), for RPBs returning a BooleanValue, which doesn't
+	 * allocate any Result nor BooleanValue object for the built-in nodes. The execution cost 
+	 * is added to the counter of EvaluationState.current().
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @param collections
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 * 			If any error occur during the execution of the given RPB.
+	 */
+	public final boolean evalBoolean(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) throws Exception {
+		EvaluationState state = EvaluationState.current();
+		state.clearFailure();
+		
+		double value = eval(rpbIndex, args, collections, true, state);
+		checkFailure(state);
+		
+		return value != 0.0;
+	}
+	/**
+	 * Exception-free counterpart of evalDouble(), which signals the failures through 
+	 * EvaluationState.current() (see {@link EvaluationState#isFailed()}), in which 
+	 * case NaN is returned. The previous failure, if any, is cleared first.
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @param collections
+	 * @return
+	 * 			The same value as the one returned by execute(), or NaN.
+	 */
+	public final double evalDoubleUnconditionally(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) {
+		EvaluationState state = EvaluationState.current();
+		double value = evalUnconditionally(rpbIndex, args, collections, false, state);
+		return state.isFailed() ? Double.NaN : value;
+	}
+	/**
+	 * Exception-free counterpart of evalBoolean(), which signals the failures through 
+	 * EvaluationState.current() (see {@link EvaluationState#isFailed()}), in which 
+	 * case false is returned. The previous failure, if any, is cleared first.
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @param collections
+	 * @return
+	 * 			The same value as the one returned by execute(), or false.
+	 */
+	public final boolean evalBooleanUnconditionally(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections) {
+		EvaluationState state = EvaluationState.current();
+		double value = evalUnconditionally(rpbIndex, args, collections, true, state);
+		return !state.isFailed() && value != 0.0;
+	}
+	private final double evalUnconditionally(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections, boolean booleanResult, EvaluationState state) {
+		state.clearFailure();
+		try {
+			return eval(rpbIndex, args, collections, booleanResult, state);
 		} catch(Exception e) {
-			return null;
+			state.fail(String.valueOf(e.getMessage()));
+			return Double.NaN;
+		}
+	}
+	private final double eval(int rpbIndex, List<AbstractType> args, List<List<List<AbstractType>>> collections, boolean booleanResult, EvaluationState state) throws Exception {
+		ExecutionContext context = acquireContext();
+		int top = state.getTop();
+		try {
+			if(collections == null){
+				state.fail("Argument collections can't be null !");
+				return Double.NaN;
+			}
+			init(context.getNucleus(), collections);
+			
+			List<RPB> rpbs = context.getNucleus().getRpbs();
+			if(rpbIndex < 0 || rpbIndex >= rpbs.size()){
+				state.fail("There is no RPB of index " + rpbIndex + " !");
+				return Double.NaN;
+			} else if(booleanResult)
+				return rpbs.get(rpbIndex).evalBoolean(args, state) ? 1.0 : 0.0;
+			else
+				return rpbs.get(rpbIndex).evalDouble(args, state);
+		} finally {
+			state.setTop(top);
+			releaseContext(context);
+		}
+	}
+	/**
+	 * Rethrows the failure signalled through the given state, if any, as an exception.
+	 */
+	private static final void checkFailure(EvaluationState state){
+		String failure = state.clearFailure();
+		if(failure != null)
+			throw new IllegalArgumentException(failure);
+	}
+	
+	
+	/**
+	 * Evaluates all the RPBs over a batch of fitness cases, given as columns of argument 
+	 * values (one value per fitness case, boolean values being given as 1.0 or 0.0).<p>
+	 * 
+	 * If all the RPBs can be evaluated by a {@link BatchEvaluator}, each of them is 
+	 * evaluated over the whole batch at once. Otherwise the fitness cases are executed 
+	 * one after the other, in the same order as with repeated calls to execute().
+	 * The batch evaluators use the default {@link SubtreeCache}, if any.<p>
+	 * 
+	 * The given maximum cost applies to each fitness case, i.e. to the execution of all 
+	 * the RPBs over one fitness case, as with a call to execute(). It is enforced while 
+	 * the fitness cases are executed one after the other, and after the evaluation of 
+	 * the whole batch otherwise (the batch evaluators only handle stateless nodes, whose 
+	 * cost is bounded by the size of the RPBs).
+	 * 
+	 * @param argsColumns
+	 * 			For each RPB, one column per argument, each of them holding one value per
+	 * 			fitness case.
+	 * @param collections
+	 * @param costs
+	 * 			The column to which the execution cost of each fitness case is added, whose
+	 * 			size is the number of fitness cases.
+	 * @param maxCost
+	 * 			The maximum cost of each fitness case, Integer.MAX_VALUE meaning no limit.
+	 * @return
+	 * 			For each RPB, a new column holding the computed values (boolean values
+	 * 			being returned as 1.0 or 0.0).
+	 * @throws ExecutionCostExceededException
+	 * 			If the execution of a fitness case exceeds the maximum cost.
+	 * @throws Exception
+	 * 			If any error occur during the execution of the RPBs.
+	 */
+	public final List<double[]> evalColumns(List<List<double[]>> argsColumns, List<List<List<AbstractType>>> collections, int[] costs, int maxCost) throws Exception {
+		if(argsColumns == null)
+			throw new NullPointerException("Argument argsColumns can't be null !");
+		else if(collections == null)
+			throw new NullPointerException("Argument collections can't be null !");
+		else if(costs == null)
+			throw new NullPointerException("Argument costs can't be null !");
+		
+		ExecutionContext context = acquireContext();
+		try {
+			return evalColumns(context.getNucleus(), argsColumns, collections, costs, maxCost);
+		} finally {
+			releaseContext(context);
+		}
+	}
+	private static final List<double[]> evalColumns(Nucleus nucleus, List<List<double[]>> argsColumns, List<List<List<AbstractType>>> collections, int[] costs, int maxCost) throws Exception {
+		List<RPB> rpbs = nucleus.getRpbs();
+		if(argsColumns.size() != rpbs.size())
+			throw new IllegalArgumentException("The given number of argument lists doesn't match the number of rpbs !");
+		
+		for(int i = 0; i < rpbs.size(); i++){
+			List<double[]> rpbArgsColumns = argsColumns.get(i);
+			if(rpbArgsColumns.size() != rpbs.get(i).getArgs().size())
+				throw new IllegalArgumentException("The given number of argument columns is different from the RPB's one !");
+			
+			for(double[] argColumn : rpbArgsColumns){
+				if(argColumn == null)
+					throw new NullPointerException("Argument columns can't be null !");
+				else if(argColumn.length != costs.length)
+					throw new IllegalArgumentException("The argument columns don't have the size of the costs column !");
+			}
+		}
+		
+		boolean batchable = true;
+		for(RPB rpb : rpbs)
+			batchable = batchable && BatchEvaluator.isBatchable(rpb);
+		
+		ArrayList<double[]> results = new ArrayList<double[]>(rpbs.size());
+		if(batchable){
+			int[] initialCosts = costs.clone();
+			BatchEvaluator evaluator = new BatchEvaluator(costs.length, SubtreeCache.getDefault());
+			for(int i = 0; i < rpbs.size(); i++)
+				results.add(evaluator.evaluate(rpbs.get(i), argsColumns.get(i), costs));
+			
+			for(int row = 0; row < costs.length; row++){
+				if(costs[row] - initialCosts[row] > maxCost)
+					throw ExecutionCostExceededException.INSTANCE;
+			}
+		} else {
+			for(int i = 0; i < rpbs.size(); i++)
+				results.add(new double[costs.length]);
+			
+			EvaluationState state = EvaluationState.current();
+			int top = state.getTop();
+			try {
+				for(int row = 0; row < costs.length; row++){
+					state.pushCostBudget(maxCost);
+					try {
+						for(int i = 0; i < rpbs.size(); i++){
+							init(nucleus, collections);
+							
+							RPB rpb = rpbs.get(i);
+							List<double[]> rpbArgsColumns = argsColumns.get(i);
+							for(int j = 0; j < rpbArgsColumns.size(); j++){
+								Argument arg = rpb.getArgs().get(j);
+								if(arg.getReturnType() instanceof BooleanValue)
+									arg.setBooleanValue(rpbArgsColumns.get(j)[row] != 0.0);
+								else
+									arg.setRealValue(rpbArgsColumns.get(j)[row]);
+							}
+							
+							int initialCost = state.getCost();
+							if(rpb.getReturnType() instanceof BooleanValue)
+								results.get(i)[row] = rpb.getRoot().evalBoolean(state) ? 1.0 : 0.0;
+							else
+								results.get(i)[row] = rpb.getRoot().evalDouble(state);
+							costs[row] += state.getCost() - initialCost;
+						}
+					} finally {
+						state.popCostBudget();
+					}
+				}
+			} finally {
+				state.setTop(top);
+			}
 		}
+		return results;
 	}
 	
 	
@@ -134,11 +647,11 @@ public final class Cell implements Serializable {
 	 * @throws NullPointerException
 	 * 			If collections is null.
 	 */
-	private final void init(List<List<List<AbstractType>>> collections){
+	private static final void init(Nucleus nucleus, List<List<List<AbstractType>>> collections){
 		if(collections == null)
 			throw new NullPointerException("Argument collections can't be null !");
 		
-		for(ADI adi : getNucleus().getAdis()){
+		for(ADI adi : nucleus.getAdis()){
 			if(!collections.isEmpty())
 				adi.setCollection(collections.get(adi.getCollectionId()));
 			else
@@ -146,18 +659,116 @@ public final class Cell implements Serializable {
 			adi.reset();
 		}
 		
-		for(ADR adr : getNucleus().getAdrs())
+		for(ADR adr : nucleus.getAdrs())
 			adr.reset();
 		
-		for(ADL adl : getNucleus().getAdls())
+		for(ADL adl : nucleus.getAdls())
 			adl.reset();
 	}
 	
 	
 	public final Cell copy(){
+		synchronized(this){
+			if(isCompact())
+				return new Cell(compactNucleus.expand());
+			else if(isLinear())
+				return new Cell(linearNucleus);
+		}
 		return new Cell(getNucleus().copy());
 	}
 	public final Cell mergeWith(Cell other){
-		return new Cell(getNucleus().mergeWith(other.getNucleus()));
+		return new Cell(getNucleusForReading().mergeWith(other.getNucleusForReading()));
+	}
+	/**
+	 * Creates a child of this cell and of the given one by splicing their linear
+	 * nucleuses (see {@link LinearNucleus#crossoverWith(LinearNucleus)}), so that
+	 * no tree is built. The child is linear.
+	 * 
+	 * @param other
+	 * @return
+	 * 			The child, or null if one of the cells isn't linear or if the crossover
+	 * 			isn't possible, in which case mergeWith() should be used instead.
+	 */
+	public final Cell spliceWith(Cell other){
+		LinearNucleus linearNucleus;
+		synchronized(this){
+			linearNucleus = this.linearNucleus;
+		}
+		LinearNucleus otherLinearNucleus;
+		synchronized(other){
+			otherLinearNucleus = other.linearNucleus;
+		}
+		
+		if(linearNucleus == null || otherLinearNucleus == null)
+			return null;
+		
+		LinearNucleus childLinearNucleus = linearNucleus.crossoverWith(otherLinearNucleus);
+		return childLinearNucleus == null ? null : new Cell(childLinearNucleus);
+	}
+	/**
+	 * Returns the nucleus, or a temporary copy of it if the cell is compact or linear,
+	 * so that the cell stays compact or linear (e.g. when a parent is used for breeding,
+	 * or when the structure of an individual is hashed).
+	 * <p>
+	 * Note : The returned nucleus must only be read.
+	 * 
+	 * @return
+	 * 			The nucleus, or a temporary copy of it.
+	 */
+	public final Nucleus getNucleusForReading(){
+		synchronized(this){
+			if(isCompact())
+				return compactNucleus.expand();
+			else if(isLinear())
+				return linearNucleus.expand();
+		}
+		return getNucleus();
+	}
+	
+	
+	
+	/**
+	 * Holds the mutable state of an execution of the cell, i.e. a nucleus (the modules
+	 * keep the values of their arguments and their counters) and an instance of the
+	 * compiled program (which accumulates the execution cost), so that the same cell 
+	 * can be executed by several threads at once.
+	 */
+	private static final class ExecutionContext {
+		
+		private final Nucleus nucleus;
+		private final Nucleus getNucleus() {
+			return nucleus;
+		}
+		
+		private final boolean primary;
+		private final boolean isPrimary() {
+			return primary;
+		}
+		
+		private CompiledProgram sharedCompiledProgram = null;
+		
+		private CompiledProgram compiledProgram = null;
+		
+		
+		
+		private ExecutionContext(Nucleus nucleus, boolean primary){
+			this.nucleus = nucleus;
+			this.primary = primary;
+		}
+		
+		
+		/**
+		 * Returns the instance of the given compiled program used by this context.
+		 */
+		private final CompiledProgram getCompiledProgram(CompiledProgram sharedCompiledProgram){
+			if(sharedCompiledProgram != this.sharedCompiledProgram){
+				this.sharedCompiledProgram = sharedCompiledProgram;
+				if(sharedCompiledProgram == null || primary)
+					compiledProgram = sharedCompiledProgram;
+				else
+					compiledProgram = sharedCompiledProgram.newInstance();
+			}
+			return compiledProgram;
+		}
 	}
 }
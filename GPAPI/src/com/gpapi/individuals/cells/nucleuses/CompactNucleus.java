@@ -0,0 +1,166 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * CompactNucleus.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses;
+
+import java.io.Serializable;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+
+
+
+/**
+ * 
+ * Compact form of a {@link Nucleus}, whose branches are stored as hash-consed
+ * subtrees of a {@link GenomeStore}.<p>
+ * 
+ * It is made of a template, i.e. a copy of the nucleus whose branches are single
+ * constants, and of the shared roots of the branches. The nucleus is rebuilt by
+ * expand(), which gives a copy of the original nucleus (the content of the ADSs
+ * is not kept, as with Nucleus.copy()).
+ * 
+ * @author jeremy
+ * 
+ */
+public final class CompactNucleus implements Serializable {
+	
+	private static final long serialVersionUID = -1959233546123880377L;
+	
+	
+	private final Nucleus template;
+	
+	private final SharedNode[][] branches;
+	
+	
+	
+	private CompactNucleus(Nucleus template, SharedNode[][] branches){
+		this.template = template;
+		this.branches = branches;
+	}
+	
+	/**
+	 * Creates the compact form of the given nucleus, whose branches are interned in
+	 * the given store.
+	 * 
+	 * @param nucleus
+	 * @param store
+	 * @return
+	 * 			The compact form of the given nucleus, or null if it contains nodes
+	 * 			that can't be stored in a GenomeStore (user-defined proxies).
+	 */
+	public static final CompactNucleus create(Nucleus nucleus, GenomeStore store){
+		if(nucleus == null)
+			throw new NullPointerException("Argument nucleus can't be null!");
+		else if(store == null)
+			throw new NullPointerException("Argument store can't be null!");
+		
+		Nucleus template = nucleus.copy((module, branchIndex) -> 
+				new Constant(module.getBranchRoots().get(branchIndex).getReturnType().copy()));
+		
+		List<AbstractModule> modules = nucleus.getAllModules();
+		List<AbstractModule> templateModules = template.getAllModules();
+		
+		SharedNode[][] branches = new SharedNode[modules.size()][];
+		for(int i = 0; i < branches.length; i++){
+			List<AbstractNode> branchRoots = modules.get(i).getBranchRoots();
+			branches[i] = new SharedNode[branchRoots.size()];
+			for(int j = 0; j < branches[i].length; j++){
+				branches[i][j] = store.intern(branchRoots.get(j), template, templateModules.get(i));
+				if(branches[i][j] == null)
+					return null;
+			}
+		}
+		
+		return new CompactNucleus(template, branches);
+	}
+	
+	
+	/**
+	 * Returns the same compact nucleus, whose branches are interned in the given store.
+	 * 
+	 * @param store
+	 * @return
+	 * 			The new compact nucleus.
+	 */
+	public final CompactNucleus reintern(GenomeStore store){
+		IdentityHashMap<SharedNode,SharedNode> internedNodes = new IdentityHashMap<SharedNode,SharedNode>();
+		
+		SharedNode[][] newBranches = new SharedNode[branches.length][];
+		for(int i = 0; i < branches.length; i++){
+			newBranches[i] = new SharedNode[branches[i].length];
+			for(int j = 0; j < branches[i].length; j++)
+				newBranches[i][j] = store.intern(branches[i][j], internedNodes);
+		}
+		
+		return new CompactNucleus(template, newBranches);
+	}
+	
+	/**
+	 * Rebuilds the nucleus.
+	 * 
+	 * @return
+	 * 			A new nucleus, identical to the one this compact nucleus was created from.
+	 */
+	public final Nucleus expand(){
+		IdentityHashMap<AbstractModule,Integer> modulesIndexes = new IdentityHashMap<AbstractModule,Integer>();
+		List<AbstractModule> templateModules = template.getAllModules();
+		for(int i = 0; i < templateModules.size(); i++)
+			modulesIndexes.put(templateModules.get(i), i);
+		
+		return template.copy((module, branchIndex) -> 
+				branches[modulesIndexes.get(module)][branchIndex].materialize());
+	}
+	
+	/**
+	 * Returns the total number of nodes of the branches (as Nucleus.getTotalSize()).
+	 * 
+	 * @return
+	 * 			The total number of nodes of the branches.
+	 */
+	public final int getTotalSize(){
+		int size = 0;
+		for(SharedNode[] moduleBranches : branches){
+			for(SharedNode branch : moduleBranches)
+				size += branch.getSize();
+		}
+		return size;
+	}
+}
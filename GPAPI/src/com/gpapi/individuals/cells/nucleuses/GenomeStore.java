@@ -0,0 +1,231 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * GenomeStore.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.gpapi.individuals.cells.nucleuses.compilers.StackProgram;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.nodes.Glue;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Ternary;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+
+
+
+/**
+ * 
+ * Population-wide table of hash-consed subtrees ({@link SharedNode}s), in which the
+ * genomes of the individuals that are not in use are stored (see 
+ * {@link com.gpapi.individuals.cells.Cell#compact(GenomeStore)}). Since crossover
+ * copies subtrees from one individual to another, most of the subtrees of a
+ * population are identical, and are only stored once.<p>
+ * 
+ * The shipped functions, the constants of real and boolean values, Glue and the
+ * proxies are shared between individuals. The other nodes (user-defined nodes, and
+ * constants of other types) are kept as they are, since they can't be compared.<p>
+ * 
+ * The table is thread-safe. It is cleared by the algorithms at the end of each
+ * generation, before the genomes of the surviving individuals are interned again,
+ * so that the subtrees of the dead individuals can be garbage collected.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class GenomeStore implements Serializable {
+	
+	private static final long serialVersionUID = 7710562434658009217L;
+	
+	
+	private final ConcurrentHashMap<SharedNode,SharedNode> table = new ConcurrentHashMap<SharedNode,SharedNode>();
+	
+	
+	
+	public GenomeStore(){
+	}
+	
+	
+	/**
+	 * Returns the number of distinct shared nodes in this store.
+	 * 
+	 * @return
+	 * 			The number of distinct shared nodes.
+	 */
+	public final int getSize() {
+		return table.size();
+	}
+	
+	/**
+	 * Removes all the shared nodes from this store. The shared nodes already used by
+	 * compact cells stay valid, but won't be shared with the ones interned afterwards.
+	 */
+	public final void clear() {
+		table.clear();
+	}
+	
+	
+	/**
+	 * Interns the subtree of the given root, which belongs to the given module of a
+	 * nucleus. The prototypes of the proxies are linked to the given template, i.e.
+	 * to a copy of this nucleus (which must be lightweight, since the prototypes may
+	 * be shared with other individuals and outlive it).
+	 * 
+	 * @param node
+	 * @param template
+	 * @param templateModule
+	 * 			The module of the template matching the module of the given root.
+	 * @return
+	 * 			The shared node standing for the given subtree, or null if it contains
+	 * 			an unknown proxy (which couldn't be linked to the template).
+	 */
+	final SharedNode intern(AbstractNode node, Nucleus template, AbstractModule templateModule){
+		SharedNode[] children = new SharedNode[node.getArgs().size()];
+		for(int i = 0; i < children.length; i++){
+			children[i] = intern(node.getArgs().get(i), template, templateModule);
+			if(children[i] == null)
+				return null;
+		}
+		
+		AbstractNode prototype = prototypeOf(node, template, templateModule);
+		if(prototype == null)
+			return null;
+		
+		return intern(new SharedNode(prototype, signatureOf(node), children));
+	}
+	
+	/**
+	 * Interns the given shared node, which may have been interned in another store (or
+	 * in this store before it was cleared), as well as its descendants.
+	 * 
+	 * @param node
+	 * @param internedNodes
+	 * 			The nodes already interned, mapped to their interned version.
+	 * @return
+	 * 			The interned version of the given node.
+	 */
+	final SharedNode intern(SharedNode node, IdentityHashMap<SharedNode,SharedNode> internedNodes){
+		SharedNode internedNode = internedNodes.get(node);
+		if(internedNode == null){
+			SharedNode[] children = node.getChildren().clone();
+			for(int i = 0; i < children.length; i++)
+				children[i] = intern(children[i], internedNodes);
+			
+			if(Arrays.equals(children, node.getChildren()))
+				internedNode = intern(node);
+			else
+				internedNode = intern(new SharedNode(node.getPrototype(), node.getSignature(), children));
+			internedNodes.put(node, internedNode);
+		}
+		return internedNode;
+	}
+	
+	private final SharedNode intern(SharedNode node){
+		if(node.getSignature() == null)
+			return node;
+		
+		SharedNode previous = table.putIfAbsent(node, node);
+		return previous == null ? node : previous;
+	}
+	
+	
+	static final AbstractNode prototypeOf(AbstractNode node, Nucleus template, AbstractModule templateModule){
+		AbstractNode prototype = node.copy();
+		if(prototype instanceof ArgumentProxy){
+			ArgumentProxy argProxy = (ArgumentProxy) prototype;
+			argProxy.setArgument(templateModule.getArgs().get(argProxy.getId()));
+		} else if(prototype instanceof ADFProxy){
+			ADFProxy adfProxy = (ADFProxy) prototype;
+			adfProxy.setAdf(template.getAdfs().get(adfProxy.getId()));
+		} else if(prototype instanceof ADLProxy){
+			ADLProxy adlProxy = (ADLProxy) prototype;
+			adlProxy.setAdl(template.getAdls().get(adlProxy.getId()));
+		} else if(prototype instanceof ADRProxy){
+			ADRProxy adrProxy = (ADRProxy) prototype;
+			adrProxy.setAdr(template.getAdrs().get(adrProxy.getId()));
+		} else if(prototype instanceof ADIProxy){
+			ADIProxy adiProxy = (ADIProxy) prototype;
+			adiProxy.setAdi(template.getAdis().get(adiProxy.getId()));
+		} else if(prototype instanceof ADSProxy){
+			ADSProxy adsProxy = (ADSProxy) prototype;
+			adsProxy.setAds(template.getAdss().get(adsProxy.getId()));
+		} else if(prototype instanceof AbstractProxyNode)
+			return null;
+		return prototype;
+	}
+	
+	static final Object signatureOf(AbstractNode node){
+		if(node instanceof AbstractProxyNode)
+			return Arrays.asList(((AbstractProxyNode) node).getId(), node.getName(), node.getReturnType().getClass());
+		else if(node instanceof Constant){
+			Constant constant = (Constant) node;
+			AbstractType value = constant.getReturnType();
+			if(value instanceof RealValue){
+				RealValue realValue = (RealValue) value;
+				return Arrays.asList(
+						Double.doubleToLongBits(realValue.getValue()), 
+						Double.doubleToLongBits(realValue.getIncrement()), 
+						Double.doubleToLongBits(realValue.getNewValue()), 
+						Double.doubleToLongBits(realValue.getNewIncrement()), 
+						Double.doubleToLongBits(constant.getValueMutationProba()));
+			} else if(value instanceof BooleanValue){
+				BooleanValue booleanValue = (BooleanValue) value;
+				return Arrays.asList(
+						booleanValue.getValue(), 
+						booleanValue.isMutable(), 
+						Double.doubleToLongBits(constant.getValueMutationProba()));
+			} else
+				return null;
+		} else if(node instanceof Glue || node instanceof Ternary || StackProgram.opcodeOf(node) >= 0)
+			return node.getReturnType().getClass();
+		else
+			return null;
+	}
+}
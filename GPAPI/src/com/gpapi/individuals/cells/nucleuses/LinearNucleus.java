@@ -0,0 +1,477 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * LinearNucleus.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+
+
+
+/**
+ * 
+ * Linear form of a {@link Nucleus}, in which each branch is stored as a few arrays
+ * instead of a tree of nodes.<p>
+ * 
+ * The nodes of a branch are stored in prefix order : the opcode of each node (i.e. its
+ * index in the palette of prototype nodes shared by the branches, or CONSTANT for the
+ * constants), the size of the subtree it is the root of and, for the constants, the
+ * constant itself. The subtree rooted at a node thus occupies the range of positions
+ * starting at this node whose length is its size, which allows a subtree crossover to
+ * be performed by splicing arrays (see crossoverWith()).<p>
+ * 
+ * As the compact nucleus, it is made of a template, i.e. a copy of the nucleus whose
+ * branches are single constants, and is turned back into a regular nucleus by expand(),
+ * which is the adapter used by the genetic operators, the mutation schemes and the
+ * views. A linear nucleus is immutable, so it can be shared by several cells.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class LinearNucleus implements Serializable {
+	
+	private static final long serialVersionUID = 4925846197604364528L;
+	
+	
+	private static final int CONSTANT = -1;
+	
+	
+	private final Nucleus template;
+	
+	private final AbstractNode[] palette;
+	
+	private final Object[] keys;
+	
+	private final Branch[][] branches;
+	
+	
+	
+	private LinearNucleus(Nucleus template, AbstractNode[] palette, Object[] keys, Branch[][] branches){
+		this.template = template;
+		this.palette = palette;
+		this.keys = keys;
+		this.branches = branches;
+	}
+	
+	/**
+	 * Creates the linear form of the given nucleus.
+	 * 
+	 * @param nucleus
+	 * @return
+	 * 			The linear form of the given nucleus, or null if it contains nodes
+	 * 			that can't be linearized (user-defined proxies).
+	 */
+	public static final LinearNucleus create(Nucleus nucleus){
+		if(nucleus == null)
+			throw new NullPointerException("Argument nucleus can't be null!");
+		
+		Nucleus template = nucleus.copy((module, branchIndex) ->
+				new Constant(module.getBranchRoots().get(branchIndex).getReturnType().copy()));
+		
+		List<AbstractModule> modules = nucleus.getAllModules();
+		List<AbstractModule> templateModules = template.getAllModules();
+		
+		ArrayList<AbstractNode> palette = new ArrayList<AbstractNode>();
+		ArrayList<Object> keys = new ArrayList<Object>();
+		HashMap<Object,Integer> opcodes = new HashMap<Object,Integer>();
+		
+		Branch[][] branches = new Branch[modules.size()][];
+		for(int i = 0; i < branches.length; i++){
+			List<AbstractNode> branchRoots = modules.get(i).getBranchRoots();
+			branches[i] = new Branch[branchRoots.size()];
+			for(int j = 0; j < branches[i].length; j++){
+				Branch branch = new Branch(sizeOf(branchRoots.get(j)));
+				if(encode(branchRoots.get(j), 0, branch, i, template, templateModules.get(i), palette, keys, opcodes) < 0)
+					return null;
+				branches[i][j] = branch;
+			}
+		}
+		
+		return new LinearNucleus(
+				template,
+				palette.toArray(new AbstractNode[palette.size()]),
+				keys.toArray(),
+				branches);
+	}
+	
+	
+	/**
+	 * Rebuilds the nucleus.
+	 * 
+	 * @return
+	 * 			A new nucleus, identical to the one this linear nucleus was created from.
+	 */
+	public final Nucleus expand(){
+		IdentityHashMap<AbstractModule,Integer> modulesIndexes = new IdentityHashMap<AbstractModule,Integer>();
+		List<AbstractModule> templateModules = template.getAllModules();
+		for(int i = 0; i < templateModules.size(); i++)
+			modulesIndexes.put(templateModules.get(i), i);
+		
+		return template.copy((module, branchIndex) ->
+				decode(branches[modulesIndexes.get(module)][branchIndex], 0));
+	}
+	
+	/**
+	 * Returns the total number of nodes of the branches (as Nucleus.getTotalSize()).
+	 * 
+	 * @return
+	 * 			The total number of nodes of the branches.
+	 */
+	public final int getTotalSize(){
+		int size = 0;
+		for(Branch[] moduleBranches : branches){
+			for(Branch branch : moduleBranches)
+				size += branch.opcodes.length;
+		}
+		return size;
+	}
+	
+	
+	/**
+	 * Performs a subtree crossover between this nucleus and the given one, without
+	 * building any tree : a node is chosen uniformly among the nodes of this nucleus,
+	 * and the subtree it is the root of is replaced by a subtree of the same type chosen
+	 * uniformly in the same branch of the given nucleus, by splicing the arrays of the
+	 * branch.<p>
+	 * 
+	 * Both nucleuses must have the same architecture (as the ones created by the same
+	 * builder without architecture alteration), so that the modules and arguments
+	 * referenced by the inserted subtree exist and have the same types in the child.
+	 * 
+	 * @param other
+	 * @return
+	 * 			The child, or null if the nucleuses don't have the same architecture or
+	 * 			if the given nucleus has no subtree of the type of the chosen node.
+	 */
+	public final LinearNucleus crossoverWith(LinearNucleus other){
+		if(other == null)
+			throw new NullPointerException("Argument other can't be null!");
+		else if(!hasSameArchitectureAs(other))
+			return null;
+		
+		ThreadLocalRandom generator = ThreadLocalRandom.current();
+		
+		int moduleIndex = 0;
+		int branchIndex = 0;
+		int position = generator.nextInt(getTotalSize());
+		while(branchIndex == branches[moduleIndex].length || position >= branches[moduleIndex][branchIndex].opcodes.length){
+			if(branchIndex == branches[moduleIndex].length){
+				moduleIndex++;
+				branchIndex = 0;
+			} else {
+				position -= branches[moduleIndex][branchIndex].opcodes.length;
+				branchIndex++;
+			}
+		}
+		
+		Branch branch = branches[moduleIndex][branchIndex];
+		Branch otherBranch = other.branches[moduleIndex][branchIndex];
+		
+		int typeId = typeIdAt(branch, position);
+		int count = 0;
+		for(int i = 0; i < otherBranch.opcodes.length; i++){
+			if(other.typeIdAt(otherBranch, i) == typeId)
+				count++;
+		}
+		if(count == 0)
+			return null;
+		
+		int otherPosition = 0;
+		for(int remaining = generator.nextInt(count); ; otherPosition++){
+			if(other.typeIdAt(otherBranch, otherPosition) == typeId){
+				if(remaining == 0)
+					break;
+				remaining--;
+			}
+		}
+		
+		ArrayList<AbstractNode> newPalette = new ArrayList<AbstractNode>(Arrays.asList(palette));
+		ArrayList<Object> newKeys = new ArrayList<Object>(Arrays.asList(keys));
+		int[] opcodesMap = new int[other.palette.length];
+		Arrays.fill(opcodesMap, CONSTANT);
+		
+		Branch newBranch = branch.splice(position, otherBranch, otherPosition);
+		for(int i = position; i < position + otherBranch.sizes[otherPosition]; i++){
+			int otherOpcode = newBranch.opcodes[i];
+			if(otherOpcode != CONSTANT){
+				if(opcodesMap[otherOpcode] == CONSTANT){
+					Object key = other.keys[otherOpcode];
+					int opcode = key == null ? -1 : newKeys.indexOf(key);
+					if(opcode < 0){
+						opcode = newPalette.size();
+						newPalette.add(GenomeStore.prototypeOf(
+								other.palette[otherOpcode],
+								template,
+								template.getAllModules().get(moduleIndex)));
+						newKeys.add(key);
+					}
+					opcodesMap[otherOpcode] = opcode;
+				}
+				newBranch.opcodes[i] = opcodesMap[otherOpcode];
+			}
+		}
+		
+		Branch[][] newBranches = branches.clone();
+		newBranches[moduleIndex] = branches[moduleIndex].clone();
+		newBranches[moduleIndex][branchIndex] = newBranch;
+		
+		return new LinearNucleus(
+				template,
+				newPalette.size() == palette.length ? palette : newPalette.toArray(new AbstractNode[newPalette.size()]),
+				newKeys.size() == keys.length ? keys : newKeys.toArray(),
+				newBranches);
+	}
+	
+	
+	private final boolean hasSameArchitectureAs(LinearNucleus other){
+		if(other.template == template)
+			return true;
+		
+		List<AbstractModule> modules = template.getAllModules();
+		List<AbstractModule> otherModules = other.template.getAllModules();
+		if(modules.size() != otherModules.size())
+			return false;
+		
+		for(int i = 0; i < modules.size(); i++){
+			AbstractModule module = modules.get(i);
+			AbstractModule otherModule = otherModules.get(i);
+			if(module.getClass() != otherModule.getClass())
+				return false;
+			else if(module.getArgsTypes().size() != otherModule.getArgsTypes().size())
+				return false;
+			else if(module.getBranchRoots().size() != otherModule.getBranchRoots().size())
+				return false;
+			
+			for(int j = 0; j < module.getArgsTypes().size(); j++){
+				if(!module.getArgsTypes().get(j).isTheSameAs(otherModule.getArgsTypes().get(j)))
+					return false;
+			}
+			
+			for(int j = 0; j < module.getBranchRoots().size(); j++){
+				AbstractType type = module.getBranchRoots().get(j).getReturnType();
+				if(!type.isTheSameAs(otherModule.getBranchRoots().get(j).getReturnType()))
+					return false;
+			}
+		}
+		
+		List<ADS> adss = template.getAdss();
+		List<ADS> otherAdss = other.template.getAdss();
+		if(adss.size() != otherAdss.size())
+			return false;
+		
+		for(int i = 0; i < adss.size(); i++){
+			if(!adss.get(i).getStorageType().equals(otherAdss.get(i).getStorageType()))
+				return false;
+			else if(!adss.get(i).getReturnType().isTheSameAs(otherAdss.get(i).getReturnType()))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	private final int typeIdAt(Branch branch, int position){
+		if(branch.opcodes[position] == CONSTANT)
+			return branch.constants[position].getReturnType().getTypeId();
+		else
+			return palette[branch.opcodes[position]].getReturnType().getTypeId();
+	}
+	
+	private final AbstractNode decode(Branch branch, int position){
+		AbstractNode node;
+		if(branch.opcodes[position] == CONSTANT)
+			node = branch.constants[position].copy();
+		else
+			node = palette[branch.opcodes[position]].copy();
+		
+		int end = position + branch.sizes[position];
+		if(end > position + 1){
+			ArrayList<AbstractNode> args = new ArrayList<AbstractNode>();
+			for(int child = position + 1; child < end; child += branch.sizes[child])
+				args.add(decode(branch, child));
+			node.setArgs(args);
+		}
+		return node;
+	}
+	
+	
+	private static final int sizeOf(AbstractNode node){
+		int size = 1;
+		for(AbstractNode arg : node.getArgs())
+			size += sizeOf(arg);
+		return size;
+	}
+	
+	/**
+	 * Writes the given subtree in the given branch, starting at the given position.
+	 * 
+	 * @return
+	 * 			The position following the subtree, or -1 if it can't be linearized.
+	 */
+	private static final int encode(
+			AbstractNode node,
+			int position,
+			Branch branch,
+			int moduleIndex,
+			Nucleus template,
+			AbstractModule templateModule,
+			ArrayList<AbstractNode> palette,
+			ArrayList<Object> keys,
+			HashMap<Object,Integer> opcodes){
+		if(node instanceof Constant){
+			branch.opcodes[position] = CONSTANT;
+			branch.constants[position] = ((Constant) node).copy();
+		} else {
+			Object key = keyOf(node, moduleIndex);
+			Integer opcode = key == null ? null : opcodes.get(key);
+			if(opcode == null){
+				AbstractNode prototype = GenomeStore.prototypeOf(node, template, templateModule);
+				if(prototype == null)
+					return -1;
+				
+				opcode = palette.size();
+				palette.add(prototype);
+				keys.add(key);
+				if(key != null)
+					opcodes.put(key, opcode);
+			}
+			branch.opcodes[position] = opcode;
+		}
+		
+		int next = position + 1;
+		for(AbstractNode arg : node.getArgs()){
+			next = encode(arg, next, branch, moduleIndex, template, templateModule, palette, keys, opcodes);
+			if(next < 0)
+				return -1;
+		}
+		branch.sizes[position] = next - position;
+		return next;
+	}
+	
+	/**
+	 * Returns the key identifying the prototypes which can be shared by the nodes
+	 * identical to the given one, or null if they can't be shared. The argument
+	 * proxies are specific to their module.
+	 */
+	private static final Object keyOf(AbstractNode node, int moduleIndex){
+		Object signature = GenomeStore.signatureOf(node);
+		if(signature == null)
+			return null;
+		else if(node instanceof ArgumentProxy)
+			return Arrays.asList(node.getClass(), signature, moduleIndex);
+		else
+			return Arrays.asList(node.getClass(), signature);
+	}
+	
+	
+	
+	/**
+	 * 
+	 * The arrays of a branch, indexed by the positions of the nodes in prefix order.
+	 * 
+	 * @author jeremy
+	 * 
+	 */
+	private static final class Branch implements Serializable {
+		
+		private static final long serialVersionUID = -3021855770263373146L;
+		
+		
+		private final int[] opcodes;
+		
+		private final int[] sizes;
+		
+		private final Constant[] constants;
+		
+		
+		
+		private Branch(int size){
+			this.opcodes = new int[size];
+			this.sizes = new int[size];
+			this.constants = new Constant[size];
+		}
+		
+		
+		/**
+		 * Returns a new branch in which the subtree rooted at the given position is
+		 * replaced by the subtree of the other branch rooted at the other position
+		 * (whose opcodes are still the ones of the other branch).
+		 */
+		private final Branch splice(int position, Branch other, int otherPosition){
+			int removedSize = sizes[position];
+			int insertedSize = other.sizes[otherPosition];
+			int tailSize = opcodes.length - position - removedSize;
+			
+			Branch branch = new Branch(opcodes.length - removedSize + insertedSize);
+			
+			System.arraycopy(opcodes, 0, branch.opcodes, 0, position);
+			System.arraycopy(other.opcodes, otherPosition, branch.opcodes, position, insertedSize);
+			System.arraycopy(opcodes, position + removedSize, branch.opcodes, position + insertedSize, tailSize);
+			
+			System.arraycopy(sizes, 0, branch.sizes, 0, position);
+			System.arraycopy(other.sizes, otherPosition, branch.sizes, position, insertedSize);
+			System.arraycopy(sizes, position + removedSize, branch.sizes, position + insertedSize, tailSize);
+			
+			System.arraycopy(constants, 0, branch.constants, 0, position);
+			System.arraycopy(other.constants, otherPosition, branch.constants, position, insertedSize);
+			System.arraycopy(constants, position + removedSize, branch.constants, position + insertedSize, tailSize);
+			
+			int ancestor = 0;
+			while(ancestor != position){
+				branch.sizes[ancestor] += insertedSize - removedSize;
+				
+				int child = ancestor + 1;
+				while(child + sizes[child] <= position)
+					child += sizes[child];
+				ancestor = child;
+			}
+			
+			return branch;
+		}
+	}
+}
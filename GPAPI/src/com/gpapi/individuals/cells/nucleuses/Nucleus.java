@@ -43,8 +43,10 @@ import java.util.List;
 
 import javax.swing.JPanel;
 
+import com.gpapi.individuals.cells.nucleuses.geneticoperators.CompatibilityIndex;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.GeneticOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
 import com.gpapi.individuals.cells.nucleuses.modules.RPB;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
@@ -57,6 +59,9 @@ import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 
 
 
@@ -244,23 +249,46 @@ public final class Nucleus implements Serializable {
 		consolidate();
 	}
 	
+	private transient volatile CompatibilityIndex compatibilityIndex = null;
+	/**
+	 * Returns the index of the nodes of this nucleus used to find the subtrees which can 
+	 * be grafted in the branches of another nucleus (see {@link CompatibilityIndex}), 
+	 * which is built at the first call and then reused until consolidate() is called.<p>
+	 * 
+	 * Note : consolidate() must thus be called after modifying the nodes of a nucleus
+	 * in place, as the index is otherwise kept.
+	 * 
+	 * @return
+	 * 			The compatibility index of this nucleus.
+	 */
+	public final CompatibilityIndex getCompatibilityIndex() {
+		CompatibilityIndex compatibilityIndex = this.compatibilityIndex;
+		if(compatibilityIndex == null)
+			this.compatibilityIndex = compatibilityIndex = new CompatibilityIndex(this);
+		return compatibilityIndex;
+	}
+	
 	public final void consolidate(){
-		for(AbstractNode node : getAllNodes()){
-			if(node instanceof ADLProxy){
-				ADLProxy adlProxy = (ADLProxy) node;
-				adlProxy.setAdl(getAdls().get(adlProxy.getId()));
-			} else if(node instanceof ADRProxy){
-				ADRProxy adrProxy = (ADRProxy) node;
-				adrProxy.setAdr(getAdrs().get(adrProxy.getId()));
-			} else if(node instanceof ADIProxy){
-				ADIProxy adiProxy = (ADIProxy) node;
-				adiProxy.setAdi(getAdis().get(adiProxy.getId()));
-			} else if(node instanceof ADFProxy){
-				ADFProxy adfProxy = (ADFProxy) node;
-				adfProxy.setAdf(getAdfs().get(adfProxy.getId()));
-			} else if(node instanceof ADSProxy){
-				ADSProxy adsProxy = (ADSProxy) node;
-				adsProxy.setAds(getAdss().get(adsProxy.getId()));
+		compatibilityIndex = null;
+		
+		try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(getAllBranchRoots())){
+			for(AbstractProxyNode node = cursor.next(AbstractProxyNode.class); node != null; node = cursor.next(AbstractProxyNode.class)){
+				if(node instanceof ADLProxy){
+					ADLProxy adlProxy = (ADLProxy) node;
+					adlProxy.setAdl(getAdls().get(adlProxy.getId()));
+				} else if(node instanceof ADRProxy){
+					ADRProxy adrProxy = (ADRProxy) node;
+					adrProxy.setAdr(getAdrs().get(adrProxy.getId()));
+				} else if(node instanceof ADIProxy){
+					ADIProxy adiProxy = (ADIProxy) node;
+					adiProxy.setAdi(getAdis().get(adiProxy.getId()));
+				} else if(node instanceof ADFProxy){
+					ADFProxy adfProxy = (ADFProxy) node;
+					adfProxy.setAdf(getAdfs().get(adfProxy.getId()));
+				} else if(node instanceof ADSProxy){
+					ADSProxy adsProxy = (ADSProxy) node;
+					adsProxy.setAds(getAdss().get(adsProxy.getId()));
+				}
 			}
 		}
 	}
@@ -286,11 +314,57 @@ public final class Nucleus implements Serializable {
 		return size;
 	}
 	
+	/**
+	 * Returns a 64 bits hash of the structure of this nucleus, i.e. of its modules and of
+	 * the names, return types and arities of the nodes of their branches (the values of
+	 * the real constants being used instead of their rounded names), so that nucleuses 
+	 * with the same structure have the same hash.
+	 * 
+	 * @return
+	 * 			The structural hash of this nucleus.
+	 */
+	public final long getStructuralHash(){
+		StructuralHasher hasher = new StructuralHasher();
+		for(AbstractModule module : getAllModules()){
+			hasher.add(module.getClass().getName().hashCode());
+			hasher.add(module.getArgs().size());
+			hasher.add(module.getBranchRoots().size());
+			try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(module.getBranchRoots())){
+				for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+					if(node instanceof Constant && node.getReturnType() instanceof RealValue)
+						hasher.add(Double.doubleToLongBits(((RealValue) node.getReturnType()).getValue()));
+					else
+						hasher.add(node.getName().hashCode());
+					hasher.add(node.getReturnType().getTypeId());
+					hasher.add(node.getArgs().size());
+				}
+			}
+		}
+		return hasher.getHash1();
+	}
+	
+	/**
+	 * Returns a new list of all the nodes of the nucleus, in pre-order. The nodes
+	 * can be traversed without building a list with the cursors of {@link TreeTraversal}
+	 * over getAllBranchRoots().
+	 * 
+	 * @return
+	 * 			The list of the nodes.
+	 */
 	public final List<AbstractNode> getAllNodes(){
+		return TreeTraversal.collect(getAllBranchRoots(), new ArrayList<AbstractNode>(getTotalSize()));
+	}
+	/**
+	 * Returns a new list of the roots of the branches of all the modules.
+	 * 
+	 * @return
+	 * 			The list of the branches roots.
+	 */
+	public final ArrayList<AbstractNode> getAllBranchRoots(){
 		ArrayList<AbstractNode> allRoots = new ArrayList<AbstractNode>();
 		for(AbstractModule module : getAllModules())
 			allRoots.addAll(module.getBranchRoots());
-		return getGeneticOperator().getDescendantNodes(allRoots);
+		return allRoots;
 	}
 	
 	public final ArrayList<AbstractModule> getAllModules(){
@@ -313,12 +387,40 @@ public final class Nucleus implements Serializable {
 	}
 	
 	
+	/**
+	 * Builds the branches of the copies of a nucleus (see copy(BranchReplicator)).
+	 */
+	public interface BranchReplicator {
+		/**
+		 * Returns the root of the copy of the given branch of the given module.
+		 * 
+		 * @param module
+		 * 			The module of the nucleus being copied.
+		 * @param branchIndex
+		 * 			The index of the branch in the module's branch roots.
+		 * @return
+		 * 			The root of the new branch.
+		 */
+		public AbstractNode replicate(AbstractModule module, int branchIndex);
+	}
+	
 	public final Nucleus copy(){
+		return copy((module, branchIndex) -> getGeneticOperator().replicateSubtree(module.getBranchRoots().get(branchIndex)));
+	}
+	/**
+	 * Returns a copy of this nucleus, whose branches are built by the given replicator
+	 * instead of being replicated from the branches of this nucleus.
+	 * 
+	 * @param replicator
+	 * @return
+	 * 			The copy of this nucleus.
+	 */
+	public final Nucleus copy(BranchReplicator replicator){
 		ArrayList<RPB> rpbsCopy = new ArrayList<RPB>(getRpbs().size());
 		for(RPB rpb : getRpbs()){
 			rpbsCopy.add(new RPB(
 					rpb.getId(), 
-					getGeneticOperator().replicateSubtree(rpb.getRoot()), 
+					replicator.replicate(rpb, 0), 
 					rpb.getArgsTypes(), 
 					rpb.getArgsNames()));
 		}
@@ -327,9 +429,9 @@ public final class Nucleus implements Serializable {
 		for(ADL adl : getAdls()){
 			adlsCopy.add(new ADL(
 					adl.getId(), 
-					getGeneticOperator().replicateSubtree(adl.getInitializationRoot()), 
-					getGeneticOperator().replicateSubtree(adl.getConditionRoot()), 
-					getGeneticOperator().replicateSubtree(adl.getBodyRoot()), 
+					replicator.replicate(adl, 0), 
+					replicator.replicate(adl, 1), 
+					replicator.replicate(adl, 2), 
 					adl.getExternalArgsTypes(), 
 					adl.getMaxCalls(), 
 					adl.getMaxIterations()));
@@ -339,9 +441,9 @@ public final class Nucleus implements Serializable {
 		for(ADR adr : getAdrs()){
 			adrsCopy.add(new ADR(
 					adr.getId(), 
-					getGeneticOperator().replicateSubtree(adr.getConditionRoot()), 
-					getGeneticOperator().replicateSubtree(adr.getBodyRoot()), 
-					getGeneticOperator().replicateSubtree(adr.getGroundRoot()), 
+					replicator.replicate(adr, 0), 
+					replicator.replicate(adr, 1), 
+					replicator.replicate(adr, 2), 
 					adr.getArgsTypes(), 
 					adr.getMaxCalls(), 
 					adr.getMaxRecursionDepth()));
@@ -352,7 +454,7 @@ public final class Nucleus implements Serializable {
 			adisCopy.add(new ADI(
 					adi.getId(), 
 					adi.getDefaultValue(), 
-					getGeneticOperator().replicateSubtree(adi.getRoot()), 
+					replicator.replicate(adi, 0), 
 					adi.getExternalArgsTypes(), 
 					adi.getCollectionId(), 
 					adi.getFieldsTypes(), 
@@ -364,7 +466,7 @@ public final class Nucleus implements Serializable {
 		for(ADF adf : getAdfs()){
 			adfsCopy.add(new ADF(
 					adf.getId(), 
-					getGeneticOperator().replicateSubtree(adf.getRoot()), 
+					replicator.replicate(adf, 0), 
 					adf.getArgsTypes()));
 		}
 		
@@ -0,0 +1,177 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * SharedNode.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+
+
+
+/**
+ * 
+ * Immutable node of the hash-consed genomes of a {@link GenomeStore}. Its children
+ * are themselves shared nodes, so identical subtrees are represented by a single
+ * object, whichever the individuals (and generations) they appear in.<p>
+ * 
+ * A shared node holds a prototype, i.e. a childless copy of the node it stands for,
+ * and is turned back into a regular tree by materialize().
+ * 
+ * @author jeremy
+ * 
+ */
+public final class SharedNode implements Serializable {
+	
+	private static final long serialVersionUID = -4470632105307816221L;
+	
+	
+	private final AbstractNode prototype;
+	
+	private final Object signature;
+	
+	private final SharedNode[] children;
+	
+	private final int size;
+	/**
+	 * Returns the number of nodes of the subtree this shared node stands for.
+	 * 
+	 * @return
+	 * 			The number of nodes of the subtree.
+	 */
+	public final int getSize() {
+		return size;
+	}
+	
+	private final int hash;
+	
+	
+	
+	/**
+	 * 
+	 * @param prototype
+	 * @param signature
+	 * 			The value identifying the node among the nodes of the same class, or null
+	 * 			if the node can't be compared with other nodes (in which case it is only
+	 * 			equal to itself).
+	 * @param children
+	 */
+	SharedNode(AbstractNode prototype, Object signature, SharedNode[] children){
+		this.prototype = prototype;
+		this.signature = signature;
+		this.children = children;
+		
+		int size = 1;
+		for(SharedNode child : children)
+			size += child.getSize();
+		this.size = size;
+		
+		int hash = 31 * prototype.getClass().hashCode() + Objects.hashCode(signature);
+		for(SharedNode child : children)
+			hash = 31 * hash + System.identityHashCode(child);
+		this.hash = hash;
+	}
+	
+	
+	final AbstractNode getPrototype(){
+		return prototype;
+	}
+	final Object getSignature(){
+		return signature;
+	}
+	final SharedNode[] getChildren(){
+		return children;
+	}
+	
+	/**
+	 * Builds a new tree, made of new nodes, from this shared node.
+	 * 
+	 * @return
+	 * 			The root of the new tree.
+	 */
+	public final AbstractNode materialize(){
+		AbstractNode node = prototype.copy();
+		if(children.length > 0){
+			ArrayList<AbstractNode> args = new ArrayList<AbstractNode>(children.length);
+			for(SharedNode child : children)
+				args.add(child.materialize());
+			node.setArgs(args);
+		}
+		return node;
+	}
+	
+	
+	@Override
+	public final int hashCode(){
+		return hash;
+	}
+	
+	/**
+	 * Two shared nodes are equal if their prototypes have the same class and signature,
+	 * and if their children are the same objects (which is enough since the children
+	 * are interned before their parents).
+	 */
+	@Override
+	public final boolean equals(Object o){
+		if(o == this)
+			return true;
+		else if(!(o instanceof SharedNode))
+			return false;
+		
+		SharedNode other = (SharedNode) o;
+		if(signature == null || other.signature == null)
+			return false;
+		else if(hash != other.hash || prototype.getClass() != other.prototype.getClass())
+			return false;
+		else if(!signature.equals(other.signature) || children.length != other.children.length)
+			return false;
+		
+		for(int i = 0; i < children.length; i++){
+			if(children[i] != other.children[i])
+				return false;
+		}
+		return true;
+	}
+	
+	@Override
+	public final String toString(){
+		return prototype.getName() + (children.length > 0 ? Arrays.toString(children) : "");
+	}
+}
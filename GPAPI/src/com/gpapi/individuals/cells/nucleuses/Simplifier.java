@@ -0,0 +1,323 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * Simplifier.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses;
+
+import java.io.Serializable;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.gpapi.individuals.cells.nucleuses.compilers.StackProgram;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.nodes.Glue;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Not;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Divide;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Mult;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Subtract;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Sum;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Ternary;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+
+
+
+/**
+ * 
+ * Deterministic simplification of the branches of a nucleus, which is applied to
+ * the offspring when set in the {@link com.gpapi.individuals.EvolvedIndividualBuilder}.
+ * The branches are rewritten bottom-up with the following rules, each of which can
+ * be disabled :
+ * <ul>
+ * <li>Constant folding : a subtree made of side-effect free nodes and without any
+ * argument is replaced by the value it computes (like the Shrink mutation does), 
+ * whose value mutation probability is the one of the first folded constant of the 
+ * same type.</li>
+ * <li>Identities : x*1, 1*x, x/1, x+(-0), (-0)+x and x-0 are replaced by x, and
+ * Not(Not(x)) by x.</li>
+ * <li>Dead branches : a Ternary whose condition is a constant is replaced by the
+ * branch it selects, and a Ternary whose branches are the same by that branch.</li>
+ * <li>Glue : a Glue whose first argument is side-effect free is replaced by its
+ * second argument.</li>
+ * </ul>
+ * 
+ * The side-effect free nodes are the shipped real and boolean functions, the constants,
+ * the arguments, Glue and the calls of ADFs whose bodies are side-effect free. The
+ * calls of ADLs, ADRs, ADIs and ADSs (which consume calls or access memory) as well as
+ * the user-defined nodes are never folded nor removed.<p>
+ * 
+ * Note : The identities give the same values as the original subtrees for any value of
+ * x, including NaN, the infinite values and the negative zero, which is why x+0 is only
+ * simplified for a negative zero (-0+0 is a positive zero), and why x-x isn't replaced
+ * by 0 (it is NaN when x is NaN or infinite). The execution costs of the simplified 
+ * individuals are lower than the ones of the original individuals.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class Simplifier implements Serializable {
+	
+	private static final long serialVersionUID = 2618470334862213958L;
+	
+	
+	private boolean constantFolding = true;
+	public final boolean isConstantFolding() {
+		return constantFolding;
+	}
+	public final Simplifier setConstantFolding(boolean constantFolding) {
+		this.constantFolding = constantFolding;
+		return this;
+	}
+	
+	private boolean identities = true;
+	public final boolean isIdentities() {
+		return identities;
+	}
+	public final Simplifier setIdentities(boolean identities) {
+		this.identities = identities;
+		return this;
+	}
+	
+	private boolean deadBranchesPruning = true;
+	public final boolean isDeadBranchesPruning() {
+		return deadBranchesPruning;
+	}
+	public final Simplifier setDeadBranchesPruning(boolean deadBranchesPruning) {
+		this.deadBranchesPruning = deadBranchesPruning;
+		return this;
+	}
+	
+	private boolean gluesRemoval = true;
+	public final boolean isGluesRemoval() {
+		return gluesRemoval;
+	}
+	public final Simplifier setGluesRemoval(boolean gluesRemoval) {
+		this.gluesRemoval = gluesRemoval;
+		return this;
+	}
+	
+	
+	
+	private Simplifier(){
+	}
+	/**
+	 * Creates a simplifier with all the rules enabled.
+	 * 
+	 * @return
+	 * 			A new simplifier.
+	 */
+	public static final Simplifier create(){
+		return new Simplifier();
+	}
+	
+	
+	public final Simplifier copy(){
+		return create()
+				.setConstantFolding(isConstantFolding())
+				.setIdentities(isIdentities())
+				.setDeadBranchesPruning(isDeadBranchesPruning())
+				.setGluesRemoval(isGluesRemoval());
+	}
+	
+	
+	/**
+	 * Simplifies all the branches of all the modules of the given nucleus, in place.
+	 * 
+	 * @param nucleus
+	 */
+	public final void simplify(Nucleus nucleus){
+		if(nucleus == null)
+			throw new NullPointerException("Argument nucleus can't be null!");
+		
+		IdentityHashMap<ADF,Boolean> pureAdfs = new IdentityHashMap<ADF,Boolean>();
+		for(AbstractModule module : nucleus.getAllModules()){
+			boolean modified = false;
+			for(AbstractNode branchRoot : module.getBranchRoots().toArray(new AbstractNode[0])){
+				AbstractNode newBranchRoot = simplify(branchRoot, pureAdfs);
+				if(newBranchRoot != branchRoot){
+					module.replaceBranchRoot(branchRoot, newBranchRoot);
+					modified = true;
+				}
+			}
+			if(modified)
+				module.consolidate();
+		}
+		nucleus.consolidate();
+	}
+	
+	/**
+	 * Simplifies the subtree of the given root, which is modified in place.
+	 * 
+	 * @return
+	 * 			The root of the simplified subtree, which is the given root if it
+	 * 			was not replaced.
+	 */
+	private final AbstractNode simplify(AbstractNode node, IdentityHashMap<ADF,Boolean> pureAdfs){
+		List<AbstractNode> args = node.getArgs();
+		boolean constantArgs = true;
+		for(AbstractNode arg : args.toArray(new AbstractNode[0])){
+			AbstractNode newArg = simplify(arg, pureAdfs);
+			if(newArg != arg)
+				node.replaceArg(arg, newArg);
+			constantArgs = constantArgs && newArg instanceof Constant;
+		}
+		
+		if(isConstantFolding() && constantArgs && !args.isEmpty() && isPureNode(node, pureAdfs)){
+			try {
+				AbstractType value = node.execute().getValue();
+				return new Constant(value, getValueMutationProba(args, value));
+			} catch(Exception e){
+				// Left as is, the error will be raised again by the evaluation.
+			}
+		}
+		
+		if(isIdentities()){
+			if(node instanceof Mult){
+				if(isConstant(args.get(1), 1.0))
+					return args.get(0);
+				else if(isConstant(args.get(0), 1.0))
+					return args.get(1);
+			} else if(node instanceof Divide){
+				if(isConstant(args.get(1), 1.0))
+					return args.get(0);
+			} else if(node instanceof Sum){
+				if(isConstant(args.get(1), -0.0))
+					return args.get(0);
+				else if(isConstant(args.get(0), -0.0))
+					return args.get(1);
+			} else if(node instanceof Subtract){
+				if(isConstant(args.get(1), 0.0))
+					return args.get(0);
+			} else if(node instanceof Not){
+				if(args.get(0) instanceof Not)
+					return args.get(0).getArgs().get(0);
+			}
+		}
+		
+		if(isDeadBranchesPruning() && node instanceof Ternary){
+			AbstractNode condition = args.get(0);
+			if(condition instanceof Constant)
+				return ((BooleanValue) condition.getReturnType()).getValue() ? args.get(1) : args.get(2);
+			else if(isPure(condition, pureAdfs) && isSameSubtree(args.get(1), args.get(2)))
+				return args.get(1);
+		}
+		
+		if(isGluesRemoval() && node instanceof Glue){
+			if(isPure(args.get(0), pureAdfs))
+				return args.get(1);
+		}
+		
+		return node;
+	}
+	
+	
+	private static final boolean isConstant(AbstractNode node, double value){
+		return node instanceof Constant 
+				&& node.getReturnType() instanceof RealValue 
+				&& Double.compare(((RealValue) node.getReturnType()).getValue(), value) == 0;
+	}
+	/**
+	 * Returns the value mutation probability of the first of the given constants whose
+	 * type is the same as the one of the given value, or else of the first constant.
+	 */
+	private static final double getValueMutationProba(List<AbstractNode> constants, AbstractType value){
+		for(AbstractNode constant : constants){
+			if(constant.getReturnType().isTheSameAs(value))
+				return ((Constant) constant).getValueMutationProba();
+		}
+		return ((Constant) constants.get(0)).getValueMutationProba();
+	}
+	
+	private static final boolean isPure(AbstractNode node, IdentityHashMap<ADF,Boolean> pureAdfs){
+		if(!isPureNode(node, pureAdfs))
+			return false;
+		for(AbstractNode arg : node.getArgs()){
+			if(!isPure(arg, pureAdfs))
+				return false;
+		}
+		return true;
+	}
+	private static final boolean isPureNode(AbstractNode node, IdentityHashMap<ADF,Boolean> pureAdfs){
+		if(node instanceof ADFProxy){
+			ADF adf = ((ADFProxy) node).getAdf();
+			Boolean pureAdf = pureAdfs.get(adf);
+			if(pureAdf == null){
+				pureAdfs.put(adf, false);
+				pureAdf = isPure(adf.getRoot(), pureAdfs);
+				pureAdfs.put(adf, pureAdf);
+			}
+			return pureAdf;
+		} else
+			return node instanceof Constant 
+					|| node instanceof ArgumentProxy 
+					|| node instanceof Glue 
+					|| node instanceof Ternary 
+					|| StackProgram.opcodeOf(node) >= 0;
+	}
+	
+	private static final boolean isSameSubtree(AbstractNode node1, AbstractNode node2){
+		if(node1.getClass() != node2.getClass() || node1.getArgs().size() != node2.getArgs().size())
+			return false;
+		else if(!node1.getReturnType().isTheSameAs(node2.getReturnType()))
+			return false;
+		else if(node1 instanceof Constant && !isSameValue(node1.getReturnType(), node2.getReturnType()))
+			return false;
+		else if(node1 instanceof ArgumentProxy && ((ArgumentProxy) node1).getId() != ((ArgumentProxy) node2).getId())
+			return false;
+		else if(node1 instanceof ADFProxy && ((ADFProxy) node1).getAdf() != ((ADFProxy) node2).getAdf())
+			return false;
+		
+		for(int i = 0; i < node1.getArgs().size(); i++){
+			if(!isSameSubtree(node1.getArgs().get(i), node2.getArgs().get(i)))
+				return false;
+		}
+		return true;
+	}
+	private static final boolean isSameValue(AbstractType value1, AbstractType value2){
+		if(value1 instanceof RealValue)
+			return Double.compare(((RealValue) value1).getValue(), ((RealValue) value2).getValue()) == 0;
+		else if(value1 instanceof BooleanValue)
+			return ((BooleanValue) value1).getValue() == ((BooleanValue) value2).getValue();
+		else
+			return false;
+	}
+}
@@ -0,0 +1,107 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ *
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ *
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------
+ * StructuralHasher.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses;
+
+
+
+/**
+ * 
+ * Builder of a 128 bits hash (two independent 64 bits hashes) of a sequence of values,
+ * which is used to hash the structure of the genomes (see {@link Nucleus#getStructuralHash()},
+ * {@link com.gpapi.algorithm.fitnessfunction.FitnessCache} and
+ * {@link com.gpapi.individuals.cells.nucleuses.compilers.BatchEvaluator}). The hash of
+ * a tree can be built either by adding the values of all its nodes to the same hasher,
+ * or by adding the hashes of the subtrees of a node to the hasher of this node.<p>
+ * 
+ * Each value is combined with the current hashes and the results are mixed with the
+ * finalizer of SplitMix64, so that structures differing by a single value have
+ * unrelated hashes.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class StructuralHasher {
+	
+	private static final long MULTIPLIER1 = 0x100000001B3L;
+	
+	private static final long MULTIPLIER2 = 0x9E3779B97F4A7C15L;
+	
+	
+	private long hash1 = 0x9E3779B97F4A7C15L;
+	public final long getHash1() {
+		return hash1;
+	}
+	
+	private long hash2 = 0xC2B2AE3D27D4EB4FL;
+	public final long getHash2() {
+		return hash2;
+	}
+	
+	
+	
+	public final StructuralHasher add(long value){
+		hash1 = mix(hash1 * MULTIPLIER1 + value);
+		hash2 = mix(hash2 * MULTIPLIER2 + value);
+		return this;
+	}
+	public final StructuralHasher add(String value){
+		add(value.length());
+		for(int i = 0; i < value.length(); i++)
+			add(value.charAt(i));
+		return this;
+	}
+	/**
+	 * Adds the hashes of a sub-structure (e.g. a subtree), built by another hasher.
+	 * 
+	 * @param otherHash1
+	 * @param otherHash2
+	 * @return
+	 * 			This hasher.
+	 */
+	public final StructuralHasher add(long otherHash1, long otherHash2){
+		hash1 = mix(hash1 * MULTIPLIER1 + otherHash1);
+		hash2 = mix(hash2 * MULTIPLIER2 + otherHash2);
+		return this;
+	}
+	
+	private static final long mix(long hash){
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		return hash ^ (hash >>> 31);
+	}
+}
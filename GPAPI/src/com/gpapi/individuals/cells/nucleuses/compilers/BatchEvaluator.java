@@ -0,0 +1,410 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * BatchEvaluator.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.gpapi.individuals.cells.nucleuses.StructuralHasher;
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.RPB;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.nodes.Glue;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Ternary;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+
+
+
+/**
+ * 
+ * Columnar evaluator, which evaluates a RPB over a whole batch of fitness cases at
+ * once : each node processes a column of values (one per fitness case) instead of
+ * a single value, so the interpretive overhead is paid once per batch and each node
+ * boils down to a tight loop over arrays.<p>
+ * 
+ * Real values are stored as is in the columns and boolean values are stored as 1.0
+ * (true) and 0.0 (false). Both branches of Ternary nodes are evaluated over the whole
+ * batch and the results are then selected row by row, which is why only the RPBs made
+ * of stateless nodes (see isBatchable()) can be evaluated this way. The values and the
+ * execution costs of each row are the same as the ones of the tree interpreter.<p>
+ * 
+ * The built-in functions are applied by the {@link ColumnKernels}, which are
+ * vectorized when the Java Vector API is available.<p>
+ * 
+ * The columns of the subtrees can be shared between evaluators (and between
+ * individuals) through a {@link SubtreeCache}.<p>
+ * 
+ * Note : An evaluator keeps a pool of columns of the size of the batch, and is not
+ * thread-safe.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class BatchEvaluator {
+	
+	private final int nRows;
+	public final int getNRows() {
+		return nRows;
+	}
+	
+	private final SubtreeCache cache;
+	public final SubtreeCache getCache() {
+		return cache;
+	}
+	
+	private final ColumnKernels kernels = ColumnKernels.getInstance();
+	
+	private double[][] rootFrame = null;
+	private long[] rootFrameHash = null;
+	private final IdentityHashMap<AbstractNode,long[]> subtreesHashes = new IdentityHashMap<AbstractNode,long[]>();
+	
+	private final ArrayList<double[]> freeColumns = new ArrayList<double[]>();
+	private final ArrayList<int[]> freeCostColumns = new ArrayList<int[]>();
+	
+	
+	
+	public BatchEvaluator(int nRows){
+		this(nRows, null);
+	}
+	/**
+	 * 
+	 * @param nRows
+	 * @param cache
+	 * 			The cache in which the columns of the subtrees are looked up before
+	 * 			evaluating them, or null.
+	 */
+	public BatchEvaluator(int nRows, SubtreeCache cache){
+		if(nRows < 0)
+			throw new IllegalArgumentException("nRows can't be negative!");
+		
+		this.nRows = nRows;
+		this.cache = cache;
+	}
+	
+	
+	/**
+	 * Indicates whether the given RPB can be evaluated by a batch evaluator, i.e. whether
+	 * its arguments are real or boolean values and its body (including the called ADFs)
+	 * is only made of shipped real and boolean functions, constants, arguments, Glue
+	 * and ADF proxies.
+	 * 
+	 * @param rpb
+	 * @return
+	 * 			True if the RPB can be evaluated by a batch evaluator.
+	 */
+	public static final boolean isBatchable(RPB rpb){
+		for(AbstractType argType : rpb.getArgsTypes()){
+			if(!StackProgram.isStackType(argType))
+				return false;
+		}
+		return isBatchable(rpb.getRoot(), new IdentityHashMap<ADF,Boolean>());
+	}
+	private static final boolean isBatchable(AbstractNode node, IdentityHashMap<ADF,Boolean> checkedAdfs){
+		if(!StackProgram.isStackType(node.getReturnType()))
+			return false;
+		else if(node instanceof ADFProxy){
+			ADF adf = ((ADFProxy) node).getAdf();
+			Boolean batchableAdf = checkedAdfs.get(adf);
+			if(batchableAdf == null){
+				batchableAdf = false;
+				checkedAdfs.put(adf, batchableAdf);
+				
+				boolean batchableArgs = true;
+				for(AbstractType argType : adf.getArgsTypes())
+					batchableArgs = batchableArgs && StackProgram.isStackType(argType);
+				
+				batchableAdf = batchableArgs && isBatchable(adf.getRoot(), checkedAdfs);
+				checkedAdfs.put(adf, batchableAdf);
+			}
+			if(!batchableAdf)
+				return false;
+		} else if(!(node instanceof Constant)
+				&& !(node instanceof ArgumentProxy)
+				&& !(node instanceof Glue)
+				&& !(node instanceof Ternary)
+				&& StackProgram.opcodeOf(node) < 0)
+			return false;
+		
+		for(AbstractNode arg : node.getArgs()){
+			if(!isBatchable(arg, checkedAdfs))
+				return false;
+		}
+		return true;
+	}
+	
+	
+	/**
+	 * Evaluates the given RPB over the whole batch.
+	 * 
+	 * @param rpb
+	 * 			A RPB for which isBatchable() returns true.
+	 * @param argsColumns
+	 * 			One column per argument of the RPB, each of them holding one value per row.
+	 * @param costs
+	 * 			The column to which the execution cost of each row is added.
+	 * @return
+	 * 			A new column holding the value computed by the RPB for each row.
+	 */
+	public final double[] evaluate(RPB rpb, List<double[]> argsColumns, int[] costs){
+		if(rpb == null)
+			throw new NullPointerException("Argument rpb can't be null!");
+		else if(argsColumns == null)
+			throw new NullPointerException("Argument argsColumns can't be null!");
+		else if(costs == null)
+			throw new NullPointerException("Argument costs can't be null!");
+		else if(argsColumns.size() != rpb.getArgs().size())
+			throw new IllegalArgumentException("The given number of argument columns is different from the RPB's one !");
+		else if(costs.length != nRows)
+			throw new IllegalArgumentException("The costs column doesn't have the size of the batch!");
+		
+		double[][] frame = new double[argsColumns.size()][];
+		for(int i = 0; i < frame.length; i++){
+			frame[i] = argsColumns.get(i);
+			if(frame[i] == null)
+				throw new NullPointerException("Argument columns can't be null!");
+			else if(frame[i].length != nRows)
+				throw new IllegalArgumentException("The argument columns don't have the size of the batch!");
+		}
+		
+		double[] out = new double[nRows];
+		int uniformCost;
+		if(cache != null){
+			rootFrame = frame;
+			rootFrameHash = SubtreeCache.hashOf(frame);
+			try {
+				hash(rpb.getRoot(), new IdentityHashMap<ADF,long[]>());
+				uniformCost = eval(rpb.getRoot(), frame, out, costs);
+			} finally {
+				rootFrame = null;
+				rootFrameHash = null;
+				subtreesHashes.clear();
+			}
+		} else
+			uniformCost = eval(rpb.getRoot(), frame, out, costs);
+		for(int i = 0; i < nRows; i++)
+			costs[i] += uniformCost;
+		
+		return out;
+	}
+	
+	/**
+	 * Computes the structural hashes and the size of the given subtree, and stores
+	 * them for the nodes evaluated in the frame of the RPB.
+	 * 
+	 * @return
+	 * 			The two hashes and the size of the given subtree.
+	 */
+	private final long[] hash(AbstractNode node, IdentityHashMap<ADF,long[]> adfsHashes){
+		StructuralHasher hasher = new StructuralHasher();
+		hasher.add(node.getClass().getName().hashCode());
+		hasher.add(node.getReturnType().getClass().getName().hashCode());
+		long size = 1;
+		
+		long value = 0;
+		if(node instanceof Constant){
+			AbstractType constant = node.getReturnType();
+			if(constant instanceof RealValue)
+				value = Double.doubleToLongBits(((RealValue) constant).getValue());
+			else
+				value = ((BooleanValue) constant).getValue() ? 1 : 0;
+		} else if(node instanceof ArgumentProxy)
+			value = ((ArgumentProxy) node).getId();
+		else if(node instanceof ADFProxy){
+			ADF adf = ((ADFProxy) node).getAdf();
+			long[] adfHash = adfsHashes.get(adf);
+			if(adfHash == null){
+				adfHash = hash(adf.getRoot(), adfsHashes);
+				adfsHashes.put(adf, adfHash);
+			}
+			hasher.add(adfHash[0], adfHash[1]);
+			size += adfHash[2];
+		}
+		hasher.add(value);
+		
+		for(AbstractNode arg : node.getArgs()){
+			long[] argHash = hash(arg, adfsHashes);
+			hasher.add(argHash[0], argHash[1]);
+			size += argHash[2];
+		}
+		
+		long[] subtreeHash = new long[]{hasher.getHash1(), hasher.getHash2(), size};
+		subtreesHashes.put(node, subtreeHash);
+		return subtreeHash;
+	}
+	
+	/**
+	 * Evaluates the given node over the whole batch, storing the values in the given
+	 * column.
+	 * 
+	 * @return
+	 * 			The part of the execution cost which is the same for all the rows, the
+	 * 			remaining part being added to the given costs column.
+	 */
+	private final int eval(AbstractNode node, double[][] frame, double[] out, int[] costs){
+		if(frame == rootFrame && !(node instanceof Constant) && !(node instanceof ArgumentProxy)){
+			long[] subtreeHash = subtreesHashes.get(node);
+			if(subtreeHash != null && subtreeHash[2] >= cache.getMinSubtreeSize())
+				return evalCached(node, subtreeHash, frame, out, costs);
+		}
+		return evalNode(node, frame, out, costs);
+	}
+	private final int evalCached(AbstractNode node, long[] subtreeHash, double[][] frame, double[] out, int[] costs){
+		SubtreeCache.Entry entry = cache.get(subtreeHash[0], subtreeHash[1], rootFrameHash);
+		if(entry != null){
+			System.arraycopy(entry.getValues(), 0, out, 0, nRows);
+			int[] rowsCosts = entry.getRowsCosts();
+			if(rowsCosts != null){
+				for(int i = 0; i < nRows; i++)
+					costs[i] += rowsCosts[i];
+			}
+			return entry.getUniformCost();
+		}
+		
+		int[] rowsCosts = acquireCostColumn();
+		int uniformCost = evalNode(node, frame, out, rowsCosts);
+		boolean uniform = true;
+		for(int i = 0; i < nRows; i++){
+			costs[i] += rowsCosts[i];
+			uniform = uniform && rowsCosts[i] == 0;
+		}
+		cache.put(subtreeHash[0], subtreeHash[1], rootFrameHash, out.clone(), uniformCost, uniform ? null : rowsCosts.clone());
+		releaseCostColumn(rowsCosts);
+		
+		return uniformCost;
+	}
+	private final int evalNode(AbstractNode node, double[][] frame, double[] out, int[] costs){
+		List<AbstractNode> args = node.getArgs();
+		
+		if(node instanceof Constant){
+			AbstractType value = node.getReturnType();
+			if(value instanceof RealValue)
+				Arrays.fill(out, ((RealValue) value).getValue());
+			else
+				Arrays.fill(out, ((BooleanValue) value).getValue() ? 1.0 : 0.0);
+			return 1;
+		} else if(node instanceof ArgumentProxy){
+			System.arraycopy(frame[((ArgumentProxy) node).getId()], 0, out, 0, nRows);
+			return 1;
+		} else if(node instanceof Glue){
+			double[] discarded = acquireColumn();
+			int cost = eval(args.get(0), frame, discarded, costs);
+			releaseColumn(discarded);
+			return cost + eval(args.get(1), frame, out, costs);
+		} else if(node instanceof Ternary){
+			return evalTernary(args, frame, out, costs);
+		} else if(node instanceof ADFProxy){
+			double[][] adfFrame = new double[args.size()][];
+			int cost = 0;
+			for(int i = 0; i < args.size(); i++){
+				adfFrame[i] = acquireColumn();
+				cost += eval(args.get(i), frame, adfFrame[i], costs);
+			}
+			cost += eval(((ADFProxy) node).getAdf().getRoot(), adfFrame, out, costs);
+			for(double[] column : adfFrame)
+				releaseColumn(column);
+			return cost;
+		} else if(args.size() == 1){
+			int cost = eval(args.get(0), frame, out, costs) + 1;
+			kernels.unary(StackProgram.opcodeOf(node), out, 0, nRows);
+			return cost;
+		} else {
+			int cost = eval(args.get(0), frame, out, costs);
+			double[] arg1 = acquireColumn();
+			cost += eval(args.get(1), frame, arg1, costs) + 2;
+			kernels.binary(StackProgram.opcodeOf(node), out, arg1, 0, nRows);
+			releaseColumn(arg1);
+			return cost;
+		}
+	}
+	private final int evalTernary(List<AbstractNode> args, double[][] frame, double[] out, int[] costs){
+		double[] condition = acquireColumn();
+		int cost = eval(args.get(0), frame, condition, costs);
+		
+		double[] ifFalse = acquireColumn();
+		int[] ifTrueCosts = acquireCostColumn();
+		int[] ifFalseCosts = acquireCostColumn();
+		int ifTrueCost = eval(args.get(1), frame, out, ifTrueCosts);
+		int ifFalseCost = eval(args.get(2), frame, ifFalse, ifFalseCosts);
+		
+		for(int i = 0; i < nRows; i++){
+			if(condition[i] != 0.0)
+				costs[i] += ifTrueCost + ifTrueCosts[i];
+			else {
+				out[i] = ifFalse[i];
+				costs[i] += ifFalseCost + ifFalseCosts[i];
+			}
+		}
+		
+		releaseCostColumn(ifFalseCosts);
+		releaseCostColumn(ifTrueCosts);
+		releaseColumn(ifFalse);
+		releaseColumn(condition);
+		
+		return cost;
+	}
+	
+	
+	private final double[] acquireColumn(){
+		if(freeColumns.isEmpty())
+			return new double[nRows];
+		else
+			return freeColumns.remove(freeColumns.size() - 1);
+	}
+	private final void releaseColumn(double[] column){
+		freeColumns.add(column);
+	}
+	private final int[] acquireCostColumn(){
+		if(freeCostColumns.isEmpty())
+			return new int[nRows];
+		else {
+			int[] column = freeCostColumns.remove(freeCostColumns.size() - 1);
+			Arrays.fill(column, 0);
+			return column;
+		}
+	}
+	private final void releaseCostColumn(int[] column){
+		freeCostColumns.add(column);
+	}
+}
@@ -0,0 +1,586 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ *
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ *
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------
+ * BytecodeCompiler.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.gpapi.individuals.cells.nucleuses.Nucleus;
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.RPB;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.nodes.Glue;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.And;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Equals;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.GreaterThan;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Not;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Or;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Abs;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Cos;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Divide;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Exp;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Floor;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Log;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Max;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Min;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Mult;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Sin;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Subtract;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Sum;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Ternary;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+
+
+
+/**
+ * 
+ * Translates the RPBs of a {@link Nucleus} (and the ADFs they call) into the source
+ * of a {@link CompiledProgram} subclass, compiles it in memory with the system Java
+ * compiler and loads the resulting class, so that the JIT can inline the whole tree
+ * instead of going through the virtual execute() calls of the nodes.<p>
+ * 
+ * Only the branches made exclusively of the shipped real and boolean functions,
+ * {@link Constant}, {@link Glue}, {@link ArgumentProxy} and {@link ADFProxy} nodes
+ * (whose types are either {@link RealValue} or {@link BooleanValue}) are compiled.
+ * The other RPBs are left to the tree interpreter, which remains the reference
+ * implementation.<p>
+ * 
+ * Note : The system Java compiler is only available when running on a JDK, so when
+ * running on a JRE (i.e. when ToolProvider.getSystemJavaCompiler() returns null), 
+ * compile() simply returns null.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class BytecodeCompiler {
+	
+	private static final String generatedPackage = "com.gpapi.individuals.cells.nucleuses.compilers.generated";
+	
+	private static final AtomicLong generatedClassesCount = new AtomicLong(0);
+	
+	private static int maxBranchSize = 4000;
+	public static final int getMaxBranchSize() {
+		return maxBranchSize;
+	}
+	/**
+	 * Sets the maximum size of the branches that can be compiled, in order not
+	 * to exceed the JVM limit on the size of a method (and the size over which
+	 * the JIT doesn't compile a method anymore).
+	 * 
+	 * @param maxBranchSize
+	 */
+	public static final void setMaxBranchSize(int maxBranchSize) {
+		if(maxBranchSize < 1)
+			throw new IllegalArgumentException("maxBranchSize must be strictly positive!");
+		else
+			BytecodeCompiler.maxBranchSize = maxBranchSize;
+	}
+	
+	
+	
+	private BytecodeCompiler(){
+	}
+	
+	
+	
+	/**
+	 * Compiles the RPBs of the given nucleus.
+	 * <p>
+	 * Note : The returned program is a snapshot of the nucleus, it must be discarded
+	 * if the nucleus is modified afterwards.
+	 * 
+	 * @param nucleus
+	 * @return
+	 * 			The compiled program, or null if no RPB could be compiled or if
+	 * 			the system Java compiler isn't available.
+	 */
+	public static final CompiledProgram compile(Nucleus nucleus){
+		if(nucleus == null)
+			throw new NullPointerException("Argument nucleus can't be null!");
+		
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		if(javac == null)
+			return null;
+		
+		int nRpbs = nucleus.getRpbs().size();
+		boolean[] compiledRpbs = new boolean[nRpbs];
+		int[] rpbsArgsCounts = new int[nRpbs];
+		Boolean[] compilableAdfs = new Boolean[nucleus.getAdfs().size()];
+		
+		boolean anyCompiled = false;
+		for(int i = 0; i < nRpbs; i++){
+			RPB rpb = nucleus.getRpbs().get(i);
+			rpbsArgsCounts[i] = rpb.getArgs().size();
+			compiledRpbs[i] =
+					rpb.getSize() <= getMaxBranchSize() &&
+					typeName(rpb.getReturnType()) != null &&
+					argsAreCompilable(rpb.getArgsTypes()) &&
+					isCompilable(rpb.getRoot(), rpb.getArgsTypes(), nucleus, compilableAdfs);
+			anyCompiled |= compiledRpbs[i];
+		}
+		if(!anyCompiled)
+			return null;
+		
+		String className = "Program" + generatedClassesCount.incrementAndGet();
+		String source = generateSource(className, nucleus, compiledRpbs, compilableAdfs);
+		
+		try {
+			Class<?> programClass = compileSource(javac, generatedPackage + "." + className, source);
+			if(programClass == null)
+				return null;
+			else
+				return (CompiledProgram) programClass
+						.getConstructor(boolean[].class, int[].class)
+						.newInstance(compiledRpbs, rpbsArgsCounts);
+		} catch(Exception e) {
+			return null;
+		}
+	}
+	
+	
+	
+	private static final boolean isCompilable(
+			AbstractNode node,
+			List<AbstractType> argsTypes,
+			Nucleus nucleus,
+			Boolean[] compilableAdfs){
+		if(!node.isReady() || typeName(node.getReturnType()) == null)
+			return false;
+		
+		if(node instanceof ArgumentProxy){
+			int id = ((ArgumentProxy) node).getId();
+			if(id >= argsTypes.size() || !argsTypes.get(id).isTheSameAs(node.getReturnType()))
+				return false;
+		} else if(node instanceof ADFProxy){
+			int id = ((ADFProxy) node).getId();
+			if(id >= nucleus.getAdfs().size() || ((ADFProxy) node).getAdf() != nucleus.getAdfs().get(id))
+				return false;
+			
+			if(compilableAdfs[id] == null){
+				ADF adf = nucleus.getAdfs().get(id);
+				compilableAdfs[id] = false;
+				compilableAdfs[id] =
+						adf.getSize() <= getMaxBranchSize() &&
+						argsAreCompilable(adf.getArgsTypes()) &&
+						isCompilable(adf.getRoot(), adf.getArgsTypes(), nucleus, compilableAdfs);
+			}
+			if(!compilableAdfs[id])
+				return false;
+		} else if(!isSupported(node))
+			return false;
+		
+		for(AbstractNode arg : node.getArgs()){
+			if(!isCompilable(arg, argsTypes, nucleus, compilableAdfs))
+				return false;
+		}
+		
+		return true;
+	}
+	private static final boolean argsAreCompilable(List<AbstractType> argsTypes){
+		for(AbstractType argType : argsTypes){
+			if(typeName(argType) == null)
+				return false;
+		}
+		return true;
+	}
+	private static final boolean isSupported(AbstractNode node){
+		return
+				node instanceof Constant ||
+				node instanceof Glue ||
+				node instanceof Sum ||
+				node instanceof Subtract ||
+				node instanceof Mult ||
+				node instanceof Divide ||
+				node instanceof Min ||
+				node instanceof Max ||
+				node instanceof Abs ||
+				node instanceof Sin ||
+				node instanceof Cos ||
+				node instanceof Exp ||
+				node instanceof Log ||
+				node instanceof Floor ||
+				node instanceof Ternary ||
+				node instanceof And ||
+				node instanceof Or ||
+				node instanceof Not ||
+				node instanceof GreaterThan ||
+				node instanceof Equals;
+	}
+	private static final String typeName(AbstractType type){
+		if(type instanceof RealValue)
+			return "double";
+		else if(type instanceof BooleanValue)
+			return "boolean";
+		else
+			return null;
+	}
+	
+	
+	
+	private static final String generateSource(
+			String className,
+			Nucleus nucleus,
+			boolean[] compiledRpbs,
+			Boolean[] compilableAdfs){
+		StringBuilder source = new StringBuilder();
+		
+		source.append("package ").append(generatedPackage).append(";\n\n");
+		source.append("import java.util.List;\n");
+		source.append("import ").append(AbstractType.class.getName()).append(";\n");
+		source.append("import ").append(BooleanValue.class.getName()).append(";\n");
+		source.append("import ").append(RealValue.class.getName()).append(";\n");
+		source.append("import ").append(CompiledProgram.class.getName()).append(";\n\n");
+		source.append("public final class ").append(className).append(" extends CompiledProgram {\n\n");
+		source.append("\tpublic ").append(className).append("(boolean[] compiledRpbs, int[] rpbsArgsCounts){\n");
+		source.append("\t\tsuper(compiledRpbs, rpbsArgsCounts);\n");
+		source.append("\t}\n\n");
+		
+		source.append("\t@Override\n");
+		source.append("\tprotected final AbstractType run(int rpbIndex, List<AbstractType> args){\n");
+		source.append("\t\tswitch(rpbIndex){\n");
+		for(int i = 0; i < compiledRpbs.length; i++){
+			if(!compiledRpbs[i])
+				continue;
+			
+			RPB rpb = nucleus.getRpbs().get(i);
+			String boxing = rpb.getReturnType() instanceof RealValue ? "RealValue.create(" : "BooleanValue.create(";
+			
+			source.append("\t\tcase ").append(i).append(": return ").append(boxing).append("rpb").append(i).append("(");
+			for(int j = 0; j < rpb.getArgs().size(); j++){
+				if(j > 0)
+					source.append(", ");
+				String unboxing = rpb.getArgsTypes().get(j) instanceof RealValue ? "real" : "bool";
+				source.append(unboxing).append("(args.get(").append(j).append("))");
+			}
+			source.append("));\n");
+		}
+		source.append("\t\tdefault: throw new IllegalArgumentException(\"The RPB \" + rpbIndex + \" was not compiled !\");\n");
+		source.append("\t\t}\n");
+		source.append("\t}\n\n");
+		
+		for(int i = 0; i < compiledRpbs.length; i++){
+			if(compiledRpbs[i]){
+				RPB rpb = nucleus.getRpbs().get(i);
+				generateMethod(source, "rpb" + i, rpb.getRoot(), rpb.getArgsTypes());
+			}
+		}
+		for(int i = 0; i < compilableAdfs.length; i++){
+			if(compilableAdfs[i] != null && compilableAdfs[i]){
+				ADF adf = nucleus.getAdfs().get(i);
+				generateMethod(source, "adf" + i, adf.getRoot(), adf.getArgsTypes());
+			}
+		}
+		
+		source.append("}\n");
+		
+		return source.toString();
+	}
+	private static final void generateMethod(StringBuilder source, String name, AbstractNode root, List<AbstractType> argsTypes){
+		source.append("\tprivate final ").append(typeName(root.getReturnType())).append(" ").append(name).append("(");
+		for(int i = 0; i < argsTypes.size(); i++){
+			if(i > 0)
+				source.append(", ");
+			source.append(typeName(argsTypes.get(i))).append(" a").append(i);
+		}
+		source.append("){\n");
+		
+		BranchWriter writer = new BranchWriter(source);
+		String result = writer.write(root, "\t\t");
+		writer.flushCost("\t\t");
+		
+		source.append("\t\treturn ").append(result).append(";\n");
+		source.append("\t}\n\n");
+	}
+	
+	
+	/**
+	 * Writes the statements computing the value of a branch, one local variable per
+	 * node, and accumulates the execution cost of the nodes in the same way as their
+	 * execute() methods do (1 for leaves and unary functions, 2 for binary functions,
+	 * nothing for Ternary, Glue and ADFProxy nodes themselves). The cost is charged
+	 * at the end of each straight part of the branch, before each ADF call, and as
+	 * soon as it reaches StackMachine.COST_CHECK_INTERVAL.
+	 */
+	private static final class BranchWriter {
+		
+		private final StringBuilder source;
+		
+		private int nextVariable = 0;
+		
+		private int pendingCost = 0;
+		
+		
+		
+		private BranchWriter(StringBuilder source){
+			this.source = source;
+		}
+		
+		
+		private final String write(AbstractNode node, String indent){
+			List<AbstractNode> args = node.getArgs();
+			
+			if(node instanceof Constant){
+				pendingCost += 1;
+				AbstractType value = node.getReturnType();
+				if(value instanceof RealValue)
+					return literal(((RealValue) value).getValue());
+				else
+					return String.valueOf(((BooleanValue) value).getValue());
+			} else if(node instanceof ArgumentProxy){
+				pendingCost += 1;
+				return "a" + ((ArgumentProxy) node).getId();
+			} else if(node instanceof Glue){
+				write(args.get(0), indent);
+				return write(args.get(1), indent);
+			} else if(node instanceof Ternary){
+				String condition = write(args.get(0), indent);
+				flushCost(indent);
+				
+				String variable = "v" + (nextVariable++);
+				source.append(indent).append("double ").append(variable).append(";\n");
+				source.append(indent).append("if(").append(condition).append("){\n");
+				String ifTrue = write(args.get(1), indent + "\t");
+				flushCost(indent + "\t");
+				source.append(indent).append("\t").append(variable).append(" = ").append(ifTrue).append(";\n");
+				source.append(indent).append("} else {\n");
+				String ifFalse = write(args.get(2), indent + "\t");
+				flushCost(indent + "\t");
+				source.append(indent).append("\t").append(variable).append(" = ").append(ifFalse).append(";\n");
+				source.append(indent).append("}\n");
+				
+				return variable;
+			} else if(node instanceof ADFProxy){
+				StringBuilder call = new StringBuilder("adf").append(((ADFProxy) node).getId()).append("(");
+				for(int i = 0; i < args.size(); i++){
+					if(i > 0)
+						call.append(", ");
+					call.append(write(args.get(i), indent));
+				}
+				call.append(")");
+				flushCost(indent);
+				return declare(indent, typeName(node.getReturnType()), call.toString());
+			} else if(args.size() == 1){
+				String arg = write(args.get(0), indent);
+				pendingCost += 1;
+				
+				if(node instanceof Abs)
+					return declare(indent, "double", "Math.abs(" + arg + ")");
+				else if(node instanceof Sin)
+					return declare(indent, "double", "Math.sin(" + arg + ")");
+				else if(node instanceof Cos)
+					return declare(indent, "double", "Math.cos(" + arg + ")");
+				else if(node instanceof Exp)
+					return declare(indent, "double", "Math.exp(" + arg + ")");
+				else if(node instanceof Log)
+					return declare(indent, "double", "Math.log(" + arg + ")");
+				else if(node instanceof Floor)
+					return declare(indent, "double", "Math.floor(" + arg + ")");
+				else
+					return declare(indent, "boolean", "!" + arg);
+			} else {
+				String arg0 = write(args.get(0), indent);
+				String arg1 = write(args.get(1), indent);
+				pendingCost += 2;
+				
+				if(node instanceof Sum)
+					return declare(indent, "double", arg0 + " + " + arg1);
+				else if(node instanceof Subtract)
+					return declare(indent, "double", arg0 + " - " + arg1);
+				else if(node instanceof Mult)
+					return declare(indent, "double", arg0 + " * " + arg1);
+				else if(node instanceof Divide)
+					return declare(indent, "double", arg0 + " / " + arg1);
+				else if(node instanceof Min)
+					return declare(indent, "double", arg0 + " > " + arg1 + " ? " + arg1 + " : " + arg0);
+				else if(node instanceof Max)
+					return declare(indent, "double", arg0 + " < " + arg1 + " ? " + arg1 + " : " + arg0);
+				else if(node instanceof And)
+					return declare(indent, "boolean", arg0 + " && " + arg1);
+				else if(node instanceof Or)
+					return declare(indent, "boolean", arg0 + " || " + arg1);
+				else if(node instanceof GreaterThan)
+					return declare(indent, "boolean", arg0 + " >= " + arg1);
+				else
+					return declare(indent, "boolean", arg0 + " == " + arg1);
+			}
+		}
+		private final String declare(String indent, String type, String expression){
+			String variable = "v" + (nextVariable++);
+			source.append(indent).append(type).append(" ").append(variable).append(" = ").append(expression).append(";\n");
+			if(pendingCost >= StackMachine.COST_CHECK_INTERVAL)
+				flushCost(indent);
+			return variable;
+		}
+		private final void flushCost(String indent){
+			if(pendingCost > 0){
+				source.append(indent).append("charge(").append(pendingCost).append(");\n");
+				pendingCost = 0;
+			}
+		}
+	}
+	private static final String literal(double value){
+		if(Double.isNaN(value))
+			return "Double.NaN";
+		else if(value == Double.POSITIVE_INFINITY)
+			return "Double.POSITIVE_INFINITY";
+		else if(value == Double.NEGATIVE_INFINITY)
+			return "Double.NEGATIVE_INFINITY";
+		else
+			return "(" + Double.toString(value) + ")";
+	}
+	
+	
+	
+	private static final Class<?> compileSource(JavaCompiler javac, String className, String source) throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		
+		try(MemoryFileManager fileManager = new MemoryFileManager(javac.getStandardFileManager(diagnostics, null, null))){
+			JavaFileObject sourceFile = new SimpleJavaFileObject(
+					URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension),
+					Kind.SOURCE){
+				@Override
+				public final CharSequence getCharContent(boolean ignoreEncodingErrors){
+					return source;
+				}
+			};
+			
+			Boolean success = javac.getTask(
+					null,
+					fileManager,
+					diagnostics,
+					Arrays.asList("-classpath", buildClassPath(), "-g:none", "-proc:none", "-nowarn"),
+					null,
+					Arrays.asList(sourceFile)).call();
+			
+			if(success == null || !success)
+				return null;
+			else
+				return new MemoryClassLoader(fileManager.getClassesBytes()).loadClass(className);
+		}
+	}
+	private static final String buildClassPath() throws Exception {
+		String classPath = System.getProperty("java.class.path", "");
+		
+		CodeSource codeSource = CompiledProgram.class.getProtectionDomain().getCodeSource();
+		if(codeSource != null && codeSource.getLocation() != null)
+			classPath = new File(codeSource.getLocation().toURI()).getPath() + File.pathSeparator + classPath;
+		
+		return classPath;
+	}
+	
+	
+	private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+		
+		private final HashMap<String,ByteArrayOutputStream> classesBytes = new HashMap<String,ByteArrayOutputStream>();
+		private final HashMap<String,byte[]> getClassesBytes(){
+			HashMap<String,byte[]> result = new HashMap<String,byte[]>();
+			for(String className : classesBytes.keySet())
+				result.put(className, classesBytes.get(className).toByteArray());
+			return result;
+		}
+		
+		
+		
+		private MemoryFileManager(StandardJavaFileManager fileManager){
+			super(fileManager);
+		}
+		
+		
+		@Override
+		public final JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling){
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			classesBytes.put(className, bytes);
+			
+			return new SimpleJavaFileObject(URI.create("bytes:///" + className.replace('.', '/') + kind.extension), kind){
+				@Override
+				public final OutputStream openOutputStream(){
+					return bytes;
+				}
+			};
+		}
+	}
+	
+	
+	/**
+	 * One class loader per compiled program, so that the generated classes can be
+	 * unloaded along with the individuals that own them.
+	 */
+	private static final class MemoryClassLoader extends ClassLoader {
+		
+		private final HashMap<String,byte[]> classesBytes;
+		
+		
+		
+		private MemoryClassLoader(HashMap<String,byte[]> classesBytes){
+			super(CompiledProgram.class.getClassLoader());
+			this.classesBytes = classesBytes;
+		}
+		
+		
+		@Override
+		protected final Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = classesBytes.get(name);
+			if(bytes == null)
+				return super.findClass(name);
+			else
+				return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ *
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ *
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------
+ * ColumnKernels.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+
+
+/**
+ * 
+ * Column-wise implementations of the built-in functions, used by the
+ * {@link BatchEvaluator}. The functions are identified by their
+ * {@link StackProgram} opcodes.<p>
+ * 
+ * This class holds the scalar loops. When the library is run on Java 17+ with the
+ * jdk.incubator.vector module (--add-modules jdk.incubator.vector), the instance
+ * returned by getInstance() is a subclass, shipped in the versioned part of the jar,
+ * which processes several rows per instruction. Both give exactly the same values.
+ * 
+ * @author jeremy
+ * 
+ */
+public class ColumnKernels {
+	
+	private static final String VECTOR_KERNELS_CLASS_NAME = "com.gpapi.individuals.cells.nucleuses.compilers.VectorColumnKernels";
+	
+	private static final ColumnKernels instance = createInstance();
+	/**
+	 * Returns the vectorized kernels if they are available, and the scalar ones
+	 * otherwise.
+	 * 
+	 * @return
+	 * 			The kernels used by the batch evaluators.
+	 */
+	public static final ColumnKernels getInstance() {
+		return instance;
+	}
+	
+	
+	
+	protected ColumnKernels(){
+	}
+	
+	
+	private static final ColumnKernels createInstance(){
+		try {
+			return (ColumnKernels) Class.forName(VECTOR_KERNELS_CLASS_NAME).getDeclaredConstructor().newInstance();
+		} catch(Throwable e){
+			// The versioned class isn't there, or the vector module isn't resolved.
+			return new ColumnKernels();
+		}
+	}
+	
+	/**
+	 * Indicates whether these kernels process several rows per instruction.
+	 * 
+	 * @return
+	 * 			True if these kernels are vectorized.
+	 */
+	public boolean isVectorized(){
+		return false;
+	}
+	
+	/**
+	 * Applies the unary function of the given opcode to the rows of the given
+	 * column, in place.
+	 * 
+	 * @param opcode
+	 * @param values
+	 * @param from
+	 * 			The first row (inclusive).
+	 * @param to
+	 * 			The last row (exclusive).
+	 */
+	public void unary(int opcode, double[] values, int from, int to){
+		switch(opcode){
+		case StackProgram.ABS:
+			for(int i = from; i < to; i++)
+				values[i] = Math.abs(values[i]);
+			break;
+		case StackProgram.SIN:
+			for(int i = from; i < to; i++)
+				values[i] = Math.sin(values[i]);
+			break;
+		case StackProgram.COS:
+			for(int i = from; i < to; i++)
+				values[i] = Math.cos(values[i]);
+			break;
+		case StackProgram.EXP:
+			for(int i = from; i < to; i++)
+				values[i] = Math.exp(values[i]);
+			break;
+		case StackProgram.LOG:
+			for(int i = from; i < to; i++)
+				values[i] = Math.log(values[i]);
+			break;
+		case StackProgram.FLOOR:
+			for(int i = from; i < to; i++)
+				values[i] = Math.floor(values[i]);
+			break;
+		case StackProgram.NOT:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] != 0.0 ? 0.0 : 1.0;
+			break;
+		default:
+			throw new RuntimeException("Unknown unary opcode " + opcode + "!");
+		}
+	}
+	
+	/**
+	 * Applies the binary function of the given opcode to the rows of the given
+	 * columns, storing the results in the first one.
+	 * 
+	 * @param opcode
+	 * @param values
+	 * 			The first arguments, replaced by the results.
+	 * @param others
+	 * 			The second arguments.
+	 * @param from
+	 * 			The first row (inclusive).
+	 * @param to
+	 * 			The last row (exclusive).
+	 */
+	public void binary(int opcode, double[] values, double[] others, int from, int to){
+		switch(opcode){
+		case StackProgram.SUM:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] + others[i];
+			break;
+		case StackProgram.SUBTRACT:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] - others[i];
+			break;
+		case StackProgram.MULT:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] * others[i];
+			break;
+		case StackProgram.DIVIDE:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] / others[i];
+			break;
+		case StackProgram.MIN:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] > others[i] ? others[i] : values[i];
+			break;
+		case StackProgram.MAX:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] < others[i] ? others[i] : values[i];
+			break;
+		case StackProgram.AND:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] != 0.0 && others[i] != 0.0 ? 1.0 : 0.0;
+			break;
+		case StackProgram.OR:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] != 0.0 || others[i] != 0.0 ? 1.0 : 0.0;
+			break;
+		case StackProgram.GREATER_THAN:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] >= others[i] ? 1.0 : 0.0;
+			break;
+		case StackProgram.EQUALS:
+			for(int i = from; i < to; i++)
+				values[i] = values[i] == others[i] ? 1.0 : 0.0;
+			break;
+		default:
+			throw new RuntimeException("Unknown binary opcode " + opcode + "!");
+		}
+	}
+}
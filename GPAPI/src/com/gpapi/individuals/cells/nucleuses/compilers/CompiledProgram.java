@@ -0,0 +1,182 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ *
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ *
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------
+ * CompiledProgram.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ *
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import java.util.List;
+
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
+import com.gpapi.individuals.cells.nucleuses.nodes.ExecutionCostExceededException;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+import com.gpapi.individuals.cells.nucleuses.types.Result;
+
+
+
+/**
+ * 
+ * Base class of the programs generated by the {@link BytecodeCompiler}.<p>
+ * 
+ * A compiled program holds one method per compiled RPB (and per ADF called from
+ * a compiled RPB), whose results, value and execution cost, are the same as the
+ * ones of the tree interpreter. The execution cost is also added to the counter of
+ * the current {@link EvaluationState} while the program runs (see charge()), so that
+ * a too expensive execution is aborted before its end.<p>
+ * 
+ * Note : This class is not thread-safe, since the execution cost is accumulated
+ * in an instance field, the same way the tree interpreter keeps its state in the
+ * modules (see newInstance()).
+ * 
+ * @author jeremy
+ * 
+ */
+public abstract class CompiledProgram {
+	
+	private final boolean[] compiledRpbs;
+	/**
+	 * Indicates whether the RPB of the given index was compiled or must be
+	 * executed by the tree interpreter.
+	 * 
+	 * @param rpbIndex
+	 * @return
+	 * 			True if the RPB was compiled.
+	 */
+	public final boolean isCompiled(int rpbIndex){
+		return rpbIndex >= 0 && rpbIndex < compiledRpbs.length && compiledRpbs[rpbIndex];
+	}
+	
+	private final int[] rpbsArgsCounts;
+	
+	/**
+	 * The execution cost accumulated by the generated code.
+	 */
+	private int cost = 0;
+	
+	private EvaluationState state = null;
+	
+	
+	
+	protected CompiledProgram(boolean[] compiledRpbs, int[] rpbsArgsCounts){
+		if(compiledRpbs == null)
+			throw new NullPointerException("compiledRpbs can't be null!");
+		else if(rpbsArgsCounts == null)
+			throw new NullPointerException("rpbsArgsCounts can't be null!");
+		
+		this.compiledRpbs = compiledRpbs.clone();
+		this.rpbsArgsCounts = rpbsArgsCounts.clone();
+	}
+	
+	
+	/**
+	 * Executes the compiled version of the RPB of the given index.
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @return
+	 * 			The same Result as the one returned by the tree interpreter.
+	 */
+	public final Result execute(int rpbIndex, List<AbstractType> args) {
+		if(args == null)
+			throw new NullPointerException("Argument args can't be null !");
+		else if(!isCompiled(rpbIndex))
+			throw new IllegalArgumentException("The RPB " + rpbIndex + " was not compiled !");
+		else if(args.size() != rpbsArgsCounts[rpbIndex])
+			throw new IllegalArgumentException("The given number of argument is different from the RPB's one !");
+		
+		cost = 0;
+		state = EvaluationState.current();
+		AbstractType value = run(rpbIndex, args);
+		return new Result(value, cost);
+	}
+	
+	/**
+	 * Called by the generated code (at least every StackMachine.COST_CHECK_INTERVAL units
+	 * of cost) to add the given cost to the execution cost and to the counter of the 
+	 * current EvaluationState.
+	 * 
+	 * @param cost
+	 * @throws ExecutionCostExceededException
+	 * 			If the current cost budget is exceeded.
+	 */
+	protected final void charge(int cost){
+		this.cost += cost;
+		state.addCost(cost);
+	}
+	
+	/**
+	 * Creates another instance of the same generated class, which can be used concurrently
+	 * with this one (a single instance must not execute several RPBs at the same time,
+	 * since it accumulates their execution cost).
+	 * 
+	 * @return
+	 * 			A new instance of the same program.
+	 */
+	public final CompiledProgram newInstance() {
+		try {
+			return getClass()
+					.getConstructor(boolean[].class, int[].class)
+					.newInstance(compiledRpbs, rpbsArgsCounts);
+		} catch(ReflectiveOperationException e) {
+			throw new RuntimeException("Can't instantiate the compiled program!", e);
+		}
+	}
+	
+	/**
+	 * Implemented by the generated code.
+	 * 
+	 * @param rpbIndex
+	 * @param args
+	 * @return
+	 * 			The value computed by the given RPB.
+	 */
+	protected abstract AbstractType run(int rpbIndex, List<AbstractType> args);
+	
+	
+	/**
+	 * Helper used by the generated code for unboxing real arguments.
+	 */
+	protected static final double real(AbstractType value){
+		return ((RealValue) value).getValue();
+	}
+	/**
+	 * Helper used by the generated code for unboxing boolean arguments.
+	 */
+	protected static final boolean bool(AbstractType value){
+		return ((BooleanValue) value).getValue();
+	}
+}
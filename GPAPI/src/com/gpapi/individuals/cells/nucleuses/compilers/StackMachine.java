@@ -0,0 +1,383 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * StackMachine.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.gpapi.individuals.cells.nucleuses.modules.Argument;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+import com.gpapi.individuals.cells.nucleuses.types.Result;
+
+
+
+/**
+ * 
+ * Interpreter of the {@link StackProgram}s, with one double stack per thread.<p>
+ * 
+ * The values and the execution costs are the same as the ones of the tree
+ * interpreter, but the built-in functions are executed by a single loop over
+ * the opcodes, without any recursive call nor any allocation. ADF calls share
+ * the same stack, the arguments of the callee being the top of the caller's
+ * stack.<p>
+ * 
+ * The execution cost is also added to the counter of the current {@link EvaluationState}
+ * while the program runs (at least every COST_CHECK_INTERVAL units of cost, and before
+ * each ADF call or callback), so that a too expensive execution is aborted before its
+ * end.<p>
+ * 
+ * Note : The machine is reentrant, so callbacks to the tree interpreter may
+ * themselves execute programs (for instance when an ADL body calls an ADF).
+ * 
+ * @author jeremy
+ * 
+ */
+public final class StackMachine {
+	
+	private static final ThreadLocal<StackMachine> machines = new ThreadLocal<StackMachine>(){
+		@Override
+		protected final StackMachine initialValue() {
+			return new StackMachine();
+		}
+	};
+	
+	/**
+	 * The maximum cost accumulated by a program before it is added to the counter of
+	 * the current EvaluationState (and checked against its budget).
+	 */
+	static final int COST_CHECK_INTERVAL = 256;
+	
+	private static volatile boolean enabled = true;
+	public static final boolean isEnabled() {
+		return enabled;
+	}
+	/**
+	 * Enables or disables the execution of the RPBs and ADFs by the stack machine
+	 * (enabled by default). When disabled, the tree interpreter is used instead.
+	 * 
+	 * @param enabled
+	 */
+	public static final void setEnabled(boolean enabled) {
+		StackMachine.enabled = enabled;
+	}
+	
+	private double[] stack = new double[256];
+	
+	private int top = 0;
+	
+	private int cost = 0;
+	
+	private final EvaluationState state = EvaluationState.current();
+	
+	
+	
+	private StackMachine(){
+	}
+	
+	
+	/**
+	 * Executes the given program, using the current values of the given
+	 * arguments (which must be the ones of the module the program was built
+	 * from).
+	 * 
+	 * @param program
+	 * @param args
+	 * @return
+	 * 			The same Result as the one returned by the tree interpreter.
+	 * @throws Exception
+	 * 			If a callback to the tree interpreter throws an exception.
+	 */
+	public static final Result execute(StackProgram program, List<Argument> args) throws Exception {
+		if(program == null)
+			throw new NullPointerException("Argument program can't be null!");
+		else if(args == null)
+			throw new NullPointerException("Argument args can't be null!");
+		
+		return machines.get().executeFrame(program, args);
+	}
+	
+	private final Result executeFrame(StackProgram program, List<Argument> args) throws Exception {
+		int savedTop = top;
+		int savedCost = cost;
+		try {
+			int base = top;
+			ensureCapacity(base + args.size() + program.getMaxStackSize());
+			for(int i = 0; i < args.size(); i++)
+				stack[base + i] = unbox(args.get(i).getValue());
+			
+			cost = 0;
+			double value = run(program, base, base + args.size());
+			
+			return new Result(box(value, program.isBooleanResult()), cost);
+		} finally {
+			top = savedTop;
+			cost = savedCost;
+		}
+	}
+	
+	private final double run(StackProgram program, int base, int sp) throws Exception {
+		final int[] code = program.getCode();
+		final double[] constants = program.getConstants();
+		double[] stack = this.stack;
+		int localCost = 0;
+		int chargedCost = 0;
+		int pc = 0;
+		
+		while(pc < code.length){
+			if(localCost - chargedCost >= COST_CHECK_INTERVAL){
+				state.addCost(localCost - chargedCost);
+				chargedCost = localCost;
+			}
+			
+			switch(code[pc]){
+			case StackProgram.CONSTANT:
+				stack[sp++] = constants[code[pc + 1]];
+				localCost += 1;
+				pc += 2;
+				break;
+			case StackProgram.ARGUMENT:
+				stack[sp++] = stack[base + code[pc + 1]];
+				localCost += 1;
+				pc += 2;
+				break;
+			case StackProgram.SUM:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] + stack[sp];
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.SUBTRACT:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] - stack[sp];
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.MULT:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] * stack[sp];
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.DIVIDE:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] / stack[sp];
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.MIN:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] > stack[sp] ? stack[sp] : stack[sp - 1];
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.MAX:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] < stack[sp] ? stack[sp] : stack[sp - 1];
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.ABS:
+				stack[sp - 1] = Math.abs(stack[sp - 1]);
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.SIN:
+				stack[sp - 1] = Math.sin(stack[sp - 1]);
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.COS:
+				stack[sp - 1] = Math.cos(stack[sp - 1]);
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.EXP:
+				stack[sp - 1] = Math.exp(stack[sp - 1]);
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.LOG:
+				stack[sp - 1] = Math.log(stack[sp - 1]);
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.FLOOR:
+				stack[sp - 1] = Math.floor(stack[sp - 1]);
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.AND:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] != 0.0 && stack[sp] != 0.0 ? 1.0 : 0.0;
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.OR:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] != 0.0 || stack[sp] != 0.0 ? 1.0 : 0.0;
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.NOT:
+				stack[sp - 1] = stack[sp - 1] != 0.0 ? 0.0 : 1.0;
+				localCost += 1;
+				pc++;
+				break;
+			case StackProgram.GREATER_THAN:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] >= stack[sp] ? 1.0 : 0.0;
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.EQUALS:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] == stack[sp] ? 1.0 : 0.0;
+				localCost += 2;
+				pc++;
+				break;
+			case StackProgram.JUMP_IF_FALSE:
+				sp--;
+				if(stack[sp] != 0.0)
+					pc += 2;
+				else
+					pc = code[pc + 1];
+				break;
+			case StackProgram.JUMP:
+				pc = code[pc + 1];
+				break;
+			case StackProgram.POP:
+				sp--;
+				pc++;
+				break;
+			case StackProgram.CALL_ADF:
+				state.addCost(localCost - chargedCost);
+				chargedCost = localCost;
+				sp = callAdf((ADFProxy) program.getNodes()[code[pc + 1]], sp);
+				stack = this.stack;
+				pc += 2;
+				break;
+			case StackProgram.CALLBACK:
+				state.addCost(localCost - chargedCost);
+				top = sp;
+				int initialCost = state.getCost();
+				Result result = program.getNodes()[code[pc + 1]].execute();
+				state.addResultCost(initialCost, result.getCost());
+				stack = this.stack;
+				stack[sp++] = unbox(result.getValue());
+				localCost += result.getCost();
+				chargedCost = localCost;
+				pc += 2;
+				break;
+			default:
+				throw new RuntimeException("Unknown opcode " + code[pc] + "!");
+			}
+		}
+		
+		state.addCost(localCost - chargedCost);
+		cost += localCost;
+		return stack[sp - 1];
+	}
+	
+	/**
+	 * Calls the ADF of the given proxy, whose arguments are the top of the stack,
+	 * and replaces them by the result.
+	 * 
+	 * @return
+	 * 			The new stack pointer.
+	 */
+	private final int callAdf(ADFProxy proxy, int sp) throws Exception {
+		ADF adf = proxy.getAdf();
+		List<Argument> adfArgs = adf.getArgs();
+		int base = sp - adfArgs.size();
+		
+		StackProgram adfProgram = isEnabled() ? adf.getStackProgram(0) : null;
+		if(adfProgram != null){
+			if(adfProgram.hasCallbacks()){
+				for(int i = 0; i < adfArgs.size(); i++){
+					Argument arg = adfArgs.get(i);
+					arg.setValue(box(stack[base + i], arg.getReturnType() instanceof BooleanValue));
+				}
+			}
+			
+			ensureCapacity(sp + adfProgram.getMaxStackSize());
+			double value = run(adfProgram, base, sp);
+			// The stack may have been reallocated by a nested call or a callback.
+			stack[base] = value;
+		} else {
+			List<Result> argsResults = new ArrayList<Result>(adfArgs.size());
+			for(int i = 0; i < adfArgs.size(); i++)
+				argsResults.add(new Result(box(stack[base + i], adfArgs.get(i).getReturnType() instanceof BooleanValue), 0));
+			
+			top = sp;
+			int initialCost = state.getCost();
+			Result result = adf.execute(argsResults);
+			state.addResultCost(initialCost, result.getCost());
+			stack[base] = unbox(result.getValue());
+			cost += result.getCost();
+		}
+		
+		return base + 1;
+	}
+	
+	private final void ensureCapacity(int capacity){
+		if(capacity > stack.length)
+			stack = Arrays.copyOf(stack, Math.max(2 * stack.length, capacity));
+	}
+	
+	
+	private static final double unbox(AbstractType value){
+		if(value instanceof RealValue)
+			return ((RealValue) value).getValue();
+		else if(value instanceof BooleanValue)
+			return ((BooleanValue) value).getValue() ? 1.0 : 0.0;
+		else
+			return Double.NaN;
+	}
+	private static final AbstractType box(double value, boolean booleanValue){
+		if(booleanValue)
+			return BooleanValue.create(value != 0.0);
+		else
+			return RealValue.create(value);
+	}
+}
@@ -0,0 +1,387 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * StackProgram.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
+import com.gpapi.individuals.cells.nucleuses.nodes.Glue;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.And;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Equals;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.GreaterThan;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Not;
+import com.gpapi.individuals.cells.nucleuses.nodes.booleanfunctions.Or;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Abs;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Cos;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Divide;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Exp;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Floor;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Log;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Max;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Min;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Mult;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Sin;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Subtract;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Sum;
+import com.gpapi.individuals.cells.nucleuses.nodes.realfunctions.Ternary;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+
+
+
+/**
+ * 
+ * Flattened postfix encoding of a module branch, executed by the {@link StackMachine}.<p>
+ * 
+ * The program is an array of int opcodes (some followed by one operand), a pool of
+ * double constants and a table of nodes. Real values are stored as is on the stack
+ * and boolean values are stored as 1.0 (true) and 0.0 (false).<p>
+ * 
+ * The shipped real and boolean functions, as well as {@link Constant}, {@link Glue},
+ * {@link ArgumentProxy} and {@link ADFProxy} nodes, are encoded as opcodes. Any other
+ * node returning a {@link RealValue} or a {@link BooleanValue} is encoded as a callback,
+ * which executes the whole subtree of the node with the tree interpreter (values of
+ * other types are only ever pushed as NaN, since they are discarded by a Glue node).<p>
+ * 
+ * Note : Programs are immutable, and only valid as long as the branch they were built
+ * from isn't modified.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class StackProgram {
+	
+	public static final int CONSTANT = 0;
+	public static final int ARGUMENT = 1;
+	public static final int SUM = 2;
+	public static final int SUBTRACT = 3;
+	public static final int MULT = 4;
+	public static final int DIVIDE = 5;
+	public static final int MIN = 6;
+	public static final int MAX = 7;
+	public static final int ABS = 8;
+	public static final int SIN = 9;
+	public static final int COS = 10;
+	public static final int EXP = 11;
+	public static final int LOG = 12;
+	public static final int FLOOR = 13;
+	public static final int AND = 14;
+	public static final int OR = 15;
+	public static final int NOT = 16;
+	public static final int GREATER_THAN = 17;
+	public static final int EQUALS = 18;
+	public static final int JUMP_IF_FALSE = 19;
+	public static final int JUMP = 20;
+	public static final int POP = 21;
+	public static final int CALL_ADF = 22;
+	public static final int CALLBACK = 23;
+	
+	
+	private final int[] code;
+	/**
+	 * Note : Be careful, the returned array is the internal one, not a copy!
+	 * 
+	 * @return
+	 * 			The opcodes and their operands.
+	 */
+	public final int[] getCode() {
+		return code;
+	}
+	
+	private final double[] constants;
+	/**
+	 * Note : Be careful, the returned array is the internal one, not a copy!
+	 * 
+	 * @return
+	 * 			The constants pool, indexed by the operand of the CONSTANT opcodes.
+	 */
+	public final double[] getConstants() {
+		return constants;
+	}
+	
+	private final AbstractNode[] nodes;
+	/**
+	 * Note : Be careful, the returned array is the internal one, not a copy!
+	 * 
+	 * @return
+	 * 			The nodes table, indexed by the operand of the CALL_ADF and CALLBACK
+	 * 			opcodes.
+	 */
+	public final AbstractNode[] getNodes() {
+		return nodes;
+	}
+	
+	private final int maxStackSize;
+	public final int getMaxStackSize() {
+		return maxStackSize;
+	}
+	
+	private final boolean booleanResult;
+	public final boolean isBooleanResult() {
+		return booleanResult;
+	}
+	
+	private final boolean callbacks;
+	/**
+	 * Indicates whether the program contains callbacks to the tree interpreter, in
+	 * which case the arguments of the module must be set in the Argument objects
+	 * before the execution, since the subtrees of the callbacks read them there.
+	 * 
+	 * @return
+	 * 			True if the program contains at least one CALLBACK opcode.
+	 */
+	public final boolean hasCallbacks() {
+		return callbacks;
+	}
+	
+	
+	
+	private StackProgram(int[] code, double[] constants, AbstractNode[] nodes, int maxStackSize, boolean booleanResult, boolean callbacks){
+		this.code = code;
+		this.constants = constants;
+		this.nodes = nodes;
+		this.maxStackSize = maxStackSize;
+		this.booleanResult = booleanResult;
+		this.callbacks = callbacks;
+	}
+	
+	
+	/**
+	 * Builds the program corresponding to the branch starting at the given root.
+	 * 
+	 * @param root
+	 * @return
+	 * 			The program, or null if the root itself returns a type that can't be
+	 * 			stored on the stack.
+	 */
+	public static final StackProgram compile(AbstractNode root){
+		if(root == null)
+			throw new NullPointerException("Argument root can't be null!");
+		else if(!isStackType(root.getReturnType()))
+			return null;
+		
+		Encoder encoder = new Encoder();
+		encoder.encode(root);
+		
+		return new StackProgram(
+				Arrays.copyOf(encoder.code, encoder.codeSize),
+				Arrays.copyOf(encoder.constants, encoder.constantsSize),
+				encoder.nodes.toArray(new AbstractNode[encoder.nodes.size()]),
+				encoder.maxStackSize,
+				root.getReturnType() instanceof BooleanValue,
+				encoder.callbacks);
+	}
+	/**
+	 * Indicates whether values of the given type can be stored on the stack.
+	 * 
+	 * @param type
+	 * @return
+	 * 			True if the type is either a {@link RealValue} or a {@link BooleanValue}.
+	 */
+	public static final boolean isStackType(AbstractType type){
+		return type instanceof RealValue || type instanceof BooleanValue;
+	}
+	
+	
+	private static final class Encoder {
+		
+		private int[] code = new int[64];
+		private int codeSize = 0;
+		
+		private double[] constants = new double[16];
+		private int constantsSize = 0;
+		
+		private final ArrayList<AbstractNode> nodes = new ArrayList<AbstractNode>();
+		
+		private int stackSize = 0;
+		private int maxStackSize = 0;
+		
+		private boolean callbacks = false;
+		
+		
+		
+		private final void encode(AbstractNode node){
+			List<AbstractNode> args = node.getArgs();
+			
+			if(!isStackType(node.getReturnType())){
+				emit(CALLBACK, addNode(node));
+				callbacks = true;
+				push();
+			} else if(node instanceof Constant){
+				AbstractType value = node.getReturnType();
+				if(value instanceof RealValue)
+					emit(CONSTANT, addConstant(((RealValue) value).getValue()));
+				else
+					emit(CONSTANT, addConstant(((BooleanValue) value).getValue() ? 1.0 : 0.0));
+				push();
+			} else if(node instanceof ArgumentProxy){
+				emit(ARGUMENT, ((ArgumentProxy) node).getId());
+				push();
+			} else if(node instanceof Glue){
+				encode(args.get(0));
+				emit(POP);
+				pop(1);
+				encode(args.get(1));
+			} else if(node instanceof Ternary){
+				encode(args.get(0));
+				int jumpIfFalse = emit(JUMP_IF_FALSE, -1);
+				pop(1);
+				
+				encode(args.get(1));
+				int jump = emit(JUMP, -1);
+				pop(1);
+				
+				code[jumpIfFalse + 1] = codeSize;
+				encode(args.get(2));
+				code[jump + 1] = codeSize;
+			} else if(node instanceof ADFProxy && argsAreStackTypes(((ADFProxy) node).getAdf().getArgsTypes())){
+				for(AbstractNode arg : args)
+					encode(arg);
+				emit(CALL_ADF, addNode(node));
+				pop(args.size());
+				push();
+			} else if(isBuiltIn(node)){
+				for(AbstractNode arg : args)
+					encode(arg);
+				emit(opcodeOf(node));
+				pop(args.size());
+				push();
+			} else {
+				emit(CALLBACK, addNode(node));
+				callbacks = true;
+				push();
+			}
+		}
+		
+		private final int emit(int opcode){
+			ensureCodeCapacity(1);
+			code[codeSize] = opcode;
+			return codeSize++;
+		}
+		private final int emit(int opcode, int operand){
+			ensureCodeCapacity(2);
+			code[codeSize] = opcode;
+			code[codeSize + 1] = operand;
+			codeSize += 2;
+			return codeSize - 2;
+		}
+		private final void ensureCodeCapacity(int n){
+			if(codeSize + n > code.length)
+				code = Arrays.copyOf(code, Math.max(2 * code.length, codeSize + n));
+		}
+		private final int addConstant(double value){
+			if(constantsSize == constants.length)
+				constants = Arrays.copyOf(constants, 2 * constants.length);
+			constants[constantsSize] = value;
+			return constantsSize++;
+		}
+		private final int addNode(AbstractNode node){
+			nodes.add(node);
+			return nodes.size() - 1;
+		}
+		private final void push(){
+			stackSize++;
+			maxStackSize = Math.max(maxStackSize, stackSize);
+		}
+		private final void pop(int n){
+			stackSize -= n;
+		}
+	}
+	private static final boolean argsAreStackTypes(List<AbstractType> argsTypes){
+		for(AbstractType argType : argsTypes){
+			if(!isStackType(argType))
+				return false;
+		}
+		return true;
+	}
+	private static final boolean isBuiltIn(AbstractNode node){
+		return opcodeOf(node) >= 0;
+	}
+	/**
+	 * Returns the opcode of the given node if it is one of the shipped real and
+	 * boolean functions (Ternary excepted, since it is encoded with jumps).
+	 * 
+	 * @param node
+	 * @return
+	 * 			The opcode of the node, or -1 if it is not a built-in function.
+	 */
+	public static final int opcodeOf(AbstractNode node){
+		if(node instanceof Sum)
+			return SUM;
+		else if(node instanceof Subtract)
+			return SUBTRACT;
+		else if(node instanceof Mult)
+			return MULT;
+		else if(node instanceof Divide)
+			return DIVIDE;
+		else if(node instanceof Min)
+			return MIN;
+		else if(node instanceof Max)
+			return MAX;
+		else if(node instanceof Abs)
+			return ABS;
+		else if(node instanceof Sin)
+			return SIN;
+		else if(node instanceof Cos)
+			return COS;
+		else if(node instanceof Exp)
+			return EXP;
+		else if(node instanceof Log)
+			return LOG;
+		else if(node instanceof Floor)
+			return FLOOR;
+		else if(node instanceof And)
+			return AND;
+		else if(node instanceof Or)
+			return OR;
+		else if(node instanceof Not)
+			return NOT;
+		else if(node instanceof GreaterThan)
+			return GREATER_THAN;
+		else if(node instanceof Equals)
+			return EQUALS;
+		else
+			return -1;
+	}
+}
@@ -0,0 +1,367 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * SubtreeCache.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.compilers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gpapi.individuals.cells.nucleuses.StructuralHasher;
+
+
+
+/**
+ * 
+ * Bounded cache of the columns computed by the {@link BatchEvaluator}s, shared by
+ * all the individuals (and all the threads) evaluating the same data.<p>
+ * 
+ * The entries are keyed by the structural hash of a subtree (computed over the
+ * node classes, the constant values, the argument ids and the bodies of the
+ * called ADFs) and by a hash of the contents of the argument columns it was evaluated
+ * on (see hashOf()), so that the cache doesn't keep any reference to these columns,
+ * whose memory isn't part of the budget.
+ * Since crossover copies subtrees from one individual to another, many subtrees
+ * of a generation are structurally identical, and are only evaluated once.
+ * Only the subtrees of batchable RPBs are cached, which excludes all the stateful
+ * modules (ADLs, ADRs, ADIs and ADSs) as well as the user-defined nodes.<p>
+ * 
+ * The cache is split into segments, each of them evicting its least recently used
+ * entries when its share of the memory budget is exceeded.<p>
+ * 
+ * Note : The entries computed over previous data are only evicted as the cache fills
+ * up, so the cache should be cleared when the data changes for good.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class SubtreeCache {
+	
+	private static final int N_SEGMENTS = 16;
+	
+	private static final long ENTRY_OVERHEAD = 96;
+	
+	private static volatile SubtreeCache defaultCache = null;
+	/**
+	 * Returns the cache used by Cell.evalColumns(), or null if there is none
+	 * (the default).
+	 * 
+	 * @return
+	 * 			The cache used by Cell.evalColumns().
+	 */
+	public static final SubtreeCache getDefault() {
+		return defaultCache;
+	}
+	/**
+	 * Sets the cache used by Cell.evalColumns(), null disabling caching.
+	 * 
+	 * @param defaultCache
+	 */
+	public static final void setDefault(SubtreeCache defaultCache) {
+		SubtreeCache.defaultCache = defaultCache;
+	}
+	
+	private final long memoryBudget;
+	public final long getMemoryBudget() {
+		return memoryBudget;
+	}
+	
+	private final int minSubtreeSize;
+	public final int getMinSubtreeSize() {
+		return minSubtreeSize;
+	}
+	
+	private final Segment[] segments;
+	
+	private final AtomicLong hits = new AtomicLong();
+	public final long getHits() {
+		return hits.get();
+	}
+	
+	private final AtomicLong misses = new AtomicLong();
+	public final long getMisses() {
+		return misses.get();
+	}
+	
+	private final AtomicLong evictions = new AtomicLong();
+	public final long getEvictions() {
+		return evictions.get();
+	}
+	
+	private final AtomicLong memoryUsage = new AtomicLong();
+	/**
+	 * Returns an estimation of the memory used by the entries, in bytes.
+	 * 
+	 * @return
+	 * 			The memory used by the entries, in bytes.
+	 */
+	public final long getMemoryUsage() {
+		return memoryUsage.get();
+	}
+	
+	
+	
+	/**
+	 * Creates a cache of the given size, which ignores the subtrees of less than 3 nodes.
+	 * 
+	 * @param memoryBudget
+	 * 			The maximum memory used by the entries, in bytes.
+	 */
+	public SubtreeCache(long memoryBudget){
+		this(memoryBudget, 3);
+	}
+	/**
+	 * 
+	 * @param memoryBudget
+	 * 			The maximum memory used by the entries, in bytes.
+	 * @param minSubtreeSize
+	 * 			The size of the smallest subtrees to cache.
+	 */
+	public SubtreeCache(long memoryBudget, int minSubtreeSize){
+		if(memoryBudget < 0)
+			throw new IllegalArgumentException("memoryBudget can't be negative!");
+		else if(minSubtreeSize < 1)
+			throw new IllegalArgumentException("minSubtreeSize must be greater than 0!");
+		
+		this.memoryBudget = memoryBudget;
+		this.minSubtreeSize = minSubtreeSize;
+		
+		segments = new Segment[N_SEGMENTS];
+		for(int i = 0; i < segments.length; i++)
+			segments[i] = new Segment(memoryBudget / N_SEGMENTS);
+	}
+	
+	
+	/**
+	 * Returns the ratio of the lookups which found an entry.
+	 * 
+	 * @return
+	 * 			The hit rate, or 0 if there was no lookup.
+	 */
+	public final double getHitRate() {
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		return lookups == 0 ? 0.0 : (double) hits / (double) lookups;
+	}
+	
+	/**
+	 * Returns the number of entries.
+	 * 
+	 * @return
+	 * 			The number of entries.
+	 */
+	public final int getSize() {
+		int size = 0;
+		for(Segment segment : segments)
+			size += segment.size();
+		return size;
+	}
+	
+	/**
+	 * Removes all the entries (the statistics are kept).
+	 */
+	public final void clear() {
+		for(Segment segment : segments)
+			segment.clear();
+	}
+	
+	
+	/**
+	 * Computes a 128 bits hash of the contents of the given argument columns, which
+	 * identifies them in the keys of the entries.
+	 * 
+	 * @param inputs
+	 * @return
+	 * 			The two hashes of the argument columns.
+	 */
+	static final long[] hashOf(double[][] inputs){
+		StructuralHasher hasher = new StructuralHasher();
+		hasher.add(inputs.length);
+		for(double[] column : inputs){
+			hasher.add(column.length);
+			for(double value : column)
+				hasher.add(Double.doubleToLongBits(value));
+		}
+		return new long[]{hasher.getHash1(), hasher.getHash2()};
+	}
+	
+	final Entry get(long hash1, long hash2, long[] inputsHash){
+		Entry entry = segmentOf(hash1).get(new Key(hash1, hash2, inputsHash));
+		if(entry != null)
+			hits.incrementAndGet();
+		else
+			misses.incrementAndGet();
+		return entry;
+	}
+	
+	final void put(long hash1, long hash2, long[] inputsHash, double[] values, int uniformCost, int[] rowsCosts){
+		segmentOf(hash1).put(new Key(hash1, hash2, inputsHash), new Entry(values, uniformCost, rowsCosts));
+	}
+	
+	private final Segment segmentOf(long hash){
+		return segments[(int) (hash >>> 60) & (N_SEGMENTS - 1)];
+	}
+	
+	
+	
+	private final class Segment {
+		
+		private final long memoryBudget;
+		
+		private final LinkedHashMap<Key,Entry> entries = new LinkedHashMap<Key,Entry>(16, 0.75f, true);
+		
+		private long memoryUsage = 0;
+		
+		
+		
+		private Segment(long memoryBudget){
+			this.memoryBudget = memoryBudget;
+		}
+		
+		
+		private synchronized final Entry get(Key key){
+			return entries.get(key);
+		}
+		
+		private synchronized final void put(Key key, Entry entry){
+			if(entry.getMemoryUsage() > memoryBudget)
+				return;
+			
+			Entry previous = entries.put(key, entry);
+			add(entry.getMemoryUsage() - (previous == null ? 0 : previous.getMemoryUsage()));
+			
+			Iterator<Map.Entry<Key,Entry>> eldest = entries.entrySet().iterator();
+			while(memoryUsage > memoryBudget){
+				Entry evicted = eldest.next().getValue();
+				eldest.remove();
+				add(-evicted.getMemoryUsage());
+				evictions.incrementAndGet();
+			}
+		}
+		
+		private synchronized final int size(){
+			return entries.size();
+		}
+		
+		private synchronized final void clear(){
+			entries.clear();
+			add(-memoryUsage);
+		}
+		
+		private final void add(long memory){
+			memoryUsage += memory;
+			SubtreeCache.this.memoryUsage.addAndGet(memory);
+		}
+	}
+	
+	
+	
+	private static final class Key {
+		
+		private final long hash1;
+		
+		private final long hash2;
+		
+		private final long inputsHash1;
+		
+		private final long inputsHash2;
+		
+		
+		
+		private Key(long hash1, long hash2, long[] inputsHash){
+			this.hash1 = hash1;
+			this.hash2 = hash2;
+			this.inputsHash1 = inputsHash[0];
+			this.inputsHash2 = inputsHash[1];
+		}
+		
+		
+		@Override
+		public final int hashCode(){
+			long hash = hash1 ^ inputsHash1;
+			return (int) (hash ^ (hash >>> 32));
+		}
+		
+		@Override
+		public final boolean equals(Object o){
+			if(!(o instanceof Key))
+				return false;
+			
+			Key other = (Key) o;
+			return hash1 == other.hash1 && hash2 == other.hash2 
+					&& inputsHash1 == other.inputsHash1 && inputsHash2 == other.inputsHash2;
+		}
+	}
+	
+	
+	
+	static final class Entry {
+		
+		private final double[] values;
+		final double[] getValues() {
+			return values;
+		}
+		
+		private final int uniformCost;
+		final int getUniformCost() {
+			return uniformCost;
+		}
+		
+		private final int[] rowsCosts;
+		/**
+		 * Returns the per-row part of the execution costs, or null if it is zero
+		 * for all the rows.
+		 */
+		final int[] getRowsCosts() {
+			return rowsCosts;
+		}
+		
+		
+		
+		private Entry(double[] values, int uniformCost, int[] rowsCosts){
+			this.values = values;
+			this.uniformCost = uniformCost;
+			this.rowsCosts = rowsCosts;
+		}
+		
+		
+		private final long getMemoryUsage(){
+			return ENTRY_OVERHEAD + 8L * values.length + (rowsCosts == null ? 0 : 4L * rowsCosts.length);
+		}
+	}
+}
@@ -63,8 +63,10 @@ public abstract class AbstractCrossoverOperator implements GeneticOperatorInterf
 	public final void setLocalExternalNodes(List<AbstractProxyNode> localExternalNodes) {
 		if(localExternalNodes == null)
 			throw new NullPointerException("localExternalNodes can't be null!");
-		else
+		else {
 			this.localExternalNodes = Collections.unmodifiableList(new ArrayList<AbstractProxyNode>(localExternalNodes));
+			externalNodesTable = null;
+		}
 	}
 	
 	
@@ -77,8 +79,10 @@ public abstract class AbstractCrossoverOperator implements GeneticOperatorInterf
 	public final void setLocalInternalNodes(List<AbstractProxyNode> localInternalNodes) {
 		if(localInternalNodes == null)
 			throw new NullPointerException("localInternalNodes can't be null!");
-		else
+		else {
 			this.localInternalNodes = Collections.unmodifiableList(new ArrayList<AbstractProxyNode>(localInternalNodes));
+			internalNodesTable = null;
+		}
 	}
 	
 	
@@ -96,6 +100,38 @@ public abstract class AbstractCrossoverOperator implements GeneticOperatorInterf
 	}
 	
 	
+	private transient volatile NodeTable externalNodesTable = null;
+	/**
+	 * Returns the table indexing the external nodes, which is only rebuilt when the
+	 * local external nodes change.
+	 */
+	@Override
+	public final NodeTable getExternalNodesTable(){
+		NodeTable table = externalNodesTable;
+		if(table == null){
+			table = new NodeTable(getExternalNodes());
+			externalNodesTable = table;
+		}
+		return table;
+	}
+	
+	
+	private transient volatile NodeTable internalNodesTable = null;
+	/**
+	 * Returns the table indexing the internal nodes, which is only rebuilt when the
+	 * local internal nodes change.
+	 */
+	@Override
+	public final NodeTable getInternalNodesTable(){
+		NodeTable table = internalNodesTable;
+		if(table == null){
+			table = new NodeTable(getInternalNodes());
+			internalNodesTable = table;
+		}
+		return table;
+	}
+	
+	
 	private final CrossoverPlanningSchemeInterface crossoverPlanningScheme;
 	public final CrossoverPlanningSchemeInterface getCrossoverPlanningScheme() {
 		return crossoverPlanningScheme;
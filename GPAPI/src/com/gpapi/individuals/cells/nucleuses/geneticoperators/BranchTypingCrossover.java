@@ -61,6 +61,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -93,8 +94,17 @@ public final class BranchTypingCrossover extends AbstractCrossoverOperator {
 	}
 	
 	
+	/**
+	 * The merge is performed by a copy of this genetic operator (the local nodes are
+	 * set for each branch during the merge), so that neither this genetic operator nor
+	 * the parents' nucleuses are modified, and several children of the same parents
+	 * can be created concurrently.
+	 */
 	@Override
 	public final Nucleus mergeNucleuses(Nucleus parent1Nucleus, Nucleus parent2Nucleus) {
+		return copy().merge(parent1Nucleus, parent2Nucleus);
+	}
+	private final Nucleus merge(Nucleus parent1Nucleus, Nucleus parent2Nucleus) {
 		Map<AbstractNode,Integer> crossoverPlan = getCrossoverPlanningScheme().planCrossover(parent1Nucleus, this);
 		
 		ArrayList<ADSProxy> newAdssProxies = new ArrayList<ADSProxy>(parent1Nucleus.getAdss().size());
@@ -420,13 +430,13 @@ public final class BranchTypingCrossover extends AbstractCrossoverOperator {
 		AbstractNode newBranchRoot = replicateSubtree(branchRoot1);
 		if(nCrossoverNodes > 0){
 			List<AbstractNode> branch1CrossoverNodes = getCrossoverNodesSelectionScheme().chooseFirstBranchCrossoverNodes(
-					getDescendantNodes(newBranchRoot), 
+					TreeTraversal.collect(newBranchRoot), 
 					nCrossoverNodes, 
 					this);
 			
 			Map<AbstractNode,AbstractNode> crossoverNodesMap = getCrossoverNodesSelectionScheme().chooseMatchingCrossoverNodes(
 					branch1CrossoverNodes, 
-					getDescendantNodes(branchRoot2), 
+					TreeTraversal.collect(branchRoot2), 
 					this);
 			
 			for(Entry<AbstractNode,AbstractNode> crossoverNodesPair : crossoverNodesMap.entrySet()){
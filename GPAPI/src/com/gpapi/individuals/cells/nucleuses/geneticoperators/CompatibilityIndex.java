@@ -0,0 +1,260 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * CompatibilityIndex.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.geneticoperators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gpapi.individuals.cells.nucleuses.Nucleus;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
+import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
+import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+
+
+
+/**
+ * 
+ * Immutable index of the nodes of a nucleus by the set of proxies referenced in their
+ * subtrees (one proxy per kind of proxy and per identifier, plus per return type for
+ * the {@link ArgumentProxy} instances), which is all that decides whether a subtree of
+ * the nucleus can be grafted in a given branch of another nucleus.<p>
+ * 
+ * The nodes referencing the same set of proxies form a group, so that the compatibility
+ * of all of them with a branch is determined by checking the proxies of the group only
+ * once. Most nodes reference no proxy at all, so the number of groups is usually much
+ * lower than the number of nodes.<p>
+ * 
+ * The index of a nucleus is built lazily and kept by the nucleus (see
+ * {@link Nucleus#getCompatibilityIndex()}), so that it is reused in all the crossovers
+ * in which the nucleus provides the subtrees.<p>
+ * 
+ * Note : The nodes of the nucleus must not change while the index is in use.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class CompatibilityIndex {
+	
+	private static final long[] noProperties = new long[0];
+	
+	
+	private final List<Group> groups;
+	/**
+	 * Note : The returned list is unmodifiable.
+	 */
+	public final List<Group> getGroups() {
+		return groups;
+	}
+	
+	private final int nodesCount;
+	public final int getNodesCount() {
+		return nodesCount;
+	}
+	
+	
+	
+	public CompatibilityIndex(Nucleus nucleus){
+		if(nucleus == null)
+			throw new NullPointerException("nucleus can't be null!");
+		
+		HashMap<Long,AbstractProxyNode> proxies = new HashMap<Long,AbstractProxyNode>();
+		HashMap<Key,ArrayList<AbstractNode>> groupsNodes = new HashMap<Key,ArrayList<AbstractNode>>();
+		for(AbstractModule module : nucleus.getAllModules()){
+			for(AbstractNode root : module.getBranchRoots())
+				indexSubtree(root, proxies, groupsNodes);
+		}
+		
+		ArrayList<Group> groups = new ArrayList<Group>(groupsNodes.size());
+		int nodesCount = 0;
+		for(Map.Entry<Key,ArrayList<AbstractNode>> groupNodes : groupsNodes.entrySet()){
+			long[] codes = groupNodes.getKey().codes;
+			AbstractProxyNode[] properties = new AbstractProxyNode[codes.length];
+			for(int i = 0; i < codes.length; i++)
+				properties[i] = proxies.get(codes[i]);
+			
+			AbstractNode[] nodes = groupNodes.getValue().toArray(new AbstractNode[groupNodes.getValue().size()]);
+			groups.add(new Group(properties, nodes));
+			nodesCount += nodes.length;
+		}
+		this.groups = Collections.unmodifiableList(groups);
+		this.nodesCount = nodesCount;
+	}
+	
+	
+	private final long[] indexSubtree(
+			AbstractNode node,
+			HashMap<Long,AbstractProxyNode> proxies,
+			HashMap<Key,ArrayList<AbstractNode>> groupsNodes){
+		long[] codes = noProperties;
+		for(AbstractNode arg : node.getArgs())
+			codes = union(codes, indexSubtree(arg, proxies, groupsNodes));
+		
+		if(node instanceof AbstractProxyNode){
+			AbstractProxyNode proxy = (AbstractProxyNode) node;
+			long code = codeOf(proxy);
+			proxies.putIfAbsent(code, proxy);
+			codes = union(codes, new long[]{code});
+		}
+		
+		groupsNodes.computeIfAbsent(new Key(codes), key -> new ArrayList<AbstractNode>()).add(node);
+		
+		return codes;
+	}
+	
+	private static final long codeOf(AbstractProxyNode proxy){
+		long kind;
+		int typeId = 0;
+		if(proxy instanceof ADSProxy)
+			kind = 0;
+		else if(proxy instanceof ADFProxy)
+			kind = 1;
+		else if(proxy instanceof ADIProxy)
+			kind = 2;
+		else if(proxy instanceof ADRProxy)
+			kind = 3;
+		else if(proxy instanceof ADLProxy)
+			kind = 4;
+		else if(proxy instanceof ArgumentProxy){
+			kind = 5;
+			typeId = proxy.getReturnType().getTypeId();
+		} else
+			throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
+		
+		return (kind << 56) | ((long) (typeId & 0xFFFFFF) << 32) | (proxy.getId() & 0xFFFFFFFFL);
+	}
+	
+	private static final long[] union(long[] codes1, long[] codes2){
+		if(codes2.length == 0)
+			return codes1;
+		else if(codes1.length == 0)
+			return codes2;
+		
+		long[] union = new long[codes1.length + codes2.length];
+		int i = 0, j = 0, k = 0;
+		while(i < codes1.length || j < codes2.length){
+			long code;
+			if(j == codes2.length || (i < codes1.length && codes1[i] < codes2[j]))
+				code = codes1[i++];
+			else if(i == codes1.length || codes2[j] < codes1[i])
+				code = codes2[j++];
+			else {
+				code = codes1[i++];
+				j++;
+			}
+			union[k++] = code;
+		}
+		return k == union.length ? union : Arrays.copyOf(union, k);
+	}
+	
+	
+	
+	/**
+	 * 
+	 * The nodes of the indexed nucleus which reference a given set of proxies.
+	 * 
+	 * @author jeremy
+	 * 
+	 */
+	public static final class Group {
+		
+		private final List<AbstractProxyNode> properties;
+		/**
+		 * Returns the proxies referenced by the nodes of the group, one per kind of proxy
+		 * and per identifier (the first found in the nucleus).
+		 * 
+		 * @return
+		 * 			The proxies referenced by the nodes of the group.
+		 */
+		public final List<AbstractProxyNode> getProperties() {
+			return properties;
+		}
+		
+		private final List<AbstractNode> nodes;
+		/**
+		 * Note : The returned list is unmodifiable, and the nodes are the originals, not
+		 * copies generated via copy() or generateNew().
+		 */
+		public final List<AbstractNode> getNodes() {
+			return nodes;
+		}
+		
+		
+		
+		private Group(AbstractProxyNode[] properties, AbstractNode[] nodes){
+			this.properties = Collections.unmodifiableList(Arrays.asList(properties));
+			this.nodes = Collections.unmodifiableList(Arrays.asList(nodes));
+		}
+	}
+	
+	
+	
+	private static final class Key {
+		
+		private final long[] codes;
+		
+		private final int hash;
+		
+		
+		
+		private Key(long[] codes){
+			this.codes = codes;
+			this.hash = Arrays.hashCode(codes);
+		}
+		
+		
+		@Override
+		public final int hashCode(){
+			return hash;
+		}
+		
+		@Override
+		public final boolean equals(Object o){
+			return o instanceof Key && Arrays.equals(((Key) o).codes, codes);
+		}
+	}
+}
@@ -52,6 +52,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -125,6 +126,32 @@ public interface GeneticOperatorInterface extends Serializable {
 	
 	
 	
+	/**
+	 * Returns the table indexing the external nodes (see getExternalNodes()) by type.
+	 * <p>
+	 * The default implementation builds a new table at each call, so implementations
+	 * should rather keep the table until the local external nodes change.
+	 * 
+	 * @return
+	 */
+	public default NodeTable getExternalNodesTable(){
+		return new NodeTable(getExternalNodes());
+	}
+	/**
+	 * Returns the table indexing the internal nodes (see getInternalNodes()) by type
+	 * and by signature.
+	 * <p>
+	 * The default implementation builds a new table at each call, so implementations
+	 * should rather keep the table until the local internal nodes change.
+	 * 
+	 * @return
+	 */
+	public default NodeTable getInternalNodesTable(){
+		return new NodeTable(getInternalNodes());
+	}
+	
+	
+	
 	/**
 	 * TODO : Description.
 	 * 
@@ -209,6 +236,10 @@ public interface GeneticOperatorInterface extends Serializable {
 	
 	/**
 	 * TODO : Description.
+	 * <p>
+	 * Note : Implementations must not modify the parents' nucleuses nor this genetic 
+	 * operator (which belongs to the first parent), so that concurrent merges involving 
+	 * the same parents don't require any synchronization.
 	 * 
 	 * @param parent1Nucleus
 	 * 			The {@link Nucleus} this genetic operator belongs to (i.e. the Nucleus
@@ -254,7 +285,10 @@ public interface GeneticOperatorInterface extends Serializable {
 		slots.addAll(tempArgs);
 		
 		while(size > slots.size()){
-			AbstractNode slot = slots.remove(generator.nextInt(slots.size()));
+			int slotIndex = generator.nextInt(slots.size());
+			AbstractNode slot = slots.get(slotIndex);
+			slots.set(slotIndex, slots.get(slots.size()-1));
+			slots.remove(slots.size()-1);
 			
 			size--;
 			AbstractNode node = findInternalNode(slot.getReturnType());
@@ -305,6 +339,9 @@ public interface GeneticOperatorInterface extends Serializable {
 	 * lower depth than this other node (root nodes are considered to have
 	 * a depth of 0). Note that this implies that the list returned starts 
 	 * with the given root nodes.
+	 * <p>
+	 * Note : The cursors and visitors of {@link TreeTraversal} don't build any list, 
+	 * and should be preferred whenever the nodes don't need to be ordered by depth.
 	 * 
 	 * @param rootNodes
 	 * 			The root nodes from which the subtrees whose nodes are to
@@ -316,21 +353,17 @@ public interface GeneticOperatorInterface extends Serializable {
 	 * 			The list containing the nodes to be listed.
 	 */
 	public default List<AbstractNode> getDescendantNodes(List<AbstractNode> rootNodes, boolean leavesOnly){
-		ArrayList<AbstractNode> descendantNodes = new ArrayList<AbstractNode>();
-		ArrayList<AbstractNode> nextLevel = new ArrayList<AbstractNode>(rootNodes);
+		int size = 0;
+		for(AbstractNode rootNode : rootNodes)
+			size += rootNode.getSubtreeSize();
 		
-		while(!nextLevel.isEmpty()){
-			ArrayList<AbstractNode> currentLevel = nextLevel;
+		ArrayList<AbstractNode> descendantNodes = new ArrayList<AbstractNode>(size);
+		descendantNodes.addAll(rootNodes);
+		for(int i = 0; i < descendantNodes.size(); i++)
+			descendantNodes.addAll(descendantNodes.get(i).getArgs());
 			
-			if(!leavesOnly)
-				descendantNodes.addAll(currentLevel);
-			
-			nextLevel = new ArrayList<AbstractNode>();
-			for(AbstractNode node : currentLevel){
-				if(!nextLevel.addAll(node.getArgs()) && leavesOnly)
-					descendantNodes.add(node);
-			}
-		}
+		if(leavesOnly)
+			descendantNodes.removeIf(node -> !node.getArgs().isEmpty());
 		
 		return descendantNodes;
 	}
@@ -448,7 +481,7 @@ public interface GeneticOperatorInterface extends Serializable {
 	 * 			A copy of the chosen node, generated with the generateNew() method.
 	 */
 	public default AbstractNode findExternalNode(AbstractType returnType){
-		AbstractNode node = chooseNodeIn(getExternalNodes(), returnType);
+		AbstractNode node = getExternalNodesTable().choose(returnType);
 		if(node != null)
 			return node.generateNew();
 		else
@@ -463,7 +496,7 @@ public interface GeneticOperatorInterface extends Serializable {
 	 * 			A copy of the chosen node, generated with the copy() method.
 	 */
 	public default AbstractNode findInternalNode(AbstractType returnType){
-		AbstractNode node = chooseNodeIn(getInternalNodes(), returnType);
+		AbstractNode node = getInternalNodesTable().choose(returnType);
 		if(node != null)
 			return node.copy();
 		else
@@ -479,20 +512,25 @@ public interface GeneticOperatorInterface extends Serializable {
 	 * @return
 	 */
 	public default AbstractNode chooseNodeIn(List<AbstractNode> potentialNodes, AbstractType returnType){
-		
-		List<AbstractNode> suitableNodes = new ArrayList<>();
-		for(AbstractNode node : potentialNodes) {
-			if(node.getReturnType().isTheSameAs(returnType)) {
-				suitableNodes.add(node);
-			}
+		int suitableNodesCount = 0;
+		for(AbstractNode node : potentialNodes){
+			if(node.getReturnType().isTheSameAs(returnType))
+				suitableNodesCount++;
 		}
 		
-		if(suitableNodes.isEmpty()) {
+		if(suitableNodesCount == 0)
 			return null;
-		} else {
-			int index = ThreadLocalRandom.current().nextInt(suitableNodes.size());
-			return suitableNodes.get(index);
+		
+		int index = ThreadLocalRandom.current().nextInt(suitableNodesCount);
+		for(AbstractNode node : potentialNodes){
+			if(node.getReturnType().isTheSameAs(returnType)){
+				if(index == 0)
+					return node;
+				else
+					index--;
+			}
 		}
+		return null;
 	}
 	
 	
@@ -506,25 +544,14 @@ public interface GeneticOperatorInterface extends Serializable {
 	 * 			The chosen function, or null if none was found.
 	 */
 	public default AbstractNode findMatchingFunction(AbstractNode sourceNode){
-		if(sourceNode.getArgsTypes().isEmpty()) {
+		if(sourceNode.getArgsTypes().isEmpty())
 			return findExternalNode(sourceNode.getReturnType());
-		} else {
-			
-			List<AbstractNode> suitableNodes = new ArrayList<>();
-			for(AbstractNode node : getInternalNodes()) {
-				if(node.getReturnType().isTheSameAs(sourceNode.getReturnType())){
-					if(node.argsTypesMatchRequestedTypes(sourceNode.getArgsTypes())) {
-						suitableNodes.add(node);
-					}
-				}
-			}
-			
-			if(suitableNodes.isEmpty()) {
+		else {
+			AbstractNode node = getInternalNodesTable().chooseMatching(sourceNode);
+			if(node != null)
+				return node.copy();
+			else
 				throw new RuntimeException("No node matching " + sourceNode + " found !");
-			} else {
-				int index = ThreadLocalRandom.current().nextInt(suitableNodes.size());
-				return suitableNodes.get(index).copy();
-			}
 		}
 	}
 }
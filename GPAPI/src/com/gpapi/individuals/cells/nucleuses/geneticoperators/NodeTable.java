@@ -0,0 +1,185 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * NodeTable.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.geneticoperators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+
+
+
+/**
+ * 
+ * Immutable index of a list of nodes by return type and by signature (return type
+ * and arguments types), based on the type identifiers (see {@link AbstractType#getTypeId()}),
+ * so that a node of a given type or signature is randomly chosen in constant time. Choosing
+ * by type doesn't allocate anything, whereas choosing by signature only allocates the
+ * small key of the lookup.<p>
+ * 
+ * Note : The return types and arguments types of the indexed nodes must not change
+ * while the table is in use, so the table must be rebuilt whenever the nodes change.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class NodeTable {
+	
+	private static final AbstractNode[] noNodes = new AbstractNode[0];
+	
+	
+	private final AbstractNode[][] nodesByReturnType;
+	
+	private final HashMap<Signature,AbstractNode[]> nodesBySignature;
+	
+	
+	
+	public NodeTable(List<? extends AbstractNode> nodes){
+		if(nodes == null)
+			throw new NullPointerException("nodes can't be null!");
+		
+		HashMap<Integer,ArrayList<AbstractNode>> returnTypeLists = new HashMap<Integer,ArrayList<AbstractNode>>();
+		HashMap<Signature,ArrayList<AbstractNode>> signatureLists = new HashMap<Signature,ArrayList<AbstractNode>>();
+		int maxTypeId = 0;
+		for(AbstractNode node : nodes){
+			int returnTypeId = node.getReturnType().getTypeId();
+			maxTypeId = Math.max(maxTypeId, returnTypeId);
+			
+			returnTypeLists.computeIfAbsent(returnTypeId, id -> new ArrayList<AbstractNode>()).add(node);
+			signatureLists.computeIfAbsent(new Signature(node), signature -> new ArrayList<AbstractNode>()).add(node);
+		}
+		
+		nodesByReturnType = new AbstractNode[maxTypeId + 1][];
+		for(int i = 0; i < nodesByReturnType.length; i++){
+			ArrayList<AbstractNode> returnTypeList = returnTypeLists.get(i);
+			nodesByReturnType[i] = returnTypeList != null ? returnTypeList.toArray(noNodes) : noNodes;
+		}
+		
+		nodesBySignature = new HashMap<Signature,AbstractNode[]>(2 * signatureLists.size());
+		for(Map.Entry<Signature,ArrayList<AbstractNode>> entry : signatureLists.entrySet())
+			nodesBySignature.put(entry.getKey(), entry.getValue().toArray(noNodes));
+	}
+	
+	
+	/**
+	 * Returns the number of indexed nodes whose return type is the given one.
+	 * 
+	 * @param returnType
+	 * @return
+	 * 			The number of nodes of the given return type.
+	 */
+	public final int count(AbstractType returnType){
+		return nodesOf(returnType).length;
+	}
+	/**
+	 * Randomly chooses an indexed node whose return type is the given one.
+	 * <p>
+	 * Note : The returned node is the original, not a copy generated via copy() or generateNew().
+	 * 
+	 * @param returnType
+	 * @return
+	 * 			The chosen node, or null if there is none.
+	 */
+	public final AbstractNode choose(AbstractType returnType){
+		AbstractNode[] nodes = nodesOf(returnType);
+		if(nodes.length == 0)
+			return null;
+		else
+			return nodes[ThreadLocalRandom.current().nextInt(nodes.length)];
+	}
+	/**
+	 * Randomly chooses an indexed node whose return type and arguments types are the 
+	 * same as the given node's ones.
+	 * <p>
+	 * Note : The returned node is the original, not a copy generated via copy() or generateNew().
+	 * 
+	 * @param sourceNode
+	 * @return
+	 * 			The chosen node, or null if there is none.
+	 */
+	public final AbstractNode chooseMatching(AbstractNode sourceNode){
+		AbstractNode[] nodes = nodesBySignature.get(new Signature(sourceNode));
+		if(nodes == null)
+			return null;
+		else
+			return nodes[ThreadLocalRandom.current().nextInt(nodes.length)];
+	}
+	
+	private final AbstractNode[] nodesOf(AbstractType returnType){
+		int returnTypeId = returnType.getTypeId();
+		return returnTypeId < nodesByReturnType.length ? nodesByReturnType[returnTypeId] : noNodes;
+	}
+	
+	
+	
+	private static final class Signature {
+		
+		private final int[] typesIds;
+		
+		private final int hash;
+		
+		
+		
+		private Signature(AbstractNode node){
+			List<AbstractType> argsTypes = node.getArgsTypes();
+			
+			typesIds = new int[argsTypes.size() + 1];
+			typesIds[0] = node.getReturnType().getTypeId();
+			for(int i = 0; i < argsTypes.size(); i++)
+				typesIds[i + 1] = argsTypes.get(i).getTypeId();
+			
+			hash = Arrays.hashCode(typesIds);
+		}
+		
+		
+		@Override
+		public final int hashCode(){
+			return hash;
+		}
+		
+		@Override
+		public final boolean equals(Object o){
+			return o instanceof Signature && Arrays.equals(((Signature) o).typesIds, typesIds);
+		}
+	}
+}
@@ -41,7 +41,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -51,7 +50,6 @@ import com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealtera
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.crossoverschemes.crossovernodesselectionschemes.CrossoverNodesSelectionSchemeInterface;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.crossoverschemes.crossoverplanningschemes.CrossoverPlanningSchemeInterface;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.mutationschemes.MutationSchemeInterface;
-import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
 import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.RPB;
@@ -66,6 +64,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -100,8 +99,17 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 	}
 	
 	
+	/**
+	 * The merge is performed by a copy of this genetic operator (the local nodes are
+	 * set for each branch during the merge), so that neither this genetic operator nor
+	 * the parents' nucleuses are modified, and several children of the same parents
+	 * can be created concurrently.
+	 */
 	@Override
 	public final Nucleus mergeNucleuses(Nucleus parent1Nucleus, Nucleus parent2Nucleus) {
+		return copy().merge(parent1Nucleus, parent2Nucleus);
+	}
+	private final Nucleus merge(Nucleus parent1Nucleus, Nucleus parent2Nucleus) {
 		ArrayList<ADSProxy> newAdsProxies = new ArrayList<ADSProxy>(parent1Nucleus.getAdss().size());
 		for(int i = 0; i < parent1Nucleus.getAdss().size(); i++){
 			newAdsProxies.add(new ADSProxy(parent1Nucleus.getAdss().get(i), true));
@@ -169,7 +177,7 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 		
 		Map<AbstractNode,Integer> crossoverPlan = getCrossoverPlanningScheme().planCrossover(parent1Nucleus, this);
 		
-		HashMap<AbstractNode,ArrayList<AbstractProxyNode>> matchingNodesProperties = buildNodesProperties(parent2Nucleus);
+		CompatibilityIndex matchingNodesIndex = parent2Nucleus.getCompatibilityIndex();
 		
 		ArrayList<ADS> newAdss = new ArrayList<ADS>(parent1Nucleus.getAdss().size());
 		for(int i = 0; i < parent1Nucleus.getAdss().size(); i++){
@@ -190,7 +198,7 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 							parent1Nucleus.getAdfs().get(i).getId(),
 							synthesizeBranch(
 									newAdfsRoots.get(i), 
-									selectCompatibleNodesInAdfs(i, parent1Nucleus, matchingNodesProperties), 
+									selectCompatibleNodesInAdfs(i, parent1Nucleus, matchingNodesIndex), 
 									crossoverPlan.get(parent1Nucleus.getAdfs().get(i).getRoot())), 
 							parent1Nucleus.getAdfs().get(i).getArgsTypes()));
 		}
@@ -205,7 +213,7 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 							parent1Nucleus.getAdis().get(i).getDefaultValue(), 
 							synthesizeBranch(
 									newAdisRoots.get(i), 
-									selectCompatibleNodesInAdis(i, parent1Nucleus, matchingNodesProperties), 
+									selectCompatibleNodesInAdis(i, parent1Nucleus, matchingNodesIndex), 
 									crossoverPlan.get(parent1Nucleus.getAdis().get(i).getRoot())), 
 							parent1Nucleus.getAdis().get(i).getExternalArgsTypes(), 
 							parent1Nucleus.getAdis().get(i).getCollectionId(), 
@@ -220,21 +228,21 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 			setLocalInternalNodes(adrsLocalInternalNodes.get(i).get(0));
 			AbstractNode conditionRoot = synthesizeBranch(
 					newAdrsRoots.get(i).get(0), 
-					selectCompatibleNodesInAdrs(i, parent1Nucleus, matchingNodesProperties, false), 
+					selectCompatibleNodesInAdrs(i, parent1Nucleus, matchingNodesIndex, false), 
 					crossoverPlan.get(parent1Nucleus.getAdrs().get(i).getConditionRoot()));
 			
 			setLocalExternalNodes(adrsLocalExternalNodes.get(i).get(1));
 			setLocalInternalNodes(adrsLocalInternalNodes.get(i).get(1));
 			AbstractNode bodyRoot = synthesizeBranch(
 					newAdrsRoots.get(i).get(1), 
-					selectCompatibleNodesInAdrs(i, parent1Nucleus, matchingNodesProperties, true), 
+					selectCompatibleNodesInAdrs(i, parent1Nucleus, matchingNodesIndex, true), 
 					crossoverPlan.get(parent1Nucleus.getAdrs().get(i).getBodyRoot()));
 			
 			setLocalExternalNodes(adrsLocalExternalNodes.get(i).get(0));
 			setLocalInternalNodes(adrsLocalInternalNodes.get(i).get(0));
 			AbstractNode groundRoot = synthesizeBranch(
 					newAdrsRoots.get(i).get(2), 
-					selectCompatibleNodesInAdrs(i, parent1Nucleus, matchingNodesProperties, false), 
+					selectCompatibleNodesInAdrs(i, parent1Nucleus, matchingNodesIndex, false), 
 					crossoverPlan.get(parent1Nucleus.getAdrs().get(i).getGroundRoot()));
 			
 			newAdrs.add(
@@ -257,15 +265,15 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 							parent1Nucleus.getAdls().get(i).getId(),
 							synthesizeBranch(
 									newAdlsRoots.get(i).get(0), 
-									selectCompatibleNodesInAdls(i, parent1Nucleus, matchingNodesProperties), 
+									selectCompatibleNodesInAdls(i, parent1Nucleus, matchingNodesIndex), 
 									crossoverPlan.get(parent1Nucleus.getAdls().get(i).getInitializationRoot())), 
 							synthesizeBranch(
 									newAdlsRoots.get(i).get(1), 
-									selectCompatibleNodesInAdls(i, parent1Nucleus, matchingNodesProperties), 
+									selectCompatibleNodesInAdls(i, parent1Nucleus, matchingNodesIndex), 
 									crossoverPlan.get(parent1Nucleus.getAdls().get(i).getConditionRoot())), 
 							synthesizeBranch(
 									newAdlsRoots.get(i).get(2), 
-									selectCompatibleNodesInAdls(i, parent1Nucleus, matchingNodesProperties), 
+									selectCompatibleNodesInAdls(i, parent1Nucleus, matchingNodesIndex), 
 									crossoverPlan.get(parent1Nucleus.getAdls().get(i).getBodyRoot())), 
 							parent1Nucleus.getAdls().get(i).getExternalArgsTypes(), 
 							parent1Nucleus.getAdls().get(i).getMaxCalls(),
@@ -281,7 +289,7 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 							parent1Nucleus.getRpbs().get(i).getId(),
 							synthesizeBranch(
 									newRpbsRoots.get(i), 
-									selectCompatibleNodesInRpbs(i, parent1Nucleus, matchingNodesProperties), 
+									selectCompatibleNodesInRpbs(i, parent1Nucleus, matchingNodesIndex), 
 									crossoverPlan.get(parent1Nucleus.getRpbs().get(i).getRoot())),
 							parent1Nucleus.getRpbs().get(i).getArgsTypes(), 
 							parent1Nucleus.getRpbs().get(i).getArgsNames()));
@@ -495,7 +503,7 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 	private final AbstractNode synthesizeBranch(AbstractNode currentBranchRoot, ArrayList<AbstractNode> compatibleNodesList, int nCrossoverNodes){
 		if(nCrossoverNodes > 0){
 			List<AbstractNode> branch1CrossoverNodes = getCrossoverNodesSelectionScheme().chooseFirstBranchCrossoverNodes(
-					getDescendantNodes(currentBranchRoot), 
+					TreeTraversal.collect(currentBranchRoot), 
 					nCrossoverNodes, 
 					this);
 			
@@ -520,93 +528,14 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 	}
 	
 	
-	private final HashMap<AbstractNode,ArrayList<AbstractProxyNode>> buildNodesProperties(Nucleus nucleus){
-		HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties = new HashMap<AbstractNode,ArrayList<AbstractProxyNode>>();
-		for(AbstractModule module : nucleus.getAllModules()){
-			for(AbstractNode root : module.getBranchRoots())
-				buildNodeProperties(root, nodesProperties);
-		}
-		return nodesProperties;
-	}
-	private final ArrayList<AbstractProxyNode> buildNodeProperties(AbstractNode node, HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties){
-		ArrayList<AbstractProxyNode> nodeProperties = new ArrayList<AbstractProxyNode>();
-		
-		HashSet<Integer> adsIds = new HashSet<Integer>();
-		HashSet<Integer> adfIds = new HashSet<Integer>();
-		HashSet<Integer> adiIds = new HashSet<Integer>();
-		HashSet<Integer> adrIds = new HashSet<Integer>();
-		HashSet<Integer> adlIds = new HashSet<Integer>();
-		HashSet<Integer> argIds = new HashSet<Integer>();
-		
-		for(AbstractNode arg : node.getArgs()){
-			ArrayList<AbstractProxyNode> argProperties = buildNodeProperties(arg, nodesProperties);
-			mergeProperties(nodeProperties, argProperties, adsIds, adfIds, adiIds, adrIds, adlIds, argIds);
-		}
-		
-		if(node instanceof AbstractProxyNode){
-			AbstractProxyNode castedNode = (AbstractProxyNode) node;
-			mergeProperties(nodeProperties, Arrays.asList(castedNode), adsIds, adfIds, adiIds, adrIds, adlIds, argIds);
-		}
-		
-		nodesProperties.put(node, nodeProperties);
-		
-		return nodeProperties;
-	}
-	private final void mergeProperties(
-			ArrayList<AbstractProxyNode> nodeProperties, 
-			List<AbstractProxyNode> otherNodeProperties,
-			HashSet<Integer> adsIds, 
-			HashSet<Integer> adfIds, 
-			HashSet<Integer> adiIds, 
-			HashSet<Integer> adrIds, 
-			HashSet<Integer> adlIds, 
-			HashSet<Integer> argIds){
-		for(AbstractProxyNode property : otherNodeProperties){
-			if(property instanceof ADSProxy){
-				if(!adsIds.contains(property.getId())){
-					adsIds.add(property.getId());
-					nodeProperties.add(property);
-				}
-			} else if(property instanceof ADFProxy){
-				if(!adfIds.contains(property.getId())){
-					adfIds.add(property.getId());
-					nodeProperties.add(property);
-				}
-			} else if(property instanceof ADIProxy){
-				if(!adiIds.contains(property.getId())){
-					adiIds.add(property.getId());
-					nodeProperties.add(property);
-				}
-			} else if(property instanceof ADRProxy){
-				if(!adrIds.contains(property.getId())){
-					adrIds.add(property.getId());
-					nodeProperties.add(property);
-				}
-			} else if(property instanceof ADLProxy){
-				if(!adlIds.contains(property.getId())){
-					adlIds.add(property.getId());
-					nodeProperties.add(property);
-				}
-			} else if(property instanceof ArgumentProxy){
-				if(!argIds.contains(property.getId())){
-					argIds.add(property.getId());
-					nodeProperties.add(property);
-				}
-			} else
-				throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
-		}
-	}
-	
-	
-	// Potential improvement : if a node is compatible, all its subtree is.
 	private final ArrayList<AbstractNode> selectCompatibleNodesInAdfs(
 			int branchIndex, 
 			Nucleus nucleus, 
-			HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties){
+			CompatibilityIndex nodesIndex){
 		ArrayList<AbstractNode> compatibleNodes = new ArrayList<AbstractNode>();
-		for(Entry<AbstractNode,ArrayList<AbstractProxyNode>> nodeProperties : nodesProperties.entrySet()){
+		for(CompatibilityIndex.Group group : nodesIndex.getGroups()){
 			boolean isCompatible = true;
-			for(AbstractProxyNode property : nodeProperties.getValue()){
+			for(AbstractProxyNode property : group.getProperties()){
 				if(property instanceof ADSProxy){
 					ADSProxy adsProxy = (ADSProxy) property;
 					if(adsProxy.getId() >= nucleus.getAdss().size()){
@@ -654,19 +583,18 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 					throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
 			}
 			if(isCompatible)
-				compatibleNodes.add(nodeProperties.getKey());
+				compatibleNodes.addAll(group.getNodes());
 		}
 		return compatibleNodes;
 	}
-	// Potential improvement : if a node is compatible, all its subtree is.
 	private final ArrayList<AbstractNode> selectCompatibleNodesInAdis(
 			int branchIndex, 
 			Nucleus nucleus, 
-			HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties){
+			CompatibilityIndex nodesIndex){
 		ArrayList<AbstractNode> compatibleNodes = new ArrayList<AbstractNode>();
-		for(Entry<AbstractNode,ArrayList<AbstractProxyNode>> nodeProperties : nodesProperties.entrySet()){
+		for(CompatibilityIndex.Group group : nodesIndex.getGroups()){
 			boolean isCompatible = true;
-			for(AbstractProxyNode property : nodeProperties.getValue()){
+			for(AbstractProxyNode property : group.getProperties()){
 				if(property instanceof ADSProxy){
 					ADSProxy adsProxy = (ADSProxy) property;
 					if(adsProxy.getId() >= nucleus.getAdss().size()){
@@ -722,20 +650,19 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 					throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
 			}
 			if(isCompatible)
-				compatibleNodes.add(nodeProperties.getKey());
+				compatibleNodes.addAll(group.getNodes());
 		}
 		return compatibleNodes;
 	}
-	// Potential improvement : if a node is compatible, all its subtree is.
 	private final ArrayList<AbstractNode> selectCompatibleNodesInAdrs(
 			int branchIndex, 
 			Nucleus nucleus, 
-			HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties,
+			CompatibilityIndex nodesIndex,
 			boolean isBody){
 		ArrayList<AbstractNode> compatibleNodes = new ArrayList<AbstractNode>();
-		for(Entry<AbstractNode,ArrayList<AbstractProxyNode>> nodeProperties : nodesProperties.entrySet()){
+		for(CompatibilityIndex.Group group : nodesIndex.getGroups()){
 			boolean isCompatible = true;
-			for(AbstractProxyNode property : nodeProperties.getValue()){
+			for(AbstractProxyNode property : group.getProperties()){
 				if(property instanceof ADSProxy){
 					ADSProxy adsProxy = (ADSProxy) property;
 					if(adsProxy.getId() >= nucleus.getAdss().size()){
@@ -799,19 +726,18 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 					throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
 			}
 			if(isCompatible)
-				compatibleNodes.add(nodeProperties.getKey());
+				compatibleNodes.addAll(group.getNodes());
 		}
 		return compatibleNodes;
 	}
-	// Potential improvement : if a node is compatible, all its subtree is.
 	private final ArrayList<AbstractNode> selectCompatibleNodesInAdls(
 			int branchIndex, 
 			Nucleus nucleus, 
-			HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties){
+			CompatibilityIndex nodesIndex){
 		ArrayList<AbstractNode> compatibleNodes = new ArrayList<AbstractNode>();
-		for(Entry<AbstractNode,ArrayList<AbstractProxyNode>> nodeProperties : nodesProperties.entrySet()){
+		for(CompatibilityIndex.Group group : nodesIndex.getGroups()){
 			boolean isCompatible = true;
-			for(AbstractProxyNode property : nodeProperties.getValue()){
+			for(AbstractProxyNode property : group.getProperties()){
 				if(property instanceof ADSProxy){
 					ADSProxy adsProxy = (ADSProxy) property;
 					if(adsProxy.getId() >= nucleus.getAdss().size()){
@@ -867,19 +793,18 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 					throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
 			}
 			if(isCompatible)
-				compatibleNodes.add(nodeProperties.getKey());
+				compatibleNodes.addAll(group.getNodes());
 		}
 		return compatibleNodes;
 	}
-	// Potential improvement : if a node is compatible, all its subtree is.
 	private final ArrayList<AbstractNode> selectCompatibleNodesInRpbs(
 			int branchIndex, 
 			Nucleus nucleus, 
-			HashMap<AbstractNode,ArrayList<AbstractProxyNode>> nodesProperties){
+			CompatibilityIndex nodesIndex){
 		ArrayList<AbstractNode> compatibleNodes = new ArrayList<AbstractNode>();
-		for(Entry<AbstractNode,ArrayList<AbstractProxyNode>> nodeProperties : nodesProperties.entrySet()){
+		for(CompatibilityIndex.Group group : nodesIndex.getGroups()){
 			boolean isCompatible = true;
-			for(AbstractProxyNode property : nodeProperties.getValue()){
+			for(AbstractProxyNode property : group.getProperties()){
 				if(property instanceof ADSProxy){
 					ADSProxy adsProxy = (ADSProxy) property;
 					if(adsProxy.getId() >= nucleus.getAdss().size()){
@@ -948,7 +873,7 @@ public final class PointTypingCrossover extends AbstractAchitecturalCrossoverOpe
 					throw new RuntimeException("Unknown subclass of AbstractProxyNode!");
 			}
 			if(isCompatible)
-				compatibleNodes.add(nodeProperties.getKey());
+				compatibleNodes.addAll(group.getNodes());
 		}
 		return compatibleNodes;
 	}
@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adfs;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -51,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -85,8 +85,7 @@ public final class ADFArgumentCreation implements ArchitectureAlterationOperator
 		
 		GeneticOperatorInterface geneticOperator = nucleus.getGeneticOperator();
 		
-		List<AbstractNode> allNodes = geneticOperator.getDescendantNodes(adf.getRoot());
-		AbstractNode argSubtreeRoot = allNodes.get(generator.nextInt(allNodes.size()));
+		AbstractNode argSubtreeRoot = TreeTraversal.nodeAt(adf.getRoot(), generator.nextInt(adf.getRoot().getSubtreeSize()));
 		
 		Argument newArg = new Argument(args.size(), argSubtreeRoot.getReturnType());
 		args.add(newArg);
@@ -101,14 +100,14 @@ public final class ADFArgumentCreation implements ArchitectureAlterationOperator
 		for(AbstractModule module : nucleus.getAllModules()){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADFProxy){
-						ADFProxy adfProxy = (ADFProxy) node;
-						if(adfProxy.getId() == adf.getId()){
-							adaptAdfCall(adfProxy, argSubtreeRoot, geneticOperator);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADFProxy){
+							ADFProxy adfProxy = (ADFProxy) node;
+							if(adfProxy.getId() == adf.getId()){
+								adaptAdfCall(adfProxy, argSubtreeRoot, geneticOperator);
+								consolidate = true;
+							}
 						}
 					}
 				}
@@ -122,14 +121,16 @@ public final class ADFArgumentCreation implements ArchitectureAlterationOperator
 	private final void adaptAdfCall(ADFProxy adfProxy, AbstractNode originalArgSubtree, GeneticOperatorInterface geneticOperator){
 		AbstractNode newArgSubtree = geneticOperator.replicateSubtree(originalArgSubtree);
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(newArgSubtree, true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adfProxy.getArgs().get(argProxy.getId()));
-				if(argProxy != newArgSubtree)
-					argProxy.getParent().replaceArg(argProxy, replacingSubtree);
-				else
-					newArgSubtree = replacingSubtree;
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(newArgSubtree)){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adfProxy.getArgs().get(argProxy.getId()));
+					if(argProxy != newArgSubtree)
+						argProxy.getParent().replaceArg(argProxy, replacingSubtree);
+					else
+						newArgSubtree = replacingSubtree;
+				}
 			}
 		}
 		
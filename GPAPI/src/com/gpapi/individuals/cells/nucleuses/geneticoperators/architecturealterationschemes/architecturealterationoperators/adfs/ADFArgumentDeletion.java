@@ -50,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -76,11 +77,13 @@ public final class ADFArgumentDeletion implements ArchitectureAlterationOperator
 		List<AbstractNode> argProxiesToBeReplaced = new ArrayList<AbstractNode>();
 		List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(adf.getRoot(), true)){
-			if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
-				argProxiesToBeReplaced.add(leaf);
-			else
-				potentialReplacingNodes.add(leaf);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(adf.getRoot())){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
+					argProxiesToBeReplaced.add(leaf);
+				else
+					potentialReplacingNodes.add(leaf);
+			}
 		}
 		
 		for(AbstractNode argProxy : argProxiesToBeReplaced){
@@ -104,12 +107,14 @@ public final class ADFArgumentDeletion implements ArchitectureAlterationOperator
 		for(AbstractModule module : nucleus.getAllModules()){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-					if(node instanceof ADFProxy){
-						ADFProxy adfProxy = (ADFProxy) node;
-						if(adfProxy.getId() == adf.getId()){
-							adfProxy.getArgs().remove(deletedArgId);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADFProxy){
+							ADFProxy adfProxy = (ADFProxy) node;
+							if(adfProxy.getId() == adf.getId()){
+								adfProxy.removeArg(deletedArgId);
+								consolidate = true;
+							}
 						}
 					}
 				}
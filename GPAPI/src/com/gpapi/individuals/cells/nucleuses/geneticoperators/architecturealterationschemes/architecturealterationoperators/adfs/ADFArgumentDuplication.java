@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adfs;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -51,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -87,11 +87,13 @@ public final class ADFArgumentDuplication implements ArchitectureAlterationOpera
 		
 		GeneticOperatorInterface geneticOperator = nucleus.getGeneticOperator();
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(adf.getRoot(), true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				if(argProxy.getId() == originalArg.getId() && generator.nextBoolean())
-					argProxy.setArgument(duplicateArg);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(adf.getRoot())){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					if(argProxy.getId() == originalArg.getId() && generator.nextBoolean())
+						argProxy.setArgument(duplicateArg);
+				}
 			}
 		}
 		
@@ -102,17 +104,17 @@ public final class ADFArgumentDuplication implements ArchitectureAlterationOpera
 		for(AbstractModule module : nucleus.getAllModules()){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADFProxy){
-						ADFProxy adfProxy = (ADFProxy) node;
-						if(adfProxy.getId() == adf.getId()){
-							List<AbstractNode> newArgs = new ArrayList<AbstractNode>(adfProxy.getArgs());
-							newArgs.add(duplicateArg.getId(), 
-									geneticOperator.replicateSubtree(newArgs.get(originalArg.getId())));
-							adfProxy.setArgs(newArgs);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADFProxy){
+							ADFProxy adfProxy = (ADFProxy) node;
+							if(adfProxy.getId() == adf.getId()){
+								List<AbstractNode> newArgs = new ArrayList<AbstractNode>(adfProxy.getArgs());
+								newArgs.add(duplicateArg.getId(), 
+										geneticOperator.replicateSubtree(newArgs.get(originalArg.getId())));
+								adfProxy.setArgs(newArgs);
+								consolidate = true;
+							}
 						}
 					}
 				}
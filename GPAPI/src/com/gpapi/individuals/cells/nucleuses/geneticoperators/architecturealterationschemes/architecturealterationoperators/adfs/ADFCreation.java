@@ -53,6 +53,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -98,13 +99,12 @@ public final class ADFCreation implements ArchitectureAlterationOperatorInterfac
 		AbstractModule seedModule = geneticOperator.chooseModule(potentialModules);
 		AbstractNode seedRoot = geneticOperator.chooseBranchRoot(seedModule);
 		
-		List<AbstractNode> allNodes = geneticOperator.getDescendantNodes(seedRoot);
-		AbstractNode newAdfRoot = allNodes.get(generator.nextInt(allNodes.size()));
+		AbstractNode newAdfRoot = TreeTraversal.nodeAt(seedRoot, generator.nextInt(seedRoot.getSubtreeSize()));
 		
 		AbstractNode newAdfRootBackup = newAdfRoot;
 		AbstractNode newAdfRootParent = newAdfRoot.getParent();
 		
-		List<AbstractNode> newAdfNodesList = geneticOperator.getDescendantNodes(newAdfRoot);
+		List<AbstractNode> newAdfNodesList = TreeTraversal.collect(newAdfRoot);
 		Set<AbstractNode> forbiddenNodes = buildForbiddenNodes(newAdfNodesList, nucleus.isHierarchicalAdfs());
 		List<AbstractNode> argsRootNodes = pickArgsRootNodes(newAdfNodesList, forbiddenNodes, geneticOperator);
 		
@@ -158,7 +158,7 @@ public final class ADFCreation implements ArchitectureAlterationOperatorInterfac
 				ancestor = ancestor.getParent();
 			}
 			
-			List<AbstractNode> descendantNodes = geneticOperator.getDescendantNodes(argRootNode);
+			List<AbstractNode> descendantNodes = TreeTraversal.collect(argRootNode);
 			
 			boolean buildNewArg = !strictParams;
 			for(AbstractNode descendantNode : descendantNodes){
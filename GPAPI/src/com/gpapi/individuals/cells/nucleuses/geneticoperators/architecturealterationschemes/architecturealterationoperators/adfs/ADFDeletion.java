@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -86,11 +87,13 @@ public final class ADFDeletion implements ArchitectureAlterationOperatorInterfac
 		List<AbstractNode> adfProxiesToBeReplaced = new ArrayList<AbstractNode>();
 		List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 		
-		for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-			if(node instanceof ADFProxy && ((ADFProxy) node).getId() == deletedAdfId)
-				adfProxiesToBeReplaced.add(node);
-			else if(node.getArgs().isEmpty())
-				potentialReplacingNodes.add(node);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+				if(node instanceof ADFProxy && ((ADFProxy) node).getId() == deletedAdfId)
+					adfProxiesToBeReplaced.add(node);
+				else if(node.getArgs().isEmpty())
+					potentialReplacingNodes.add(node);
+			}
 		}
 		
 		for(AbstractNode adfProxy : adfProxiesToBeReplaced){
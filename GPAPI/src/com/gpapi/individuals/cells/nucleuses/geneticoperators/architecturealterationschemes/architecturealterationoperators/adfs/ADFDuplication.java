@@ -44,7 +44,7 @@ import com.gpapi.individuals.cells.nucleuses.Nucleus;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.ArchitectureAlterationOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADF;
 import com.gpapi.individuals.cells.nucleuses.modules.adfs.ADFProxy;
-import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -76,13 +76,10 @@ public final class ADFDuplication implements ArchitectureAlterationOperatorInter
 				nucleus.getGeneticOperator().replicateSubtree(originalAdf.getRoot()), 
 				originalAdf.getArgsTypes());
 		
-		for(AbstractNode node : nucleus.getAllNodes()){
-			if(node instanceof ADFProxy){
-				ADFProxy adfProxy = (ADFProxy) node;
-				if(adfProxy.getId() == originalAdf.getId() && generator.nextBoolean())
-					adfProxy.setAdf(duplicateAdf);
-			}
-		}
+		TreeTraversal.forEachOfType(nucleus.getAllBranchRoots(), ADFProxy.class, adfProxy -> {
+			if(adfProxy.getId() == originalAdf.getId() && generator.nextBoolean())
+				adfProxy.setAdf(duplicateAdf);
+		});
 		
 		for(int i = duplicateAdf.getId(); i < adfs.size(); i++)
 			adfs.get(i).setId(i+1);
@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adis;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -52,6 +51,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -113,14 +113,14 @@ public final class ADIArgumentCreation implements ArchitectureAlterationOperator
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADIProxy){
-						ADIProxy adiProxy = (ADIProxy) node;
-						if(adiProxy.getId() == adi.getId()){
-							adaptAdiCall(adiProxy, argSubtreeRoot, geneticOperator);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADIProxy){
+							ADIProxy adiProxy = (ADIProxy) node;
+							if(adiProxy.getId() == adi.getId()){
+								adaptAdiCall(adiProxy, argSubtreeRoot, geneticOperator);
+								consolidate = true;
+							}
 						}
 					}
 				}
@@ -132,7 +132,7 @@ public final class ADIArgumentCreation implements ArchitectureAlterationOperator
 		return true;
 	}
 	private final AbstractNode chooseArgSubtreeRoot(ADI adi, GeneticOperatorInterface geneticOperator){
-		List<AbstractNode> allNodesList = geneticOperator.getDescendantNodes(adi.getRoot());
+		List<AbstractNode> allNodesList = TreeTraversal.collect(adi.getRoot());
 		HashSet<AbstractNode> selectableNodesSet = new HashSet<AbstractNode>(allNodesList);
 		
 		for(AbstractNode node : allNodesList){
@@ -155,14 +155,16 @@ public final class ADIArgumentCreation implements ArchitectureAlterationOperator
 	private final void adaptAdiCall(ADIProxy adiProxy, AbstractNode originalArgSubtree, GeneticOperatorInterface geneticOperator){
 		AbstractNode newArgSubtree = geneticOperator.replicateSubtree(originalArgSubtree);
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(newArgSubtree, true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adiProxy.getArgs().get(argProxy.getId()));
-				if(argProxy != newArgSubtree)
-					argProxy.getParent().replaceArg(argProxy, replacingSubtree);
-				else
-					newArgSubtree = replacingSubtree;
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(newArgSubtree)){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adiProxy.getArgs().get(argProxy.getId()));
+					if(argProxy != newArgSubtree)
+						argProxy.getParent().replaceArg(argProxy, replacingSubtree);
+					else
+						newArgSubtree = replacingSubtree;
+				}
 			}
 		}
 		
@@ -50,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -77,11 +78,13 @@ public final class ADIArgumentDeletion implements ArchitectureAlterationOperator
 		List<AbstractNode> argProxiesToBeReplaced = new ArrayList<AbstractNode>();
 		List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(adi.getRoot(), true)){
-			if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
-				argProxiesToBeReplaced.add(leaf);
-			else
-				potentialReplacingNodes.add(leaf);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(adi.getRoot())){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
+					argProxiesToBeReplaced.add(leaf);
+				else
+					potentialReplacingNodes.add(leaf);
+			}
 		}
 		
 		for(AbstractNode argProxy : argProxiesToBeReplaced){
@@ -111,12 +114,14 @@ public final class ADIArgumentDeletion implements ArchitectureAlterationOperator
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-					if(node instanceof ADIProxy){
-						ADIProxy adiProxy = (ADIProxy) node;
-						if(adiProxy.getId() == adi.getId()){
-							adiProxy.getArgs().remove(deletedArgId);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADIProxy){
+							ADIProxy adiProxy = (ADIProxy) node;
+							if(adiProxy.getId() == adi.getId()){
+								adiProxy.removeArg(deletedArgId);
+								consolidate = true;
+							}
 						}
 					}
 				}
@@ -54,6 +54,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -119,13 +120,12 @@ public final class ADICreation implements ArchitectureAlterationOperatorInterfac
 		AbstractModule seedModule = geneticOperator.chooseModule(potentialModules);
 		AbstractNode seedRoot = geneticOperator.chooseBranchRoot(seedModule);
 		
-		List<AbstractNode> allNodes = geneticOperator.getDescendantNodes(seedRoot);
-		AbstractNode newAdiRoot = allNodes.get(generator.nextInt(allNodes.size()));
+		AbstractNode newAdiRoot = TreeTraversal.nodeAt(seedRoot, generator.nextInt(seedRoot.getSubtreeSize()));
 		
 		AbstractNode newAdiRootBackup = newAdiRoot;
 		AbstractNode newAdiRootParent = newAdiRoot.getParent();
 		
-		List<AbstractNode> newAdiNodesList = geneticOperator.getDescendantNodes(newAdiRoot);
+		List<AbstractNode> newAdiNodesList = TreeTraversal.collect(newAdiRoot);
 		Set<AbstractNode> forbiddenNodes = buildForbiddenNodes(newAdiNodesList, nucleus.isHierarchicalAdis());
 		List<AbstractNode> argsRootNodes = pickArgsRootNodes(newAdiNodesList, forbiddenNodes, geneticOperator);
 		
@@ -188,7 +188,7 @@ public final class ADICreation implements ArchitectureAlterationOperatorInterfac
 				ancestor = ancestor.getParent();
 			}
 			
-			List<AbstractNode> descendantNodes = geneticOperator.getDescendantNodes(argRootNode);
+			List<AbstractNode> descendantNodes = TreeTraversal.collect(argRootNode);
 			
 			boolean buildNewArg = !strictParams;
 			for(AbstractNode descendantNode : descendantNodes){
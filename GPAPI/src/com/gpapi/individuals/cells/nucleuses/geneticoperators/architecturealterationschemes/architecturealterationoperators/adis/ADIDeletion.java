@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -89,11 +90,13 @@ public final class ADIDeletion implements ArchitectureAlterationOperatorInterfac
 		List<AbstractNode> adiProxiesToBeReplaced = new ArrayList<AbstractNode>();
 		List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 		
-		for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-			if(node instanceof ADIProxy && ((ADIProxy) node).getId() == deletedAdiId)
-				adiProxiesToBeReplaced.add(node);
-			else if(node.getArgs().isEmpty())
-				potentialReplacingNodes.add(node);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+				if(node instanceof ADIProxy && ((ADIProxy) node).getId() == deletedAdiId)
+					adiProxiesToBeReplaced.add(node);
+				else if(node.getArgs().isEmpty())
+					potentialReplacingNodes.add(node);
+			}
 		}
 		
 		for(AbstractNode adiProxy : adiProxiesToBeReplaced){
@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADI;
 import com.gpapi.individuals.cells.nucleuses.modules.adis.ADIProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -91,11 +92,13 @@ public final class ADIDuplication implements ArchitectureAlterationOperatorInter
 			referencingModules.addAll(adis.subList(originalAdi.getId() + 1, adis.size()));
 		
 		for(AbstractModule module : referencingModules){
-			for(AbstractNode node : geneticOperator.getDescendantNodes(module.getBranchRoots())){
-				if(node instanceof ADIProxy){
-					ADIProxy adiProxy = (ADIProxy) node;
-					if(adiProxy.getId() == originalAdi.getId() && generator.nextBoolean())
-						adiProxy.setAdi(duplicateAdi);
+			try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(module.getBranchRoots())){
+				for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+					if(node instanceof ADIProxy){
+						ADIProxy adiProxy = (ADIProxy) node;
+						if(adiProxy.getId() == originalAdi.getId() && generator.nextBoolean())
+							adiProxy.setAdi(duplicateAdi);
+					}
 				}
 			}
 		}
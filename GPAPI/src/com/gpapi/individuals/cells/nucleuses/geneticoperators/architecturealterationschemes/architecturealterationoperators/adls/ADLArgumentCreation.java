@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adls;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -52,6 +51,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -114,14 +114,14 @@ public final class ADLArgumentCreation implements ArchitectureAlterationOperator
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADLProxy){
-						ADLProxy adlProxy = (ADLProxy) node;
-						if(adlProxy.getId() == adl.getId()){
-							adaptAdlCall(adlProxy, argSubtreeRoot, geneticOperator);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADLProxy){
+							ADLProxy adlProxy = (ADLProxy) node;
+							if(adlProxy.getId() == adl.getId()){
+								adaptAdlCall(adlProxy, argSubtreeRoot, geneticOperator);
+								consolidate = true;
+							}
 						}
 					}
 				}
@@ -133,7 +133,7 @@ public final class ADLArgumentCreation implements ArchitectureAlterationOperator
 		return true;
 	}
 	private final AbstractNode chooseArgSubtreeRoot(AbstractNode adlRoot, int externalArgsSize, GeneticOperatorInterface geneticOperator){
-		List<AbstractNode> selectableNodesList = geneticOperator.getDescendantNodes(adlRoot);
+		List<AbstractNode> selectableNodesList = TreeTraversal.collect(adlRoot);
 		HashSet<AbstractNode> selectableNodesSet = new HashSet<AbstractNode>(selectableNodesList);
 		
 		for(AbstractNode node : selectableNodesList){
@@ -156,14 +156,16 @@ public final class ADLArgumentCreation implements ArchitectureAlterationOperator
 	private final void adaptAdlCall(ADLProxy adlProxy, AbstractNode originalArgSubtree, GeneticOperatorInterface geneticOperator){
 		AbstractNode newArgSubtree = geneticOperator.replicateSubtree(originalArgSubtree);
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(newArgSubtree, true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adlProxy.getArgs().get(argProxy.getId()));
-				if(argProxy != newArgSubtree)
-					argProxy.getParent().replaceArg(argProxy, replacingSubtree);
-				else
-					newArgSubtree = replacingSubtree;
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(newArgSubtree)){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adlProxy.getArgs().get(argProxy.getId()));
+					if(argProxy != newArgSubtree)
+						argProxy.getParent().replaceArg(argProxy, replacingSubtree);
+					else
+						newArgSubtree = replacingSubtree;
+				}
 			}
 		}
 		
@@ -50,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -78,11 +79,13 @@ public final class ADLArgumentDeletion implements ArchitectureAlterationOperator
 			List<AbstractNode> argProxiesToBeReplaced = new ArrayList<AbstractNode>();
 			List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 			
-			for(AbstractNode leaf : geneticOperator.getDescendantNodes(root, true)){
-				if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
-					argProxiesToBeReplaced.add(leaf);
-				else
-					potentialReplacingNodes.add(leaf);
+			try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(root)){
+				for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+					if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
+						argProxiesToBeReplaced.add(leaf);
+					else
+						potentialReplacingNodes.add(leaf);
+				}
 			}
 			
 			for(AbstractNode argProxy : argProxiesToBeReplaced){
@@ -113,12 +116,14 @@ public final class ADLArgumentDeletion implements ArchitectureAlterationOperator
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-					if(node instanceof ADLProxy){
-						ADLProxy adlProxy = (ADLProxy) node;
-						if(adlProxy.getId() == adl.getId()){
-							adlProxy.getArgs().remove(deletedArgId);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADLProxy){
+							ADLProxy adlProxy = (ADLProxy) node;
+							if(adlProxy.getId() == adl.getId()){
+								adlProxy.removeArg(deletedArgId);
+								consolidate = true;
+							}
 						}
 					}
 				}
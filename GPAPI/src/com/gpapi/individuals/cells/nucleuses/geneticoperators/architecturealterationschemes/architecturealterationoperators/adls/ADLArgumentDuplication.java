@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adls;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -51,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -88,11 +88,13 @@ public final class ADLArgumentDuplication implements ArchitectureAlterationOpera
 		
 		GeneticOperatorInterface geneticOperator = nucleus.getGeneticOperator();
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(adl.getBranchRoots(), true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				if(argProxy.getId() == originalArgId && generator.nextBoolean())
-					argProxy.setArgument(duplicateArg);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(adl.getBranchRoots())){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					if(argProxy.getId() == originalArgId && generator.nextBoolean())
+						argProxy.setArgument(duplicateArg);
+				}
 			}
 		}
 		
@@ -110,17 +112,17 @@ public final class ADLArgumentDuplication implements ArchitectureAlterationOpera
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADLProxy){
-						ADLProxy adlProxy = (ADLProxy) node;
-						if(adlProxy.getId() == adl.getId()){
-							List<AbstractNode> newArgs = new ArrayList<AbstractNode>(adlProxy.getArgs());
-							newArgs.add(duplicateArg.getId(), 
-									geneticOperator.replicateSubtree(newArgs.get(originalArgId)));
-							adlProxy.setArgs(newArgs);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADLProxy){
+							ADLProxy adlProxy = (ADLProxy) node;
+							if(adlProxy.getId() == adl.getId()){
+								List<AbstractNode> newArgs = new ArrayList<AbstractNode>(adlProxy.getArgs());
+								newArgs.add(duplicateArg.getId(), 
+										geneticOperator.replicateSubtree(newArgs.get(originalArgId)));
+								adlProxy.setArgs(newArgs);
+								consolidate = true;
+							}
 						}
 					}
 				}
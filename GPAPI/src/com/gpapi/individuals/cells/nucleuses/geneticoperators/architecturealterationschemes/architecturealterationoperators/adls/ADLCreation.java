@@ -54,6 +54,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -105,13 +106,13 @@ public final class ADLCreation implements ArchitectureAlterationOperatorInterfac
 		AbstractModule seedModule = geneticOperator.chooseModule(potentialModules);
 		AbstractNode seedRoot = geneticOperator.chooseBranchRoot(seedModule);
 		
-		List<AbstractNode> allNodes = geneticOperator.getDescendantNodes(seedRoot);
+		List<AbstractNode> allNodes = TreeTraversal.collect(seedRoot);
 		AbstractNode newAdlBodyRoot = allNodes.get(generator.nextInt(allNodes.size()));
 		
 		AbstractNode newAdlBodyRootBackup = newAdlBodyRoot;
 		AbstractNode newAdlBodyRootParent = newAdlBodyRoot.getParent();
 		
-		List<AbstractNode> newAdlBodyNodesList = geneticOperator.getDescendantNodes(newAdlBodyRoot);
+		List<AbstractNode> newAdlBodyNodesList = TreeTraversal.collect(newAdlBodyRoot);
 		Set<AbstractNode> forbiddenNodes = buildForbiddenNodes(newAdlBodyNodesList, nucleus.isHierarchicalAdls());
 		List<AbstractNode> argsRootNodes = pickArgsRootNodes(newAdlBodyNodesList, forbiddenNodes, geneticOperator);
 		
@@ -172,7 +173,7 @@ public final class ADLCreation implements ArchitectureAlterationOperatorInterfac
 				ancestor = ancestor.getParent();
 			}
 			
-			List<AbstractNode> descendantNodes = geneticOperator.getDescendantNodes(argRootNode);
+			List<AbstractNode> descendantNodes = TreeTraversal.collect(argRootNode);
 			
 			boolean buildNewArg = !strictParams;
 			for(AbstractNode descendantNode : descendantNodes){
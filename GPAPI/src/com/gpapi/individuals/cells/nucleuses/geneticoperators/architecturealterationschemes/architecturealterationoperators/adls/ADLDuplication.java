@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADL;
 import com.gpapi.individuals.cells.nucleuses.modules.adls.ADLProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -90,11 +91,13 @@ public final class ADLDuplication implements ArchitectureAlterationOperatorInter
 			referencingModules.addAll(adls.subList(originalAdl.getId() + 1, adls.size()));
 		
 		for(AbstractModule module : referencingModules){
-			for(AbstractNode node : geneticOperator.getDescendantNodes(module.getBranchRoots())){
-				if(node instanceof ADLProxy){
-					ADLProxy adlProxy = (ADLProxy) node;
-					if(adlProxy.getId() == originalAdl.getId() && generator.nextBoolean())
-						adlProxy.setAdl(duplicateAdl);
+			try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(module.getBranchRoots())){
+				for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+					if(node instanceof ADLProxy){
+						ADLProxy adlProxy = (ADLProxy) node;
+						if(adlProxy.getId() == originalAdl.getId() && generator.nextBoolean())
+							adlProxy.setAdl(duplicateAdl);
+					}
 				}
 			}
 		}
@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adrs;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -52,6 +51,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -108,14 +108,14 @@ public final class ADRArgumentCreation implements ArchitectureAlterationOperator
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADRProxy){
-						ADRProxy adrProxy = (ADRProxy) node;
-						if(adrProxy.getId() == adr.getId()){
-							adaptAdrCall(adrProxy, argSubtreeRoot, geneticOperator);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADRProxy){
+							ADRProxy adrProxy = (ADRProxy) node;
+							if(adrProxy.getId() == adr.getId()){
+								adaptAdrCall(adrProxy, argSubtreeRoot, geneticOperator);
+								consolidate = true;
+							}
 						}
 					}
 				}
@@ -127,7 +127,7 @@ public final class ADRArgumentCreation implements ArchitectureAlterationOperator
 		return true;
 	}
 	private final AbstractNode chooseArgSubtreeRoot(AbstractNode adrRoot, int adrId, GeneticOperatorInterface geneticOperator){
-		List<AbstractNode> selectableNodesList = geneticOperator.getDescendantNodes(adrRoot);
+		List<AbstractNode> selectableNodesList = TreeTraversal.collect(adrRoot);
 		HashSet<AbstractNode> selectableNodesSet = new HashSet<AbstractNode>(selectableNodesList);
 		
 		for(AbstractNode node : selectableNodesList){
@@ -150,14 +150,16 @@ public final class ADRArgumentCreation implements ArchitectureAlterationOperator
 	private final void adaptAdrCall(ADRProxy adrProxy, AbstractNode originalArgSubtree, GeneticOperatorInterface geneticOperator){
 		AbstractNode newArgSubtree = geneticOperator.replicateSubtree(originalArgSubtree);
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(newArgSubtree, true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adrProxy.getArgs().get(argProxy.getId()));
-				if(argProxy != newArgSubtree)
-					argProxy.getParent().replaceArg(argProxy, replacingSubtree);
-				else
-					newArgSubtree = replacingSubtree;
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(newArgSubtree)){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					AbstractNode replacingSubtree = geneticOperator.replicateSubtree(adrProxy.getArgs().get(argProxy.getId()));
+					if(argProxy != newArgSubtree)
+						argProxy.getParent().replaceArg(argProxy, replacingSubtree);
+					else
+						newArgSubtree = replacingSubtree;
+				}
 			}
 		}
 		
@@ -50,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -77,11 +78,13 @@ public final class ADRArgumentDeletion implements ArchitectureAlterationOperator
 			List<AbstractNode> argProxiesToBeReplaced = new ArrayList<AbstractNode>();
 			List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 			
-			for(AbstractNode leaf : geneticOperator.getDescendantNodes(root, true)){
-				if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
-					argProxiesToBeReplaced.add(leaf);
-				else
-					potentialReplacingNodes.add(leaf);
+			try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(root)){
+				for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+					if(leaf instanceof ArgumentProxy && ((ArgumentProxy) leaf).getId() == deletedArgId)
+						argProxiesToBeReplaced.add(leaf);
+					else
+						potentialReplacingNodes.add(leaf);
+				}
 			}
 			
 			for(AbstractNode argProxy : argProxiesToBeReplaced){
@@ -111,12 +114,14 @@ public final class ADRArgumentDeletion implements ArchitectureAlterationOperator
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-					if(node instanceof ADRProxy){
-						ADRProxy adrProxy = (ADRProxy) node;
-						if(adrProxy.getId() == adr.getId()){
-							adrProxy.getArgs().remove(deletedArgId);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADRProxy){
+							ADRProxy adrProxy = (ADRProxy) node;
+							if(adrProxy.getId() == adr.getId()){
+								adrProxy.removeArg(deletedArgId);
+								consolidate = true;
+							}
 						}
 					}
 				}
@@ -38,7 +38,6 @@
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.adrs;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -51,6 +50,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -87,11 +87,13 @@ public final class ADRArgumentDuplication implements ArchitectureAlterationOpera
 		
 		GeneticOperatorInterface geneticOperator = nucleus.getGeneticOperator();
 		
-		for(AbstractNode leaf : geneticOperator.getDescendantNodes(adr.getBranchRoots(), true)){
-			if(leaf instanceof ArgumentProxy){
-				ArgumentProxy argProxy = (ArgumentProxy) leaf;
-				if(argProxy.getId() == originalArg.getId() && generator.nextBoolean())
-					argProxy.setArgument(duplicateArg);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(adr.getBranchRoots())){
+			for(AbstractNode leaf = cursor.next(); leaf != null; leaf = cursor.next()){
+				if(leaf instanceof ArgumentProxy){
+					ArgumentProxy argProxy = (ArgumentProxy) leaf;
+					if(argProxy.getId() == originalArg.getId() && generator.nextBoolean())
+						argProxy.setArgument(duplicateArg);
+				}
 			}
 		}
 		
@@ -107,17 +109,17 @@ public final class ADRArgumentDuplication implements ArchitectureAlterationOpera
 		for(AbstractModule module : referencingModules){
 			boolean consolidate = false;
 			for(AbstractNode root : module.getBranchRoots()){
-				List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-				Collections.reverse(branchNodes);
-				for(AbstractNode node : branchNodes){
-					if(node instanceof ADRProxy){
-						ADRProxy adrProxy = (ADRProxy) node;
-						if(adrProxy.getId() == adr.getId()){
-							List<AbstractNode> newArgs = new ArrayList<AbstractNode>(adrProxy.getArgs());
-							newArgs.add(duplicateArg.getId(), 
-									geneticOperator.replicateSubtree(newArgs.get(originalArg.getId())));
-							adrProxy.setArgs(newArgs);
-							consolidate = true;
+				try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+					for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+						if(node instanceof ADRProxy){
+							ADRProxy adrProxy = (ADRProxy) node;
+							if(adrProxy.getId() == adr.getId()){
+								List<AbstractNode> newArgs = new ArrayList<AbstractNode>(adrProxy.getArgs());
+								newArgs.add(duplicateArg.getId(), 
+										geneticOperator.replicateSubtree(newArgs.get(originalArg.getId())));
+								adrProxy.setArgs(newArgs);
+								consolidate = true;
+							}
 						}
 					}
 				}
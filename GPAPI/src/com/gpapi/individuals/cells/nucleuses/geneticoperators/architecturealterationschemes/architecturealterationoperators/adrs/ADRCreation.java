@@ -54,6 +54,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -105,13 +106,12 @@ public final class ADRCreation implements ArchitectureAlterationOperatorInterfac
 		AbstractModule seedModule = geneticOperator.chooseModule(potentialModules);
 		AbstractNode seedRoot = geneticOperator.chooseBranchRoot(seedModule);
 		
-		List<AbstractNode> allNodes = geneticOperator.getDescendantNodes(seedRoot);
-		AbstractNode newAdrBodyRoot = allNodes.get(generator.nextInt(allNodes.size()));
+		AbstractNode newAdrBodyRoot = TreeTraversal.nodeAt(seedRoot, generator.nextInt(seedRoot.getSubtreeSize()));
 		
 		AbstractNode newAdrBodyRootBackup = newAdrBodyRoot;
 		AbstractNode newAdrBodyRootParent = newAdrBodyRoot.getParent();
 		
-		List<AbstractNode> newAdrBodyNodesList = geneticOperator.getDescendantNodes(newAdrBodyRoot);
+		List<AbstractNode> newAdrBodyNodesList = TreeTraversal.collect(newAdrBodyRoot);
 		Set<AbstractNode> forbiddenNodes = buildForbiddenNodes(seedModule, newAdrBodyNodesList, nucleus.isHierarchicalAdrs());
 		List<AbstractNode> argsRootNodes = pickArgsRootNodes(newAdrBodyNodesList, forbiddenNodes, geneticOperator);
 		
@@ -172,7 +172,7 @@ public final class ADRCreation implements ArchitectureAlterationOperatorInterfac
 				ancestor = ancestor.getParent();
 			}
 			
-			List<AbstractNode> descendantNodes = geneticOperator.getDescendantNodes(argRootNode);
+			List<AbstractNode> descendantNodes = TreeTraversal.collect(argRootNode);
 			
 			boolean buildNewArg = !strictParams;
 			for(AbstractNode descendantNode : descendantNodes){
@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -89,11 +90,13 @@ public final class ADRDeletion implements ArchitectureAlterationOperatorInterfac
 		List<AbstractNode> adrProxiesToBeReplaced = new ArrayList<AbstractNode>();
 		List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 		
-		for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-			if(node instanceof ADRProxy && ((ADRProxy) node).getId() == deletedAdrId)
-				adrProxiesToBeReplaced.add(node);
-			else if(node.getArgs().isEmpty())
-				potentialReplacingNodes.add(node);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+				if(node instanceof ADRProxy && ((ADRProxy) node).getId() == deletedAdrId)
+					adrProxiesToBeReplaced.add(node);
+				else if(node.getArgs().isEmpty())
+					potentialReplacingNodes.add(node);
+			}
 		}
 		
 		for(AbstractNode adrProxy : adrProxiesToBeReplaced){
@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADR;
 import com.gpapi.individuals.cells.nucleuses.modules.adrs.ADRProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -85,11 +86,13 @@ public final class ADRDuplication implements ArchitectureAlterationOperatorInter
 				originalAdr.getMaxCalls(), 
 				originalAdr.getMaxRecursionDepth());
 		
-		for(AbstractNode node : geneticOperator.getDescendantNodes(duplicateAdr.getBodyRoot())){
-			if(node instanceof ADRProxy){
-				ADRProxy adrProxy = (ADRProxy) node;
-				if(adrProxy.getId() == originalAdr.getId())
-					adrProxy.setAdr(duplicateAdr);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(duplicateAdr.getBodyRoot())){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+				if(node instanceof ADRProxy){
+					ADRProxy adrProxy = (ADRProxy) node;
+					if(adrProxy.getId() == originalAdr.getId())
+						adrProxy.setAdr(duplicateAdr);
+				}
 			}
 		}
 		
@@ -98,11 +101,13 @@ public final class ADRDuplication implements ArchitectureAlterationOperatorInter
 			referencingModules.addAll(adrs.subList(originalAdr.getId() + 1, adrs.size()));
 		
 		for(AbstractModule module : referencingModules){
-			for(AbstractNode node : geneticOperator.getDescendantNodes(module.getBranchRoots())){
-				if(node instanceof ADRProxy){
-					ADRProxy adrProxy = (ADRProxy) node;
-					if(adrProxy.getId() == originalAdr.getId() && generator.nextBoolean())
-						adrProxy.setAdr(duplicateAdr);
+			try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(module.getBranchRoots())){
+				for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+					if(node instanceof ADRProxy){
+						ADRProxy adrProxy = (ADRProxy) node;
+						if(adrProxy.getId() == originalAdr.getId() && generator.nextBoolean())
+							adrProxy.setAdr(duplicateAdr);
+					}
 				}
 			}
 		}
@@ -49,6 +49,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.nodes.Glue;
 
 
@@ -105,8 +106,7 @@ public final class ADSCreation implements ArchitectureAlterationOperatorInterfac
 		AbstractModule seedModule = geneticOperator.chooseModule(nucleus.getAllModules());
 		AbstractNode seedRoot = geneticOperator.chooseBranchRoot(seedModule);
 		
-		List<AbstractNode> allNodes = geneticOperator.getDescendantNodes(seedRoot);
-		AbstractNode newAdsContentRoot = allNodes.get(generator.nextInt(allNodes.size()));
+		AbstractNode newAdsContentRoot = TreeTraversal.nodeAt(seedRoot, generator.nextInt(seedRoot.getSubtreeSize()));
 		AbstractNode newAdsContentRootParent = newAdsContentRoot.getParent();
 		
 		ADS newAds = new ADS(
@@ -118,7 +118,7 @@ public final class ADSCreation implements ArchitectureAlterationOperatorInterfac
 		ArrayList<AbstractNode> writeProxyArgs = new ArrayList<AbstractNode>(newAds.getDimension() + 1);
 		writeProxyArgs.add(newAdsContentRoot);
 		
-		List<AbstractNode> leaves = geneticOperator.getDescendantNodes(seedRoot, true);
+		List<AbstractNode> leaves = TreeTraversal.collectLeaves(seedRoot);
 		for(int i = 0; i < newAds.getDimension(); i++){
 			AbstractNode arg = geneticOperator.chooseNodeIn(leaves, ADS.getAdressArgsType());
 			if(arg != null)
@@ -48,6 +48,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -86,11 +87,13 @@ public final class ADSDeletion implements ArchitectureAlterationOperatorInterfac
 		List<AbstractNode> adsProxiesToBeReplaced = new ArrayList<AbstractNode>();
 		List<AbstractNode> potentialReplacingNodes = new ArrayList<AbstractNode>();
 		
-		for(AbstractNode node : geneticOperator.getDescendantNodes(root)){
-			if(node instanceof ADSProxy && ((ADSProxy) node).getId() == deletedAdsId)
-				adsProxiesToBeReplaced.add(node);
-			else if(node.getArgs().isEmpty())
-				potentialReplacingNodes.add(node);
+		try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+				if(node instanceof ADSProxy && ((ADSProxy) node).getId() == deletedAdsId)
+					adsProxiesToBeReplaced.add(node);
+				else if(node.getArgs().isEmpty())
+					potentialReplacingNodes.add(node);
+			}
 		}
 		
 		for(AbstractNode adsProxy : adsProxiesToBeReplaced){
@@ -44,7 +44,7 @@ import com.gpapi.individuals.cells.nucleuses.Nucleus;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealterationschemes.architecturealterationoperators.ArchitectureAlterationOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
-import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -77,13 +77,10 @@ public final class ADSDuplication implements ArchitectureAlterationOperatorInter
 				originalAds.getReturnType(), 
 				originalAds.getMaxSize());
 		
-		for(AbstractNode node : nucleus.getAllNodes()){
-			if(node instanceof ADSProxy){
-				ADSProxy adsProxy = (ADSProxy) node;
-				if(adsProxy.getId() == originalAds.getId() && generator.nextBoolean())
-					adsProxy.setAds(duplicateAds);
-			}
-		}
+		TreeTraversal.forEachOfType(nucleus.getAllBranchRoots(), ADSProxy.class, adsProxy -> {
+			if(adsProxy.getId() == originalAds.getId() && generator.nextBoolean())
+				adsProxy.setAds(duplicateAds);
+		});
 		
 		for(int i = duplicateAds.getId(); i < adss.size(); i++)
 			adss.get(i).setId(i+1);
@@ -39,7 +39,6 @@ package com.gpapi.individuals.cells.nucleuses.geneticoperators.architecturealter
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -50,6 +49,7 @@ import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADS;
 import com.gpapi.individuals.cells.nucleuses.modules.adss.ADSProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -103,14 +103,14 @@ public final class ADSTypeModification implements ArchitectureAlterationOperator
 			for(AbstractModule module : nucleus.getAllModules()){
 				boolean consolidate = false;
 				for(AbstractNode root : module.getBranchRoots()){
-					List<AbstractNode> branchNodes = geneticOperator.getDescendantNodes(root);
-					Collections.reverse(branchNodes);
-					for(AbstractNode node : branchNodes){
-						if(node instanceof ADSProxy){
-							ADSProxy adsProxy = (ADSProxy) node;
-							if(adsProxy.getId() == ads.getId()){
-								adaptAdsCall(adsProxy, newAdressArgs, dimensionDelta);
-								consolidate = true;
+					try(TreeTraversal.Cursor cursor = TreeTraversal.postOrder(root)){
+						for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+							if(node instanceof ADSProxy){
+								ADSProxy adsProxy = (ADSProxy) node;
+								if(adsProxy.getId() == ads.getId()){
+									adaptAdsCall(adsProxy, newAdressArgs, dimensionDelta);
+									consolidate = true;
+								}
 							}
 						}
 					}
@@ -75,7 +75,7 @@ public final class SizeFairCrossoverNodesSelection implements CrossoverNodesSele
 		
 		for(AbstractNode crossoverNode : firstBranchCrossoverNodes){
 			AbstractNode matchingNode = findMatchingCrossoverNode(
-					geneticOperator.getDescendantNodes(crossoverNode).size(), 
+					crossoverNode.getSubtreeSize(), 
 					crossoverNode.getReturnType(), 
 					matchingNodesBySubtreeSize);
 			if(matchingNode != null)
@@ -87,34 +87,17 @@ public final class SizeFairCrossoverNodesSelection implements CrossoverNodesSele
 	
 	private final TreeMap<Integer,ArrayList<AbstractNode>> buildMatchingNodesSubtreeSizes(List<AbstractNode> nodesList){
 		TreeMap<Integer,ArrayList<AbstractNode>> matchingNodesBySubtreeSize = new TreeMap<Integer,ArrayList<AbstractNode>>();
-		HashMap<AbstractNode,Integer> matchingNodesSubtreeSize = new HashMap<AbstractNode,Integer>();
 		
-		for(AbstractNode node : nodesList)
-			buildSubtreeSize(node, matchingNodesBySubtreeSize, matchingNodesSubtreeSize);
-		
-		return matchingNodesBySubtreeSize;
-	}
-	private final int buildSubtreeSize(
-			AbstractNode root, 
-			TreeMap<Integer,ArrayList<AbstractNode>> matchingNodesBySubtreeSize, 
-			HashMap<AbstractNode,Integer> matchingNodesSubtreeSize){
-		Integer subtreeSize = matchingNodesSubtreeSize.get(root);
-		if(subtreeSize == null){
-			subtreeSize = 1;
-			
-			for(AbstractNode child : root.getArgs())
-				subtreeSize += buildSubtreeSize(child, matchingNodesBySubtreeSize, matchingNodesSubtreeSize);
-			
-			ArrayList<AbstractNode> sameSizeSubtreesRoots = matchingNodesBySubtreeSize.get(subtreeSize);
+		for(AbstractNode node : nodesList){
+			ArrayList<AbstractNode> sameSizeSubtreesRoots = matchingNodesBySubtreeSize.get(node.getSubtreeSize());
 			if(sameSizeSubtreesRoots == null){
 				sameSizeSubtreesRoots = new ArrayList<AbstractNode>();
-				matchingNodesBySubtreeSize.put(subtreeSize, sameSizeSubtreesRoots);
+				matchingNodesBySubtreeSize.put(node.getSubtreeSize(), sameSizeSubtreesRoots);
 			}
-			sameSizeSubtreesRoots.add(root);
-			
-			matchingNodesSubtreeSize.put(root, subtreeSize);
+			sameSizeSubtreesRoots.add(node);
 		}
-		return subtreeSize;
+		
+		return matchingNodesBySubtreeSize;
 	}
 	
 	private final AbstractNode findMatchingCrossoverNode(
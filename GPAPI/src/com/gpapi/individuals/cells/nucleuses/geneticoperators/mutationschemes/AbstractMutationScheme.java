@@ -37,12 +37,12 @@
 
 package com.gpapi.individuals.cells.nucleuses.geneticoperators.mutationschemes;
 
-import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.GeneticOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.mutationschemes.pointmutationoperators.PointMutationOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 
 
 
@@ -65,29 +65,30 @@ public abstract class AbstractMutationScheme implements MutationSchemeInterface
 		if(nMutations > 0){
 			ThreadLocalRandom generator = ThreadLocalRandom.current();
 			
-			List<AbstractNode> nodesList = geneticOperator.getDescendantNodes(root);
-			
+			int branchSize = root.getSubtreeSize();
 			int visitedNodes = 0;
 			double remainingMutations = nMutations;
 			
-			for(AbstractNode node : nodesList){
-				double mutationProba = remainingMutations / (nodesList.size() - visitedNodes);
-				if(generator.nextDouble() < mutationProba){
-					AbstractNode mutatedNode = getPointMutationOperator().mutatedCopy(node, geneticOperator);
+			try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){
+				for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+					double mutationProba = remainingMutations / (branchSize - visitedNodes);
+					if(generator.nextDouble() < mutationProba){
+						AbstractNode mutatedNode = getPointMutationOperator().mutatedCopy(node, geneticOperator);
 					
-					if(!mutatedNode.isReady())
-						mutatedNode.setArgs(node.getArgs());
+						if(!mutatedNode.isReady())
+							mutatedNode.setArgs(node.getArgs());
 					
-					if(node != root)
-						node.getParent().replaceArg(node, mutatedNode);
-					else
-						root = mutatedNode;
+						if(node != root)
+							node.getParent().replaceArg(node, mutatedNode);
+						else
+							root = mutatedNode;
 					
-					remainingMutations--;
-					if(remainingMutations <= 0.0)
-						break;
+						remainingMutations--;
+						if(remainingMutations <= 0.0)
+							break;
+					}
+					visitedNodes++;
 				}
-				visitedNodes++;
 			}
 		}
 		return root;
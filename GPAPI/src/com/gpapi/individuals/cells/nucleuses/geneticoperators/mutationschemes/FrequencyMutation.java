@@ -67,7 +67,7 @@ public final class FrequencyMutation extends AbstractMutationScheme {
 			ThreadLocalRandom generator = ThreadLocalRandom.current();
 			
 			int nMutations = 0;
-			int branchSize = geneticOperator.getDescendantNodes(root).size();
+			int branchSize = root.getSubtreeSize();
 			for(int i = 0; i < branchSize; i++){
 				if(generator.nextDouble() < frequency)
 					nMutations++;
@@ -75,7 +75,7 @@ public final class Regenerate implements PointMutationOperatorInterface {
 		if(size > 0)
 			return geneticOperator.generateTree(mutationRoot.getReturnType(), size);
 		else {
-			int baseSubtreeSize = geneticOperator.getDescendantNodes(mutationRoot).size();
+			int baseSubtreeSize = mutationRoot.getSubtreeSize();
 			int newSubtreeSize = ThreadLocalRandom.current().nextInt(1, 2*baseSubtreeSize);
 			return geneticOperator.generateTree(mutationRoot.getReturnType(), newSubtreeSize);
 		}
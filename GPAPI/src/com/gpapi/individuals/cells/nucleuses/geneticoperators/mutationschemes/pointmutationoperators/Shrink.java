@@ -40,6 +40,7 @@ package com.gpapi.individuals.cells.nucleuses.geneticoperators.mutationschemes.p
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.GeneticOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.modules.ArgumentProxy;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.TreeTraversal;
 import com.gpapi.individuals.cells.nucleuses.nodes.Constant;
 
 
@@ -59,9 +60,11 @@ public final class Shrink implements PointMutationOperatorInterface {
 
 	@Override
 	public final AbstractNode mutatedCopy(AbstractNode mutationRoot, GeneticOperatorInterface geneticOperator) {
-		for(AbstractNode node : geneticOperator.getDescendantNodes(mutationRoot, true)){
-			if(node instanceof ArgumentProxy)
-				return mutationRoot.copy();
+		try(TreeTraversal.Cursor cursor = TreeTraversal.leaves(mutationRoot)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next()){
+				if(node instanceof ArgumentProxy)
+					return mutationRoot.copy();
+			}
 		}
 		
 		try{
@@ -38,11 +38,14 @@
 package com.gpapi.individuals.cells.nucleuses.modules;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
+import com.gpapi.individuals.cells.nucleuses.compilers.StackProgram;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 
 
 
@@ -74,14 +77,38 @@ public abstract class AbstractModule extends AbstractProxyNodeSlot {
 		return args;
 	}
 	
-	private final int[] branchSizes;
 	public final int getBranchSize(int branchIndex) {
-		return branchSizes[branchIndex];
+		return branchRoots.get(branchIndex).getSubtreeSize();
 	}
-
-	private final int[] branchDepths;
 	public final int getBranchDepth(int branchIndex) {
-		return branchDepths[branchIndex];
+		return branchRoots.get(branchIndex).getSubtreeDepth();
+	}
+	
+	private transient StackProgram[] stackPrograms = null;
+	private transient boolean[] stackProgramsBuilt = null;
+	/**
+	 * Returns the stack program of the given branch, which is built the first time
+	 * it is requested and discarded by consolidate() and replaceBranchRoot().
+	 * 
+	 * @param branchIndex
+	 * @return
+	 * 			The program, or null if the branch can't be executed by the stack machine.
+	 */
+	public final StackProgram getStackProgram(int branchIndex) {
+		StackProgram[] programs = stackPrograms;
+		boolean[] built = stackProgramsBuilt;
+		if(programs == null || built == null){
+			programs = new StackProgram[getBranchRoots().size()];
+			built = new boolean[getBranchRoots().size()];
+			stackPrograms = programs;
+			stackProgramsBuilt = built;
+		}
+		
+		if(!built[branchIndex]){
+			programs[branchIndex] = StackProgram.compile(getBranchRoots().get(branchIndex));
+			built[branchIndex] = true;
+		}
+		return programs[branchIndex];
 	}
 	
 	
@@ -114,9 +141,6 @@ public abstract class AbstractModule extends AbstractProxyNodeSlot {
 		
 		this.branchRoots = new ArrayList<AbstractNode>(branchRoots);
 		
-		branchSizes = new int[branchRoots.size()];
-		branchDepths = new int[branchRoots.size()];
-		
 		consolidate();
 	}
 	public AbstractModule(int id, List<AbstractNode> branchRoots, List<AbstractType> argsTypes){
@@ -125,29 +149,26 @@ public abstract class AbstractModule extends AbstractProxyNodeSlot {
 	
 	
 	/**
-	 * Rebuilds size and depth and sets up arguments' proxies.
+	 * Sets up arguments' proxies and discards the stack programs (the sizes and depths
+	 * of the branches are maintained by the nodes themselves).
 	 * To be called each time the branches' bodies are modified.
 	 */
 	public final void consolidate(){
-		for(int i = 0; i < getBranchRoots().size(); i++){
-			branchSizes[i] = 0;
-			branchDepths[i] = 0;
-			
-			List<AbstractNode> nextLevel = Arrays.asList(getBranchRoots().get(i));
-			while(!nextLevel.isEmpty()){
-				List<AbstractNode> currentLevel = nextLevel;
-				
-				branchSizes[i] += currentLevel.size();
-				branchDepths[i]++;
-				
-				nextLevel = new ArrayList<AbstractNode>();
-				for(AbstractNode node : currentLevel){
-					if(!nextLevel.addAll(node.getArgs()) && node instanceof ArgumentProxy){
-						ArgumentProxy argProxy = (ArgumentProxy) node;
-						argProxy.setArgument(getArgs().get(argProxy.getId()));
-					}
-				}
+		discardStackPrograms();
+		
+		for(int i = 0; i < getBranchRoots().size(); i++)
+			connectArgumentProxies(getBranchRoots().get(i));
+	}
+	private final void connectArgumentProxies(AbstractNode node){
+		ArrayList<AbstractNode> nodeArgs = node.getArgs();
+		if(nodeArgs.isEmpty()){
+			if(node instanceof ArgumentProxy){
+				ArgumentProxy argProxy = (ArgumentProxy) node;
+				argProxy.setArgument(getArgs().get(argProxy.getId()));
 			}
+		} else {
+			for(int i = 0; i < nodeArgs.size(); i++)
+				connectArgumentProxies(nodeArgs.get(i));
 		}
 	}
 	
@@ -156,9 +177,9 @@ public abstract class AbstractModule extends AbstractProxyNodeSlot {
 	 * TODO : Description.
 	 * <p>
 	 * Note : This method does not call consolidate() itself, so this should be done externally
-	 * whenever the root replacement could lead to size or depth changes, as well as to make
-	 * sure the argument proxies are connected to the right arguments (for instance if the new 
-	 * branch body comes from another module).
+	 * to make sure the argument proxies are connected to the right arguments (for instance if 
+	 * the new branch body comes from another module). The size and depth of the branch are
+	 * those of the new root, so they don't need to be rebuilt.
 	 * 
 	 * @param oldBranchRoot
 	 * @param newBranchRoot
@@ -169,6 +190,7 @@ public abstract class AbstractModule extends AbstractProxyNodeSlot {
 				if(newBranchRoot.getReturnType().isTheSameAs(oldBranchRoot.getReturnType())){
 					newBranchRoot.setParent(null);
 					getBranchRoots().set(i, newBranchRoot);
+					discardStackPrograms();
 					return;
 				} else
 					throw new RuntimeException("Trying to swap incompatible branch roots!");
@@ -178,16 +200,68 @@ public abstract class AbstractModule extends AbstractProxyNodeSlot {
 	}
 	
 	
+	/**
+	 * Discards the stack programs of the branches, which will be rebuilt when requested.
+	 * To be called whenever the branches' bodies are modified without calling consolidate().
+	 */
+	public final void discardStackPrograms(){
+		stackPrograms = null;
+		stackProgramsBuilt = null;
+	}
+	
+	
+	/**
+	 * Binds the values staged in the given state, starting at the given slot, to the
+	 * given number of arguments of this module, starting at the given index.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @param firstArg
+	 * @param count
+	 */
+	public final void bindStagedArgs(EvaluationState state, int firstSlot, int firstArg, int count){
+		for(int i = 0; i < count; i++){
+			Argument arg = getArgs().get(firstArg + i);
+			AbstractType type = arg.getReturnType();
+			if(type instanceof RealValue)
+				arg.setRealValue(state.getDouble(firstSlot + i));
+			else if(type instanceof BooleanValue)
+				arg.setBooleanValue(state.getBoolean(firstSlot + i));
+			else
+				arg.setValue(state.getObject(firstSlot + i));
+		}
+	}
+	/**
+	 * Stores the current values of the given number of arguments of this module,
+	 * starting at the given index, in new slots of the staging area of the given state.
+	 * 
+	 * @param state
+	 * @param firstArg
+	 * @param count
+	 */
+	public final void stageArgsValues(EvaluationState state, int firstArg, int count){
+		for(int i = 0; i < count; i++){
+			AbstractType value = getArgs().get(firstArg + i).getValue();
+			if(value instanceof RealValue)
+				state.stageDouble(((RealValue) value).getValue());
+			else if(value instanceof BooleanValue)
+				state.stageDouble(((BooleanValue) value).getValue() ? 1.0 : 0.0);
+			else
+				state.stageObject(value);
+		}
+	}
+	
+	
 	public final int getSize(){
 		int size = 0;
-		for(int branchSize : branchSizes)
-			size += branchSize;
+		for(int i = 0; i < branchRoots.size(); i++)
+			size += branchRoots.get(i).getSubtreeSize();
 		return size;
 	}
 	public final int getDepth(){
 		int depth = 0;
-		for(int branchDepth : branchDepths)
-			depth = Math.max(depth, branchDepth);
+		for(int i = 0; i < branchRoots.size(); i++)
+			depth = Math.max(depth, branchRoots.get(i).getSubtreeDepth());
 		return depth;
 	}
 	
@@ -38,6 +38,7 @@
 package com.gpapi.individuals.cells.nucleuses.modules;
 
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 
 
@@ -72,6 +73,18 @@ public abstract class AbstractProxyNode extends AbstractNode {
 		return getSlot().getId();
 	}
 	
+	/**
+	 * Evaluates the arguments of this proxy with the primitive path and stores their
+	 * values in new slots of the staging area of the given state.
+	 * 
+	 * @param state
+	 * @throws Exception
+	 */
+	protected final void stageArgs(EvaluationState state) throws Exception {
+		for(int i = 0; i < getArgs().size(); i++)
+			state.stage(getArgs().get(i));
+	}
+	
 	@Override
 	public String getName(){
 		return getSlot().getName();
@@ -38,6 +38,8 @@
 package com.gpapi.individuals.cells.nucleuses.modules;
 
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 
 
 
@@ -64,6 +66,45 @@ public final class Argument extends AbstractProxyNodeSlot {
 			this.value = value;
 	}
 	
+	private transient RealValue realValue = null;
+	private transient BooleanValue booleanValue = null;
+	/**
+	 * Sets the value of a real argument without allocating a new RealValue, by
+	 * updating a value object owned by this argument.<p>
+	 * 
+	 * Note : Since this object is reused by the following calls, the value returned
+	 * by getValue() must be copied whenever it has to be kept.
+	 * 
+	 * @param value
+	 */
+	public final void setRealValue(double value) {
+		if(!(getReturnType() instanceof RealValue))
+			throw new RuntimeException("Trying to set a value of the wrong type!");
+		
+		if(realValue == null)
+			realValue = (RealValue) getReturnType().copy();
+		realValue.setValue(value);
+		this.value = realValue;
+	}
+	/**
+	 * Sets the value of a boolean argument without allocating a new BooleanValue, by
+	 * updating a value object owned by this argument.<p>
+	 * 
+	 * Note : Since this object is reused by the following calls, the value returned
+	 * by getValue() must be copied whenever it has to be kept.
+	 * 
+	 * @param value
+	 */
+	public final void setBooleanValue(boolean value) {
+		if(!(getReturnType() instanceof BooleanValue))
+			throw new RuntimeException("Trying to set a value of the wrong type!");
+		
+		if(booleanValue == null)
+			booleanValue = (BooleanValue) getReturnType().copy();
+		booleanValue.setValue(value);
+		this.value = booleanValue;
+	}
+	
 	
 	
 	public Argument(int id, String manualName, AbstractType type){
@@ -40,7 +40,10 @@ package com.gpapi.individuals.cells.nucleuses.modules;
 import java.util.Collections;
 import java.util.List;
 
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
 
@@ -79,4 +82,14 @@ public final class ArgumentProxy extends AbstractProxyNode {
 	public final Result execute() {
 		return new Result(getArgument().getValue().copy());
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) {
+		state.addCost(1);
+		return ((RealValue) getArgument().getValue()).getValue();
+	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) {
+		state.addCost(1);
+		return ((BooleanValue) getArgument().getValue()).getValue();
+	}
 }
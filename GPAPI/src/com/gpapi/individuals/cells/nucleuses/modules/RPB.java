@@ -41,7 +41,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import com.gpapi.individuals.cells.nucleuses.compilers.StackMachine;
+import com.gpapi.individuals.cells.nucleuses.compilers.StackProgram;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -76,17 +79,73 @@ public final class RPB extends AbstractModule {
 	
 	
 	public final Result execute(List<AbstractType> args) throws Exception {
+		bindArgs(args);
+		
+		StackProgram program = StackMachine.isEnabled() ? getStackProgram(0) : null;
+		if(program != null)
+			return StackMachine.execute(program, getArgs());
+		else
+			return getRoot().execute();
+	}
+	/**
+	 * Primitive counterpart of execute(), for RPBs returning a RealValue. Returns NaN,
+	 * and signals a failure through the given state, if the arguments are invalid.
+	 * 
+	 * @param args
+	 * @param state
+	 * 			The evaluation state of the current thread, to which the execution cost is added.
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final double evalDouble(List<AbstractType> args, EvaluationState state) throws Exception {
+		if(!bindArgs(args, state))
+			return Double.NaN;
+		else
+			return getRoot().evalDouble(state);
+	}
+	/**
+	 * Primitive counterpart of execute(), for RPBs returning a BooleanValue. Returns
+	 * false, and signals a failure through the given state, if the arguments are invalid.
+	 * 
+	 * @param args
+	 * @param state
+	 * 			The evaluation state of the current thread, to which the execution cost is added.
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final boolean evalBoolean(List<AbstractType> args, EvaluationState state) throws Exception {
+		if(!bindArgs(args, state))
+			return false;
+		else
+			return getRoot().evalBoolean(state);
+	}
+	private final void bindArgs(List<AbstractType> args){
 		if(args == null)
 			throw new NullPointerException("Argument args can't be null !");
 		else if(args.size() != getArgs().size())
 			throw new IllegalArgumentException("The given number of argument is different from the RPB's one !");
 		
-		int i = 0;
-		for(AbstractType arg : args){
-			getArgs().get(i).setValue(arg);
-			i++;
+		for(int i = 0; i < args.size(); i++)
+			getArgs().get(i).setValue(args.get(i));
+	}
+	private final boolean bindArgs(List<AbstractType> args, EvaluationState state){
+		if(args == null)
+			state.fail("Argument args can't be null !");
+		else if(args.size() != getArgs().size())
+			state.fail("The given number of argument is different from the RPB's one !");
+		else {
+			for(int i = 0; i < args.size(); i++){
+				if(!getArgs().get(i).getReturnType().isTheSameAs(args.get(i))){
+					state.fail("Trying to set a value of the wrong type!");
+					return false;
+				}
+			}
+			for(int i = 0; i < args.size(); i++)
+				getArgs().get(i).setValue(args.get(i));
+			return true;
 		}
-		
-		return getRoot().execute();
+		return false;
 	}
 }
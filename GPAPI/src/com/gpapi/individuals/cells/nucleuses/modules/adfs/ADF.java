@@ -41,8 +41,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import com.gpapi.individuals.cells.nucleuses.compilers.StackMachine;
+import com.gpapi.individuals.cells.nucleuses.compilers.StackProgram;
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -88,6 +91,42 @@ public final class ADF extends AbstractModule {
 			i++;
 		}
 		
-		return getRoot().execute();
+		StackProgram program = StackMachine.isEnabled() ? getStackProgram(0) : null;
+		if(program != null)
+			return StackMachine.execute(program, getArgs());
+		else
+			return getRoot().execute();
+	}
+	/**
+	 * Primitive counterpart of execute(), for ADFs returning a RealValue, whose
+	 * arguments values are staged in the given state from the given slot on.
+	 * The slots are released before the evaluation of the body.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final double evalDouble(EvaluationState state, int firstSlot) throws Exception {
+		bindStagedArgs(state, firstSlot, 0, getArgs().size());
+		state.setTop(firstSlot);
+		return getRoot().evalDouble(state);
+	}
+	/**
+	 * Primitive counterpart of execute(), for ADFs returning a BooleanValue, whose
+	 * arguments values are staged in the given state from the given slot on.
+	 * The slots are released before the evaluation of the body.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final boolean evalBoolean(EvaluationState state, int firstSlot) throws Exception {
+		bindStagedArgs(state, firstSlot, 0, getArgs().size());
+		state.setTop(firstSlot);
+		return getRoot().evalBoolean(state);
 	}
 }
@@ -42,6 +42,7 @@ import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -82,6 +83,9 @@ public final class ADFProxy extends AbstractProxyNode {
 	}
 	@Override
 	public final Result execute() throws Exception {
+		EvaluationState state = EvaluationState.current();
+		int initialCost = state.getCost();
+		
 		List<Result> argsResults = new ArrayList<Result>(getArgs().size());
 		for(AbstractNode arg : getArgs())
 			argsResults.add(arg.execute());
@@ -89,7 +93,20 @@ public final class ADFProxy extends AbstractProxyNode {
 		Result result = getAdf().execute(argsResults);
 		for(Result argResult : argsResults)
 			result.incrementCost(argResult.getCost());
+		state.addResultCost(initialCost, result.getCost());
 		
 		return result;
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) throws Exception {
+		int firstSlot = state.getTop();
+		stageArgs(state);
+		return getAdf().evalDouble(state, firstSlot);
+	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) throws Exception {
+		int firstSlot = state.getTop();
+		stageArgs(state);
+		return getAdf().evalBoolean(state, firstSlot);
+	}
 }
@@ -44,7 +44,9 @@ import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -195,7 +197,10 @@ public final class ADI extends AbstractModule {
 				i++;
 			}
 			
-			getArgs().get(getArgs().size()-1).setValue(RealValue.create(getCollection().size()));
+			getArgs().get(getArgs().size()-1).setRealValue(getCollection().size());
+			
+			EvaluationState state = EvaluationState.current();
+			int initialCost = state.getCost();
 			
 			int index = 0;
 			for(List<AbstractType> values : getCollection()){
@@ -210,12 +215,13 @@ public final class ADI extends AbstractModule {
 					i++;
 				}
 				
-				getArgs().get(getArgs().size()-2).setValue(RealValue.create(index));
+				getArgs().get(getArgs().size()-2).setRealValue(index);
 				
 				if(result != null)
 					result = getRoot().execute().incrementCost(result.getCost());
 				else
 					result = getRoot().execute();
+				state.addResultCost(initialCost, result.getCost());
 				
 				index++;
 			}
@@ -229,6 +235,94 @@ public final class ADI extends AbstractModule {
 	}
 	
 	
+	/**
+	 * Primitive counterpart of execute(), for ADIs returning a RealValue, whose
+	 * external arguments values are staged in the given state from the given slot
+	 * on. The slots are released before the evaluation of the body. Returns NaN,
+	 * and signals a failure through the given state, if the collection is invalid.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final double evalDouble(EvaluationState state, int firstSlot) throws Exception {
+		return evalIteration(state, firstSlot, false);
+	}
+	/**
+	 * Primitive counterpart of execute(), for ADIs returning a BooleanValue, whose
+	 * external arguments values are staged in the given state from the given slot
+	 * on. The slots are released before the evaluation of the body. Returns false,
+	 * and signals a failure through the given state, if the collection is invalid.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final boolean evalBoolean(EvaluationState state, int firstSlot) throws Exception {
+		return evalIteration(state, firstSlot, true) != 0.0;
+	}
+	private final double evalIteration(EvaluationState state, int firstSlot, boolean booleanResult) throws Exception {
+		double result = 0.0;
+		
+		if(currentCalls < getMaxCalls() && !getCollection().isEmpty()){
+			int nExternalArgs = getExternalArgsTypes().size();
+			
+			bindStagedArgs(state, firstSlot, 0, nExternalArgs);
+			state.setTop(firstSlot);
+			
+			getArgs().get(getArgs().size()-1).setRealValue(getCollection().size());
+			
+			int index = 0;
+			for(List<AbstractType> values : getCollection()){
+				if(values == null || values.size() != getFieldsTypes().size()){
+					state.fail(values == null ? 
+							"The current fields list is null !" : 
+							"The current fields list is not the same size as the ADI's one !");
+					return booleanResult ? 0.0 : Double.NaN;
+				}
+				
+				for(int i = 0; i < values.size(); i++){
+					if(!getArgs().get(i + nExternalArgs).getReturnType().isTheSameAs(values.get(i))){
+						state.fail("Trying to set a value of the wrong type!");
+						return booleanResult ? 0.0 : Double.NaN;
+					}
+				}
+				for(int i = 0; i < values.size(); i++)
+					getArgs().get(i + nExternalArgs).setValue(values.get(i));
+				
+				getArgs().get(getArgs().size()-2).setRealValue(index);
+				
+				if(booleanResult)
+					result = getRoot().evalBoolean(state) ? 1.0 : 0.0;
+				else
+					result = getRoot().evalDouble(state);
+				
+				index++;
+			}
+			currentCalls++;
+			
+			if(booleanResult)
+				((BooleanValue) lastValue).setValue(result != 0.0);
+			else
+				((RealValue) lastValue).setValue(result);
+		} else {
+			state.setTop(firstSlot);
+			state.addCost(1);
+			
+			if(booleanResult)
+				result = ((BooleanValue) lastValue).getValue() ? 1.0 : 0.0;
+			else
+				result = ((RealValue) lastValue).getValue();
+		}
+		
+		return result;
+	}
+	
+	
 	public static final List<AbstractType> argsTypesFor(List<AbstractType> externalArgsTypes, List<AbstractType> fieldsTypes){
 		ArrayList<AbstractType> allTypes = new ArrayList<AbstractType>(externalArgsTypes.size() + fieldsTypes.size() + 2);
 		allTypes.addAll(externalArgsTypes);
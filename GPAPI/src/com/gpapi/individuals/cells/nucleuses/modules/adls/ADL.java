@@ -43,7 +43,9 @@ import java.util.Collections;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.modules.Argument;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
@@ -185,19 +187,23 @@ public final class ADL extends AbstractModule {
 			i++;
 		}
 		
+		EvaluationState state = EvaluationState.current();
+		int initialCost = state.getCost();
+		
 		int index = 0;
-		getArgs().get(getArgs().size()-1).setValue(RealValue.create(index));
+		getArgs().get(getArgs().size()-1).setRealValue(index);
 		Result result = getInitializationRoot().execute();
 		
 		Result conditionResult;
 		do {
 			result = getBodyRoot().execute().incrementCost(result.getCost());
+			state.addResultCost(initialCost, result.getCost());
 			
 			index++;
 			if(currentCalls >= getMaxCalls() || index >= getMaxIterations())
 				break;
 			else {
-				getArgs().get(getArgs().size()-1).setValue(RealValue.create(index));
+				getArgs().get(getArgs().size()-1).setRealValue(index);
 				conditionResult = getConditionRoot().execute();
 				result.incrementCost(conditionResult.getCost());
 			}
@@ -210,6 +216,66 @@ public final class ADL extends AbstractModule {
 	}
 	
 	
+	/**
+	 * Primitive counterpart of execute(), for ADLs whose body returns a RealValue,
+	 * whose external arguments values are staged in the given state from the given
+	 * slot on. The slots are released before the evaluation of the branches.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final double evalDouble(EvaluationState state, int firstSlot) throws Exception {
+		return evalLoop(state, firstSlot, false);
+	}
+	/**
+	 * Primitive counterpart of execute(), for ADLs whose body returns a BooleanValue,
+	 * whose external arguments values are staged in the given state from the given
+	 * slot on. The slots are released before the evaluation of the branches.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final boolean evalBoolean(EvaluationState state, int firstSlot) throws Exception {
+		return evalLoop(state, firstSlot, true) != 0.0;
+	}
+	private final double evalLoop(EvaluationState state, int firstSlot, boolean booleanBody) throws Exception {
+		bindStagedArgs(state, firstSlot, 0, getExternalArgsTypes().size());
+		state.setTop(firstSlot);
+		
+		Argument indexArg = getArgs().get(getArgs().size()-1);
+		
+		int index = 0;
+		indexArg.setRealValue(index);
+		state.stage(getInitializationRoot());
+		state.setTop(firstSlot);
+		
+		double result;
+		do {
+			if(booleanBody)
+				result = getBodyRoot().evalBoolean(state) ? 1.0 : 0.0;
+			else
+				result = getBodyRoot().evalDouble(state);
+			
+			index++;
+			if(currentCalls >= getMaxCalls() || index >= getMaxIterations() || state.isFailed())
+				break;
+			else
+				indexArg.setRealValue(index);
+		} while(getConditionRoot().evalDouble(state) > 0.0);
+		
+		if(currentCalls < getMaxCalls())
+			currentCalls++;
+		
+		return result;
+	}
+	
+	
 	public static final List<AbstractType> argsTypesFor(List<AbstractType> argsTypes){
 		ArrayList<AbstractType> allTypes = new ArrayList<AbstractType>(argsTypes.size() + 1);
 		allTypes.addAll(argsTypes);
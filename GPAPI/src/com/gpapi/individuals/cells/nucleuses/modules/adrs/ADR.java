@@ -44,6 +44,7 @@ import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
@@ -195,4 +196,62 @@ public final class ADR extends AbstractModule {
 		
 		return result;
 	}
+	/**
+	 * Primitive counterpart of execute(), for ADRs returning a RealValue, whose
+	 * arguments values are staged in the given state from the given slot on.
+	 * The slots are released once the previous arguments values are restored.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final double evalDouble(EvaluationState state, int firstSlot) throws Exception {
+		return evalRecursion(state, firstSlot, false);
+	}
+	/**
+	 * Primitive counterpart of execute(), for ADRs returning a BooleanValue, whose
+	 * arguments values are staged in the given state from the given slot on.
+	 * The slots are released once the previous arguments values are restored.
+	 * 
+	 * @param state
+	 * @param firstSlot
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws Exception
+	 */
+	public final boolean evalBoolean(EvaluationState state, int firstSlot) throws Exception {
+		return evalRecursion(state, firstSlot, true) != 0.0;
+	}
+	private final double evalRecursion(EvaluationState state, int firstSlot, boolean booleanResult) throws Exception {
+		int nArgs = getArgs().size();
+		
+		stageArgsValues(state, 0, nArgs);
+		bindStagedArgs(state, firstSlot, 0, nArgs);
+		
+		double result;
+		if(currentCalls < maxCalls){
+			currentCalls++;
+			
+			currentRecursionDepth++;
+			if(currentRecursionDepth <= maxRecursionDepth && getConditionRoot().evalDouble(state) > 0.0)
+				result = evalBranch(getBodyRoot(), state, booleanResult);
+			else
+				result = evalBranch(getGroundRoot(), state, booleanResult);
+			currentRecursionDepth--;
+		} else 
+			result = evalBranch(getGroundRoot(), state, booleanResult);
+		
+		bindStagedArgs(state, firstSlot + nArgs, 0, nArgs);
+		state.setTop(firstSlot);
+		
+		return result;
+	}
+	private static final double evalBranch(AbstractNode root, EvaluationState state, boolean booleanResult) throws Exception {
+		if(booleanResult)
+			return root.evalBoolean(state) ? 1.0 : 0.0;
+		else
+			return root.evalDouble(state);
+	}
 }
@@ -43,7 +43,9 @@ import java.util.LinkedList;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractModule;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -157,69 +159,192 @@ public final class ADS extends AbstractModule {
 		if(argsResults == null)
 			throw new NullPointerException("Argument argsResult can't be null !");
 		
+		double address = 0.0;
+		if(argsResults.size() == 1){
+			if(!getAdressArgsType().getClass().isInstance(argsResults.get(0).getValue()))
+				throw new IllegalArgumentException("Adress argument is of the wrong type !");
+			else
+				address = getAdressArgsType().getClass().cast(argsResults.get(0).getValue()).getValue();
+		}
+		
+		return new Result(take(argsResults.size(), address, null).copy());
+	}
+	public final Result write(List<Result> argsResults){
+		if(argsResults == null)
+			throw new NullPointerException("Argument argsResult can't be null !");
+		
+		checkWriteArgsCount(argsResults.size(), null);
+		if(!getReturnType().getClass().isInstance(argsResults.get(0).getValue()))
+			throw new IllegalArgumentException("The value to write doesn't match the return type !");
+		
+		double address = 0.0;
+		if(argsResults.size() == 2){
+			if(!getAdressArgsType().getClass().isInstance(argsResults.get(1).getValue()))
+				throw new IllegalArgumentException("Adress argument is of the wrong type !");
+			else
+				address = getAdressArgsType().getClass().cast(argsResults.get(1).getValue()).getValue();
+		}
+		
+		store(argsResults.get(0).getValue().copy(), address);
+		
+		return new Result(argsResults.get(0).getValue());
+	}
+	
+	/**
+	 * Primitive counterpart of read(), for ADSs storing RealValues. Returns NaN, and
+	 * signals a failure through the given state, if the number of arguments doesn't
+	 * correspond to the storage type or if the ADS doesn't store RealValues.
+	 * 
+	 * @param state
+	 * @param argsCount
+	 * 			The number of arguments of the calling proxy.
+	 * @param address
+	 * 			The value of the address argument, if any.
+	 * @return
+	 * 			The read value.
+	 */
+	public final double readDouble(EvaluationState state, int argsCount, double address){
+		AbstractType value = take(argsCount, address, state);
+		if(value == null)
+			return Double.NaN;
+		else if(!(value instanceof RealValue)){
+			state.fail("The read value doesn't match the return type !");
+			return Double.NaN;
+		} else
+			return ((RealValue) value).getValue();
+	}
+	/**
+	 * Primitive counterpart of read(), for ADSs storing BooleanValues. Returns false, 
+	 * and signals a failure through the given state, in the same cases as readDouble().
+	 * 
+	 * @param state
+	 * @param argsCount
+	 * 			The number of arguments of the calling proxy.
+	 * @param address
+	 * 			The value of the address argument, if any.
+	 * @return
+	 * 			The read value.
+	 */
+	public final boolean readBoolean(EvaluationState state, int argsCount, double address){
+		AbstractType value = take(argsCount, address, state);
+		if(value == null)
+			return false;
+		else if(!(value instanceof BooleanValue)){
+			state.fail("The read value doesn't match the return type !");
+			return false;
+		} else
+			return ((BooleanValue) value).getValue();
+	}
+	/**
+	 * Primitive counterpart of write(), for ADSs storing RealValues. Nothing is written,
+	 * and a failure is signaled through the given state, if the number of arguments
+	 * doesn't correspond to the storage type or if the ADS doesn't store RealValues.
+	 * 
+	 * @param state
+	 * @param value
+	 * @param argsCount
+	 * 			The number of arguments of the calling proxy.
+	 * @param address
+	 * 			The value of the address argument, if any.
+	 */
+	public final void writeDouble(EvaluationState state, double value, int argsCount, double address){
+		if(!checkWriteArgsCount(argsCount, state))
+			return;
+		else if(!(getReturnType() instanceof RealValue)){
+			state.fail("The value to write doesn't match the return type !");
+			return;
+		}
+		
+		RealValue copy = (RealValue) getReturnType().copy();
+		copy.setValue(value);
+		store(copy, address);
+	}
+	/**
+	 * Primitive counterpart of write(), for ADSs storing BooleanValues. Nothing is 
+	 * written, and a failure is signaled through the given state, in the same cases
+	 * as writeDouble().
+	 * 
+	 * @param state
+	 * @param value
+	 * @param argsCount
+	 * 			The number of arguments of the calling proxy.
+	 * @param address
+	 * 			The value of the address argument, if any.
+	 */
+	public final void writeBoolean(EvaluationState state, boolean value, int argsCount, double address){
+		if(!checkWriteArgsCount(argsCount, state))
+			return;
+		else if(!(getReturnType() instanceof BooleanValue)){
+			state.fail("The value to write doesn't match the return type !");
+			return;
+		}
+		
+		BooleanValue copy = (BooleanValue) getReturnType().copy();
+		copy.setValue(value);
+		store(copy, address);
+	}
+	
+	/**
+	 * Returns the stored value to read (which is removed from the storage for stacks
+	 * and queues), without copying it. If the number of arguments doesn't correspond
+	 * to the storage type, throws an IllegalArgumentException if the given state is 
+	 * null, or else signals a failure through it and returns null.
+	 */
+	private final AbstractType take(int argsCount, double address, EvaluationState state){
 		if(getStorageType().equals(Type.Variable) && variable != null){
-			if(!argsResults.isEmpty())
-				throw new IllegalArgumentException("Given the ADS type, argument argsResult must be empty !");
+			if(argsCount != 0)
+				return failWith("Given the ADS type, argument argsResult must be empty !", state);
 			else
-				return new Result(variable.copy());
+				return variable;
 		} else if(getStorageType().equals(Type.Stack) && !stackOrQueue.isEmpty()) {
-			if(!argsResults.isEmpty())
-				throw new IllegalArgumentException("Given the ADS type, argument argsResult must be empty !");
+			if(argsCount != 0)
+				return failWith("Given the ADS type, argument argsResult must be empty !", state);
 			else
-				return new Result(stackOrQueue.removeFirst());
+				return stackOrQueue.removeFirst();
 		} else if(getStorageType().equals(Type.Queue) && !stackOrQueue.isEmpty()) {
-			if(!argsResults.isEmpty())
-				throw new IllegalArgumentException("Given the ADS type, argument argsResult must be empty !");
+			if(argsCount != 0)
+				return failWith("Given the ADS type, argument argsResult must be empty !", state);
 			else
-				return new Result(stackOrQueue.removeLast());
+				return stackOrQueue.removeLast();
 		} else if(!arrayList.isEmpty()){
-			if(argsResults.size() != 1)
-				throw new IllegalArgumentException("The given number of argument doesn't correspond to the ADS type !");
-			else if(!getAdressArgsType().getClass().isInstance(argsResults.get(0).getValue()))
-				throw new IllegalArgumentException("Adress argument is of the wrong type !");
-			
-			RealValue rawIndex = getAdressArgsType().getClass().cast(argsResults.get(0).getValue());
-			int index = correctRawIndex(rawIndex.getValue(), false);
-			
-			return new Result(arrayList.get(index).copy());
+			if(argsCount != 1)
+				return failWith("The given number of argument doesn't correspond to the ADS type !", state);
+			else
+				return arrayList.get(correctRawIndex(address, false));
 		} else
-			return new Result(returnType.copy());
+			return returnType;
 	}
-	public final Result write(List<Result> argsResults){
-		if(argsResults == null)
-			throw new NullPointerException("Argument argsResult can't be null !");
+	private final boolean checkWriteArgsCount(int argsCount, EvaluationState state){
+		if(getStorageType().equals(Type.ArrayList) ? argsCount != 2 : argsCount != 1){
+			failWith("The given number of argument doesn't correspond to the ADS type !", state);
+			return false;
+		} else
+			return true;
+	}
+	private static final AbstractType failWith(String failure, EvaluationState state){
+		if(state == null)
+			throw new IllegalArgumentException(failure);
 		
-		if(getStorageType().equals(Type.Variable)){
-			if(argsResults.size() != 1)
-				throw new IllegalArgumentException("The given number of argument doesn't correspond to the ADS type !");
-			else if(!getReturnType().getClass().isInstance(argsResults.get(0).getValue()))
-				throw new IllegalArgumentException("The value to write doesn't match the return type !");
-			else
-				variable = argsResults.get(0).getValue().copy();
-		} else if(getStorageType().equals(Type.Stack) || getStorageType().equals(Type.Queue)){
-			if(argsResults.size() != 1)
-				throw new IllegalArgumentException("The given number of argument doesn't correspond to the ADS type !");
-			else if(!getReturnType().getClass().isInstance(argsResults.get(0).getValue()))
-				throw new IllegalArgumentException("The value to write doesn't match the return type !");
-			else if(stackOrQueue.size() < getMaxSize())
-				stackOrQueue.addFirst(argsResults.get(0).getValue().copy());
+		state.fail(failure);
+		return null;
+	}
+	/**
+	 * Stores the given value, which must be a copy not referenced anywhere else.
+	 */
+	private final void store(AbstractType value, double address){
+		if(getStorageType().equals(Type.Variable))
+			variable = value;
+		else if(getStorageType().equals(Type.Stack) || getStorageType().equals(Type.Queue)){
+			if(stackOrQueue.size() < getMaxSize())
+				stackOrQueue.addFirst(value);
 		} else {
-			if(argsResults.size() != 2)
-				throw new IllegalArgumentException("The given number of argument doesn't correspond to the ADS type !");
-			else if(!getReturnType().getClass().isInstance(argsResults.get(0).getValue()))
-				throw new IllegalArgumentException("The value to write doesn't match the return type !");
-			else if(!getAdressArgsType().getClass().isInstance(argsResults.get(1).getValue()))
-				throw new IllegalArgumentException("Adress argument is of the wrong type !");
-			
-			RealValue rawIndex = getAdressArgsType().getClass().cast(argsResults.get(1).getValue());
-			int index = correctRawIndex(rawIndex.getValue(), true);
+			int index = correctRawIndex(address, true);
 			
 			if(index < arrayList.size())
-				arrayList.set(index, argsResults.get(0).getValue().copy());
+				arrayList.set(index, value);
 			else if(arrayList.size() < getMaxSize())
-				arrayList.add(argsResults.get(0).getValue().copy());
+				arrayList.add(value);
 		}
-		return new Result(argsResults.get(0).getValue());
 	}
 	private final int correctRawIndex(double rawIndex, boolean write){
 		rawIndex = Math.abs(rawIndex);
@@ -42,6 +42,7 @@ import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.modules.AbstractProxyNode;
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
@@ -113,4 +114,34 @@ public final class ADSProxy extends AbstractProxyNode {
 		
 		return result;
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) throws Exception {
+		if(isWrite()){
+			double value = getArgs().get(0).evalDouble(state);
+			double address = getArgs().size() > 1 ? getArgs().get(1).evalDouble(state) : 0.0;
+			getAds().writeDouble(state, value, getArgs().size(), address);
+			state.addCost(1);
+			return value;
+		} else {
+			double address = getArgs().size() > 0 ? getArgs().get(0).evalDouble(state) : 0.0;
+			double value = getAds().readDouble(state, getArgs().size(), address);
+			state.addCost(1);
+			return value;
+		}
+	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) throws Exception {
+		if(isWrite()){
+			boolean value = getArgs().get(0).evalBoolean(state);
+			double address = getArgs().size() > 1 ? getArgs().get(1).evalDouble(state) : 0.0;
+			getAds().writeBoolean(state, value, getArgs().size(), address);
+			state.addCost(1);
+			return value;
+		} else {
+			double address = getArgs().size() > 0 ? getArgs().get(0).evalDouble(state) : 0.0;
+			boolean value = getAds().readBoolean(state, getArgs().size(), address);
+			state.addCost(1);
+			return value;
+		}
+	}
 }
@@ -44,6 +44,8 @@ import java.util.List;
 import com.gpapi.individuals.cells.nucleuses.GenotypeView;
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.GeneticOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
 import edu.uci.ics.jung.graph.Forest;
@@ -113,6 +115,7 @@ public abstract class AbstractNode implements Serializable {
 			node.setParent(this);
 		
 		this.args = new ArrayList<AbstractNode>(args);
+		updateSubtreeMetadata();
 	}
 	/**
 	 * TODO : Description.
@@ -126,6 +129,7 @@ public abstract class AbstractNode implements Serializable {
 				if(newArg.getReturnType().isTheSameAs(getArgsTypes().get(i))){
 					newArg.setParent(this);
 					args.set(i, newArg);
+					updateSubtreeMetadata();
 					return;
 				} else
 					throw new RuntimeException("Trying to swap incompatible nodes !");
@@ -133,6 +137,67 @@ public abstract class AbstractNode implements Serializable {
 		}
 		throw new RuntimeException("OldArg is not a child of this node!");
 	}
+	/**
+	 * Removes the arg at the given index, which must be done consistently with the
+	 * arguments types of this node (e.g. when an argument of a module is deleted).
+	 * 
+	 * @param index
+	 */
+	public final void removeArg(int index){
+		args.remove(index);
+		updateSubtreeMetadata();
+	}
+	
+	
+	
+	private int subtreeSize = 1;
+	/**
+	 * Returns the number of nodes of the subtree this node is the root of, which
+	 * is cached and kept up to date by setArgs(), replaceArg() and removeArg().
+	 * 
+	 * @return
+	 * 			The size of the subtree.
+	 */
+	public final int getSubtreeSize(){
+		return subtreeSize;
+	}
+	
+	private int subtreeDepth = 1;
+	/**
+	 * Returns the depth of the subtree this node is the root of (1 for a terminal),
+	 * which is cached and kept up to date by setArgs(), replaceArg() and removeArg().
+	 * 
+	 * @return
+	 * 			The depth of the subtree.
+	 */
+	public final int getSubtreeDepth(){
+		return subtreeDepth;
+	}
+	
+	/**
+	 * Recomputes the size and the depth of the subtree of this node from the ones of 
+	 * its args, and then the ones of its ancestors, until they don't change anymore.
+	 */
+	private final void updateSubtreeMetadata(){
+		AbstractNode node = this;
+		while(node != null){
+			int size = 1;
+			int depth = 0;
+			for(int i = 0; i < node.args.size(); i++){
+				AbstractNode arg = node.args.get(i);
+				size += arg.subtreeSize;
+				depth = Math.max(depth, arg.subtreeDepth);
+			}
+			depth++;
+			
+			if(node != this && size == node.subtreeSize && depth == node.subtreeDepth)
+				break;
+			
+			node.subtreeSize = size;
+			node.subtreeDepth = depth;
+			node = node.parent;
+		}
+	}
 	
 	
 	
@@ -256,6 +321,48 @@ public abstract class AbstractNode implements Serializable {
 	 * 			Exception in case of any issue during the computation.
 	 */
 	public abstract Result execute() throws Exception;
+	/**
+	 * Primitive counterpart of execute() for nodes returning a RealValue, which
+	 * returns the value directly and adds the execution cost to the given state
+	 * instead of allocating Result and RealValue objects.<p>
+	 * 
+	 * The default implementation relies on execute(), so subclasses should override 
+	 * it in order to actually avoid any allocation.
+	 * 
+	 * @param state
+	 * 			The evaluation state of the current thread.
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws
+	 * 			Exception in case of any issue during the computation.
+	 */
+	public double evalDouble(EvaluationState state) throws Exception {
+		int initialCost = state.getCost();
+		Result result = execute();
+		state.addResultCost(initialCost, result.getCost());
+		return ((RealValue) result.getValue()).getValue();
+	}
+	/**
+	 * Primitive counterpart of execute() for nodes returning a BooleanValue, which
+	 * returns the value directly and adds the execution cost to the given state
+	 * instead of allocating Result and BooleanValue objects.<p>
+	 * 
+	 * The default implementation relies on execute(), so subclasses should override 
+	 * it in order to actually avoid any allocation.
+	 * 
+	 * @param state
+	 * 			The evaluation state of the current thread.
+	 * @return
+	 * 			The same value as the one returned by execute().
+	 * @throws
+	 * 			Exception in case of any issue during the computation.
+	 */
+	public boolean evalBoolean(EvaluationState state) throws Exception {
+		int initialCost = state.getCost();
+		Result result = execute();
+		state.addResultCost(initialCost, result.getCost());
+		return ((BooleanValue) result.getValue()).getValue();
+	}
 	
 	
 	
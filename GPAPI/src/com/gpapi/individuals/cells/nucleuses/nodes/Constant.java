@@ -43,6 +43,8 @@ import java.util.concurrent.ThreadLocalRandom;
 
 import com.gpapi.individuals.cells.nucleuses.geneticoperators.GeneticOperatorInterface;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
 
 
@@ -114,4 +116,14 @@ public final class Constant extends AbstractNode {
 	public final Result execute() {
 		return new Result(getReturnType().copy());
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) {
+		state.addCost(1);
+		return ((RealValue) getReturnType()).getValue();
+	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) {
+		state.addCost(1);
+		return ((BooleanValue) getReturnType()).getValue();
+	}
 }
@@ -0,0 +1,302 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * EvaluationState.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.nodes;
+
+import java.util.Arrays;
+
+import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
+import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
+import com.gpapi.individuals.cells.nucleuses.types.RealValue;
+import com.gpapi.individuals.cells.nucleuses.types.Result;
+
+
+
+/**
+ * 
+ * Per-thread state of the primitive evaluation path, i.e. of the evalDouble() and
+ * evalBoolean() methods of {@link AbstractNode}.<p>
+ * 
+ * It holds the execution cost counter, which replaces the costs carried by the
+ * Result objects of the execute() methods, as well as a staging area in which the
+ * proxies store the values of their arguments until all of them are evaluated and
+ * can be bound to the arguments of the called module.<p>
+ * 
+ * The counter is also used to enforce a maximum execution cost (see pushCostBudget()) :
+ * the primitive nodes add their cost to it as they are evaluated, and the modules add
+ * the costs of the Result objects computed by their branches as soon as they are 
+ * known (e.g. at each iteration of an ADL), and the stack machine and the compiled
+ * programs add theirs while they run, so that a too expensive evaluation is aborted 
+ * before its end whatever the path it is executed with.<p>
+ * 
+ * Finally, the primitive path signals the failures of the evaluations through the
+ * state (see fail()) instead of throwing exceptions.<p>
+ * 
+ * Note : The cost counter is never reset by the nodes, so the cost of an evaluation
+ * is the difference between the values of the counter after and before it.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class EvaluationState {
+	
+	private static final ThreadLocal<EvaluationState> states = new ThreadLocal<EvaluationState>(){
+		@Override
+		protected final EvaluationState initialValue() {
+			return new EvaluationState();
+		}
+	};
+	/**
+	 * Returns the state of the current thread.
+	 * 
+	 * @return
+	 * 			The state of the current thread.
+	 */
+	public static final EvaluationState current() {
+		return states.get();
+	}
+	
+	private int cost = 0;
+	public final int getCost() {
+		return cost;
+	}
+	public final void setCost(int cost) {
+		this.cost = cost;
+	}
+	/**
+	 * Adds the given cost to the counter.
+	 * 
+	 * @param cost
+	 * @throws ExecutionCostExceededException
+	 * 			If the current cost budget is exceeded.
+	 */
+	public final void addCost(int cost) {
+		this.cost += cost;
+		if(this.cost - costOrigins[budgets] > maxCosts[budgets])
+			throw ExecutionCostExceededException.INSTANCE;
+	}
+	/**
+	 * Adds to the counter the part of the cost of a Result which was not already added
+	 * to it since its value was the given one, i.e. the costs already added by the 
+	 * modules called during the computation of the Result are not added again.
+	 * 
+	 * @param initialCost
+	 * 			The value of the counter before the computation of the Result.
+	 * @param resultCost
+	 * 			The cost of the Result.
+	 * @throws ExecutionCostExceededException
+	 * 			If the current cost budget is exceeded.
+	 */
+	public final void addResultCost(int initialCost, int resultCost) {
+		addCost(resultCost - (this.cost - initialCost));
+	}
+	
+	private int[] costOrigins = new int[8];
+	private int[] maxCosts = new int[8];
+	
+	private int budgets = 0;
+	/**
+	 * Starts a new cost budget, i.e. makes addCost() throw an {@link ExecutionCostExceededException}
+	 * as soon as the counter exceeds its current value by more than the given cost, or than 
+	 * the remainder of the enclosing budget, if it is lower. Each call must be followed by
+	 * a call to popCostBudget(), typically in a finally block.
+	 * 
+	 * @param maxCost
+	 * 			The maximum cost, Integer.MAX_VALUE meaning no other limit than the
+	 * 			enclosing budget's one.
+	 */
+	public final void pushCostBudget(int maxCost) {
+		int remainder = maxCosts[budgets];
+		if(remainder != Integer.MAX_VALUE)
+			remainder = Math.max(0, remainder - (cost - costOrigins[budgets]));
+		
+		budgets++;
+		if(budgets == maxCosts.length){
+			costOrigins = Arrays.copyOf(costOrigins, 2 * costOrigins.length);
+			maxCosts = Arrays.copyOf(maxCosts, 2 * maxCosts.length);
+		}
+		costOrigins[budgets] = cost;
+		maxCosts[budgets] = Math.min(maxCost, remainder);
+	}
+	/**
+	 * Ends the cost budget started by the last call to pushCostBudget().
+	 */
+	public final void popCostBudget() {
+		if(budgets == 0)
+			throw new IllegalStateException("There is no cost budget to end!");
+		else
+			budgets--;
+	}
+	/**
+	 * Returns whether the counter exceeds the current cost budget.
+	 * 
+	 * @return
+	 * 			True if the current cost budget is exceeded.
+	 */
+	public final boolean isCostBudgetExceeded() {
+		return cost - costOrigins[budgets] > maxCosts[budgets];
+	}
+	
+	private String failure = null;
+	/**
+	 * Returns the message of the first failure signalled since the last call to
+	 * clearFailure(), or null if there is none.
+	 * 
+	 * @return
+	 * 			The message of the failure.
+	 */
+	public final String getFailure() {
+		return failure;
+	}
+	public final boolean isFailed() {
+		return failure != null;
+	}
+	/**
+	 * Signals that the current evaluation failed, which is the exception-free counterpart
+	 * of throwing an exception : the failing node or module returns a NaN (or false),
+	 * the evaluation goes on, and its result is discarded by the caller of the evaluation
+	 * once it checks isFailed(). Only the first failure is kept.
+	 * 
+	 * @param failure
+	 * 			The message describing the failure.
+	 */
+	public final void fail(String failure) {
+		if(this.failure == null)
+			this.failure = failure;
+	}
+	/**
+	 * Clears the current failure, if any.
+	 * 
+	 * @return
+	 * 			The message of the cleared failure, or null if there was none.
+	 */
+	public final String clearFailure() {
+		String failure = this.failure;
+		this.failure = null;
+		return failure;
+	}
+	
+	private double[] doubles = new double[64];
+	private AbstractType[] objects = new AbstractType[64];
+	
+	private int top = 0;
+	/**
+	 * Returns the index of the first free slot of the staging area.
+	 * 
+	 * @return
+	 * 			The index of the first free slot of the staging area.
+	 */
+	public final int getTop() {
+		return top;
+	}
+	/**
+	 * Releases the slots of the staging area above the given index, which must have
+	 * been returned by getTop() before these slots were allocated.
+	 * 
+	 * @param top
+	 */
+	public final void setTop(int top) {
+		for(int i = top; i < this.top; i++)
+			objects[i] = null;
+		this.top = top;
+	}
+	
+	
+	
+	private EvaluationState(){
+		maxCosts[0] = Integer.MAX_VALUE;
+	}
+	
+	
+	/**
+	 * Evaluates the given node with the primitive path whenever its return type allows
+	 * it, and stores its value in a new slot of the staging area.
+	 * 
+	 * @param node
+	 * @throws Exception
+	 */
+	public final void stage(AbstractNode node) throws Exception {
+		AbstractType type = node.getReturnType();
+		if(type instanceof RealValue)
+			stageDouble(node.evalDouble(this));
+		else if(type instanceof BooleanValue)
+			stageDouble(node.evalBoolean(this) ? 1.0 : 0.0);
+		else {
+			int initialCost = cost;
+			Result result = node.execute();
+			addResultCost(initialCost, result.getCost());
+			stageObject(result.getValue());
+		}
+	}
+	/**
+	 * Stores the given value in a new slot of the staging area.
+	 * 
+	 * @param value
+	 */
+	public final void stageDouble(double value){
+		ensureCapacity();
+		doubles[top] = value;
+		top++;
+	}
+	/**
+	 * Stores the given value in a new slot of the staging area.
+	 * 
+	 * @param value
+	 */
+	public final void stageObject(AbstractType value){
+		ensureCapacity();
+		objects[top] = value;
+		top++;
+	}
+	
+	public final double getDouble(int slot){
+		return doubles[slot];
+	}
+	public final boolean getBoolean(int slot){
+		return doubles[slot] != 0.0;
+	}
+	public final AbstractType getObject(int slot){
+		return objects[slot];
+	}
+	
+	private final void ensureCapacity(){
+		if(top == doubles.length){
+			doubles = Arrays.copyOf(doubles, 2 * doubles.length);
+			objects = Arrays.copyOf(objects, 2 * objects.length);
+		}
+	}
+}
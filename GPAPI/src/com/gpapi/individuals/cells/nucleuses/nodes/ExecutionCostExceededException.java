@@ -0,0 +1,65 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * ExecutionCostExceededException.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.nodes;
+
+
+
+/**
+ * 
+ * Thrown when an evaluation exceeds the cost budget of the current thread (see 
+ * {@link EvaluationState#pushCostBudget(int)}).<p>
+ * 
+ * A single instance, without any stack trace, is thrown, so that aborting an
+ * evaluation costs no more than returning from it.
+ * 
+ * @author jeremy
+ * 
+ */
+public final class ExecutionCostExceededException extends RuntimeException {
+	
+	private static final long serialVersionUID = 4189613820572943165L;
+	
+	
+	public static final ExecutionCostExceededException INSTANCE = new ExecutionCostExceededException();
+	
+	
+	
+	private ExecutionCostExceededException(){
+		super("The maximum execution cost was exceeded!", null, false, false);
+	}
+}
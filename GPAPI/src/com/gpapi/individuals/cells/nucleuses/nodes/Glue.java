@@ -84,4 +84,19 @@ public final class Glue extends AbstractNode {
 		Result firstResult = getArgs().get(0).execute();
 		return getArgs().get(1).execute().incrementCost(firstResult.getCost());
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) throws Exception {
+		discard(getArgs().get(0), state);
+		return getArgs().get(1).evalDouble(state);
+	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) throws Exception {
+		discard(getArgs().get(0), state);
+		return getArgs().get(1).evalBoolean(state);
+	}
+	private static final void discard(AbstractNode node, EvaluationState state) throws Exception {
+		int top = state.getTop();
+		state.stage(node);
+		state.setTop(top);
+	}
 }
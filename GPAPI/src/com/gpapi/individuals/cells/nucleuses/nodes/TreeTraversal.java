@@ -0,0 +1,487 @@
+/* ===============================================================
+ * GPAPI : A Genetic-Programming library for the Java(tm) platform
+ * ===============================================================
+ * 
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Project Info:  https://github.com/jrmsayag/gpapi
+ * 
+ * This file is part of GPAPI.
+ * 
+ * This library is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library. If not, see http://www.gnu.org/licenses/.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * ---------------
+ * TreeTraversal.java
+ * ---------------
+ * (C) Copyright 2015-2016, by Jeremy Sayag and Contributors.
+ * 
+ * Original Author:  Jeremy Sayag;
+ * Contributor(s):   ;
+ * 
+ */
+
+
+package com.gpapi.individuals.cells.nucleuses.nodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+
+/**
+ * 
+ * Allocation-free traversals of the trees of nodes, which replace the lists built
+ * by GeneticOperatorInterface.getDescendantNodes().<p>
+ * 
+ * A traversal is performed either with a {@link Cursor}, obtained from preOrder(),
+ * postOrder() or leaves() and used in a try-with-resources statement :
+ * <p>
+ * try(TreeTraversal.Cursor cursor = TreeTraversal.preOrder(root)){<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;for(AbstractNode node = cursor.next(); node != null; node = cursor.next())<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;...<br>
+ * }
+ * <p>
+ * or with a {@link NodeVisitor}, given to one of the forEach methods. The cursors and
+ * their stacks are pooled per thread, so that nested traversals are possible and no
+ * memory is allocated once the pool of the thread is warm.<p>
+ * 
+ * The args of a node are read when the traversal moves past it, not when the node
+ * is reached, so the tree can be modified during a traversal : a node returned by
+ * a pre-order cursor can be replaced in its parent (its subtree is still traversed),
+ * and a node returned by a post-order cursor can have its args changed or be replaced
+ * in its parent (the new nodes are not traversed).
+ * 
+ * @author jeremy
+ * 
+ */
+public final class TreeTraversal {
+	
+	private static final int PRE_ORDER = 0;
+	
+	private static final int POST_ORDER = 1;
+	
+	private static final int LEAVES = 2;
+	
+	
+	private static final ThreadLocal<ArrayDeque<Cursor>> cursorsPools = new ThreadLocal<ArrayDeque<Cursor>>(){
+		@Override
+		protected final ArrayDeque<Cursor> initialValue() {
+			return new ArrayDeque<Cursor>();
+		}
+	};
+	
+	
+	
+	private TreeTraversal(){
+	}
+	
+	
+	/**
+	 * Returns a cursor over the nodes of the given subtree, in pre-order (i.e. each
+	 * node before its args, and the args from the first to the last).
+	 * 
+	 * @param root
+	 * @return
+	 * 			The cursor, which must be closed.
+	 */
+	public static final Cursor preOrder(AbstractNode root){
+		return open(PRE_ORDER).start(root);
+	}
+	/**
+	 * Returns a cursor over the nodes of the given subtrees, in pre-order, one subtree
+	 * after the other.
+	 * 
+	 * @param roots
+	 * @return
+	 * 			The cursor, which must be closed.
+	 */
+	public static final Cursor preOrder(List<? extends AbstractNode> roots){
+		return open(PRE_ORDER).start(roots);
+	}
+	/**
+	 * Returns a cursor over the nodes of the given subtree, in post-order (i.e. each
+	 * node after its args, and the args from the first to the last).
+	 * 
+	 * @param root
+	 * @return
+	 * 			The cursor, which must be closed.
+	 */
+	public static final Cursor postOrder(AbstractNode root){
+		return open(POST_ORDER).start(root);
+	}
+	/**
+	 * Returns a cursor over the nodes of the given subtrees, in post-order, one subtree
+	 * after the other.
+	 * 
+	 * @param roots
+	 * @return
+	 * 			The cursor, which must be closed.
+	 */
+	public static final Cursor postOrder(List<? extends AbstractNode> roots){
+		return open(POST_ORDER).start(roots);
+	}
+	/**
+	 * Returns a cursor over the leaves of the given subtree, from the first to the last.
+	 * 
+	 * @param root
+	 * @return
+	 * 			The cursor, which must be closed.
+	 */
+	public static final Cursor leaves(AbstractNode root){
+		return open(LEAVES).start(root);
+	}
+	/**
+	 * Returns a cursor over the leaves of the given subtrees, one subtree after the other.
+	 * 
+	 * @param roots
+	 * @return
+	 * 			The cursor, which must be closed.
+	 */
+	public static final Cursor leaves(List<? extends AbstractNode> roots){
+		return open(LEAVES).start(roots);
+	}
+	
+	private static final Cursor open(int mode){
+		Cursor cursor = cursorsPools.get().poll();
+		if(cursor == null)
+			cursor = new Cursor();
+		cursor.mode = mode;
+		cursor.open = true;
+		return cursor;
+	}
+	
+	
+	/**
+	 * Visits the nodes of the given subtree in pre-order.
+	 * 
+	 * @param root
+	 * @param visitor
+	 */
+	public static final void forEachPreOrder(AbstractNode root, NodeVisitor<AbstractNode> visitor){
+		try(Cursor cursor = preOrder(root)){
+			cursor.forEach(visitor);
+		}
+	}
+	/**
+	 * Visits the nodes of the given subtree in post-order.
+	 * 
+	 * @param root
+	 * @param visitor
+	 */
+	public static final void forEachPostOrder(AbstractNode root, NodeVisitor<AbstractNode> visitor){
+		try(Cursor cursor = postOrder(root)){
+			cursor.forEach(visitor);
+		}
+	}
+	/**
+	 * Visits the leaves of the given subtree.
+	 * 
+	 * @param root
+	 * @param visitor
+	 */
+	public static final void forEachLeaf(AbstractNode root, NodeVisitor<AbstractNode> visitor){
+		try(Cursor cursor = leaves(root)){
+			cursor.forEach(visitor);
+		}
+	}
+	/**
+	 * Visits the nodes of the given subtree which are instances of the given class,
+	 * in pre-order.
+	 * 
+	 * @param root
+	 * @param type
+	 * @param visitor
+	 */
+	public static final <T> void forEachOfType(AbstractNode root, Class<T> type, NodeVisitor<? super T> visitor){
+		try(Cursor cursor = preOrder(root)){
+			for(T node = cursor.next(type); node != null; node = cursor.next(type))
+				visitor.visit(node);
+		}
+	}
+	/**
+	 * Visits the nodes of the given subtrees which are instances of the given class,
+	 * in pre-order.
+	 * 
+	 * @param roots
+	 * @param type
+	 * @param visitor
+	 */
+	public static final <T> void forEachOfType(List<? extends AbstractNode> roots, Class<T> type, NodeVisitor<? super T> visitor){
+		try(Cursor cursor = preOrder(roots)){
+			for(T node = cursor.next(type); node != null; node = cursor.next(type))
+				visitor.visit(node);
+		}
+	}
+	
+	
+	/**
+	 * Adds the nodes of the given subtree to the given list, in pre-order.
+	 * 
+	 * @param root
+	 * @param nodes
+	 * @return
+	 * 			The given list.
+	 */
+	public static final <L extends List<? super AbstractNode>> L collect(AbstractNode root, L nodes){
+		try(Cursor cursor = preOrder(root)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next())
+				nodes.add(node);
+		}
+		return nodes;
+	}
+	/**
+	 * Adds the nodes of the given subtrees to the given list, in pre-order.
+	 * 
+	 * @param roots
+	 * @param nodes
+	 * @return
+	 * 			The given list.
+	 */
+	public static final <L extends List<? super AbstractNode>> L collect(List<? extends AbstractNode> roots, L nodes){
+		try(Cursor cursor = preOrder(roots)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next())
+				nodes.add(node);
+		}
+		return nodes;
+	}
+	/**
+	 * Returns a new list of the nodes of the given subtree, in pre-order.
+	 * 
+	 * @param root
+	 * @return
+	 * 			The list of the nodes, whose capacity is the size of the subtree.
+	 */
+	public static final ArrayList<AbstractNode> collect(AbstractNode root){
+		return collect(root, new ArrayList<AbstractNode>(root.getSubtreeSize()));
+	}
+	
+	/**
+	 * Returns a new list of the leaves of the given subtree.
+	 * 
+	 * @param root
+	 * @return
+	 * 			The list of the leaves.
+	 */
+	public static final ArrayList<AbstractNode> collectLeaves(AbstractNode root){
+		ArrayList<AbstractNode> leaves = new ArrayList<AbstractNode>();
+		try(Cursor cursor = leaves(root)){
+			for(AbstractNode node = cursor.next(); node != null; node = cursor.next())
+				leaves.add(node);
+		}
+		return leaves;
+	}
+	
+	/**
+	 * Returns the node of the given subtree which is at the given index in pre-order,
+	 * without traversing the subtree, thanks to the cached sizes of the subtrees. This
+	 * allows a node to be chosen uniformly with nodeAt(root, random.nextInt(root.getSubtreeSize())).
+	 * 
+	 * @param root
+	 * @param index
+	 * @return
+	 * 			The node at the given index.
+	 */
+	public static final AbstractNode nodeAt(AbstractNode root, int index){
+		if(index < 0 || index >= root.getSubtreeSize())
+			throw new IndexOutOfBoundsException("index must be between 0 and the size of the subtree!");
+		
+		AbstractNode node = root;
+		while(index > 0){
+			index--;
+			ArrayList<AbstractNode> args = node.getArgs();
+			for(int i = 0; i < args.size(); i++){
+				AbstractNode arg = args.get(i);
+				if(index < arg.getSubtreeSize()){
+					node = arg;
+					break;
+				} else
+					index -= arg.getSubtreeSize();
+			}
+		}
+		return node;
+	}
+	
+	
+	
+	/**
+	 * 
+	 * A visitor of the nodes of a traversal.
+	 * 
+	 * @author jeremy
+	 * 
+	 */
+	public interface NodeVisitor<T> {
+		
+		/**
+		 * Visits the given node.
+		 * 
+		 * @param node
+		 */
+		public void visit(T node);
+	}
+	
+	
+	
+	/**
+	 * 
+	 * A cursor over the nodes of a traversal, which must be closed once the traversal
+	 * is over (it is then returned to the pool of its thread, and must not be used
+	 * anymore). A cursor must not be shared between threads.
+	 * 
+	 * @author jeremy
+	 * 
+	 */
+	public static final class Cursor implements AutoCloseable {
+		
+		private int mode = PRE_ORDER;
+		
+		private boolean open = false;
+		
+		private AbstractNode[] nodes = new AbstractNode[32];
+		
+		private int[] argsIndexes = new int[32];
+		
+		private int top = 0;
+		
+		private AbstractNode pendingNode = null;
+		
+		
+		
+		private Cursor(){
+		}
+		
+		private final Cursor start(AbstractNode root){
+			if(root == null)
+				throw new NullPointerException("Argument root can't be null!");
+			
+			push(root);
+			return this;
+		}
+		private final Cursor start(List<? extends AbstractNode> roots){
+			if(roots == null)
+				throw new NullPointerException("Argument roots can't be null!");
+			
+			for(int i = roots.size() - 1; i >= 0; i--)
+				push(roots.get(i));
+			return this;
+		}
+		
+		
+		/**
+		 * Returns the next node of the traversal.
+		 * 
+		 * @return
+		 * 			The next node, or null if the traversal is over.
+		 */
+		public final AbstractNode next(){
+			if(!open)
+				throw new IllegalStateException("The cursor is closed!");
+			
+			if(mode == PRE_ORDER){
+				if(pendingNode != null){
+					pushArgs(pendingNode);
+					pendingNode = null;
+				}
+				
+				if(top == 0)
+					return null;
+				
+				pendingNode = pop();
+				return pendingNode;
+			} else if(mode == POST_ORDER){
+				while(top > 0){
+					AbstractNode node = nodes[top - 1];
+					int argIndex = argsIndexes[top - 1];
+					if(argIndex < node.getArgs().size()){
+						argsIndexes[top - 1]++;
+						push(node.getArgs().get(argIndex));
+					} else
+						return pop();
+				}
+				return null;
+			} else {
+				while(top > 0){
+					AbstractNode node = pop();
+					if(node.getArgs().isEmpty())
+						return node;
+					else
+						pushArgs(node);
+				}
+				return null;
+			}
+		}
+		/**
+		 * Returns the next node of the traversal which is an instance of the given class.
+		 * 
+		 * @param type
+		 * @return
+		 * 			The next node of the given class, or null if the traversal is over.
+		 */
+		public final <T> T next(Class<T> type){
+			for(AbstractNode node = next(); node != null; node = next()){
+				if(type.isInstance(node))
+					return type.cast(node);
+			}
+			return null;
+		}
+		/**
+		 * Visits the remaining nodes of the traversal.
+		 * 
+		 * @param visitor
+		 */
+		public final void forEach(NodeVisitor<AbstractNode> visitor){
+			for(AbstractNode node = next(); node != null; node = next())
+				visitor.visit(node);
+		}
+		
+		
+		@Override
+		public final void close(){
+			if(open){
+				Arrays.fill(nodes, 0, top, null);
+				top = 0;
+				pendingNode = null;
+				open = false;
+				cursorsPools.get().push(this);
+			}
+		}
+		
+		
+		private final void push(AbstractNode node){
+			if(top == nodes.length){
+				nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+				argsIndexes = Arrays.copyOf(argsIndexes, 2 * argsIndexes.length);
+			}
+			nodes[top] = node;
+			argsIndexes[top] = 0;
+			top++;
+		}
+		private final void pushArgs(AbstractNode node){
+			ArrayList<AbstractNode> args = node.getArgs();
+			for(int i = args.size() - 1; i >= 0; i--)
+				push(args.get(i));
+		}
+		private final AbstractNode pop(){
+			top--;
+			AbstractNode node = nodes[top];
+			nodes[top] = null;
+			return node;
+		}
+	}
+}
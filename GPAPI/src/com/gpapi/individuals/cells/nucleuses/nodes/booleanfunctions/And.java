@@ -42,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
@@ -89,4 +90,11 @@ public final class And extends AbstractNode {
 		
 		return arg0Result.incrementCost(arg1Result.getCost() + 2);
 	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) throws Exception {
+		boolean arg0 = getArgs().get(0).evalBoolean(state);
+		boolean arg1 = getArgs().get(1).evalBoolean(state);
+		state.addCost(2);
+		return arg0 && arg1;
+	}
 }
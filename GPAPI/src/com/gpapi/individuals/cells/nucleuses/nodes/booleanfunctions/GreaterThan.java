@@ -42,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
@@ -95,4 +96,11 @@ public final class GreaterThan extends AbstractNode {
 		
 		return new Result(resultValue, arg0Result.getCost() + arg1Result.getCost() + 2);
 	}
+	@Override
+	public final boolean evalBoolean(EvaluationState state) throws Exception {
+		double arg0 = getArgs().get(0).evalDouble(state);
+		double arg1 = getArgs().get(1).evalDouble(state);
+		state.addCost(2);
+		return arg0 >= arg1;
+	}
 }
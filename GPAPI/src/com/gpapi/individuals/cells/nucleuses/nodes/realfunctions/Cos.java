@@ -42,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
@@ -88,4 +89,10 @@ public final class Cos extends AbstractNode {
 		
 		return result.incrementCost(1);
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) throws Exception {
+		double arg = getArgs().get(0).evalDouble(state);
+		state.addCost(1);
+		return Math.cos(arg);
+	}
 }
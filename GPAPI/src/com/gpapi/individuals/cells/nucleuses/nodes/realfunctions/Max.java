@@ -42,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
 import com.gpapi.individuals.cells.nucleuses.types.Result;
@@ -91,4 +92,11 @@ public final class Max extends AbstractNode {
 		
 		return arg0Result.incrementCost(arg1Result.getCost() + 2);
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) throws Exception {
+		double arg0 = getArgs().get(0).evalDouble(state);
+		double arg1 = getArgs().get(1).evalDouble(state);
+		state.addCost(2);
+		return arg0 < arg1 ? arg1 : arg0;
+	}
 }
@@ -42,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.gpapi.individuals.cells.nucleuses.nodes.AbstractNode;
+import com.gpapi.individuals.cells.nucleuses.nodes.EvaluationState;
 import com.gpapi.individuals.cells.nucleuses.types.AbstractType;
 import com.gpapi.individuals.cells.nucleuses.types.BooleanValue;
 import com.gpapi.individuals.cells.nucleuses.types.RealValue;
@@ -90,4 +91,11 @@ public final class Ternary extends AbstractNode {
 		else
 			return getArgs().get(2).execute().incrementCost(arg0Result.getCost());
 	}
+	@Override
+	public final double evalDouble(EvaluationState state) throws Exception {
+		if(getArgs().get(0).evalBoolean(state))
+			return getArgs().get(1).evalDouble(state);
+		else
+			return getArgs().get(2).evalDouble(state);
+	}
 }
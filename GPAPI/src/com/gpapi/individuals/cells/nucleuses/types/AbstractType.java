@@ -38,6 +38,8 @@
 package com.gpapi.individuals.cells.nucleuses.types;
 
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 
@@ -45,12 +47,43 @@ public abstract class AbstractType implements Serializable {
 	
 	private static final long serialVersionUID = -9069298274517124756L;
 
+	private static final ConcurrentHashMap<Class<?>,Integer> typesIds = new ConcurrentHashMap<Class<?>,Integer>();
+	private static final AtomicInteger typesCount = new AtomicInteger();
+	
+	private transient int typeId = 0;
+	/**
+	 * Returns the identifier of the class of this type, which is interned : all the 
+	 * instances of the same class share the same identifier, and the identifiers are
+	 * small positive integers (attributed in the order the classes are first met), so
+	 * that they can be used as array indices.
+	 * 
+	 * @return
+	 * 			The identifier of the class of this type.
+	 */
+	public final int getTypeId() {
+		int typeId = this.typeId;
+		if(typeId == 0){
+			typeId = typesIds.computeIfAbsent(getClass(), typeClass -> typesCount.incrementAndGet());
+			this.typeId = typeId;
+		}
+		return typeId;
+	}
+	/**
+	 * Returns the greatest identifier attributed so far (see getTypeId()).
+	 * 
+	 * @return
+	 * 			The greatest type identifier.
+	 */
+	public static final int getMaxTypeId() {
+		return typesCount.get();
+	}
+	
 	public abstract void mutate();
 	
 	public abstract AbstractType copy();
 	public abstract AbstractType generateNew();
 	
 	public final boolean isTheSameAs(AbstractType type){
-		return type != null && getClass().equals(type.getClass());
+		return type != null && getTypeId() == type.getTypeId();
 	}
 }